@@ -19,5 +19,24 @@ pipeline {
                 sh 'mvn test'
             }
         }
+
+        stage('Reactive orders') {
+            steps {
+                sh 'mvn install -DskipTests'
+                sh 'mvn -f reactive-orders/pom.xml clean verify'
+            }
+        }
+
+        stage('Virtual threads') {
+            agent {
+                docker {
+                    image 'maven:3.9.5-eclipse-temurin-21'
+                    reuseNode true
+                }
+            }
+            steps {
+                sh 'mvn -Pvirtual-threads clean verify'
+            }
+        }
     }
 }
\ No newline at end of file
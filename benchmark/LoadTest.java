@@ -0,0 +1,152 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator comparing endpoints of the application, runs on the JDK alone:
+ * <pre>
+ * java benchmark/LoadTest.java URL [--concurrency=200] [--seconds=20] [--warmup=5] [--ids=1000] [--accept=TYPE]
+ *                                  [--metrics=http://localhost:8080]
+ * </pre>
+ * Every client sends its next request as soon as the previous response is read completely. An {id} in the url is
+ * replaced per request by a random id from 1 to --ids. With --metrics the peak of live threads reported by the
+ * actuator of the application is printed as well. Prints one row of the results table of benchmark/RESULTS.md.
+ */
+public class LoadTest {
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.E]+)");
+
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> options = parseOptions(args);
+        final String url = args[0];
+        final int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        final int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+        final int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        final int ids = Integer.parseInt(options.getOrDefault("ids", "1000"));
+        final String accept = options.getOrDefault("accept", "application/json");
+        final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        run(client, url, accept, ids, concurrency, warmup);
+        final Result result = run(client, url, accept, ids, concurrency, seconds);
+
+        final String peakThreads = options.containsKey("metrics")
+                ? readMetric(client, options.get("metrics") + "/actuator/metrics/jvm.threads.peak")
+                : "-";
+        System.out.printf("| %s | %d | %.0f | %.1f | %.1f | %.1f | %.1f | %d | %s |%n",
+                url, concurrency, result.requests / (double) seconds,
+                result.percentile(0.50), result.percentile(0.90), result.percentile(0.99), result.percentile(1.0),
+                result.failures(), peakThreads);
+        System.out.println("status codes: " + result.statusCodes);
+    }
+
+    private static Result run(final HttpClient client, final String url, final String accept, final int ids,
+                              final int concurrency, final int seconds) throws Exception {
+        final long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        final ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        final List<Future<long[]>> latencies = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            latencies.add(clients.submit(() -> {
+                long[] clientLatencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < end) {
+                    final String requestUrl = url.replace("{id}",
+                            Integer.toString(ThreadLocalRandom.current().nextInt(1, ids + 1)));
+                    final HttpRequest request = HttpRequest.newBuilder(URI.create(requestUrl))
+                            .header("Accept", accept)
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                    final long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    if (count == clientLatencies.length) {
+                        clientLatencies = Arrays.copyOf(clientLatencies, count * 2);
+                    }
+                    clientLatencies[count++] = System.nanoTime() - start;
+                    statusCodes.computeIfAbsent(status, code -> new LongAdder()).increment();
+                }
+                return Arrays.copyOf(clientLatencies, count);
+            }));
+        }
+        long[] all = new long[0];
+        for (Future<long[]> clientLatencies : latencies) {
+            final long[] latenciesOfClient = clientLatencies.get();
+            final int from = all.length;
+            all = Arrays.copyOf(all, from + latenciesOfClient.length);
+            System.arraycopy(latenciesOfClient, 0, all, from, latenciesOfClient.length);
+        }
+        clients.shutdown();
+        Arrays.sort(all);
+        final Map<Integer, Long> codes = new TreeMap<>();
+        statusCodes.forEach((code, count) -> codes.put(code, count.sum()));
+        return new Result(all, codes);
+    }
+
+    private static String readMetric(final HttpClient client, final String metricUrl) throws Exception {
+        final String body = client.send(HttpRequest.newBuilder(URI.create(metricUrl)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        final Matcher value = METRIC_VALUE.matcher(body);
+        return value.find() ? Long.toString(Math.round(Double.parseDouble(value.group(1)))) : "-";
+    }
+
+    private static Map<String, String> parseOptions(final String[] args) {
+        final Map<String, String> options = new TreeMap<>();
+        for (int i = 1; i < args.length; i++) {
+            final String[] option = args[i].replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        return options;
+    }
+
+    private static final class Result {
+        private final long[] sortedLatencies;
+        private final Map<Integer, Long> statusCodes;
+        private final long requests;
+
+        private Result(final long[] sortedLatencies, final Map<Integer, Long> statusCodes) {
+            this.sortedLatencies = sortedLatencies;
+            this.statusCodes = statusCodes;
+            this.requests = sortedLatencies.length;
+        }
+
+        /**
+         * In milliseconds, 1.0 is the slowest request
+         */
+        private double percentile(final double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            final int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        private long failures() {
+            return statusCodes.entrySet().stream()
+                    .filter(code -> code.getKey() < 200 || code.getKey() >= 400)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+-- Data set of the benchmarks, loaded into an empty schema migrated by the application:
+-- 1000 customers with an address each and 100000 orders, 100 orders per day from 2023-01-01 on, order ids 1 to 100000
+INSERT INTO addresses (id, street, city)
+SELECT id, 'Street ' || id, 'City ' || (id % 50)
+FROM generate_series(1, 1000) AS id;
+
+INSERT INTO customers (id, first_name, last_name, address_id)
+SELECT id, 'First ' || id, 'Last ' || id, id
+FROM generate_series(1, 1000) AS id;
+
+-- Hibernate allocates ids in pools of 50 past the inserted ones
+SELECT setval('addresses_seq', 1001);
+SELECT setval('customers_seq', 1001);
+
+INSERT INTO orders (date, amount, customer_id)
+SELECT TIMESTAMP '2023-01-01' + (n - 1) * INTERVAL '864 seconds', 1 + (n % 10000) / 100.0, 1 + (n % 1000)
+FROM generate_series(1, 100000) AS n;
+
+INSERT INTO customer_order_stats (customer_id, order_count, total_amount, min_amount, max_amount, last_order_date)
+SELECT customer_id, COUNT(*), SUM(amount), MIN(amount), MAX(amount), MAX(date)
+FROM orders
+GROUP BY customer_id;
+
+ANALYZE;
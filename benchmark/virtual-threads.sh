@@ -0,0 +1,43 @@
+#!/bin/bash
+# Runs the platform and virtual thread comparison of RESULTS.md against the application built with
+# mvn -Pvirtual-threads package, from the root of the repository with the database of docker-compose.yml:
+#   benchmark/virtual-threads.sh platform|virtual normal|slow
+set -e
+case $1 in
+  platform) ARGS="" ;;
+  virtual) ARGS="--spring.threads.virtual.enabled=true" ;;
+  *) echo "usage: $0 platform|virtual normal|slow" >&2; exit 1 ;;
+esac
+
+java -Xmx768m -jar target/primary-customer-base-0.0.1-SNAPSHOT-exec.jar $ARGS > target/benchmark-$1-$2.log 2>&1 &
+APP=$!
+trap 'kill $APP' EXIT
+until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 1; done
+
+case $2 in
+  normal)
+    java benchmark/LoadTest.java "http://localhost:8080/orders/{id}" --ids=100000 --concurrency=100 \
+        --metrics=http://localhost:8080
+    kill $APP; wait $APP || true
+    java -Xmx768m -jar target/primary-customer-base-0.0.1-SNAPSHOT-exec.jar $ARGS >> target/benchmark-$1-$2.log 2>&1 &
+    APP=$!
+    until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 1; done
+    java benchmark/LoadTest.java "http://localhost:8080/customers/{id}" --ids=1000 --concurrency=100 \
+        --metrics=http://localhost:8080
+    ;;
+  slow)
+    java benchmark/LoadTest.java "http://localhost:8080/orders/{id}" --ids=100000 --concurrency=200 \
+        > target/benchmark-$1-orders.txt &
+    ORDERS=$!
+    # after the warm-up the orders table stays locked for 15 of the 20 measured seconds
+    (sleep 8; docker exec postgres-customer-base psql -U admin customer-base \
+        -c "BEGIN; LOCK TABLE orders IN ACCESS EXCLUSIVE MODE; SELECT pg_sleep(15); ROLLBACK;" > /dev/null) &
+    LOCK=$!
+    java benchmark/LoadTest.java "http://localhost:8080/customers/{id}" --ids=1000 --concurrency=50 \
+        --metrics=http://localhost:8080
+    wait $ORDERS
+    cat target/benchmark-$1-orders.txt
+    wait $LOCK
+    ;;
+  *) echo "usage: $0 platform|virtual normal|slow" >&2; exit 1 ;;
+esac
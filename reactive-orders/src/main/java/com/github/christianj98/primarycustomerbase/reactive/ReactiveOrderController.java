@@ -0,0 +1,70 @@
+package com.github.christianj98.primarycustomerbase.reactive;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.service.EntityTags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Reads of orders with the paths and bodies of the servlet application, served on WebFlux without a thread per
+ * request. The orders are streamed as newline-delimited JSON, the next rows are read once the previous ones are
+ * written to the client.
+ */
+@Slf4j
+@RestController
+@RequestMapping(path = "/orders")
+@RequiredArgsConstructor
+public class ReactiveOrderController {
+    // stand in for missing bounds of the date range, as in the servlet application
+    static final LocalDateTime EARLIEST_ORDER_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    static final LocalDateTime LATEST_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final ReactiveOrderReader reactiveOrderReader;
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderDto> findAllOrders(@RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                        LocalDateTime from,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                        LocalDateTime to) {
+        return reactiveOrderReader.findAllDatedBetween(isNull(from) ? EARLIEST_ORDER_DATE : from,
+                isNull(to) ? LATEST_ORDER_DATE : to);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<OrderDto>> findById(@PathVariable final int id) {
+        return reactiveOrderReader.findById(id)
+                .map(orderDto -> ResponseEntity.ok().eTag(EntityTags.of(orderDto)).body(orderDto))
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(
+                        String.format("Order not found with given id: %s", id))));
+    }
+
+    @ExceptionHandler(OrderNotFoundException.class)
+    public ResponseEntity<String> handleOrderNotFoundException(final OrderNotFoundException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    static class OrderNotFoundException extends RuntimeException {
+        OrderNotFoundException(final String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.christianj98.primarycustomerbase.reactive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for streaming orders, the connection pool is configured with spring.r2dbc
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.reactive")
+public class ReactiveOrderProperties {
+    /**
+     * Rows fetched from the database cursor per demand of the subscriber, bounds the rows buffered per request
+     */
+    private int fetchSize = 256;
+}
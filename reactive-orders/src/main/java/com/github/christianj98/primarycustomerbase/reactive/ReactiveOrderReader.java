@@ -0,0 +1,121 @@
+package com.github.christianj98.primarycustomerbase.reactive;
+
+import com.github.christianj98.primarycustomerbase.archive.ArchivedOrder;
+import com.github.christianj98.primarycustomerbase.archive.OrderArchive;
+import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.mapper.CustomerMapperService;
+import com.github.christianj98.primarycustomerbase.mapper.OrderMapperService;
+import com.github.christianj98.primarycustomerbase.projection.CustomerView;
+import com.github.christianj98.primarycustomerbase.projection.OrderView;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Reads orders over R2DBC with the rows and mapping of the blocking {@code OrderService} of the servlet application:
+ * orders joined with their customer and address, ordered by date and id, mapped into the same {@link OrderDto}.
+ * Rows are fetched from a database cursor orders.reactive.fetch-size at a time as the subscriber asks for them, a
+ * slow client holds back the query instead of making the rows pile up in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReactiveOrderReader {
+    static final String SELECT_ORDER_VIEW = "SELECT o.id, o.date, o.amount, o.version, "
+            + "c.id AS customer_id, c.first_name, c.last_name, c.version AS customer_version, "
+            + "a.id AS address_id, a.street, a.city, a.version AS address_version "
+            + "FROM orders o JOIN customers c ON c.id = o.customer_id JOIN addresses a ON a.id = c.address_id ";
+    static final String SELECT_ORDERS_DATED_BETWEEN = SELECT_ORDER_VIEW
+            + "WHERE o.date >= $1 AND o.date < $2 ORDER BY o.date, o.id";
+    static final String SELECT_ORDER_BY_ID = SELECT_ORDER_VIEW + "WHERE o.id = $1";
+    static final String SELECT_CUSTOMER_VIEW_BY_ID = "SELECT c.id AS customer_id, c.first_name, c.last_name, "
+            + "c.version AS customer_version, a.id AS address_id, a.street, a.city, a.version AS address_version "
+            + "FROM customers c JOIN addresses a ON a.id = c.address_id WHERE c.id = $1";
+
+    private final DatabaseClient databaseClient;
+    private final OrderMapperService orderMapperService;
+    private final CustomerMapperService customerMapperService;
+    private final OrderArchive orderArchive;
+    private final ReactiveOrderProperties reactiveOrderProperties;
+
+    /**
+     * Streams the orders dated from the given date inclusive to the other one exclusive
+     */
+    public Flux<OrderDto> findAllDatedBetween(final LocalDateTime from, final LocalDateTime to) {
+        return databaseClient.sql(SELECT_ORDERS_DATED_BETWEEN)
+                .filter(statement -> statement.fetchSize(reactiveOrderProperties.getFetchSize()))
+                .bind(0, from)
+                .bind(1, to)
+                .map(ReactiveOrderReader::readOrderView)
+                .all()
+                .map(orderMapperService::mapFrom);
+    }
+
+    /**
+     * Orders moved out of the orders table are looked up in the archive, whose blocking file reads run on the
+     * bounded elastic scheduler
+     */
+    public Mono<OrderDto> findById(final int id) {
+        return databaseClient.sql(SELECT_ORDER_BY_ID)
+                .bind(0, id)
+                .map(ReactiveOrderReader::readOrderView)
+                .one()
+                .map(orderMapperService::mapFrom)
+                .switchIfEmpty(Mono.fromCallable(() -> orderArchive.findById(id))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(Mono::justOrEmpty)
+                        .flatMap(this::mapArchivedOrder));
+    }
+
+    private Mono<OrderDto> mapArchivedOrder(final ArchivedOrder archivedOrder) {
+        final Mono<Optional<CustomerDto>> customer = isNull(archivedOrder.getCustomerId())
+                ? Mono.just(Optional.empty())
+                : databaseClient.sql(SELECT_CUSTOMER_VIEW_BY_ID)
+                .bind(0, archivedOrder.getCustomerId())
+                .map(ReactiveOrderReader::readCustomerView)
+                .one()
+                .map(customerView -> Optional.of(customerMapperService.mapFrom(customerView)))
+                .defaultIfEmpty(Optional.empty());
+        return customer.map(customerDto -> {
+            final OrderDto orderDto = orderMapperService.mapFrom(archivedOrder, null);
+            orderDto.setCustomerDto(customerDto.orElse(null));
+            return orderDto;
+        });
+    }
+
+    private static OrderView readOrderView(final Row row) {
+        return new OrderView(row.get("id", Integer.class),
+                row.get("date", LocalDateTime.class),
+                row.get("amount", BigDecimal.class),
+                row.get("version", Long.class),
+                row.get("customer_id", Integer.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("customer_version", Long.class),
+                row.get("address_id", Integer.class),
+                row.get("street", String.class),
+                row.get("city", String.class),
+                row.get("address_version", Long.class));
+    }
+
+    private static CustomerView readCustomerView(final Row row) {
+        return new CustomerView(row.get("customer_id", Integer.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("customer_version", Long.class),
+                row.get("address_id", Integer.class),
+                row.get("street", String.class),
+                row.get("city", String.class),
+                row.get("address_version", Long.class));
+    }
+}
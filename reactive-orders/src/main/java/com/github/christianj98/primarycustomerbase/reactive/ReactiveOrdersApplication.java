@@ -0,0 +1,28 @@
+package com.github.christianj98.primarycustomerbase.reactive;
+
+import com.github.christianj98.primarycustomerbase.archive.OrderArchive;
+import com.github.christianj98.primarycustomerbase.configuration.OrderArchiveProperties;
+import com.github.christianj98.primarycustomerbase.mapper.AddressMapperService;
+import com.github.christianj98.primarycustomerbase.mapper.CustomerMapperService;
+import com.github.christianj98.primarycustomerbase.mapper.OrderMapperService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Reads of orders on WebFlux and R2DBC, run next to the servlet application against the same database. Only this
+ * package is scanned, the mapping and the archive of the servlet application are imported one by one.
+ */
+@SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableConfigurationProperties(OrderArchiveProperties.class)
+@Import({OrderMapperService.class, CustomerMapperService.class, AddressMapperService.class, OrderArchive.class})
+public class ReactiveOrdersApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveOrdersApplication.class, args);
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.github.christianj98.primarycustomerbase.reactive;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class with integration tests for {@link ReactiveOrderController}
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@ActiveProfiles("integration")
+public class ReactiveOrderControllerIntegrationTest {
+    private static final String ORDERS_URI = "/orders";
+    private static final String ORDERS_URI_WITH_ID = "/orders/{id}";
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2020, 2, 1, 10, 30);
+    private static final int CUSTOMER_ID = 1;
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    public void init() {
+        databaseClient.sql("INSERT INTO addresses (id, street, city, version) VALUES (1, 'Polna', 'Warszawa', 3)")
+                .then()
+                .then(databaseClient.sql("INSERT INTO customers (id, first_name, last_name, address_id, version) "
+                        + "VALUES (:id, 'Jan', 'Kowalski', 1, 1)")
+                        .bind("id", CUSTOMER_ID)
+                        .then())
+                .block();
+    }
+
+    @Test
+    @DisplayName("Orders are streamed as newline-delimited JSON ordered by date, with their customer and address")
+    public void findAllOrders_ordersStreamedByDate() {
+        // given
+        saveOrder(ORDER_DATE.plusDays(2), "20.00");
+        final int firstOrderId = saveOrder(ORDER_DATE, "10.50");
+        saveOrder(ORDER_DATE.plusDays(1), "20.00");
+
+        // when
+        final List<OrderDto> orders = webTestClient.get()
+                .uri(ORDERS_URI)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(OrderDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // then
+        assertThat(orders).extracting(OrderDto::getDate)
+                .containsExactly(ORDER_DATE, ORDER_DATE.plusDays(1), ORDER_DATE.plusDays(2));
+        assertThat(orders.get(0).getOrderId()).isEqualTo(firstOrderId);
+        assertThat(orders.get(0).getAmount()).isEqualByComparingTo("10.50");
+        assertThat(orders.get(0).getCustomerDto().getFirstName()).isEqualTo("Jan");
+        assertThat(orders.get(0).getCustomerDto().getAddressDto().getStreet()).isEqualTo("Polna");
+    }
+
+    @Test
+    @DisplayName("Only orders dated from (inclusive) to (exclusive) are streamed")
+    public void findAllOrders_dateRange_ordersInRangeStreamed() {
+        // given
+        saveOrder(ORDER_DATE.minusDays(1), "20.00");
+        final int orderInRangeId = saveOrder(ORDER_DATE, "20.00");
+        saveOrder(ORDER_DATE.plusDays(1), "20.00");
+
+        // when
+        final List<OrderDto> orders = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(ORDERS_URI)
+                        .queryParam("from", ORDER_DATE.toString())
+                        .queryParam("to", ORDER_DATE.plusDays(1).toString())
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(OrderDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // then
+        assertThat(orders).extracting(OrderDto::getOrderId).containsExactly(orderInRangeId);
+    }
+
+    @Test
+    @DisplayName("Order found by id carries the entity tag of the servlet application")
+    public void findById_orderWithEntityTag() {
+        // given
+        final int orderId = saveOrder(ORDER_DATE, "20.00");
+        databaseClient.sql("UPDATE orders SET version = 2 WHERE id = :id").bind("id", orderId).then().block();
+
+        // when + then
+        webTestClient.get()
+                .uri(ORDERS_URI_WITH_ID, orderId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2-1-3\"")
+                .expectBody()
+                .jsonPath("$.orderId").isEqualTo(orderId)
+                .jsonPath("$.date").isEqualTo("2020-02-01T10:30:00")
+                .jsonPath("$.amount").isEqualTo(20.0)
+                .jsonPath("$.customerDto.lastName").isEqualTo("Kowalski")
+                .jsonPath("$.version").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Unknown order is not found")
+    public void findById_orderNotExist_notFound() {
+        // when + then
+        webTestClient.get()
+                .uri(ORDERS_URI_WITH_ID, 1000)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Order not found with given id: 1000");
+    }
+
+    private int saveOrder(final LocalDateTime date, final String amount) {
+        return databaseClient.sql("INSERT INTO orders (date, amount, customer_id) VALUES (:date, :amount, :customerId)")
+                .bind("date", date)
+                .bind("amount", new BigDecimal(amount))
+                .bind("customerId", CUSTOMER_ID)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .block();
+    }
+}
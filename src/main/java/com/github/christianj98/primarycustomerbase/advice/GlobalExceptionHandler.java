@@ -1,8 +1,14 @@
 package com.github.christianj98.primarycustomerbase.advice;
 
 import com.github.christianj98.primarycustomerbase.exception.AddressAssignedToTheCustomerException;
+import com.github.christianj98.primarycustomerbase.exception.InvalidCursorException;
+import com.github.christianj98.primarycustomerbase.exception.InvalidPatchException;
+import com.github.christianj98.primarycustomerbase.exception.PreconditionFailedException;
 import com.github.christianj98.primarycustomerbase.exception.ResourceAlreadyExistsException;
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -11,9 +17,13 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import javax.persistence.EntityNotFoundException;
 import javax.validation.ConstraintViolationException;
 
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CONCURRENT_MODIFICATION_ERROR;
+
 @ControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
+    static final String RETRY_AFTER_SECONDS = "1";
+
     @ExceptionHandler(ResourceAlreadyExistsException.class)
     public ResponseEntity<Void> handleResourceAlreadyExistsException(ResourceAlreadyExistsException e) {
         log.warn(e.getMessage());
@@ -37,4 +47,42 @@ public class GlobalExceptionHandler {
         log.warn(e.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<String> handleInvalidPatchException(InvalidPatchException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailedException(PreconditionFailedException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+
+    /**
+     * A write without If-Match lost the race against another write of the same row
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(CONCURRENT_MODIFICATION_ERROR.getMessage());
+    }
+
+    /**
+     * A bounded queue or pool is full, the client is asked to back off instead of the backlog growing
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<String> handleServiceOverloadedException(ServiceOverloadedException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(e.getMessage());
+    }
 }
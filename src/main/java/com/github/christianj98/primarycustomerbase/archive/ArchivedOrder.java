@@ -0,0 +1,18 @@
+package com.github.christianj98.primarycustomerbase.archive;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order moved out of the orders table into the archive, the customer is referenced by id only
+ */
+@Value
+public class ArchivedOrder {
+    int id;
+    LocalDateTime date;
+    BigDecimal amount;
+    Integer customerId;
+    long version;
+}
@@ -0,0 +1,155 @@
+package com.github.christianj98.primarycustomerbase.archive;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.christianj98.primarycustomerbase.configuration.OrderArchiveProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Segment files of archived orders in a directory, possibly shared with other instances. The headers of all segments
+ * are read on startup, so a lookup by id decodes only the segments whose id range covers the id. A lookup that finds
+ * nothing looks for segments appended by other instances since, before it gives up. Decoded segments are cached, a
+ * repeated lookup in the same segment is a binary search in memory.
+ */
+@Slf4j
+@Component
+public class OrderArchive {
+    private final OrderArchiveProperties orderArchiveProperties;
+    private final List<OrderSegment.Header> segments = new CopyOnWriteArrayList<>();
+    private final Set<Path> knownFiles = ConcurrentHashMap.newKeySet();
+    private final LoadingCache<Path, OrderSegment> decodedSegments;
+
+    public OrderArchive(final OrderArchiveProperties orderArchiveProperties) {
+        this.orderArchiveProperties = orderArchiveProperties;
+        this.decodedSegments = Caffeine.newBuilder()
+                .maximumWeight(orderArchiveProperties.getCachedOrders())
+                .<Path, OrderSegment>weigher((file, segment) -> segment.size())
+                .build(OrderArchive::decode);
+        final int found = loadNewHeaders();
+        log.info("Found {} order archive segments in {}", found, orderArchiveProperties.getDirectory());
+    }
+
+    public Optional<ArchivedOrder> findById(final int id) {
+        return Optional.ofNullable(findAllById(Set.of(id)).get(id));
+    }
+
+    /**
+     * Looks up all ids in one pass over the segments, every segment covering one of them is decoded once, and
+     * looks for new segments at most once for all ids not found
+     *
+     * @return the archived orders found, by id
+     */
+    public Map<Integer, ArchivedOrder> findAllById(final Collection<Integer> ids) {
+        final Set<Integer> missingIds = new HashSet<>(ids);
+        final Map<Integer, ArchivedOrder> orders = new HashMap<>();
+        findInKnownSegments(missingIds, orders);
+        if (!missingIds.isEmpty() && loadNewHeaders() > 0) {
+            findInKnownSegments(missingIds, orders);
+        }
+        return orders;
+    }
+
+    /**
+     * Moves every id found from the missing ids into the orders
+     */
+    private void findInKnownSegments(final Set<Integer> missingIds, final Map<Integer, ArchivedOrder> orders) {
+        for (OrderSegment.Header segment : segments) {
+            if (missingIds.isEmpty()) {
+                return;
+            }
+            OrderSegment decodedSegment = null;
+            for (Iterator<Integer> missingId = missingIds.iterator(); missingId.hasNext(); ) {
+                final int id = missingId.next();
+                if (!segment.mayContain(id)) {
+                    continue;
+                }
+                if (isNull(decodedSegment)) {
+                    decodedSegment = decodedSegments.get(segment.getFile());
+                }
+                final Optional<ArchivedOrder> order = decodedSegment.find(id);
+                if (order.isPresent()) {
+                    orders.put(id, order.get());
+                    missingId.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the orders of the month into a new segment, the file is complete and synced once this returns
+     *
+     * @param orders sorted by id
+     */
+    public void append(final YearMonth month, final List<ArchivedOrder> orders) {
+        final Path directory = orderArchiveProperties.getDirectory();
+        final Path file = directory.resolve(String.format("orders-%s-%d%s",
+                month, Instant.now().toEpochMilli(), OrderSegment.FILE_SUFFIX));
+        try {
+            Files.createDirectories(directory);
+            OrderSegment.write(file, orders);
+            addHeader(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Segments are moved into the directory once complete, so every listed segment can be read
+     *
+     * @return number of segments not known before
+     */
+    private synchronized int loadNewHeaders() {
+        final Path directory = orderArchiveProperties.getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int found = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + OrderSegment.FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (!knownFiles.contains(file)) {
+                    addHeader(file);
+                    found++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return found;
+    }
+
+    private synchronized void addHeader(final Path file) throws IOException {
+        if (!knownFiles.contains(file)) {
+            segments.add(OrderSegment.readHeader(file));
+            knownFiles.add(file);
+        }
+    }
+
+    private static OrderSegment decode(final Path file) {
+        try {
+            return OrderSegment.read(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
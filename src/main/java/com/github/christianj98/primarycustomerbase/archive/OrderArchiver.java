@@ -0,0 +1,104 @@
+package com.github.christianj98.primarycustomerbase.archive;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderArchiveProperties;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
+import com.github.christianj98.primarycustomerbase.repository.CustomerOrderStatsRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderArchiveRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Moves the orders of months which ended at least orders.archive.min-age ago out of the orders table into the
+ * archive, one month per transaction. The orders are deleted first and their segment is synced before the
+ * transaction commits: a failed commit leaves the orders in the table and a segment which repeats them, but never
+ * loses an order. The emptied partition of the month is dropped afterwards.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "orders.archive", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class OrderArchiver {
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderPartitionRepository orderPartitionRepository;
+    private final CustomerOrderStatsRepository customerOrderStatsRepository;
+    private final OrderArchive orderArchive;
+    private final EntityChangePublisher entityChangePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderArchiveProperties orderArchiveProperties;
+
+    @Scheduled(initialDelayString = "${orders.archive.initial-delay}",
+            fixedDelayString = "${orders.archive.interval}")
+    public void archiveOnSchedule() {
+        try {
+            archiveOldOrders();
+        } catch (RuntimeException e) {
+            log.warn("Archiving old orders failed, retrying with the next run", e);
+        }
+    }
+
+    /**
+     * @return number of archived orders
+     */
+    public int archiveOldOrders() {
+        final YearMonth firstKeptMonth = YearMonth.from(LocalDate.now().minus(orderArchiveProperties.getMinAge()));
+        final Optional<LocalDateTime> earliestDate =
+                orderArchiveRepository.findEarliestDateBefore(firstKeptMonth.atDay(1).atStartOfDay());
+        if (earliestDate.isEmpty()) {
+            return 0;
+        }
+        int archivedOrders = 0;
+        for (YearMonth month = YearMonth.from(earliestDate.get());
+             month.isBefore(firstKeptMonth);
+             month = month.plusMonths(1)) {
+            archivedOrders += archiveMonth(month);
+        }
+        log.info("Archived {} orders dated before {}", archivedOrders, firstKeptMonth);
+        return archivedOrders;
+    }
+
+    private int archiveMonth(final YearMonth month) {
+        final Integer archivedOrders = transactionTemplate.execute(status -> {
+            final List<ArchivedOrder> orders = orderArchiveRepository.deleteDatedBetween(
+                    month.atDay(1).atStartOfDay(),
+                    month.plusMonths(1).atDay(1).atStartOfDay());
+            if (orders.isEmpty()) {
+                return 0;
+            }
+            orderArchive.append(month, orders);
+            customerOrderStatsRepository.removeAll(summarize(orders));
+            entityChangePublisher.publish(EntityType.ORDER, orders.stream()
+                    .map(ArchivedOrder::getId)
+                    .collect(Collectors.toList()));
+            return orders.size();
+        });
+        orderPartitionRepository.dropPartitionIfEmpty(month);
+        return isNull(archivedOrders) ? 0 : archivedOrders;
+    }
+
+    private static List<OrderSummaryDto> summarize(final List<ArchivedOrder> orders) {
+        return new ArrayList<>(orders.stream()
+                .filter(order -> nonNull(order.getCustomerId()))
+                .collect(Collectors.toMap(ArchivedOrder::getCustomerId,
+                        order -> OrderSummaryDto.ofOrder(order.getCustomerId(), order.getAmount(), order.getDate()),
+                        OrderSummaryDto::combine))
+                .values());
+    }
+}
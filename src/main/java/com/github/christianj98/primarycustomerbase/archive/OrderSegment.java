@@ -0,0 +1,265 @@
+package com.github.christianj98.primarycustomerbase.archive;
+
+import lombok.Value;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Immutable file of archived orders sorted by id. The orders are stored column by column, every column holds the
+ * zigzag varint deltas between consecutive orders and is deflated on its own. Orders are mostly created in date
+ * order, so consecutive ids, dates and amounts differ by little and most deltas take one or two bytes before
+ * compression.
+ * <pre>
+ * int magic, byte format version, int order count, int min id, int max id,
+ * per column (id, date, amount, customer id, version): int raw length, int deflated length, deflated bytes
+ * </pre>
+ */
+final class OrderSegment {
+    static final int MAGIC = 0x4F534547;
+    static final byte FORMAT_VERSION = 1;
+    static final String FILE_SUFFIX = ".seg";
+    // orders.amount is NUMERIC(19, 2), amounts are stored as whole cents
+    private static final int AMOUNT_SCALE = 2;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    private final int[] ids;
+    private final long[] dates;
+    private final long[] amounts;
+    private final int[] customerIds;
+    private final long[] versions;
+
+    private OrderSegment(final int orders) {
+        ids = new int[orders];
+        dates = new long[orders];
+        amounts = new long[orders];
+        customerIds = new int[orders];
+        versions = new long[orders];
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    Optional<ArchivedOrder> find(final int id) {
+        final int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new ArchivedOrder(ids[index],
+                toDate(dates[index]),
+                BigDecimal.valueOf(amounts[index], AMOUNT_SCALE),
+                customerIds[index] == 0 ? null : customerIds[index],
+                versions[index]));
+    }
+
+    /**
+     * Writes the orders sorted by id into a temporary file which is synced and then renamed, so a crash never
+     * leaves a partial segment behind
+     */
+    static void write(final Path file, final List<ArchivedOrder> orders) throws IOException {
+        final ColumnWriter idColumn = new ColumnWriter(orders.size());
+        final ColumnWriter dateColumn = new ColumnWriter(orders.size());
+        final ColumnWriter amountColumn = new ColumnWriter(orders.size());
+        final ColumnWriter customerIdColumn = new ColumnWriter(orders.size());
+        final ColumnWriter versionColumn = new ColumnWriter(orders.size());
+        for (ArchivedOrder order : orders) {
+            idColumn.append(order.getId());
+            dateColumn.append(toMicros(order.getDate()));
+            amountColumn.append(order.getAmount().setScale(AMOUNT_SCALE).unscaledValue().longValueExact());
+            customerIdColumn.append(isNull(order.getCustomerId()) ? 0 : order.getCustomerId());
+            versionColumn.append(order.getVersion());
+        }
+        final Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(temporaryFile.toFile())) {
+            final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+            data.writeInt(MAGIC);
+            data.writeByte(FORMAT_VERSION);
+            data.writeInt(orders.size());
+            data.writeInt(orders.isEmpty() ? 0 : orders.get(0).getId());
+            data.writeInt(orders.isEmpty() ? 0 : orders.get(orders.size() - 1).getId());
+            for (ColumnWriter column : List.of(idColumn, dateColumn, amountColumn, customerIdColumn, versionColumn)) {
+                column.writeTo(data);
+            }
+            data.flush();
+            output.getFD().sync();
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel directory = FileChannel.open(file.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+    }
+
+    static Header readHeader(final Path file) throws IOException {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file), 32)) {
+            return readHeader(file, new DataInputStream(input));
+        }
+    }
+
+    static OrderSegment read(final Path file) throws IOException {
+        final DataInputStream data = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)));
+        final Header header = readHeader(file, data);
+        final OrderSegment segment = new OrderSegment(header.getOrders());
+        final ColumnReader idColumn = ColumnReader.readFrom(data);
+        final ColumnReader dateColumn = ColumnReader.readFrom(data);
+        final ColumnReader amountColumn = ColumnReader.readFrom(data);
+        final ColumnReader customerIdColumn = ColumnReader.readFrom(data);
+        final ColumnReader versionColumn = ColumnReader.readFrom(data);
+        for (int index = 0; index < header.getOrders(); index++) {
+            segment.ids[index] = (int) idColumn.next();
+            segment.dates[index] = dateColumn.next();
+            segment.amounts[index] = amountColumn.next();
+            segment.customerIds[index] = (int) customerIdColumn.next();
+            segment.versions[index] = versionColumn.next();
+        }
+        return segment;
+    }
+
+    private static Header readHeader(final Path file, final DataInputStream data) throws IOException {
+        if (data.readInt() != MAGIC) {
+            throw new IOException(String.format("%s is not an order segment", file));
+        }
+        final byte formatVersion = data.readByte();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException(String.format("%s has unsupported format version %d", file, formatVersion));
+        }
+        return new Header(file, data.readInt(), data.readInt(), data.readInt());
+    }
+
+    private static long toMicros(final LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + date.getNano() / NANOS_PER_MICRO;
+    }
+
+    private static LocalDateTime toDate(final long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * NANOS_PER_MICRO,
+                ZoneOffset.UTC);
+    }
+
+    /**
+     * Id range and size of a segment, read without decoding its columns
+     */
+    @Value
+    static class Header {
+        Path file;
+        int orders;
+        int minId;
+        int maxId;
+
+        boolean mayContain(final int id) {
+            return orders > 0 && id >= minId && id <= maxId;
+        }
+    }
+
+    private static final class ColumnWriter {
+        private final ByteArrayOutputStream bytes;
+        private long previous;
+
+        private ColumnWriter(final int values) {
+            bytes = new ByteArrayOutputStream(values * 2 + 16);
+        }
+
+        private void append(final long value) {
+            final long delta = value - previous;
+            long zigzag = (delta << 1) ^ (delta >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                bytes.write((int) (zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            bytes.write((int) zigzag);
+            previous = value;
+        }
+
+        private void writeTo(final DataOutputStream data) throws IOException {
+            final byte[] raw = bytes.toByteArray();
+            final Deflater deflater = new Deflater();
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+                final ByteArrayOutputStream deflated = new ByteArrayOutputStream(raw.length / 2 + 64);
+                final byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    deflated.write(buffer, 0, deflater.deflate(buffer));
+                }
+                data.writeInt(raw.length);
+                data.writeInt(deflated.size());
+                deflated.writeTo(data);
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    private static final class ColumnReader {
+        private final byte[] bytes;
+        private int position;
+        private long previous;
+
+        private ColumnReader(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private static ColumnReader readFrom(final DataInputStream data) throws IOException {
+            final byte[] raw = new byte[data.readInt()];
+            final byte[] deflated = new byte[data.readInt()];
+            data.readFully(deflated);
+            final Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(deflated);
+                int inflated = 0;
+                while (inflated < raw.length) {
+                    final int read = inflater.inflate(raw, inflated, raw.length - inflated);
+                    if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new IOException("Order segment column is truncated");
+                    }
+                    inflated += read;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Order segment column is corrupted", e);
+            } finally {
+                inflater.end();
+            }
+            return new ColumnReader(raw);
+        }
+
+        private long next() throws IOException {
+            long zigzag = 0;
+            int shift = 0;
+            byte current;
+            do {
+                if (position == bytes.length || shift > 63) {
+                    throw new IOException("Order segment column is corrupted");
+                }
+                current = bytes[position++];
+                zigzag |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.christianj98.primarycustomerbase.bulkhead;
+
+import com.github.christianj98.primarycustomerbase.configuration.BulkheadProperties;
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
+import com.github.christianj98.primarycustomerbase.routing.ConnectionLimitingDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Gives the work of each bulkhead a share of the connections of its own, so a bulkhead whose queries are slow
+ * holds at most its share while the others keep theirs. Work of a bulkhead waits a short time for one of its
+ * connections and is refused with a {@link ServiceOverloadedException} after that. Connections taken outside of
+ * the bulkheads, by scheduled tasks and the write-behind, are not counted.
+ */
+public class BulkheadConnectionBudgets extends DelegatingDataSource {
+    private final Map<BulkheadType, ConnectionLimitingDataSource> budgets = new EnumMap<>(BulkheadType.class);
+
+    public BulkheadConnectionBudgets(final DataSource targetDataSource,
+                                     final BulkheadProperties bulkheadProperties) {
+        super(targetDataSource);
+        for (BulkheadType bulkheadType : BulkheadType.values()) {
+            final BulkheadProperties.Bulkhead bulkhead = bulkheadProperties.forType(bulkheadType);
+            // every thread of the bulkhead may wait, a transaction opened within another one needs a second
+            budgets.put(bulkheadType, new ConnectionLimitingDataSource(targetDataSource,
+                    bulkhead.getConnections(), bulkhead.getThreads(),
+                    bulkheadProperties.getConnectionAcquireTimeout()));
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return budgetOfCurrentThread().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return budgetOfCurrentThread().getConnection(username, password);
+    }
+
+    /**
+     * @return connections handed out to the work of the bulkhead and not closed yet
+     */
+    public int getActiveConnections(final BulkheadType bulkheadType) {
+        return budgets.get(bulkheadType).getActiveConnections();
+    }
+
+    private DataSource budgetOfCurrentThread() {
+        final BulkheadType bulkheadType = Bulkheads.currentBulkhead();
+        return isNull(bulkheadType) ? obtainTargetDataSource() : budgets.get(bulkheadType);
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.christianj98.primarycustomerbase.bulkhead;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads of the bulkhead executors, platform threads unless a bean of this type replaces them
+ */
+@FunctionalInterface
+public interface BulkheadThreadFactory {
+
+    /**
+     * @param namePrefix prefix of the names of the threads, such as {@code order-bulkhead-}
+     */
+    ThreadFactory forBulkhead(String namePrefix);
+}
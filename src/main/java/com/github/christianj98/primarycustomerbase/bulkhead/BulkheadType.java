@@ -0,0 +1,27 @@
+package com.github.christianj98.primarycustomerbase.bulkhead;
+
+import java.util.Locale;
+
+/**
+ * Kinds of requests served by executors and connections of their own
+ */
+public enum BulkheadType {
+    CUSTOMER,
+    ADDRESS,
+    ORDER,
+    /**
+     * Streams every customer into the response, holding its connection for the whole export
+     */
+    CUSTOMER_EXPORT,
+    /**
+     * Reads an upload of orders and writes them in batches
+     */
+    ORDER_IMPORT;
+
+    /**
+     * @return name of the bulkhead in thread names and messages, such as {@code customer-export}
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
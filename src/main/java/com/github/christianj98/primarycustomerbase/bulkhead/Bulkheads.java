@@ -0,0 +1,85 @@
+package com.github.christianj98.primarycustomerbase.bulkhead;
+
+import com.github.christianj98.primarycustomerbase.configuration.BulkheadProperties;
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
+import com.github.christianj98.primarycustomerbase.routing.PrimaryStickiness;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.BULKHEAD_FULL_ERROR;
+
+/**
+ * One bounded executor per kind of request. Controllers hand their work to the executor of their bulkhead and
+ * release the request thread, a bulkhead whose requests pile up fills its own queue and is answered with 503
+ * Service Unavailable while the others keep their threads. The connections of each bulkhead are bounded by
+ * {@link BulkheadConnectionBudgets}.
+ */
+@Component
+public class Bulkheads implements DisposableBean {
+    static final BulkheadThreadFactory PLATFORM_THREADS = CustomizableThreadFactory::new;
+    private static final ThreadLocal<BulkheadType> CURRENT_BULKHEAD = new ThreadLocal<>();
+
+    private final Map<BulkheadType, ThreadPoolExecutor> executors = new EnumMap<>(BulkheadType.class);
+
+    @Autowired
+    public Bulkheads(final BulkheadProperties bulkheadProperties,
+                     final ObjectProvider<BulkheadThreadFactory> bulkheadThreadFactory) {
+        this(bulkheadProperties, bulkheadThreadFactory.getIfAvailable(() -> PLATFORM_THREADS));
+    }
+
+    Bulkheads(final BulkheadProperties bulkheadProperties, final BulkheadThreadFactory bulkheadThreadFactory) {
+        for (BulkheadType bulkheadType : BulkheadType.values()) {
+            final BulkheadProperties.Bulkhead bulkhead = bulkheadProperties.forType(bulkheadType);
+            executors.put(bulkheadType, new ThreadPoolExecutor(bulkhead.getThreads(), bulkhead.getThreads(),
+                    0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(bulkhead.getQueueCapacity()),
+                    bulkheadThreadFactory.forBulkhead(bulkheadType.getName() + "-bulkhead-")));
+        }
+    }
+
+    /**
+     * @return bulkhead whose work runs on the current thread, null outside of the bulkheads
+     */
+    public static BulkheadType currentBulkhead() {
+        return CURRENT_BULKHEAD.get();
+    }
+
+    /**
+     * Runs the action on the executor of the bulkhead, reading from the primary when the request does
+     *
+     * @throws ServiceOverloadedException when the queue of the bulkhead is full
+     */
+    public <T> CompletableFuture<T> supply(final BulkheadType bulkheadType, final Supplier<T> action) {
+        final Supplier<T> task = PrimaryStickiness.isSticky() ? () -> PrimaryStickiness.onPrimary(action) : action;
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                CURRENT_BULKHEAD.set(bulkheadType);
+                try {
+                    return task.get();
+                } finally {
+                    CURRENT_BULKHEAD.remove();
+                }
+            }, executors.get(bulkheadType));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException(String.format(BULKHEAD_FULL_ERROR.getMessage(),
+                    bulkheadType.getName()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.christianj98.primarycustomerbase.bulkhead.BulkheadConnectionBudgets;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+import static com.github.christianj98.primarycustomerbase.configuration.ConnectionLimitConfig.DATA_SOURCE_BEAN;
+
+/**
+ * Wraps the data source used by JPA, JDBC and Flyway into the {@link BulkheadConnectionBudgets}, outside of the
+ * connection limit so a request waits for a connection of its bulkhead before it takes one of the limit
+ */
+@Configuration
+public class BulkheadConfig {
+
+    // static, as post processors are created before the other beans of the configuration
+    @Bean
+    public static BeanPostProcessor bulkheadConnectionBudgetsPostProcessor(
+            final ObjectProvider<BulkheadProperties> bulkheadProperties) {
+        return new ConnectionLimitConfig.OrderedBeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource)) {
+                    return bean;
+                }
+                return new BulkheadConnectionBudgets((DataSource) bean, bulkheadProperties.getObject());
+            }
+
+            @Override
+            public int getOrder() {
+                return ConnectionLimitConfig.POST_PROCESSOR_ORDER + 1;
+            }
+        };
+    }
+}
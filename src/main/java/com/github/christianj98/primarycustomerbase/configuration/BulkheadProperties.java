@@ -0,0 +1,64 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.christianj98.primarycustomerbase.bulkhead.BulkheadType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Executors and connections serving each kind of request, so a slow resource cannot take the threads and
+ * connections of the others. The connections of all bulkheads stay below the pool size, the rest is left to the
+ * scheduled tasks and the write-behind.
+ */
+@Data
+@ConfigurationProperties(prefix = "bulkheads")
+public class BulkheadProperties {
+    private Bulkhead customers = new Bulkhead(4, 3, 100);
+    private Bulkhead addresses = new Bulkhead(2, 1, 100);
+    private Bulkhead orders = new Bulkhead(3, 2, 100);
+    private Bulkhead customerExport = new Bulkhead(1, 1, 2);
+    private Bulkhead orderImport = new Bulkhead(1, 1, 2);
+    /**
+     * Longest wait of a request for a connection of its bulkhead before it is refused
+     */
+    private Duration connectionAcquireTimeout = Duration.ofMillis(500);
+
+    public Bulkhead forType(final BulkheadType bulkheadType) {
+        switch (bulkheadType) {
+            case CUSTOMER:
+                return customers;
+            case ADDRESS:
+                return addresses;
+            case ORDER:
+                return orders;
+            case CUSTOMER_EXPORT:
+                return customerExport;
+            case ORDER_IMPORT:
+                return orderImport;
+            default:
+                throw new IllegalArgumentException("No bulkhead for " + bulkheadType);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bulkhead {
+        /**
+         * Requests of the bulkhead running at once, the ones beyond its connections are served from the caches or
+         * wait for a connection
+         */
+        private int threads;
+        /**
+         * Connections held by the requests of the bulkhead at once
+         */
+        private int connections;
+        /**
+         * Requests waiting for a thread, further ones are refused with 503 Service Unavailable
+         */
+        private int queueCapacity;
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.christianj98.primarycustomerbase.routing.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Wraps the data source used by JPA, JDBC and Flyway into a {@link ConnectionLimitingDataSource}.
+ * Active when {@code datasource.connection-limit.enabled} is set and always when requests run on virtual threads:
+ * with no bound on the request threads nothing else keeps the requests from queueing up in the pool.
+ */
+@Configuration
+@Conditional(ConnectionLimitConfig.ConnectionLimitRequired.class)
+public class ConnectionLimitConfig {
+    static final String DATA_SOURCE_BEAN = "dataSource";
+    // Hikari settles on this size when the pool starts and none is configured
+    static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+    // the data source wrapped by a post processor of a higher order wraps the limited one
+    static final int POST_PROCESSOR_ORDER = 0;
+
+    // static, as post processors are created before the other beans of the configuration
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor(
+            final ObjectProvider<ConnectionLimitProperties> connectionLimitProperties) {
+        return new OrderedBeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource)) {
+                    return bean;
+                }
+                return limit((DataSource) bean, connectionLimitProperties.getObject());
+            }
+
+            @Override
+            public int getOrder() {
+                return POST_PROCESSOR_ORDER;
+            }
+        };
+    }
+
+    static ConnectionLimitingDataSource limit(final DataSource dataSource,
+                                              final ConnectionLimitProperties connectionLimitProperties) {
+        return new ConnectionLimitingDataSource(dataSource,
+                resolveMaxConcurrent(dataSource, connectionLimitProperties),
+                connectionLimitProperties.getMaxWaiting(),
+                connectionLimitProperties.getAcquireTimeout());
+    }
+
+    private static int resolveMaxConcurrent(final DataSource dataSource,
+                                            final ConnectionLimitProperties connectionLimitProperties) {
+        if (nonNull(connectionLimitProperties.getMaxConcurrent())) {
+            return connectionLimitProperties.getMaxConcurrent();
+        }
+        final HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (isNull(pool)) {
+            // behind the replica routing there is more than one pool
+            throw new IllegalStateException("datasource.connection-limit.max-concurrent has to be set for a data "
+                    + "source which is not a single Hikari pool");
+        }
+        return pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : DEFAULT_MAXIMUM_POOL_SIZE;
+    }
+
+    interface OrderedBeanPostProcessor extends BeanPostProcessor, Ordered {
+    }
+
+    static class ConnectionLimitRequired extends AnyNestedCondition {
+
+        ConnectionLimitRequired() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = "datasource.connection-limit", name = "enabled", havingValue = "true")
+        static class Enabled {
+        }
+
+        @ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+        static class VirtualThreads {
+        }
+    }
+}
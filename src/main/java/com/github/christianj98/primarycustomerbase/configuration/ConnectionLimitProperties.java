@@ -0,0 +1,31 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limit of concurrent database connections in front of the connection pool, requests beyond it are refused with
+ * 503 Service Unavailable instead of queueing up in the pool
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.connection-limit")
+public class ConnectionLimitProperties {
+    /**
+     * Always on with {@code spring.threads.virtual.enabled}
+     */
+    private boolean enabled = false;
+    /**
+     * Connections handed out at once, defaults to the maximum pool size of the Hikari pool
+     */
+    private Integer maxConcurrent;
+    /**
+     * Requests waiting for a connection, further ones are refused right away
+     */
+    private int maxWaiting = 50;
+    /**
+     * Longest wait for a connection, far below the connection timeout of the pool
+     */
+    private Duration acquireTimeout = Duration.ofMillis(500);
+}
@@ -0,0 +1,31 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-memory cache of customers returned by id
+ */
+@Data
+@ConfigurationProperties(prefix = "customers.cache")
+public class CustomerCacheProperties {
+    private long maximumSize = 10_000;
+    /**
+     * A customer read after this time is reloaded in the background while the cached one is still returned
+     */
+    private Duration refreshAfterWrite = Duration.ofMinutes(1);
+    /**
+     * Upper bound on the age of a cached customer, one not refreshed by a read within this time is loaded again
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+    /**
+     * Threads reloading customers in the background, each holds a connection while it loads
+     */
+    private int refreshThreads = 2;
+    /**
+     * Reloads waiting for a thread, further ones are skipped and the customer is reloaded by a later read
+     */
+    private int refreshQueueCapacity = 1000;
+}
@@ -0,0 +1,60 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.github.christianj98.primarycustomerbase.entity.Address;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache of customers and addresses held in local Caffeine caches behind the JCache API.
+ * Updates and deletes going through the entity manager keep the cache in sync, bulk JPQL or native
+ * statements on these tables would bypass it.
+ */
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+
+    /**
+     * Each application context gets a cache manager of its own, Hibernate closes it together with the
+     * session factory and must not close the caches of another context running in the same JVM
+     */
+    @Bean
+    public CacheManager entityCacheManager(final EntityCacheProperties entityCacheProperties) {
+        final CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(Customer.CACHE_REGION, createRegion(entityCacheProperties.getCustomers()));
+        cacheManager.createCache(Address.CACHE_REGION, createRegion(entityCacheProperties.getAddresses()));
+        return cacheManager;
+    }
+
+    private CaffeineConfiguration<Object, Object> createRegion(final EntityCacheProperties.Region region) {
+        final CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(final CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            // every region is created above, a missing one means an entity got cached by mistake
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the second-level cache regions holding customers and addresses
+ */
+@Data
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheProperties {
+    private Region customers = new Region();
+    private Region addresses = new Region();
+
+    @Data
+    public static class Region {
+        /**
+         * Time after which a cached entity is reloaded from the database, limits how long changes made
+         * outside of this application stay invisible
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+        private long maximumSize = 10_000;
+    }
+}
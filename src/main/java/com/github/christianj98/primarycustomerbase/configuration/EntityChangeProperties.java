@@ -0,0 +1,20 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the PostgreSQL channel announcing entity changes to every node
+ */
+@Data
+@ConfigurationProperties(prefix = "entity-changes")
+public class EntityChangeProperties {
+    private String channel = "entity_changes";
+    /**
+     * Longest wait for notifications in one call, bounds how long stopping the listener takes
+     */
+    private Duration pollTimeout = Duration.ofMillis(500);
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
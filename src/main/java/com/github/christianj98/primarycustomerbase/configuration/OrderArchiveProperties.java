@@ -0,0 +1,29 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Period;
+
+/**
+ * Settings for archiving old orders into segment files, the schedule is read by the scheduler as
+ * orders.archive.initial-delay and orders.archive.interval
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.archive")
+public class OrderArchiveProperties {
+    /**
+     * Whether this node moves old orders into the archive, every node reads the archive
+     */
+    private boolean enabled = false;
+    private Path directory = Path.of("order-archive");
+    /**
+     * Orders of the months which ended at least this long ago are archived
+     */
+    private Period minAge = Period.ofYears(2);
+    /**
+     * Upper limit of archived orders kept decoded in memory across all segments
+     */
+    private long cachedOrders = 1_000_000;
+}
@@ -0,0 +1,20 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the bulk ingestion of orders
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.bulk")
+public class OrderBulkProperties {
+    /**
+     * Number of rows validated against the customers table and copied into the orders table at once
+     */
+    private int chunkSize = 5000;
+    /**
+     * Upper limit of rejected rows listed in the response, all rejected rows are still counted
+     */
+    private int maxReportedRejects = 1000;
+}
@@ -0,0 +1,23 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Page size settings for the keyset pagination of orders
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.pagination")
+public class OrderPaginationProperties {
+    private int defaultSize = 50;
+    private int maxSize = 500;
+
+    public int resolvePageSize(final Integer requestedSize) {
+        if (isNull(requestedSize) || requestedSize < 1) {
+            return defaultSize;
+        }
+        return Math.min(requestedSize, maxSize);
+    }
+}
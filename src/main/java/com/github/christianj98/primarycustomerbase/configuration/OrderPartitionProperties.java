@@ -0,0 +1,17 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the monthly partitions of the orders table, the maintenance interval is read by the scheduler as
+ * orders.partitions.maintenance-interval
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.partitions")
+public class OrderPartitionProperties {
+    /**
+     * Number of months after the current one which already have their partition
+     */
+    private int monthsAhead = 3;
+}
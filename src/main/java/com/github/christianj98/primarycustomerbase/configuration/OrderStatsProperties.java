@@ -0,0 +1,20 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for rebuilding the customer_order_stats rollup from the orders table
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.stats.rebuild")
+public class OrderStatsProperties {
+    /**
+     * Number of customer ids recomputed in one transaction
+     */
+    private int chunkSize = 10000;
+    /**
+     * Number of chunks recomputed at the same time, each of them holds a pooled connection
+     */
+    private int threads = 4;
+}
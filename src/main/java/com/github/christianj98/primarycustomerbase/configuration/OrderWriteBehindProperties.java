@@ -0,0 +1,51 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the asynchronous creation of orders, where POST /orders only queues the order
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.write-behind")
+public class OrderWriteBehindProperties {
+    private boolean enabled = false;
+    /**
+     * Orders waiting for the writer, further orders are refused with 503 Service Unavailable until it catches up
+     */
+    private int queueCapacity = 10_000;
+    /**
+     * Upper limit of orders inserted and committed together
+     */
+    private int batchSize = 500;
+    /**
+     * Longest wait of the writer for the next order, bounds how long stopping the writer takes
+     */
+    private Duration pollTimeout = Duration.ofMillis(500);
+    /**
+     * Pause before a batch which could not be written is tried again
+     */
+    private Duration retryDelay = Duration.ofSeconds(1);
+    /**
+     * Upper limit of remembered writes, the oldest statuses are forgotten first
+     */
+    private long trackedWrites = 100_000;
+    private Duration trackingTimeToLive = Duration.ofHours(1);
+    private Journal journal = new Journal();
+
+    @Data
+    public static class Journal {
+        /**
+         * Local directory of the journal, it must survive restarts of the node for queued orders to be replayed
+         */
+        private Path directory = Path.of("order-journal");
+        /**
+         * Size of every journal file, preallocated and mapped into memory at once
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+    }
+}
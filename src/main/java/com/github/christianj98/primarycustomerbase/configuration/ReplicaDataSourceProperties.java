@@ -0,0 +1,30 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas serving read-only transactions, routing stays off while no replica url is configured
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.replicas")
+public class ReplicaDataSourceProperties {
+    /**
+     * Comma separated JDBC urls of the replicas, read-only transactions are spread over them round-robin
+     */
+    private List<String> urls = new ArrayList<>();
+    /**
+     * Replica credentials, the primary ones are used when not set
+     */
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    /**
+     * How long a client keeps reading from the primary after a write, should exceed the usual replication lag
+     */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+}
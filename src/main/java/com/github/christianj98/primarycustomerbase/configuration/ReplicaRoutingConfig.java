@@ -0,0 +1,106 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.christianj98.primarycustomerbase.invalidation.EntityCacheEvictor;
+import com.github.christianj98.primarycustomerbase.routing.PrimaryStickinessFilter;
+import com.github.christianj98.primarycustomerbase.routing.ReplicaReadCachingJpaDialect;
+import com.github.christianj98.primarycustomerbase.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNullElse;
+
+/**
+ * Replaces the auto-configured data source with one routing read-only transactions to the replicas.
+ * Only active when {@code datasource.replicas.urls} is set.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replicas", name = "urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(final HikariDataSource primaryDataSource,
+                                                             final DataSourceProperties dataSourceProperties,
+                                                             final ReplicaDataSourceProperties replicaProperties) {
+        final List<HikariDataSource> replicas = IntStream.range(0, replicaProperties.getUrls().size())
+                .mapToObj(i -> createReplica(i, dataSourceProperties, replicaProperties))
+                .collect(Collectors.toList());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    private HikariDataSource createReplica(final int index,
+                                           final DataSourceProperties dataSourceProperties,
+                                           final ReplicaDataSourceProperties replicaProperties) {
+        final HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replicaProperties.getUrls().get(index))
+                .username(requireNonNullElse(replicaProperties.getUsername(),
+                        dataSourceProperties.determineUsername()))
+                .password(requireNonNullElse(replicaProperties.getPassword(),
+                        dataSourceProperties.determinePassword()))
+                .build();
+        replica.setPoolName("replica-" + index);
+        replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    /**
+     * The data source used by JPA, JDBC and Flyway. Outside of a read-only transaction it resolves to the primary.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public PrimaryStickinessFilter primaryStickinessFilter(final ReplicaDataSourceProperties replicaProperties) {
+        return new PrimaryStickinessFilter(replicaProperties.getStickyWindow());
+    }
+
+    /**
+     * Entities evicted on any node are not put back into the second-level cache from a replica within the
+     * sticky window, the replica may not have received the change yet. The evictor depends on the entity manager
+     * factory being configured here, so it is looked up only once transactions run.
+     */
+    @Bean
+    public static BeanPostProcessor replicaReadCachingJpaDialectPostProcessor(
+            final ObjectProvider<EntityCacheEvictor> entityCacheEvictor,
+            final ObjectProvider<ReplicaDataSourceProperties> replicaProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean) {
+                    ((AbstractEntityManagerFactoryBean) bean).setJpaDialect(new ReplicaReadCachingJpaDialect(() ->
+                            entityCacheEvictor.getObject()
+                                    .hasEvictedWithin(replicaProperties.getObject().getStickyWindow())));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,11 +1,20 @@
 package com.github.christianj98.primarycustomerbase.configuration;
 
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static java.util.Objects.nonNull;
 
 @Configuration
 public class SpringFoxConfig {
@@ -17,4 +26,28 @@ public class SpringFoxConfig {
                 .paths(PathSelectors.any())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Springfox cannot read handler mappings using path patterns, which actuator endpoints always do,
+     * so those mappings are left out of the documentation
+     */
+    @Bean
+    public static BeanPostProcessor actuatorMappingsFilter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (bean instanceof WebMvcRequestHandlerProvider) {
+                    getHandlerMappings(bean).removeIf(mapping -> nonNull(mapping.getPatternParser()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<RequestMappingInfoHandlerMapping> getHandlerMappings(final Object bean) {
+        final Field field = ReflectionUtils.findField(bean.getClass(), "handlerMappings");
+        ReflectionUtils.makeAccessible(field);
+        return (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, bean);
+    }
+}
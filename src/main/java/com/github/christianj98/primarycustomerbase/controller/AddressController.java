@@ -1,23 +1,43 @@
 package com.github.christianj98.primarycustomerbase.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.christianj98.primarycustomerbase.bulkhead.BulkheadType;
+import com.github.christianj98.primarycustomerbase.bulkhead.Bulkheads;
 import com.github.christianj98.primarycustomerbase.dto.AddressDto;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
+import com.github.christianj98.primarycustomerbase.invalidation.CollectionVersions;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
 import com.github.christianj98.primarycustomerbase.service.AddressService;
+import com.github.christianj98.primarycustomerbase.service.EntityTags;
+import com.github.christianj98.primarycustomerbase.service.JsonMergePatcher;
+import com.github.christianj98.primarycustomerbase.service.MultiGet;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.springframework.web.servlet.support.ServletUriComponentsBuilder.fromCurrentRequest;
 
@@ -25,42 +45,91 @@ import static org.springframework.web.servlet.support.ServletUriComponentsBuilde
 @RequestMapping("/addresses")
 @RequiredArgsConstructor
 @Api(tags = "Address Controller")
+@Validated
 public class AddressController {
     private final AddressService addressService;
+    private final CollectionVersions collectionVersions;
+    private final Bulkheads bulkheads;
 
     @GetMapping
     @ApiOperation("Find all addresses")
-    public ResponseEntity<List<AddressDto>> findAllAddresses() {
-        return ResponseEntity.ok(addressService.findAll());
+    public CompletableFuture<ResponseEntity<List<AddressDto>>> findAllAddresses(final WebRequest request) {
+        // an unchanged list is answered with 304 Not Modified before it is queried
+        final Optional<String> eTag = collectionVersions.eTag(EntityType.ADDRESS);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return bulkheads.supply(BulkheadType.ADDRESS, () -> {
+            final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            eTag.ifPresent(response::eTag);
+            return response.body(addressService.findAll());
+        });
+    }
+
+    @GetMapping(params = "ids")
+    @ApiOperation("Find addresses with the given ids in one query, in request order with the missing ids marked")
+    public CompletableFuture<ResponseEntity<List<MultiGetEntryDto<AddressDto>>>> findAllById(
+            @RequestParam @NotEmpty @Size(max = MultiGet.MAX_IDS) List<Integer> ids) {
+        return bulkheads.supply(BulkheadType.ADDRESS, () -> ResponseEntity.ok(addressService.findAllById(ids)));
     }
 
     @PostMapping
     @ApiOperation("Create address")
-    public ResponseEntity<AddressDto> createAddress(@RequestBody @Valid AddressDto addressDto) {
-        final AddressDto createdAddress = addressService.createAddress(addressDto);
-        final URI location = fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(createdAddress.getId())
-                .toUri();
-        return ResponseEntity.created(location).body(createdAddress);
+    public CompletableFuture<ResponseEntity<AddressDto>> createAddress(@RequestBody @Valid AddressDto addressDto) {
+        // the request is only bound to the request thread
+        final ServletUriComponentsBuilder currentRequest = fromCurrentRequest();
+        return bulkheads.supply(BulkheadType.ADDRESS, () -> {
+            final AddressDto createdAddress = addressService.createAddress(addressDto);
+            final URI location = currentRequest
+                    .path("/{id}")
+                    .buildAndExpand(createdAddress.getId())
+                    .toUri();
+            return ResponseEntity.created(location).body(createdAddress);
+        });
     }
 
     @GetMapping("/{id}")
     @ApiOperation("Find address by id")
-    public ResponseEntity<AddressDto> findAddressById(@PathVariable int id) {
-        return ResponseEntity.ok().body(addressService.findById(id));
+    public CompletableFuture<ResponseEntity<AddressDto>> findAddressById(@PathVariable int id) {
+        // a request whose If-None-Match lists the tag is answered with 304 Not Modified and no body
+        return bulkheads.supply(BulkheadType.ADDRESS, () -> {
+            final AddressDto addressDto = addressService.findById(id);
+            return ResponseEntity.ok().eTag(EntityTags.of(addressDto)).body(addressDto);
+        });
     }
 
     @PutMapping("/{id}")
     @ApiOperation("Update address")
-    public ResponseEntity<AddressDto> updateAddress(@RequestBody @Valid AddressDto addressDto, @PathVariable int id) {
-        return ResponseEntity.ok(addressService.update(addressDto, id));
+    public CompletableFuture<ResponseEntity<AddressDto>> updateAddress(
+            @RequestBody @Valid AddressDto addressDto,
+            @PathVariable int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bulkheads.supply(BulkheadType.ADDRESS, () -> {
+            final AddressDto updatedAddress = addressService.update(addressDto, id, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.of(updatedAddress)).body(updatedAddress);
+        });
+    }
+
+    @PatchMapping(path = "/{id}", consumes = JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+    @ApiOperation("Patch address")
+    public CompletableFuture<ResponseEntity<AddressDto>> patchAddress(
+            @RequestBody JsonNode mergePatch,
+            @PathVariable int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bulkheads.supply(BulkheadType.ADDRESS, () -> {
+            final AddressDto patchedAddress = addressService.patch(mergePatch, id, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.of(patchedAddress)).body(patchedAddress);
+        });
     }
 
     @DeleteMapping("/{id}")
     @ApiOperation("Delete address")
-    public ResponseEntity<Void> deleteAddress(@PathVariable final int id) {
-        addressService.delete(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteAddress(
+            @PathVariable final int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+        return bulkheads.supply(BulkheadType.ADDRESS, () -> {
+            addressService.delete(id, ifMatch);
+            return ResponseEntity.noContent().build();
+        });
     }
 }
@@ -1,70 +1,221 @@
 package com.github.christianj98.primarycustomerbase.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.christianj98.primarycustomerbase.bulkhead.BulkheadType;
+import com.github.christianj98.primarycustomerbase.bulkhead.Bulkheads;
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryPageDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.invalidation.CollectionVersions;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
 import com.github.christianj98.primarycustomerbase.mapper.CustomerMapperService;
 import com.github.christianj98.primarycustomerbase.service.CustomerService;
+import com.github.christianj98.primarycustomerbase.service.EntityTags;
+import com.github.christianj98.primarycustomerbase.service.JsonMergePatcher;
+import com.github.christianj98.primarycustomerbase.service.MultiGet;
+import com.github.christianj98.primarycustomerbase.service.OrderService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+import static java.util.Objects.nonNull;
 import static org.springframework.web.servlet.support.ServletUriComponentsBuilder.fromCurrentRequest;
 
 @RestController
 @RequestMapping(path = "/customers")
 @RequiredArgsConstructor
 @Api(tags = "Customer Controller")
+@Validated
 public class CustomerController {
+    public static final int CUSTOMER_BATCH_MAX_SIZE = 1000;
+
     private final CustomerService customerService;
     private final CustomerMapperService customerMapperService;
+    private final ObjectMapper objectMapper;
+    private final CollectionVersions collectionVersions;
+    private final OrderService orderService;
+    private final Bulkheads bulkheads;
 
     @GetMapping
     @ApiOperation("Find all customers")
-    public ResponseEntity<List<CustomerDto>> findAllCustomers() {
-        return ResponseEntity.ok(customerMapperService.mapFrom(customerService.findAll()));
+    public CompletableFuture<ResponseEntity<List<CustomerDto>>> findAllCustomers(final WebRequest request) {
+        // an unchanged list is answered with 304 Not Modified before it is queried
+        final Optional<String> eTag = collectionVersions.eTag(EntityType.CUSTOMER, EntityType.ADDRESS);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> {
+            final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            eTag.ifPresent(response::eTag);
+            return response.body(customerService.findAll());
+        });
+    }
+
+    @GetMapping(params = "ids")
+    @ApiOperation("Find customers with the given ids in one query, in request order with the missing ids marked")
+    public CompletableFuture<ResponseEntity<List<MultiGetEntryDto<CustomerDto>>>> findAllById(
+            @RequestParam @NotEmpty @Size(max = MultiGet.MAX_IDS) List<Integer> ids) {
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> ResponseEntity.ok(customerService.findAllById(ids)));
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation("Export all customers as newline-delimited JSON")
+    public CompletableFuture<Void> exportCustomers(HttpServletResponse response) throws IOException {
+        // streams into the response from the export bulkhead, which holds a connection until the last customer
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        final ObjectWriter customerWriter = objectMapper.writerFor(CustomerDto.class);
+        final OutputStream outputStream = response.getOutputStream();
+        return bulkheads.supply(BulkheadType.CUSTOMER_EXPORT, () -> {
+            try {
+                customerService.exportAll(customerDto -> {
+                    try {
+                        outputStream.write(customerWriter.writeValueAsBytes(customerDto));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                outputStream.flush();
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     @PostMapping
     @ApiOperation("Create customer")
-    public ResponseEntity<CustomerDto> createCustomer(@RequestBody @Valid CustomerDto customerDto) {
-        Customer createdCustomer = customerService.save(customerDto);
-        URI location = fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(createdCustomer.getId())
-                .toUri();
-        return ResponseEntity.created(location).body(customerMapperService.mapFrom(createdCustomer));
+    public CompletableFuture<ResponseEntity<CustomerDto>> createCustomer(@RequestBody @Valid CustomerDto customerDto) {
+        // the request is only bound to the request thread
+        final ServletUriComponentsBuilder currentRequest = fromCurrentRequest();
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> {
+            Customer createdCustomer = customerService.save(customerDto);
+            URI location = currentRequest
+                    .path("/{id}")
+                    .buildAndExpand(createdCustomer.getId())
+                    .toUri();
+            return ResponseEntity.created(location).body(customerMapperService.mapFrom(createdCustomer));
+        });
+    }
+
+    @PostMapping("/batch")
+    @ApiOperation("Create customers in one batch")
+    public CompletableFuture<ResponseEntity<List<CustomerDto>>> createCustomers(
+            @RequestBody @NotEmpty @Size(max = CUSTOMER_BATCH_MAX_SIZE) List<@Valid CustomerDto> customerDtos) {
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> {
+            final List<Customer> createdCustomers = customerService.saveAll(customerDtos);
+            return ResponseEntity.status(HttpStatus.CREATED).body(customerMapperService.mapFrom(createdCustomers));
+        });
+    }
+
+    @GetMapping("/order-summaries")
+    @ApiOperation("Find page of order summaries of customers with orders, next page is linked in the Link header")
+    public CompletableFuture<ResponseEntity<List<OrderSummaryDto>>> findOrderSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            final WebRequest request) {
+        // an unchanged page is answered with 304 Not Modified before it is aggregated
+        final Optional<String> eTag = collectionVersions.eTag(EntityType.ORDER, EntityType.CUSTOMER);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final ServletUriComponentsBuilder currentRequest = fromCurrentRequest();
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> {
+            final OrderSummaryPageDto summaryPage = orderService.findSummaryPage(cursor, size);
+            final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            eTag.ifPresent(response::eTag);
+            if (nonNull(summaryPage.getNextCursor())) {
+                final String nextPage = currentRequest
+                        .replaceQueryParam("cursor", summaryPage.getNextCursor())
+                        .toUriString();
+                response.header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", nextPage));
+            }
+            return response.body(summaryPage.getSummaries());
+        });
+    }
+
+    @GetMapping("/{id}/order-summary")
+    @ApiOperation("Find order count, total, smallest and largest amount and last order date of customer")
+    public CompletableFuture<ResponseEntity<OrderSummaryDto>> findOrderSummary(@PathVariable final int id) {
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> ResponseEntity.ok(orderService.findSummary(id)));
     }
 
     @GetMapping("/{id}")
     @ApiOperation("Find customer with specific id")
-    public ResponseEntity<CustomerDto> findById(@PathVariable final int id) {
-        return ResponseEntity.ok(customerService.findById(id));
+    public CompletableFuture<ResponseEntity<CustomerDto>> findById(@PathVariable final int id) {
+        // a request whose If-None-Match lists the tag is answered with 304 Not Modified and no body
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> {
+            final CustomerDto customerDto = customerService.findById(id);
+            return ResponseEntity.ok().eTag(EntityTags.of(customerDto)).body(customerDto);
+        });
     }
 
     @PutMapping("/{id}")
     @ApiOperation("Update customer with specific id")
-    public ResponseEntity<CustomerDto> updateCustomer(@RequestBody @Valid CustomerDto customerDto,
-                                                      @PathVariable int id) {
-        return ResponseEntity.ok(customerService.update(customerDto, id));
+    public CompletableFuture<ResponseEntity<CustomerDto>> updateCustomer(
+            @RequestBody @Valid CustomerDto customerDto,
+            @PathVariable int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> {
+            final CustomerDto updatedCustomer = customerService.update(customerDto, id, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.of(updatedCustomer)).body(updatedCustomer);
+        });
+    }
+
+    @PatchMapping(path = "/{id}", consumes = JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+    @ApiOperation("Patch customer with specific id")
+    public CompletableFuture<ResponseEntity<CustomerDto>> patchCustomer(
+            @RequestBody JsonNode mergePatch,
+            @PathVariable int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> {
+            final CustomerDto patchedCustomer = customerService.patch(mergePatch, id, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.of(patchedCustomer)).body(patchedCustomer);
+        });
     }
 
     @DeleteMapping("/{id}")
     @ApiOperation("Delete customer wit given id")
-    public ResponseEntity<Void> deleteCustomer(@PathVariable int id) {
-        customerService.delete(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteCustomer(
+            @PathVariable int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bulkheads.supply(BulkheadType.CUSTOMER, () -> {
+            customerService.delete(id, ifMatch);
+            return ResponseEntity.noContent().build();
+        });
     }
 }
@@ -1,70 +1,204 @@
 package com.github.christianj98.primarycustomerbase.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.christianj98.primarycustomerbase.bulkhead.BulkheadType;
+import com.github.christianj98.primarycustomerbase.bulkhead.Bulkheads;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderBulkResultDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderPageDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderUpdateDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderWriteStatusDto;
+import com.github.christianj98.primarycustomerbase.invalidation.CollectionVersions;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
+import com.github.christianj98.primarycustomerbase.service.EntityTags;
+import com.github.christianj98.primarycustomerbase.service.JsonMergePatcher;
+import com.github.christianj98.primarycustomerbase.service.MultiGet;
+import com.github.christianj98.primarycustomerbase.service.OrderBulkFormat;
 import com.github.christianj98.primarycustomerbase.service.OrderService;
+import com.github.christianj98.primarycustomerbase.writebehind.OrderWriteBehind;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.ORDER_WRITE_NOT_FOUND_ERROR;
+import static java.util.Objects.nonNull;
 import static org.springframework.web.servlet.support.ServletUriComponentsBuilder.fromCurrentRequest;
 
 @RestController
 @RequestMapping(path = "/orders")
 @RequiredArgsConstructor
 @Api(tags = "Order Controller")
+@Validated
 public class OrderController {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
     private final OrderService orderService;
+    private final CollectionVersions collectionVersions;
+    // present with orders.write-behind.enabled
+    private final Optional<OrderWriteBehind> orderWriteBehind;
+    private final Bulkheads bulkheads;
 
     @GetMapping
-    @ApiOperation("Find all orders")
-    public ResponseEntity<List<OrderDto>> findAllOrders() {
-        return ResponseEntity.ok(orderService.findAll());
+    @ApiOperation("Find page of orders ordered by date, optionally dated from (inclusive) to (exclusive), "
+            + "next page is linked in the Link header")
+    public CompletableFuture<ResponseEntity<List<OrderDto>>> findAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            final WebRequest request) {
+        // an unchanged page is answered with 304 Not Modified before it is queried
+        final Optional<String> eTag = collectionVersions.eTag(EntityType.ORDER,
+                EntityType.CUSTOMER,
+                EntityType.ADDRESS);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // the request is only bound to the request thread
+        final ServletUriComponentsBuilder currentRequest = fromCurrentRequest();
+        return bulkheads.supply(BulkheadType.ORDER, () -> {
+            final OrderPageDto orderPage = orderService.findPage(cursor, size, from, to);
+            final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            eTag.ifPresent(response::eTag);
+            if (nonNull(orderPage.getNextCursor())) {
+                final String nextPage = currentRequest
+                        .replaceQueryParam("cursor", orderPage.getNextCursor())
+                        .toUriString();
+                response.header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", nextPage));
+            }
+            return response.body(orderPage.getOrders());
+        });
+    }
+
+    @GetMapping(params = "ids")
+    @ApiOperation("Find orders with the given ids in one query, in request order with the missing ids marked")
+    public CompletableFuture<ResponseEntity<List<MultiGetEntryDto<OrderDto>>>> findAllById(
+            @RequestParam @NotEmpty @Size(max = MultiGet.MAX_IDS) List<Integer> ids) {
+        return bulkheads.supply(BulkheadType.ORDER, () -> ResponseEntity.ok(orderService.findAllById(ids)));
     }
 
     @PostMapping
-    @ApiOperation("Create order")
-    public ResponseEntity<OrderDto> createOrder(@RequestBody @Valid OrderCreateDto orderCreateDto) {
-        OrderDto createdOrder = orderService.saveOrder(orderCreateDto);
-        URI location = fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(createdOrder.getOrderId())
-                .toUri();
-        return ResponseEntity.created(location).body(createdOrder);
+    @ApiOperation("Create order, with write-behind enabled the order is queued and answered with 202 Accepted "
+            + "and the location of its write status")
+    public CompletableFuture<ResponseEntity<?>> createOrder(@RequestBody @Valid OrderCreateDto orderCreateDto) {
+        // the request is only bound to the request thread
+        final ServletUriComponentsBuilder currentRequest = fromCurrentRequest();
+        return bulkheads.supply(BulkheadType.ORDER, () -> {
+            if (orderWriteBehind.isPresent()) {
+                final OrderWriteStatusDto status = orderWriteBehind.get().submit(orderCreateDto);
+                final URI location = currentRequest
+                        .path("/writes/{trackingId}")
+                        .buildAndExpand(status.getTrackingId())
+                        .toUri();
+                return ResponseEntity.accepted().location(location).body(status);
+            }
+            OrderDto createdOrder = orderService.saveOrder(orderCreateDto);
+            URI location = currentRequest
+                    .path("/{id}")
+                    .buildAndExpand(createdOrder.getOrderId())
+                    .toUri();
+            return ResponseEntity.created(location).body(createdOrder);
+        });
+    }
+
+    @GetMapping("/writes/{trackingId}")
+    @ApiOperation("Find status of an order queued by write-behind, known for orders.write-behind.tracking-time-to-live")
+    public ResponseEntity<OrderWriteStatusDto> findWriteStatus(@PathVariable final String trackingId) {
+        return ResponseEntity.ok(orderWriteBehind
+                .flatMap(writeBehind -> writeBehind.findStatus(trackingId))
+                .orElseThrow(() -> new EntityNotFoundException(
+                        String.format(ORDER_WRITE_NOT_FOUND_ERROR.getMessage(), trackingId))));
+    }
+
+    @PostMapping(path = "/bulk", consumes = TEXT_CSV_VALUE)
+    @ApiOperation("Create orders from CSV rows date,amount,customerId, rejected rows are reported")
+    public CompletableFuture<ResponseEntity<OrderBulkResultDto>> bulkCreateOrdersFromCsv(final InputStream rows) {
+        // reads the upload from the import bulkhead, apart from the requests for single orders
+        return bulkheads.supply(BulkheadType.ORDER_IMPORT,
+                () -> ResponseEntity.ok(orderService.bulkCreate(rows, OrderBulkFormat.CSV)));
+    }
+
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation("Create orders from newline-delimited JSON, rejected rows are reported")
+    public CompletableFuture<ResponseEntity<OrderBulkResultDto>> bulkCreateOrdersFromNdjson(final InputStream rows) {
+        return bulkheads.supply(BulkheadType.ORDER_IMPORT,
+                () -> ResponseEntity.ok(orderService.bulkCreate(rows, OrderBulkFormat.NDJSON)));
     }
 
     @GetMapping("/{id}")
     @ApiOperation("Find order with specific id")
-    public ResponseEntity<OrderDto> findById(@PathVariable final int id) {
-        return ResponseEntity.ok(orderService.findById(id));
+    public CompletableFuture<ResponseEntity<OrderDto>> findById(@PathVariable final int id) {
+        // a request whose If-None-Match lists the tag is answered with 304 Not Modified and no body
+        return bulkheads.supply(BulkheadType.ORDER, () -> {
+            final OrderDto orderDto = orderService.findById(id);
+            return ResponseEntity.ok().eTag(EntityTags.of(orderDto)).body(orderDto);
+        });
     }
 
     @PutMapping("/{id}")
     @ApiOperation("Update order with specific id")
-    public ResponseEntity<OrderDto> updateOrder(@RequestBody @Valid OrderUpdateDto orderUpdateDto,
-                                                @PathVariable int id) {
-        return ResponseEntity.ok(orderService.update(orderUpdateDto, id));
+    public CompletableFuture<ResponseEntity<OrderDto>> updateOrder(
+            @RequestBody @Valid OrderUpdateDto orderUpdateDto,
+            @PathVariable int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bulkheads.supply(BulkheadType.ORDER, () -> {
+            final OrderDto updatedOrder = orderService.update(orderUpdateDto, id, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.of(updatedOrder)).body(updatedOrder);
+        });
+    }
+
+    @PatchMapping(path = "/{id}", consumes = JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+    @ApiOperation("Patch order with specific id")
+    public CompletableFuture<ResponseEntity<OrderDto>> patchOrder(
+            @RequestBody JsonNode mergePatch,
+            @PathVariable int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bulkheads.supply(BulkheadType.ORDER, () -> {
+            final OrderDto patchedOrder = orderService.patch(mergePatch, id, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.of(patchedOrder)).body(patchedOrder);
+        });
     }
 
     @DeleteMapping("/{id}")
     @ApiOperation("Delete order with given id")
-    public ResponseEntity<Void> deleteOrder(@PathVariable int id) {
-        orderService.delete(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteOrder(
+            @PathVariable int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bulkheads.supply(BulkheadType.ORDER, () -> {
+            orderService.delete(id, ifMatch);
+            return ResponseEntity.noContent().build();
+        });
     }
 
 }
@@ -1,6 +1,7 @@
 package com.github.christianj98.primarycustomerbase.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -8,6 +9,7 @@ import javax.validation.constraints.NotBlank;
 
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 public class AddressDto {
     @JsonIgnore
     private int id;
@@ -15,4 +17,6 @@ public class AddressDto {
     private String street;
     @NotBlank
     private String city;
+    @JsonIgnore
+    private long version;
 }
@@ -1,5 +1,6 @@
 package com.github.christianj98.primarycustomerbase.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -17,4 +18,6 @@ public class CustomerDto {
     @Valid
     @NotNull
     private AddressDto addressDto;
+    @JsonIgnore
+    private long version;
 }
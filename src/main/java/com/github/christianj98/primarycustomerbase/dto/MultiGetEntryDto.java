@@ -0,0 +1,25 @@
+package com.github.christianj98.primarycustomerbase.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result for one requested id of a multi-get, the value is missing when nothing exists with the id
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetEntryDto<T> {
+    private int id;
+    private boolean found;
+    private T value;
+
+    public static <T> MultiGetEntryDto<T> found(final int id, final T value) {
+        return new MultiGetEntryDto<>(id, true, value);
+    }
+
+    public static <T> MultiGetEntryDto<T> missing(final int id) {
+        return new MultiGetEntryDto<>(id, false, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.christianj98.primarycustomerbase.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class OrderBulkResultDto {
+    private long accepted;
+    private long rejected;
+    private List<OrderRejectDto> rejects = new ArrayList<>();
+}
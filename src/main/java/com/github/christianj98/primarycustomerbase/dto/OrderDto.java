@@ -1,5 +1,6 @@
 package com.github.christianj98.primarycustomerbase.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -22,4 +23,6 @@ public class OrderDto {
     private BigDecimal amount;
     @Valid
     private CustomerDto customerDto;
+    @JsonIgnore
+    private long version;
 }
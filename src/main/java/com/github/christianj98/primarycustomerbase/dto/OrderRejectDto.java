@@ -0,0 +1,13 @@
+package com.github.christianj98.primarycustomerbase.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRejectDto {
+    private long line;
+    private String reason;
+}
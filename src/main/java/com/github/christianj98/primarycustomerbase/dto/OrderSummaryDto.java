@@ -0,0 +1,42 @@
+package com.github.christianj98.primarycustomerbase.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDto {
+    private int customerId;
+    private long orderCount;
+    private BigDecimal totalAmount;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private LocalDateTime lastOrderDate;
+
+    public static OrderSummaryDto withoutOrders(final int customerId) {
+        return new OrderSummaryDto(customerId, 0, BigDecimal.ZERO, null, null, null);
+    }
+
+    public static OrderSummaryDto ofOrder(final int customerId, final BigDecimal amount, final LocalDateTime date) {
+        return new OrderSummaryDto(customerId, 1, amount, amount, amount, date);
+    }
+
+    /**
+     * Summary of the orders of both summaries, which belong to the same customer and have orders
+     */
+    public static OrderSummaryDto combine(final OrderSummaryDto summary, final OrderSummaryDto otherSummary) {
+        return new OrderSummaryDto(summary.getCustomerId(),
+                summary.getOrderCount() + otherSummary.getOrderCount(),
+                summary.getTotalAmount().add(otherSummary.getTotalAmount()),
+                summary.getMinAmount().min(otherSummary.getMinAmount()),
+                summary.getMaxAmount().max(otherSummary.getMaxAmount()),
+                Collections.max(List.of(summary.getLastOrderDate(), otherSummary.getLastOrderDate())));
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.christianj98.primarycustomerbase.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryPageDto {
+    private List<OrderSummaryDto> summaries;
+    private String nextCursor;
+}
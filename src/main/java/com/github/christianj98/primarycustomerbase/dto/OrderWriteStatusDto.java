@@ -0,0 +1,39 @@
+package com.github.christianj98.primarycustomerbase.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of an order queued for the asynchronous writer, the order id is known once it is created
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderWriteStatusDto {
+    private String trackingId;
+    private State state;
+    private Integer orderId;
+    private String reason;
+
+    public static OrderWriteStatusDto pending(final String trackingId) {
+        return new OrderWriteStatusDto(trackingId, State.PENDING, null, null);
+    }
+
+    public static OrderWriteStatusDto created(final String trackingId, final int orderId) {
+        return new OrderWriteStatusDto(trackingId, State.CREATED, orderId, null);
+    }
+
+    public static OrderWriteStatusDto rejected(final String trackingId, final String reason) {
+        return new OrderWriteStatusDto(trackingId, State.REJECTED, null, reason);
+    }
+
+    public enum State {
+        PENDING,
+        CREATED,
+        /**
+         * The order itself is invalid, such as an order of a missing customer
+         */
+        REJECTED
+    }
+}
@@ -2,29 +2,41 @@ package com.github.christianj98.primarycustomerbase.entity;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 
 @Entity
-@Table(name = "addresses")
+@Table(name = "addresses", uniqueConstraints = @UniqueConstraint(
+        name = Address.UNIQUE_STREET_CITY_CONSTRAINT, columnNames = {"street", "city"}))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Address.CACHE_REGION)
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 public class Address {
+    public static final String CACHE_REGION = "addresses";
+    public static final String UNIQUE_STREET_CITY_CONSTRAINT = "uk_addresses_street_city";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "addresses_seq")
+    @SequenceGenerator(name = "addresses_seq", sequenceName = "addresses_seq", allocationSize = 50)
     private Integer id;
     @NotBlank
     private String street;
     @NotBlank
     @Pattern(regexp = "[A-Z].*")
     private String city;
-    @OneToOne(mappedBy = "address")
-    private Customer customer;
+    @Version
+    private long version;
 }
@@ -0,0 +1,7 @@
+package com.github.christianj98.primarycustomerbase.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.christianj98.primarycustomerbase.exception;
+
+public class InvalidPatchException extends RuntimeException {
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.christianj98.primarycustomerbase.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.christianj98.primarycustomerbase.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+import com.github.christianj98.primarycustomerbase.configuration.ReplicaDataSourceProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Per-table versions answering conditional list requests without running the list query. Every write takes the next
+ * number from the change sequence of its table in the database and announces it with the change. PostgreSQL delivers
+ * the announcements to every node in commit order, so the number of the last announced change names the same state
+ * of the table on every node and a conditional request may be answered by any node behind a load balancer.
+ * A number is used once, so a version never comes back. Until a node has received its first announcement after it
+ * started listening it does not know the version and issues no tags.
+ */
+@Slf4j
+@Component
+public class CollectionVersions {
+    private static final long UNKNOWN = -1;
+
+    private final Map<EntityType, AtomicLong> versions = new EnumMap<>(EntityType.class);
+    private final Map<EntityType, Set<Long>> unannouncedChanges = new EnumMap<>(EntityType.class);
+    private final Map<EntityType, AtomicLong> changedAt = new EnumMap<>(EntityType.class);
+    private final long settleNanos;
+    private final LongSupplier nanoTime;
+    private final ToLongFunction<EntityType> nextChangeNumber;
+
+    @Autowired
+    public CollectionVersions(final ReplicaDataSourceProperties replicaDataSourceProperties,
+                              final JdbcTemplate jdbcTemplate) {
+        this(replicaDataSourceProperties.getUrls().isEmpty()
+                ? Duration.ZERO
+                : replicaDataSourceProperties.getStickyWindow(), System::nanoTime,
+                type -> jdbcTemplate.queryForObject("SELECT nextval(?::regclass)", Long.class,
+                        changeSequenceOf(type)));
+    }
+
+    /**
+     * @param settleWindow     how long after a change no tag is issued. Lists may be read from a replica that has not
+     *                         replayed the change yet, tagging such a list with the new version would keep it cached.
+     * @param nextChangeNumber takes a number from the change sequence of a table
+     */
+    CollectionVersions(final Duration settleWindow, final LongSupplier nanoTime,
+                       final ToLongFunction<EntityType> nextChangeNumber) {
+        this.settleNanos = settleWindow.toNanos();
+        this.nanoTime = nanoTime;
+        this.nextChangeNumber = nextChangeNumber;
+        final long settled = nanoTime.getAsLong() - settleNanos;
+        for (EntityType type : EntityType.values()) {
+            versions.put(type, new AtomicLong(UNKNOWN));
+            unannouncedChanges.put(type, ConcurrentHashMap.newKeySet());
+            changedAt.put(type, new AtomicLong(settled));
+        }
+    }
+
+    /**
+     * @return the sequence numbering the changes of the table the entities are stored in
+     */
+    public static String changeSequenceOf(final EntityType type) {
+        return type.name().toLowerCase(Locale.ROOT) + "_changes";
+    }
+
+    /**
+     * A change without a number is reported whenever listening for announcements (re)starts, announcements may have
+     * been missed before. A fresh number is taken as the version then: no transaction owns it, so every change
+     * committed later is announced with another number and moves the version.
+     */
+    @EventListener
+    public void onEntityChanged(final EntityChangedEvent event) {
+        final EntityType type = event.getType();
+        if (isNull(event.getChangeNumber())) {
+            unannouncedChanges.get(type).clear();
+            setVersion(type, takeChangeNumber(type));
+        } else {
+            unannouncedChanges.get(type).remove(event.getChangeNumber());
+            setVersion(type, event.getChangeNumber());
+        }
+    }
+
+    private long takeChangeNumber(final EntityType type) {
+        try {
+            return nextChangeNumber.applyAsLong(type);
+        } catch (DataAccessException e) {
+            log.warn("Taking a change number of {} failed, no tags until its next change", type, e);
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Suppresses the tags of the table from a change of this node until its announcement comes back, the list read
+     * by this node already contains the change. A rolled back change is never announced and is forgotten.
+     */
+    public void awaitAnnouncement(final EntityType type, final long changeNumber) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // already committed, the announcement may be on its way
+            changedAt.get(type).set(nanoTime.getAsLong());
+            return;
+        }
+        unannouncedChanges.get(type).add(changeNumber);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                if (status == STATUS_COMMITTED) {
+                    changedAt.get(type).set(nanoTime.getAsLong());
+                } else {
+                    unannouncedChanges.get(type).remove(changeNumber);
+                }
+            }
+        });
+    }
+
+    private void setVersion(final EntityType type, final long version) {
+        changedAt.get(type).set(nanoTime.getAsLong());
+        versions.get(type).set(version);
+    }
+
+    /**
+     * Must be taken before the list is read, so a concurrent change makes the tag older than the list, never newer
+     *
+     * @param types all tables the list is read from
+     * @return the strong entity tag of the list, empty while the version of one of the tables is unknown or it has
+     * just changed
+     */
+    public Optional<String> eTag(final EntityType... types) {
+        // versions are read first, a change counted meanwhile has already moved its changedAt
+        final long[] tableVersions = Arrays.stream(types)
+                .mapToLong(type -> versions.get(type).get())
+                .toArray();
+        final long now = nanoTime.getAsLong();
+        if (Arrays.stream(tableVersions).anyMatch(version -> version == UNKNOWN)
+                || Arrays.stream(types).anyMatch(type -> !unannouncedChanges.get(type).isEmpty()
+                || now - changedAt.get(type).get() < settleNanos)) {
+            return Optional.empty();
+        }
+        return Optional.of(Arrays.stream(tableVersions)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining("-", "\"", "\"")));
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+import com.github.christianj98.primarycustomerbase.entity.Address;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Drops changed customers and addresses from the second-level cache of this node. The time of the last eviction is
+ * kept, a replica read right after it may still return the state from before the change.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+    private volatile Long lastEvictionNanoTime;
+
+    @EventListener
+    public void onEntityChanged(final EntityChangedEvent event) {
+        switch (event.getType()) {
+            case CUSTOMER:
+                evict(Customer.class, event);
+                break;
+            case ADDRESS:
+                evict(Address.class, event);
+                break;
+            default:
+                // not held in the second-level cache
+        }
+    }
+
+    public boolean hasEvictedWithin(final Duration window) {
+        final Long evictedAt = lastEvictionNanoTime;
+        return nonNull(evictedAt) && System.nanoTime() - evictedAt < window.toNanos();
+    }
+
+    private void evict(final Class<?> entityClass, final EntityChangedEvent event) {
+        lastEvictionNanoTime = System.nanoTime();
+        final Cache cache = entityManagerFactory.getCache();
+        if (event.isAll()) {
+            cache.evict(entityClass);
+        } else {
+            cache.evict(entityClass, event.getId());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+import com.github.christianj98.primarycustomerbase.configuration.EntityChangeProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Listens for entity changes announced by any node, this one included, and republishes them as
+ * {@link EntityChangedEvent}s for the local caches. Runs on a thread of its own with a dedicated connection to
+ * the primary, so it neither holds a pooled connection nor reads from a replica. Changes committed before listening
+ * started, or while the connection was being re-established, are not announced to this node, so every entity type
+ * is reported as changed whenever listening (re)starts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntityChangeListener implements SmartLifecycle {
+    private final DataSourceProperties dataSourceProperties;
+    private final EntityChangeProperties entityChangeProperties;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "entity-change-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        listenerThread.interrupt();
+        try {
+            listenerThread.join(entityChangeProperties.getPollTimeout().multipliedBy(2).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = openConnection()) {
+                Arrays.stream(EntityType.values())
+                        .forEach(type -> applicationEventPublisher.publishEvent(EntityChangedEvent.all(type)));
+                receive(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Listening for entity changes failed, reconnecting in {}",
+                        entityChangeProperties.getReconnectDelay(), e);
+                pauseBeforeReconnect();
+            }
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        final Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + entityChangeProperties.getChannel());
+        }
+        return connection;
+    }
+
+    private void receive(final PGConnection connection) throws SQLException {
+        final int pollTimeout = (int) entityChangeProperties.getPollTimeout().toMillis();
+        while (running) {
+            final PGNotification[] notifications = connection.getNotifications(pollTimeout);
+            if (isNull(notifications)) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                EntityChangedEvent.fromPayload(notification.getParameter()).ifPresentOrElse(
+                        applicationEventPublisher::publishEvent,
+                        () -> log.warn("Ignoring unknown entity change: {}", notification.getParameter()));
+            }
+        }
+    }
+
+    private void pauseBeforeReconnect() {
+        try {
+            Thread.sleep(entityChangeProperties.getReconnectDelay().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
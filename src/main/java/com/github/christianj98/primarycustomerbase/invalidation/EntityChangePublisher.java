@@ -0,0 +1,65 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+import com.github.christianj98.primarycustomerbase.configuration.EntityChangeProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Announces changed entities to every node through PostgreSQL NOTIFY. The notification is sent on the connection
+ * of the current transaction, PostgreSQL delivers it only when that transaction commits and drops it on rollback.
+ * Creations are announced as well, they change the lists versioned by {@link CollectionVersions}. Every
+ * announcement carries the next number of the change sequence of its table, taken in the same statement.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityChangePublisher {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityChangeProperties entityChangeProperties;
+    private final CollectionVersions collectionVersions;
+
+    public void publish(final EntityType type, final int id) {
+        announce(EntityChangedEvent.of(type, id));
+    }
+
+    /**
+     * Announces all ids with a single statement, so batch writes do not pay a round trip per entity
+     */
+    public void publish(final EntityType type, final Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        final Object[] payloads = ids.stream()
+                .map(id -> EntityChangedEvent.of(type, id).toPayload())
+                .toArray();
+        // the ids share one change number, pg_notify returns void
+        final Long changeNumber = jdbcTemplate.query("WITH change AS (SELECT nextval(?::regclass) AS change_number)"
+                + " SELECT change_number, pg_notify(?, payload || '@' || change_number)"
+                + " FROM change, unnest(?) AS payload", statement -> {
+            statement.setString(1, CollectionVersions.changeSequenceOf(type));
+            statement.setString(2, entityChangeProperties.getChannel());
+            statement.setArray(3, statement.getConnection().createArrayOf("text", payloads));
+        }, rows -> rows.next() ? rows.getLong("change_number") : null);
+        collectionVersions.awaitAnnouncement(type, Objects.requireNonNull(changeNumber));
+    }
+
+    /**
+     * For writes that do not know the affected ids, e.g. rows copied straight into a table
+     */
+    public void publishAll(final EntityType type) {
+        announce(EntityChangedEvent.all(type));
+    }
+
+    private void announce(final EntityChangedEvent event) {
+        final Long changeNumber = jdbcTemplate.queryForObject(
+                "WITH change AS (SELECT nextval(?::regclass) AS change_number)"
+                        + " SELECT change_number, pg_notify(?, ? || '@' || change_number) FROM change",
+                (row, rowNumber) -> row.getLong("change_number"),
+                CollectionVersions.changeSequenceOf(event.getType()), entityChangeProperties.getChannel(),
+                event.toPayload());
+        collectionVersions.awaitAnnouncement(event.getType(), Objects.requireNonNull(changeNumber));
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+import lombok.Value;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A committed change of one entity, or of all entities of a type when no id is given. The latter is published
+ * after notifications may have been missed, e.g. while the listening connection was being re-established.
+ * Announced changes carry their number in the change sequence of the table, see {@link CollectionVersions}.
+ */
+@Value
+public class EntityChangedEvent {
+    private static final char SEPARATOR = ':';
+    private static final char CHANGE_NUMBER_SEPARATOR = '@';
+    private static final String ALL = "*";
+
+    EntityType type;
+    Integer id;
+    Long changeNumber;
+
+    public static EntityChangedEvent of(final EntityType type, final int id) {
+        return new EntityChangedEvent(type, id, null);
+    }
+
+    public static EntityChangedEvent all(final EntityType type) {
+        return new EntityChangedEvent(type, null, null);
+    }
+
+    public EntityChangedEvent withChangeNumber(final long changeNumber) {
+        return new EntityChangedEvent(type, id, changeNumber);
+    }
+
+    public boolean isAll() {
+        return isNull(id);
+    }
+
+    /**
+     * @return the notification payload, e.g. {@code customer:42@7} or {@code order:*} without a change number
+     */
+    public String toPayload() {
+        return type.name().toLowerCase(Locale.ROOT) + SEPARATOR + (isAll() ? ALL : id)
+                + (isNull(changeNumber) ? "" : CHANGE_NUMBER_SEPARATOR + changeNumber.toString());
+    }
+
+    /**
+     * @return the event described by the payload, empty when the payload is not understood
+     */
+    public static Optional<EntityChangedEvent> fromPayload(final String payload) {
+        final int separator = payload.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        final int changeNumberSeparator = payload.indexOf(CHANGE_NUMBER_SEPARATOR, separator);
+        try {
+            final EntityType type = EntityType.valueOf(payload.substring(0, separator).toUpperCase(Locale.ROOT));
+            final String id = changeNumberSeparator < 0
+                    ? payload.substring(separator + 1)
+                    : payload.substring(separator + 1, changeNumberSeparator);
+            final EntityChangedEvent event = ALL.equals(id) ? all(type) : of(type, Integer.parseInt(id));
+            return Optional.of(changeNumberSeparator < 0
+                    ? event
+                    : event.withChangeNumber(Long.parseLong(payload.substring(changeNumberSeparator + 1))));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+/**
+ * Kinds of entities whose changes are announced to every node
+ */
+public enum EntityType {
+    CUSTOMER,
+    ADDRESS,
+    ORDER
+}
@@ -21,6 +21,7 @@ public class AddressMapperService {
         addressDto.setId(address.getId());
         addressDto.setStreet(address.getStreet());
         addressDto.setCity(address.getCity());
+        addressDto.setVersion(address.getVersion());
         return addressDto;
     }
 
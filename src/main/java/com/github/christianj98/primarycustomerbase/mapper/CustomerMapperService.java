@@ -1,7 +1,9 @@
 package com.github.christianj98.primarycustomerbase.mapper;
 
+import com.github.christianj98.primarycustomerbase.dto.AddressDto;
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.projection.CustomerView;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -32,6 +34,25 @@ public class CustomerMapperService {
         customerDto.setFirstName(customer.getFirstName());
         customerDto.setLastName(customer.getLastName());
         customerDto.setAddressDto(addressMapperService.mapFrom(customer.getAddress()));
+        customerDto.setVersion(customer.getVersion());
+        return customerDto;
+    }
+
+    public List<CustomerDto> mapFromViews(List<CustomerView> customerViews) {
+        return customerViews.stream()
+                .map(this::mapFrom)
+                .collect(Collectors.toList());
+    }
+
+    public CustomerDto mapFrom(CustomerView customerView) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setFirstName(customerView.getFirstName());
+        customerDto.setLastName(customerView.getLastName());
+        customerDto.setAddressDto(new AddressDto(customerView.getAddressId(),
+                customerView.getStreet(),
+                customerView.getCity(),
+                customerView.getAddressVersion()));
+        customerDto.setVersion(customerView.getVersion());
         return customerDto;
     }
 }
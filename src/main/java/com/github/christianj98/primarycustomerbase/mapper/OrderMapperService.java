@@ -1,13 +1,18 @@
 package com.github.christianj98.primarycustomerbase.mapper;
 
+import com.github.christianj98.primarycustomerbase.archive.ArchivedOrder;
 import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
 import com.github.christianj98.primarycustomerbase.entity.Order;
+import com.github.christianj98.primarycustomerbase.projection.OrderView;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static java.util.Objects.isNull;
+
 @Service
 @RequiredArgsConstructor
 public class OrderMapperService {
@@ -25,6 +30,36 @@ public class OrderMapperService {
         orderDto.setDate(order.getDate());
         orderDto.setAmount(order.getAmount());
         orderDto.setCustomerDto(customerMapperService.mapFrom(order.getCustomer()));
+        orderDto.setVersion(order.getVersion());
+        return orderDto;
+    }
+
+    /**
+     * @param customer of the archived order, null when it has none or it no longer exists
+     */
+    public OrderDto mapFrom(final ArchivedOrder archivedOrder, final Customer customer) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setOrderId(archivedOrder.getId());
+        orderDto.setDate(archivedOrder.getDate());
+        orderDto.setAmount(archivedOrder.getAmount());
+        orderDto.setCustomerDto(isNull(customer) ? null : customerMapperService.mapFrom(customer));
+        orderDto.setVersion(archivedOrder.getVersion());
+        return orderDto;
+    }
+
+    public List<OrderDto> mapFromViews(List<OrderView> orderViews) {
+        return orderViews.stream()
+                .map(this::mapFrom)
+                .collect(Collectors.toList());
+    }
+
+    public OrderDto mapFrom(OrderView orderView) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setOrderId(orderView.getId());
+        orderDto.setDate(orderView.getDate());
+        orderDto.setAmount(orderView.getAmount());
+        orderDto.setCustomerDto(customerMapperService.mapFrom(orderView.getCustomer()));
+        orderDto.setVersion(orderView.getVersion());
         return orderDto;
     }
 }
@@ -6,7 +6,20 @@ package com.github.christianj98.primarycustomerbase.message;
 public enum ErrorMessages {
     CUSTOMER_ALREADY_EXIST_ERROR("Customer with given first name %s and last name %s already exist"),
     ADDRESS_ALREADY_EXIST_ERROR("Address with given street %s and city %s already exist"),
-    ADDRESS_ASSIGNED_TO_THR_CUSTOMER_ERROR("Address cannot be deleted because address is assigned to the customer");
+    CUSTOMER_ADDRESS_ALREADY_EXIST_ERROR("Customer with given first name %s and last name %s cannot be created "
+            + "because address with given street %s and city %s already exist"),
+    CUSTOMER_BATCH_CONFLICT_ERROR("Batch contains a customer or an address which already exist"),
+    ADDRESS_ASSIGNED_TO_THR_CUSTOMER_ERROR("Address cannot be deleted because address is assigned to the customer"),
+    INVALID_CURSOR_ERROR("Cursor %s is invalid"),
+    CUSTOMER_NOT_FOUND_ERROR("Customer not found with given id: %s"),
+    MALFORMED_ORDER_ROW_ERROR("Row cannot be parsed as an order: %s"),
+    RESOURCE_MODIFIED_ERROR("Resource with given id %s does not match %s, its current entity tag is %s"),
+    CONCURRENT_MODIFICATION_ERROR("Resource has been modified concurrently, reload it and retry"),
+    INVALID_PATCH_ERROR("Patch cannot be applied: %s"),
+    ORDER_QUEUE_FULL_ERROR("Too many orders are waiting to be written, retry later"),
+    ORDER_WRITE_NOT_FOUND_ERROR("Order write not found with given tracking id: %s"),
+    DATABASE_BUSY_ERROR("Too many requests are waiting for a database connection, retry later"),
+    BULKHEAD_FULL_ERROR("Too many %s requests are waiting, retry later");
 
     private final String message;
 
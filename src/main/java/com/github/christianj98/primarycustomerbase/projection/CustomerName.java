@@ -0,0 +1,12 @@
+package com.github.christianj98.primarycustomerbase.projection;
+
+import lombok.Value;
+
+/**
+ * First and last name pair which identifies a customer, selected with a JPQL constructor expression
+ */
+@Value
+public class CustomerName {
+    String firstName;
+    String lastName;
+}
@@ -0,0 +1,18 @@
+package com.github.christianj98.primarycustomerbase.projection;
+
+import lombok.Value;
+
+/**
+ * Flat read-only row of a customer joined with its address, selected with a JPQL constructor expression
+ */
+@Value
+public class CustomerView {
+    Integer id;
+    String firstName;
+    String lastName;
+    long version;
+    Integer addressId;
+    String street;
+    String city;
+    long addressVersion;
+}
@@ -0,0 +1,38 @@
+package com.github.christianj98.primarycustomerbase.projection;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read-only row of an order joined with its customer and address, selected with a JPQL constructor expression
+ */
+@Getter
+public class OrderView {
+    private final int id;
+    private final LocalDateTime date;
+    private final BigDecimal amount;
+    private final long version;
+    private final CustomerView customer;
+
+    public OrderView(final int id,
+                     final LocalDateTime date,
+                     final BigDecimal amount,
+                     final long version,
+                     final Integer customerId,
+                     final String firstName,
+                     final String lastName,
+                     final long customerVersion,
+                     final Integer addressId,
+                     final String street,
+                     final String city,
+                     final long addressVersion) {
+        this.id = id;
+        this.date = date;
+        this.amount = amount;
+        this.version = version;
+        this.customer = new CustomerView(customerId, firstName, lastName, customerVersion,
+                addressId, street, city, addressVersion);
+    }
+}
@@ -1,9 +1,13 @@
 package com.github.christianj98.primarycustomerbase.repository;
 
+import com.github.christianj98.primarycustomerbase.dto.AddressDto;
 import com.github.christianj98.primarycustomerbase.entity.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +15,21 @@ import java.util.Optional;
 public interface AddressRepository extends JpaRepository<Address, Integer> {
     List<Address> findAll();
 
+    /**
+     * Reads addresses straight into DTOs, so the listing costs a single statement
+     */
+    @Query("SELECT new com.github.christianj98.primarycustomerbase.dto.AddressDto(a.id, a.street, a.city, a.version) "
+            + "FROM Address a")
+    List<AddressDto> findAllAddressDtos();
+
+    @Query("SELECT new com.github.christianj98.primarycustomerbase.dto.AddressDto(a.id, a.street, a.city, a.version) "
+            + "FROM Address a WHERE a.id = :id")
+    Optional<AddressDto> findAddressDtoById(@Param("id") Integer id);
+
+    @Query("SELECT new com.github.christianj98.primarycustomerbase.dto.AddressDto(a.id, a.street, a.city, a.version) "
+            + "FROM Address a WHERE a.id IN :ids")
+    List<AddressDto> findAddressDtosByIdIn(@Param("ids") Collection<Integer> ids);
+
     boolean existsByStreetAndCity(String street, String city);
 
     <S extends Address> S save(S address);
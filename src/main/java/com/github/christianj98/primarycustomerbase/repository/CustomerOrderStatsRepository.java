@@ -0,0 +1,175 @@
+package com.github.christianj98.primarycustomerbase.repository;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderStatsProperties;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Reads and maintains the customer_order_stats rollup on the connection of the current transaction. Customer ids
+ * are grouped into ranges of the rebuild chunk size, writers hold a shared advisory lock on the ranges they change
+ * and a rebuild holds the exclusive one, so a rebuild either sees an order change or runs before it is applied.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerOrderStatsRepository {
+    static final String SELECT_STATS = "SELECT customer_id, order_count, total_amount, min_amount, max_amount, "
+            + "last_order_date FROM customer_order_stats ";
+    static final String ADD_ORDERS = "INSERT INTO customer_order_stats AS s "
+            + "(customer_id, order_count, total_amount, min_amount, max_amount, last_order_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (customer_id) DO UPDATE SET "
+            + "order_count = s.order_count + EXCLUDED.order_count, "
+            + "total_amount = s.total_amount + EXCLUDED.total_amount, "
+            + "min_amount = LEAST(s.min_amount, EXCLUDED.min_amount), "
+            + "max_amount = GREATEST(s.max_amount, EXCLUDED.max_amount), "
+            + "last_order_date = GREATEST(s.last_order_date, EXCLUDED.last_order_date)";
+    static final String REMOVE_ORDER = "UPDATE customer_order_stats "
+            + "SET order_count = order_count - 1, total_amount = total_amount - ? "
+            + "WHERE customer_id = ?";
+    static final String RECOMPUTE_EXTREMES = "UPDATE customer_order_stats "
+            + "SET (min_amount, max_amount, last_order_date) = "
+            + "(SELECT MIN(amount), MAX(amount), MAX(date) FROM orders WHERE customer_id = ?) "
+            + "WHERE customer_id = ? AND (min_amount = ? OR max_amount = ? OR last_order_date = ?)";
+    static final String REMOVE_ORDERS = "UPDATE customer_order_stats "
+            + "SET order_count = order_count - ?, total_amount = total_amount - ? "
+            + "WHERE customer_id = ?";
+    static final String RECOMPUTE_ALL_EXTREMES = "UPDATE customer_order_stats "
+            + "SET (min_amount, max_amount, last_order_date) = "
+            + "(SELECT MIN(amount), MAX(amount), MAX(date) FROM orders WHERE customer_id = ?) "
+            + "WHERE customer_id = ?";
+    static final String DELETE_RANGE = "DELETE FROM customer_order_stats WHERE customer_id >= ? AND customer_id < ?";
+    static final String REBUILD_RANGE = "INSERT INTO customer_order_stats AS s "
+            + "(customer_id, order_count, total_amount, min_amount, max_amount, last_order_date) "
+            + "SELECT customer_id, COUNT(*), SUM(amount), MIN(amount), MAX(amount), MAX(date) FROM orders "
+            + "WHERE customer_id >= ? AND customer_id < ? GROUP BY customer_id "
+            + "ON CONFLICT (customer_id) DO UPDATE SET "
+            + "order_count = EXCLUDED.order_count, total_amount = EXCLUDED.total_amount, "
+            + "min_amount = EXCLUDED.min_amount, max_amount = EXCLUDED.max_amount, "
+            + "last_order_date = EXCLUDED.last_order_date";
+    static final String LOCK_RANGE_SHARED =
+            "SELECT pg_advisory_xact_lock_shared(hashtext('customer_order_stats'), ?)";
+    static final String LOCK_RANGE = "SELECT pg_advisory_xact_lock(hashtext('customer_order_stats'), ?)";
+
+    private static final RowMapper<OrderSummaryDto> SUMMARY_MAPPER = (resultSet, rowNumber) -> new OrderSummaryDto(
+            resultSet.getInt("customer_id"),
+            resultSet.getLong("order_count"),
+            resultSet.getBigDecimal("total_amount"),
+            resultSet.getBigDecimal("min_amount"),
+            resultSet.getBigDecimal("max_amount"),
+            toLocalDateTime(resultSet.getTimestamp("last_order_date")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderStatsProperties orderStatsProperties;
+
+    public Optional<OrderSummaryDto> findByCustomerId(final int customerId) {
+        return jdbcTemplate.query(SELECT_STATS + "WHERE customer_id = ?", SUMMARY_MAPPER, customerId)
+                .stream()
+                .findFirst();
+    }
+
+    public List<OrderSummaryDto> findFirstPage(final int limit) {
+        return jdbcTemplate.query(SELECT_STATS + "WHERE order_count > 0 ORDER BY customer_id LIMIT ?",
+                SUMMARY_MAPPER, limit);
+    }
+
+    public List<OrderSummaryDto> findPageAfter(final int customerId, final int limit) {
+        return jdbcTemplate.query(
+                SELECT_STATS + "WHERE customer_id > ? AND order_count > 0 ORDER BY customer_id LIMIT ?",
+                SUMMARY_MAPPER, customerId, limit);
+    }
+
+    /**
+     * Adds the orders summarized per customer. Rows are locked in customer id order, so concurrent writers cannot
+     * deadlock on them.
+     */
+    public void add(final List<OrderSummaryDto> orders) {
+        final List<OrderSummaryDto> sortedOrders = orders.stream()
+                .sorted(Comparator.comparingInt(OrderSummaryDto::getCustomerId))
+                .collect(Collectors.toList());
+        lockRangesShared(sortedOrders.stream().mapToInt(OrderSummaryDto::getCustomerId));
+        jdbcTemplate.batchUpdate(ADD_ORDERS, sortedOrders, sortedOrders.size(), (statement, summary) -> {
+            statement.setInt(1, summary.getCustomerId());
+            statement.setLong(2, summary.getOrderCount());
+            statement.setBigDecimal(3, summary.getTotalAmount());
+            statement.setBigDecimal(4, summary.getMinAmount());
+            statement.setBigDecimal(5, summary.getMaxAmount());
+            statement.setTimestamp(6, Timestamp.valueOf(summary.getLastOrderDate()));
+        });
+    }
+
+    /**
+     * Must run after the order is gone from the orders table. Min, max and last order date are recomputed only
+     * when the removed order held one of them.
+     */
+    public void remove(final int customerId, final BigDecimal amount, final LocalDateTime date) {
+        lockRangesShared(IntStream.of(customerId));
+        jdbcTemplate.update(REMOVE_ORDER, amount, customerId);
+        jdbcTemplate.update(RECOMPUTE_EXTREMES, customerId, customerId, amount, amount, Timestamp.valueOf(date));
+    }
+
+    /**
+     * Removes the orders summarized per customer, must run after the orders are gone from the orders table. Min, max
+     * and last order date of these customers are recomputed.
+     */
+    public void removeAll(final List<OrderSummaryDto> orders) {
+        final List<OrderSummaryDto> sortedOrders = orders.stream()
+                .sorted(Comparator.comparingInt(OrderSummaryDto::getCustomerId))
+                .collect(Collectors.toList());
+        lockRangesShared(sortedOrders.stream().mapToInt(OrderSummaryDto::getCustomerId));
+        jdbcTemplate.batchUpdate(REMOVE_ORDERS, sortedOrders, sortedOrders.size(), (statement, summary) -> {
+            statement.setLong(1, summary.getOrderCount());
+            statement.setBigDecimal(2, summary.getTotalAmount());
+            statement.setInt(3, summary.getCustomerId());
+        });
+        jdbcTemplate.batchUpdate(RECOMPUTE_ALL_EXTREMES, sortedOrders, sortedOrders.size(), (statement, summary) -> {
+            statement.setInt(1, summary.getCustomerId());
+            statement.setInt(2, summary.getCustomerId());
+        });
+    }
+
+    /**
+     * Recomputes the stats of the customers with ids from the given one inclusive to the other one exclusive. Waits
+     * for the writers of the range to commit and keeps new ones waiting until the current transaction ends.
+     *
+     * @return number of customers with orders in the range
+     */
+    public int rebuild(final int fromCustomerId, final int toCustomerId) {
+        for (int range = rangeOf(fromCustomerId); range <= rangeOf(toCustomerId - 1); range++) {
+            jdbcTemplate.queryForList(LOCK_RANGE, range);
+        }
+        jdbcTemplate.update(DELETE_RANGE, fromCustomerId, toCustomerId);
+        return jdbcTemplate.update(REBUILD_RANGE, fromCustomerId, toCustomerId);
+    }
+
+    /**
+     * Locks are taken in range order, so writers and rebuilds cannot deadlock on them
+     */
+    private void lockRangesShared(final IntStream customerIds) {
+        customerIds.map(this::rangeOf)
+                .distinct()
+                .sorted()
+                .forEach(range -> jdbcTemplate.queryForList(LOCK_RANGE_SHARED, range));
+    }
+
+    private int rangeOf(final int customerId) {
+        return Math.floorDiv(customerId, orderStatsProperties.getChunkSize());
+    }
+
+    private static LocalDateTime toLocalDateTime(final Timestamp timestamp) {
+        return isNull(timestamp) ? null : timestamp.toLocalDateTime();
+    }
+}
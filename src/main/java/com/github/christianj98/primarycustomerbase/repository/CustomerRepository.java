@@ -1,24 +1,66 @@
 package com.github.christianj98.primarycustomerbase.repository;
 
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.projection.CustomerName;
+import com.github.christianj98.primarycustomerbase.projection.CustomerView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Integer> {
+    String EXPORT_FETCH_SIZE = "1000";
+    String SELECT_CUSTOMER_VIEW = "SELECT new com.github.christianj98.primarycustomerbase.projection.CustomerView("
+            + "c.id, c.firstName, c.lastName, c.version, a.id, a.street, a.city, a.version) "
+            + "FROM Customer c JOIN c.address a ";
+
     @Override
     Optional<Customer> findById(Integer id);
     @Query("SELECT c FROM Customer c JOIN FETCH c.address")
     List<Customer> findAll();
+    @Query(SELECT_CUSTOMER_VIEW)
+    List<CustomerView> findAllCustomerViews();
+    @Query(SELECT_CUSTOMER_VIEW + "WHERE c.id = :id")
+    Optional<CustomerView> findCustomerViewById(@Param("id") Integer id);
+    @Query(SELECT_CUSTOMER_VIEW + "WHERE c.id IN :ids")
+    List<CustomerView> findCustomerViewsByIdIn(@Param("ids") Collection<Integer> ids);
+    @Query("SELECT c FROM Customer c JOIN FETCH c.address WHERE c.id IN :ids")
+    List<Customer> findAllWithAddressByIdIn(@Param("ids") Collection<Integer> ids);
+    @Query("SELECT c FROM Customer c JOIN FETCH c.address")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Customer> streamAll();
     @Override
     <S extends Customer> S save(S customer);
     @Override
     boolean existsById(Integer id);
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
     boolean existsByFirstNameAndLastName(String firstName, String lastName);
+    boolean existsByAddressId(Integer addressId);
+    @Query("SELECT MIN(c.id) FROM Customer c")
+    Optional<Integer> findMinId();
+    @Query("SELECT MAX(c.id) FROM Customer c")
+    Optional<Integer> findMaxId();
+    @Query("SELECT c.id FROM Customer c WHERE c.address.id = :addressId")
+    Optional<Integer> findIdByAddressId(@Param("addressId") Integer addressId);
+    @Query("SELECT new com.github.christianj98.primarycustomerbase.projection.CustomerName(c.firstName, c.lastName) "
+            + "FROM Customer c WHERE c.lastName IN :lastNames")
+    List<CustomerName> findNamesByLastNameIn(@Param("lastNames") Collection<String> lastNames);
 
     void deleteById(Integer id);
 }
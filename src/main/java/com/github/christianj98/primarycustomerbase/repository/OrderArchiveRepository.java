@@ -0,0 +1,53 @@
+package com.github.christianj98.primarycustomerbase.repository;
+
+import com.github.christianj98.primarycustomerbase.archive.ArchivedOrder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Takes orders out of the orders table for the archive, on the connection of the current transaction
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveRepository {
+    static final String SELECT_EARLIEST_DATE = "SELECT MIN(date) FROM orders WHERE date < ?";
+    static final String DELETE_DATED_BETWEEN = "DELETE FROM orders WHERE date >= ? AND date < ? "
+            + "RETURNING id, date, amount, customer_id, version";
+
+    private static final RowMapper<ArchivedOrder> ARCHIVED_ORDER_MAPPER = (resultSet, rowNumber) -> new ArchivedOrder(
+            resultSet.getInt("id"),
+            resultSet.getTimestamp("date").toLocalDateTime(),
+            resultSet.getBigDecimal("amount"),
+            resultSet.getObject("customer_id", Integer.class),
+            resultSet.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<LocalDateTime> findEarliestDateBefore(final LocalDateTime date) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(SELECT_EARLIEST_DATE, Timestamp.class,
+                        Timestamp.valueOf(date)))
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * Deletes the orders dated from the given date inclusive to the other one exclusive
+     *
+     * @return deleted orders sorted by id
+     */
+    public List<ArchivedOrder> deleteDatedBetween(final LocalDateTime from, final LocalDateTime to) {
+        return jdbcTemplate.query(DELETE_DATED_BETWEEN, ARCHIVED_ORDER_MAPPER, Timestamp.valueOf(from),
+                        Timestamp.valueOf(to))
+                .stream()
+                .sorted(Comparator.comparingInt(ArchivedOrder::getId))
+                .collect(Collectors.toList());
+    }
+}
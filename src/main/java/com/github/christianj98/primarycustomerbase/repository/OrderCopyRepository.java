@@ -0,0 +1,59 @@
+package com.github.christianj98.primarycustomerbase.repository;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Writes orders with the PostgreSQL COPY protocol on the connection of the current transaction
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderCopyRepository {
+    static final String COPY_ORDERS = "COPY orders (date, amount, customer_id) FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return number of copied rows
+     */
+    public long copy(final List<OrderCreateDto> orders) {
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        final String rows = toCsv(orders);
+        final Long copiedRows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class)
+                        .getCopyAPI()
+                        .copyIn(COPY_ORDERS, new StringReader(rows));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return isNull(copiedRows) ? 0 : copiedRows;
+    }
+
+    static String toCsv(final List<OrderCreateDto> orders) {
+        final StringBuilder rows = new StringBuilder(orders.size() * 48);
+        for (OrderCreateDto order : orders) {
+            rows.append(order.getDate())
+                    .append(',')
+                    .append(order.getAmount().toPlainString())
+                    .append(',')
+                    .append(order.getCustomerId())
+                    .append('\n');
+        }
+        return rows.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.christianj98.primarycustomerbase.repository;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts orders as one JDBC batch on the connection of the current transaction. The ids are drawn from the
+ * orders sequence up front, so every order is known by its id although the batch is rewritten into multi-row
+ * inserts by the driver.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderInsertRepository {
+    static final String NEXT_IDS = "SELECT nextval('orders_seq') FROM generate_series(1, ?)";
+    static final String INSERT_ORDER = "INSERT INTO orders (id, date, amount, customer_id) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return ids of the inserted orders in the order of the given ones
+     */
+    public List<Integer> insertAll(final List<OrderCreateDto> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        final List<Integer> ids = jdbcTemplate.queryForList(NEXT_IDS, Integer.class, orders.size());
+        final List<Object[]> rows = new ArrayList<>(orders.size());
+        for (int index = 0; index < orders.size(); index++) {
+            final OrderCreateDto order = orders.get(index);
+            rows.add(new Object[]{ids.get(index), Timestamp.valueOf(order.getDate()), order.getAmount(),
+                    order.getCustomerId()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER, rows);
+        return ids;
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.christianj98.primarycustomerbase.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Sequences of the order journals up to which their orders are committed, on the connection of the current
+ * transaction. Every journal has a single writer, so the checkpoint of a journal is never written concurrently.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderJournalCheckpointRepository {
+    static final String SELECT_SEQUENCE = "SELECT MAX(sequence) FROM order_journal_checkpoints WHERE journal_id = ?";
+    static final String UPDATE_SEQUENCE = "UPDATE order_journal_checkpoints SET sequence = ? WHERE journal_id = ?";
+    static final String INSERT_SEQUENCE = "INSERT INTO order_journal_checkpoints (journal_id, sequence) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return sequence of the last committed order of the journal, 0 before the first one
+     */
+    public long findSequence(final String journalId) {
+        final Long sequence = jdbcTemplate.queryForObject(SELECT_SEQUENCE, Long.class, journalId);
+        return isNull(sequence) ? 0 : sequence;
+    }
+
+    public void saveSequence(final String journalId, final long sequence) {
+        if (jdbcTemplate.update(UPDATE_SEQUENCE, sequence, journalId) == 0) {
+            jdbcTemplate.update(INSERT_SEQUENCE, journalId, sequence);
+        }
+    }
+}
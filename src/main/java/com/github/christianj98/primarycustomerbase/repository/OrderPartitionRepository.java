@@ -0,0 +1,52 @@
+package com.github.christianj98.primarycustomerbase.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static java.lang.Boolean.TRUE;
+
+/**
+ * Manages the monthly partitions of the orders table in PostgreSQL
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderPartitionRepository {
+    static final String CREATE_PARTITION = "SELECT create_orders_partition(?)";
+    static final String DROP_PARTITION_IF_EMPTY = "SELECT drop_orders_partition_if_empty(?)";
+    static final String DETACH_PARTITION = "ALTER TABLE orders DETACH PARTITION %s";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static String partitionName(final YearMonth month) {
+        return "orders_" + month.format(PARTITION_SUFFIX);
+    }
+
+    /**
+     * @return whether the partition was created, false when it already existed
+     */
+    public boolean createPartition(final YearMonth month) {
+        return TRUE.equals(jdbcTemplate.queryForObject(CREATE_PARTITION, Boolean.class, month.atDay(1)));
+    }
+
+    /**
+     * @return whether the partition was dropped, false when it does not exist or still holds orders
+     */
+    public boolean dropPartitionIfEmpty(final YearMonth month) {
+        return TRUE.equals(jdbcTemplate.queryForObject(DROP_PARTITION_IF_EMPTY, Boolean.class, month.atDay(1)));
+    }
+
+    /**
+     * Detaches the partition of the month, a catalog change which neither reads nor deletes its orders. The orders
+     * stay in a standalone table of the same name, to be archived or dropped. The customer order stats still count
+     * them until they are rebuilt.
+     */
+    public void detachPartition(final YearMonth month) {
+        jdbcTemplate.execute(String.format(DETACH_PARTITION, partitionName(month)));
+    }
+}
@@ -1,18 +1,54 @@
 package com.github.christianj98.primarycustomerbase.repository;
 
 import com.github.christianj98.primarycustomerbase.entity.Order;
+import com.github.christianj98.primarycustomerbase.projection.OrderView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
+    String SELECT_ORDER_VIEW = "SELECT new com.github.christianj98.primarycustomerbase.projection.OrderView("
+            + "o.id, o.date, o.amount, o.version, "
+            + "c.id, c.firstName, c.lastName, c.version, a.id, a.street, a.city, a.version) "
+            + "FROM Order o JOIN o.customer c JOIN c.address a ";
+
     @Query("SELECT o FROM Order o JOIN FETCH o.customer c JOIN FETCH c.address a")
     List<Order> findAllWithCustomerAndAddress();
 
+    /**
+     * Both bounds are always bound, so PostgreSQL prunes the partitions of the orders table outside the range
+     */
+    @Query(SELECT_ORDER_VIEW
+            + "WHERE o.date >= :from AND o.date < :to "
+            + "ORDER BY o.date, o.id")
+    List<OrderView> findFirstPageOfOrderViews(@Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              Pageable pageable);
+
+    @Query(SELECT_ORDER_VIEW
+            + "WHERE o.date >= :from AND o.date < :to "
+            + "AND o.date >= :date AND (o.date > :date OR o.id > :id) "
+            + "ORDER BY o.date, o.id")
+    List<OrderView> findPageOfOrderViewsAfter(@Param("date") LocalDateTime date,
+                                              @Param("id") int id,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              Pageable pageable);
+
+    @Query(SELECT_ORDER_VIEW + "WHERE o.id = :id")
+    Optional<OrderView> findOrderViewById(@Param("id") Integer id);
+
+    @Query(SELECT_ORDER_VIEW + "WHERE o.id IN :ids")
+    List<OrderView> findOrderViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
     <S extends Order> S save(S entity);
 
     Optional<Order> findById(Integer integer);
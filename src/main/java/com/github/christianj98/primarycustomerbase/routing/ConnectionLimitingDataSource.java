@@ -0,0 +1,124 @@
+package com.github.christianj98.primarycustomerbase.routing;
+
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.DATABASE_BUSY_ERROR;
+
+/**
+ * Hands out at most a fixed number of connections at once. While the database is slow, a bounded number of
+ * requests waits a short time for a connection and the rest is refused with a {@link ServiceOverloadedException},
+ * so the request threads stay free for requests which need no connection, such as cache hits, instead of all of
+ * them blocking in the pool until its connection timeout. A connection counts until it is closed.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final long acquireTimeoutNanos;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public ConnectionLimitingDataSource(final DataSource targetDataSource,
+                                        final int maxConcurrent,
+                                        final int maxWaiting,
+                                        final Duration acquireTimeout) {
+        super(targetDataSource);
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return limit(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return limit(() -> super.getConnection(username, password));
+    }
+
+    /**
+     * @return connections handed out and not closed yet
+     */
+    public int getActiveConnections() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    private Connection limit(final ConnectionSupplier connectionSupplier) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(connectionSupplier.get());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            throw new ServiceOverloadedException(DATABASE_BUSY_ERROR.getMessage());
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new ServiceOverloadedException(DATABASE_BUSY_ERROR.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private Connection releaseOnClose(final Connection connection) {
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
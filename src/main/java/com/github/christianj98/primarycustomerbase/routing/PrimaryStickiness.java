@@ -0,0 +1,41 @@
+package com.github.christianj98.primarycustomerbase.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as one that has to read from the primary, so a client sees its own writes
+ * before they reach the replicas
+ */
+public final class PrimaryStickiness {
+    private static final ThreadLocal<Boolean> STICKY = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private PrimaryStickiness() {
+    }
+
+    public static void stick() {
+        STICKY.set(Boolean.TRUE);
+    }
+
+    public static boolean isSticky() {
+        return STICKY.get();
+    }
+
+    public static void clear() {
+        STICKY.remove();
+    }
+
+    /**
+     * Runs the action with reads routed to the primary and restores the previous state afterwards
+     */
+    public static <T> T onPrimary(final Supplier<T> action) {
+        final boolean wasSticky = isSticky();
+        stick();
+        try {
+            return action.get();
+        } finally {
+            if (!wasSticky) {
+                clear();
+            }
+        }
+    }
+}
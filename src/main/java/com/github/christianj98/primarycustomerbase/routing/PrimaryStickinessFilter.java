@@ -0,0 +1,58 @@
+package com.github.christianj98.primarycustomerbase.routing;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Keeps a client on the primary for a short window after it sent a write. Every write request receives
+ * a cookie living for the sticky window, requests carrying that cookie read from the primary.
+ */
+public class PrimaryStickinessFilter extends OncePerRequestFilter {
+    public static final String STICKY_COOKIE_NAME = "read-primary";
+    private static final Set<String> SAFE_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(),
+            HttpMethod.OPTIONS.name(), HttpMethod.TRACE.name());
+
+    private final int stickySeconds;
+
+    public PrimaryStickinessFilter(final Duration stickyWindow) {
+        this.stickySeconds = (int) Math.max(1, stickyWindow.toSeconds());
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            // set up front, the response may already be committed once the handler returns
+            response.addCookie(createStickyCookie(request));
+            PrimaryStickiness.stick();
+        } else if (nonNull(WebUtils.getCookie(request, STICKY_COOKIE_NAME))) {
+            PrimaryStickiness.stick();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryStickiness.clear();
+        }
+    }
+
+    private Cookie createStickyCookie(final HttpServletRequest request) {
+        final Cookie cookie = new Cookie(STICKY_COOKIE_NAME, "1");
+        cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+        cookie.setMaxAge(stickySeconds);
+        cookie.setHttpOnly(true);
+        return cookie;
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.christianj98.primarycustomerbase.routing;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps entities read from a replica out of the second-level cache while a cached entity changed recently.
+ * Such a read may still return the state from before the change and would otherwise put it back into the cache
+ * for its whole time to live. Entities already in the cache are still read from it.
+ */
+public class ReplicaReadCachingJpaDialect extends HibernateJpaDialect {
+    private final BooleanSupplier replicasMayBeStale;
+
+    public ReplicaReadCachingJpaDialect(final BooleanSupplier replicasMayBeStale) {
+        this.replicasMayBeStale = replicasMayBeStale;
+    }
+
+    @Override
+    public Object beginTransaction(final EntityManager entityManager, final TransactionDefinition definition)
+            throws SQLException {
+        final Object transactionData = super.beginTransaction(entityManager, definition);
+        // same decision as the routing data source, taken up front as the connection is acquired lazily
+        if (!definition.isReadOnly() || PrimaryStickiness.isSticky() || !replicasMayBeStale.getAsBoolean()) {
+            return transactionData;
+        }
+        final Session session = entityManager.unwrap(Session.class);
+        final CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new ReplicaReadData(transactionData, session, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(@Nullable final Object transactionData) {
+        if (transactionData instanceof ReplicaReadData) {
+            final ReplicaReadData replicaReadData = (ReplicaReadData) transactionData;
+            replicaReadData.session.setCacheMode(replicaReadData.previousCacheMode);
+            super.cleanupTransaction(replicaReadData.transactionData);
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private static final class ReplicaReadData {
+        private final Object transactionData;
+        private final Session session;
+        private final CacheMode previousCacheMode;
+
+        private ReplicaReadData(final Object transactionData, final Session session,
+                                final CacheMode previousCacheMode) {
+            this.transactionData = transactionData;
+            this.session = session;
+            this.previousCacheMode = previousCacheMode;
+        }
+    }
+}
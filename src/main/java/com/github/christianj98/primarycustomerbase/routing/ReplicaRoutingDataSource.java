@@ -0,0 +1,59 @@
+package com.github.christianj98.primarycustomerbase.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas round-robin and everything else to the primary.
+ * The read-only flag is only known once the transaction has started, so this data source has to sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} which defers the connection lookup
+ * until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    static final String PRIMARY_KEY = "primary";
+    static final String REPLICA_KEY_PREFIX = "replica-";
+
+    private final List<? extends DataSource> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(final DataSource primary, final List<? extends DataSource> replicas) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        final Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY_KEY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA_KEY_PREFIX + i, replicas.get(i));
+        }
+        this.replicas = List.copyOf(replicas);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PrimaryStickiness.isSticky()) {
+            return PRIMARY_KEY;
+        }
+        return REPLICA_KEY_PREFIX + Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    /**
+     * Closes the replica pools, the primary is owned by the application context
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable) {
+                ((AutoCloseable) replica).close();
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.christianj98.primarycustomerbase.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.christianj98.primarycustomerbase.dto.AddressDto;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
 
 import java.util.List;
 
@@ -11,7 +13,11 @@ public interface AddressService {
 
     AddressDto findById(int id);
 
-    AddressDto update(AddressDto addressDto, int id);
+    List<MultiGetEntryDto<AddressDto>> findAllById(List<Integer> ids);
 
-    void delete(int id);
+    AddressDto update(AddressDto addressDto, int id, String ifMatch);
+
+    AddressDto patch(JsonNode mergePatch, int id, String ifMatch);
+
+    void delete(int id, String ifMatch);
 }
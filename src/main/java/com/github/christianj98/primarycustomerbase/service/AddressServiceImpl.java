@@ -1,21 +1,29 @@
 package com.github.christianj98.primarycustomerbase.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.christianj98.primarycustomerbase.dto.AddressDto;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
 import com.github.christianj98.primarycustomerbase.entity.Address;
 import com.github.christianj98.primarycustomerbase.exception.AddressAssignedToTheCustomerException;
 import com.github.christianj98.primarycustomerbase.exception.ResourceAlreadyExistsException;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
 import com.github.christianj98.primarycustomerbase.mapper.AddressMapperService;
 import com.github.christianj98.primarycustomerbase.repository.AddressRepository;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.ADDRESS_ALREADY_EXIST_ERROR;
 import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.ADDRESS_ASSIGNED_TO_THR_CUSTOMER_ERROR;
-import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CUSTOMER_ALREADY_EXIST_ERROR;
-import static java.util.Objects.nonNull;
 
 @Service
 @RequiredArgsConstructor
@@ -23,22 +31,37 @@ import static java.util.Objects.nonNull;
 public class AddressServiceImpl implements AddressService {
     private final AddressRepository addressRepository;
     private final AddressMapperService addressMapperService;
+    private final CustomerRepository customerRepository;
+    private final CustomerDtoCache customerDtoCache;
+    private final EntityChangePublisher entityChangePublisher;
+    private final JsonMergePatcher jsonMergePatcher;
 
+    @Transactional(readOnly = true)
     public List<AddressDto> findAll() {
-        return addressMapperService.mapFrom(addressRepository.findAll());
+        return addressRepository.findAllAddressDtos();
     }
 
     public AddressDto createAddress(final AddressDto addressDto) {
-        if (addressRepository.existsByStreetAndCity(addressDto.getStreet(), addressDto.getCity())) {
-            throw new ResourceAlreadyExistsException(
-                    String.format(CUSTOMER_ALREADY_EXIST_ERROR.getMessage(),
-                            addressDto.getStreet(),
-                            addressDto.getCity()));
+        final Address address;
+        try {
+            address = addressRepository.saveAndFlush(addressMapperService.mapFrom(addressDto));
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, Address.UNIQUE_STREET_CITY_CONSTRAINT)) {
+                throw new ResourceAlreadyExistsException(
+                        String.format(ADDRESS_ALREADY_EXIST_ERROR.getMessage(),
+                                addressDto.getStreet(),
+                                addressDto.getCity()));
+            }
+            throw e;
         }
-        final Address address = addressRepository.save(addressMapperService.mapFrom(addressDto));
+        entityChangePublisher.publish(EntityType.ADDRESS, address.getId());
         return addressMapperService.mapFrom(address);
     }
 
+    /**
+     * Loads the address by id, so repeated reads are served from the second-level cache
+     */
+    @Transactional(readOnly = true)
     public AddressDto findById(final int id) {
         return addressRepository.findById(id)
                 .map(addressMapperService::mapFrom)
@@ -46,20 +69,59 @@ public class AddressServiceImpl implements AddressService {
                         new EntityNotFoundException(String.format("Address not found with given id: %s", id)));
     }
 
-    public AddressDto update(final AddressDto addressDto, final int id) {
+    @Transactional(readOnly = true)
+    public List<MultiGetEntryDto<AddressDto>> findAllById(final List<Integer> ids) {
+        final Map<Integer, AddressDto> addresses = addressRepository.findAddressDtosByIdIn(MultiGet.pad(ids))
+                .stream()
+                .collect(Collectors.toMap(AddressDto::getId, Function.identity()));
+        return MultiGet.inRequestOrder(ids, addresses);
+    }
+
+    /**
+     * Applies the update only when the If-Match header, if any, matches the current entity tag. The changes
+     * are flushed right away, so the returned address carries its new version.
+     */
+    public AddressDto update(final AddressDto addressDto, final int id, final String ifMatch) {
         Address address = addressRepository.getReferenceById(id);
+        EntityTags.checkIfMatch(ifMatch, id, EntityTags.of(address));
+        return applyChanges(addressDto, address, id);
+    }
+
+    /**
+     * Merges the patch into the current address. Only changed columns are written, a patch which changes
+     * nothing returns the address as it is without any UPDATE or change notification.
+     */
+    public AddressDto patch(final JsonNode mergePatch, final int id, final String ifMatch) {
+        final Address address = addressRepository.getReferenceById(id);
+        EntityTags.checkIfMatch(ifMatch, id, EntityTags.of(address));
+        final AddressDto currentAddress = addressMapperService.mapFrom(address);
+        return jsonMergePatcher.apply(mergePatch, currentAddress, AddressDto.class)
+                .map(patchedAddress -> applyChanges(patchedAddress, address, id))
+                .orElse(currentAddress);
+    }
+
+    private AddressDto applyChanges(final AddressDto addressDto, final Address address, final int id) {
         address.setStreet(addressDto.getStreet());
         address.setCity(addressDto.getCity());
+        addressRepository.flush();
+        entityChangePublisher.publish(EntityType.ADDRESS, id);
+        // the address is part of the cached customer
+        customerRepository.findIdByAddressId(id).ifPresent(customerId -> {
+            customerDtoCache.invalidateAfterCommit(customerId);
+            entityChangePublisher.publish(EntityType.CUSTOMER, customerId);
+        });
         return addressMapperService.mapFrom(address);
     }
 
-    public void delete(final int id) {
+    public void delete(final int id, final String ifMatch) {
         final Address address = addressRepository.findById(id).orElseThrow(() ->
                 new EntityNotFoundException(String.format("Address not found with given id: %s", id)));
+        EntityTags.checkIfMatch(ifMatch, id, EntityTags.of(address));
 
-        if (nonNull(address.getCustomer())) {
+        if (customerRepository.existsByAddressId(id)) {
             throw new AddressAssignedToTheCustomerException(ADDRESS_ASSIGNED_TO_THR_CUSTOMER_ERROR.getMessage());
         }
         addressRepository.delete(address);
+        entityChangePublisher.publish(EntityType.ADDRESS, id);
     }
 }
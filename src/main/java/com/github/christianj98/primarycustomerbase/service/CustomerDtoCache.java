@@ -0,0 +1,149 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.christianj98.primarycustomerbase.configuration.CustomerCacheProperties;
+import com.github.christianj98.primarycustomerbase.dto.AddressDto;
+import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangedEvent;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
+import com.github.christianj98.primarycustomerbase.mapper.CustomerMapperService;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.routing.PrimaryStickiness;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Customers mapped to DTOs and kept in memory by id. Concurrent misses for the same id wait for a single load,
+ * entries read after the refresh time are reloaded in the background on threads of their own, so the blocking
+ * loads do not take threads of the common pool. Unknown ids are not cached. Every caller gets a copy of the cached
+ * customer which it may modify.
+ */
+@Component
+public class CustomerDtoCache implements DisposableBean {
+    private final LoadingCache<Integer, CustomerDto> customers;
+    private final ExecutorService refreshExecutor;
+    private final CustomerRepository customerRepository;
+    private final CustomerMapperService customerMapperService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    CustomerDtoCache(final CustomerCacheProperties customerCacheProperties,
+                     final CustomerRepository customerRepository,
+                     final CustomerMapperService customerMapperService,
+                     final PlatformTransactionManager transactionManager) {
+        this(customerCacheProperties, customerRepository, customerMapperService, transactionManager,
+                Ticker.systemTicker(), createRefreshExecutor(customerCacheProperties));
+    }
+
+    CustomerDtoCache(final CustomerCacheProperties customerCacheProperties,
+                     final CustomerRepository customerRepository,
+                     final CustomerMapperService customerMapperService,
+                     final PlatformTransactionManager transactionManager,
+                     final Ticker ticker,
+                     final ExecutorService refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+        this.customerRepository = customerRepository;
+        this.customerMapperService = customerMapperService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.customers = Caffeine.newBuilder()
+                .maximumSize(customerCacheProperties.getMaximumSize())
+                .refreshAfterWrite(customerCacheProperties.getRefreshAfterWrite())
+                .expireAfterWrite(customerCacheProperties.getExpireAfterWrite())
+                .ticker(ticker)
+                .executor(refreshExecutor)
+                .build(this::load);
+    }
+
+    /**
+     * A reload which finds the queue full is skipped, the cached customer is returned and reloaded by a later read
+     */
+    private static ExecutorService createRefreshExecutor(final CustomerCacheProperties customerCacheProperties) {
+        return new ThreadPoolExecutor(customerCacheProperties.getRefreshThreads(),
+                customerCacheProperties.getRefreshThreads(),
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(customerCacheProperties.getRefreshQueueCapacity()),
+                new CustomizableThreadFactory("customer-cache-refresh-"));
+    }
+
+    public CustomerDto get(final int id) {
+        return copyOf(customers.get(id));
+    }
+
+    /**
+     * Drops the customer once the current transaction commits, so a concurrent read cannot cache
+     * the state from before the change and the next read on this node already sees it.
+     * Without a transaction the customer is dropped right away.
+     */
+    public void invalidateAfterCommit(final int id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            customers.invalidate(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                customers.invalidate(id);
+            }
+        });
+    }
+
+    /**
+     * Drops customers changed on any node, the change announcement arrives shortly after the commit
+     */
+    @EventListener
+    public void onEntityChanged(final EntityChangedEvent event) {
+        if (event.getType() != EntityType.CUSTOMER) {
+            return;
+        }
+        if (event.isAll()) {
+            customers.invalidateAll();
+        } else {
+            customers.invalidate(event.getId());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdown();
+    }
+
+    private static CustomerDto copyOf(final CustomerDto cachedCustomer) {
+        final CustomerDto customer = new CustomerDto();
+        customer.setFirstName(cachedCustomer.getFirstName());
+        customer.setLastName(cachedCustomer.getLastName());
+        customer.setVersion(cachedCustomer.getVersion());
+        final AddressDto cachedAddress = cachedCustomer.getAddressDto();
+        customer.setAddressDto(isNull(cachedAddress) ? null : new AddressDto(cachedAddress.getId(),
+                cachedAddress.getStreet(), cachedAddress.getCity(), cachedAddress.getVersion()));
+        return customer;
+    }
+
+    /**
+     * Cached customers outlive the replication lag, so they are always loaded from the primary
+     */
+    private CustomerDto load(final Integer id) {
+        return PrimaryStickiness.onPrimary(() -> readOnlyTransaction.execute(status ->
+                customerRepository.findById(id)
+                        .map(customerMapperService::mapFrom)
+                        .orElseThrow(() -> new EntityNotFoundException(
+                                String.format("Customer not found with given id: %s", id)))));
+    }
+}
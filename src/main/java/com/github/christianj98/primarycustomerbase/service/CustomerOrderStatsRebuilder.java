@@ -0,0 +1,76 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderStatsProperties;
+import com.github.christianj98.primarycustomerbase.repository.CustomerOrderStatsRepository;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Recomputes the customer_order_stats rollup from the orders table, to backfill it or to repair drift. The
+ * customer ids are split into chunks rebuilt in parallel, each in a transaction of its own, so the whole table is
+ * never locked at once. Chunks follow the lock ranges of {@link CustomerOrderStatsRepository}, so orders written
+ * during a rebuild wait for the chunk they belong to instead of being lost.
+ * Runs on startup when the application is started with the {@value REBUILD_OPTION} argument.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerOrderStatsRebuilder implements ApplicationRunner {
+    public static final String REBUILD_OPTION = "rebuild-order-stats";
+
+    private final CustomerRepository customerRepository;
+    private final CustomerOrderStatsRepository customerOrderStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderStatsProperties orderStatsProperties;
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        if (args.containsOption(REBUILD_OPTION)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return number of customers with orders
+     */
+    public int rebuild() {
+        final int minId = customerRepository.findMinId().orElse(0);
+        final int maxId = customerRepository.findMaxId().orElse(-1);
+        final ExecutorService executor = Executors.newFixedThreadPool(orderStatsProperties.getThreads());
+        try {
+            final List<Future<Integer>> chunks = new ArrayList<>();
+            final long chunkSize = orderStatsProperties.getChunkSize();
+            for (long from = minId; from <= maxId; from = (Math.floorDiv(from, chunkSize) + 1) * chunkSize) {
+                final int chunkFrom = (int) from;
+                final int chunkTo = (int) Math.min((Math.floorDiv(from, chunkSize) + 1) * chunkSize, maxId + 1L);
+                chunks.add(executor.submit(() -> transactionTemplate.execute(
+                        status -> customerOrderStatsRepository.rebuild(chunkFrom, chunkTo))));
+            }
+            int customers = 0;
+            for (Future<Integer> chunk : chunks) {
+                customers += chunk.get();
+            }
+            log.info("Rebuilt order stats of {} customers in {} chunks", customers, chunks.size());
+            return customers;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rebuilding order stats was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rebuilding order stats failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
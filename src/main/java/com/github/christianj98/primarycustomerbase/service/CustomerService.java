@@ -1,18 +1,29 @@
 package com.github.christianj98.primarycustomerbase.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CustomerService {
     Customer save(CustomerDto customerDto);
 
-    List<Customer> findAll();
+    List<Customer> saveAll(List<CustomerDto> customerDtos);
+
+    List<CustomerDto> findAll();
+
+    void exportAll(Consumer<CustomerDto> consumer);
 
     CustomerDto findById(int id);
 
-    CustomerDto update(CustomerDto customerDto, int id);
+    List<MultiGetEntryDto<CustomerDto>> findAllById(List<Integer> ids);
+
+    CustomerDto update(CustomerDto customerDto, int id, String ifMatch);
+
+    CustomerDto patch(JsonNode mergePatch, int id, String ifMatch);
 
-    void delete(int id);
+    void delete(int id, String ifMatch);
 }
@@ -1,20 +1,37 @@
 package com.github.christianj98.primarycustomerbase.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
 import com.github.christianj98.primarycustomerbase.entity.Address;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
 import com.github.christianj98.primarycustomerbase.exception.ResourceAlreadyExistsException;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
 import com.github.christianj98.primarycustomerbase.mapper.AddressMapperService;
 import com.github.christianj98.primarycustomerbase.mapper.CustomerMapperService;
+import com.github.christianj98.primarycustomerbase.projection.CustomerName;
+import com.github.christianj98.primarycustomerbase.projection.CustomerView;
 import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CUSTOMER_ADDRESS_ALREADY_EXIST_ERROR;
 import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CUSTOMER_ALREADY_EXIST_ERROR;
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CUSTOMER_BATCH_CONFLICT_ERROR;
 import static java.util.Optional.ofNullable;
 
 @Service
@@ -24,37 +41,162 @@ public class CustomerServiceImpl implements CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerMapperService customerMapperService;
     private final AddressMapperService addressMapperService;
+    private final EntityManager entityManager;
+    private final CustomerDtoCache customerDtoCache;
+    private final EntityChangePublisher entityChangePublisher;
+    private final JsonMergePatcher jsonMergePatcher;
 
+    /**
+     * Inserts the customer without a prior lookup, the unique constraints on customer name and address
+     * reject duplicates even when two requests race each other
+     */
     public Customer save(CustomerDto customerDto) {
-        if (customerRepository.existsByFirstNameAndLastName(customerDto.getFirstName(), customerDto.getLastName())) {
-            throw new ResourceAlreadyExistsException(
-                    String.format(CUSTOMER_ALREADY_EXIST_ERROR.getMessage(),
-                            customerDto.getFirstName(),
-                            customerDto.getLastName()));
-        }
         final Customer customer = customerMapperService.mapFrom(customerDto);
         customer.setAddress(addressMapperService.mapFrom(customerDto.getAddressDto()));
-        return customerRepository.save(customer);
+        final Customer createdCustomer;
+        try {
+            createdCustomer = customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            throw toResourceAlreadyExists(e, customerDto);
+        }
+        entityChangePublisher.publish(EntityType.CUSTOMER, createdCustomer.getId());
+        entityChangePublisher.publish(EntityType.ADDRESS, createdCustomer.getAddress().getId());
+        return createdCustomer;
     }
 
-    public List<Customer> findAll() {
-        return customerRepository.findAll();
+    private RuntimeException toResourceAlreadyExists(final DataIntegrityViolationException exception,
+                                                     final CustomerDto customerDto) {
+        if (UniqueConstraints.isViolated(exception, Customer.UNIQUE_NAME_CONSTRAINT)) {
+            return new ResourceAlreadyExistsException(String.format(CUSTOMER_ALREADY_EXIST_ERROR.getMessage(),
+                    customerDto.getFirstName(),
+                    customerDto.getLastName()));
+        }
+        if (UniqueConstraints.isViolated(exception, Address.UNIQUE_STREET_CITY_CONSTRAINT)) {
+            return new ResourceAlreadyExistsException(String.format(CUSTOMER_ADDRESS_ALREADY_EXIST_ERROR.getMessage(),
+                    customerDto.getFirstName(),
+                    customerDto.getLastName(),
+                    customerDto.getAddressDto().getStreet(),
+                    customerDto.getAddressDto().getCity()));
+        }
+        return exception;
     }
 
+    /**
+     * Creates all customers in one transaction. Ids come from pooled sequences, so the customer and address
+     * inserts are flushed as JDBC batches instead of one statement per row. Names are checked up front to
+     * report the conflicting customer, a batch racing another create is still rejected by the unique constraints.
+     */
+    public List<Customer> saveAll(final List<CustomerDto> customerDtos) {
+        final Set<CustomerName> existingNames = new HashSet<>(customerRepository.findNamesByLastNameIn(
+                customerDtos.stream()
+                        .map(CustomerDto::getLastName)
+                        .collect(Collectors.toSet())));
+        final List<Customer> customers = customerDtos.stream()
+                .map(customerDto -> {
+                    if (!existingNames.add(new CustomerName(customerDto.getFirstName(), customerDto.getLastName()))) {
+                        throw new ResourceAlreadyExistsException(
+                                String.format(CUSTOMER_ALREADY_EXIST_ERROR.getMessage(),
+                                        customerDto.getFirstName(),
+                                        customerDto.getLastName()));
+                    }
+                    final Customer customer = customerMapperService.mapFrom(customerDto);
+                    customer.setAddress(addressMapperService.mapFrom(customerDto.getAddressDto()));
+                    return customer;
+                })
+                .collect(Collectors.toList());
+        final List<Customer> createdCustomers;
+        try {
+            createdCustomers = customerRepository.saveAllAndFlush(customers);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, Customer.UNIQUE_NAME_CONSTRAINT)
+                    || UniqueConstraints.isViolated(e, Address.UNIQUE_STREET_CITY_CONSTRAINT)) {
+                throw new ResourceAlreadyExistsException(CUSTOMER_BATCH_CONFLICT_ERROR.getMessage());
+            }
+            throw e;
+        }
+        entityChangePublisher.publish(EntityType.CUSTOMER, createdCustomers.stream()
+                .map(Customer::getId)
+                .collect(Collectors.toList()));
+        entityChangePublisher.publish(EntityType.ADDRESS, createdCustomers.stream()
+                .map(createdCustomer -> createdCustomer.getAddress().getId())
+                .collect(Collectors.toList()));
+        return createdCustomers;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CustomerDto> findAll() {
+        return customerMapperService.mapFromViews(customerRepository.findAllCustomerViews());
+    }
+
+    /**
+     * Passes every customer to the consumer while reading them through a forward-only cursor.
+     * Each customer is detached once mapped, so the persistence context does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(final Consumer<CustomerDto> consumer) {
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            customers.forEach(customer -> {
+                consumer.accept(customerMapperService.mapFrom(customer));
+                entityManager.detach(customer);
+            });
+        }
+    }
+
+    /**
+     * Served from the customer cache without opening a transaction, a miss loads the customer in a transaction
+     * of its own
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CustomerDto findById(final int id) {
-        return customerRepository.findById(id)
-                .map(customerMapperService::mapFrom)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format("Customer not found with given id: %s", id)));
+        return customerDtoCache.get(id);
+    }
+
+    /**
+     * Reads all requested customers with their addresses in one statement, bypassing the customer cache
+     */
+    @Transactional(readOnly = true)
+    public List<MultiGetEntryDto<CustomerDto>> findAllById(final List<Integer> ids) {
+        final Map<Integer, CustomerDto> customers = customerRepository.findCustomerViewsByIdIn(MultiGet.pad(ids))
+                .stream()
+                .collect(Collectors.toMap(CustomerView::getId, customerMapperService::mapFrom));
+        return MultiGet.inRequestOrder(ids, customers);
     }
 
-    public CustomerDto update(final CustomerDto customerDto, final int id) {
+    /**
+     * Applies the update only when the If-Match header, if any, matches the current entity tag. The changes
+     * are flushed right away, so a concurrent update fails here and the returned customer carries its new version.
+     */
+    public CustomerDto update(final CustomerDto customerDto, final int id, final String ifMatch) {
         Customer customer = customerRepository.getReferenceById(id);
+        EntityTags.checkIfMatch(ifMatch, id, EntityTags.of(customer));
+        return applyChanges(customerDto, customer, id);
+    }
+
+    /**
+     * Merges the patch into the current customer. Only changed columns are written, a patch which changes
+     * nothing returns the customer as it is without any UPDATE or change notification.
+     */
+    public CustomerDto patch(final JsonNode mergePatch, final int id, final String ifMatch) {
+        final Customer customer = customerRepository.getReferenceById(id);
+        EntityTags.checkIfMatch(ifMatch, id, EntityTags.of(customer));
+        final CustomerDto currentCustomer = customerMapperService.mapFrom(customer);
+        return jsonMergePatcher.apply(mergePatch, currentCustomer, CustomerDto.class)
+                .map(patchedCustomer -> applyChanges(patchedCustomer, customer, id))
+                .orElse(currentCustomer);
+    }
+
+    private CustomerDto applyChanges(final CustomerDto customerDto, final Customer customer, final int id) {
         customer.setFirstName(customerDto.getFirstName());
         customer.setLastName(customerDto.getLastName());
         ofNullable(customer.getAddress())
                 .map(relatedAddress -> mapAddress(customerDto, relatedAddress))
                 .orElseGet(() -> addressMapperService.mapFrom(customerDto.getAddressDto()));
+        customerRepository.flush();
+        customerDtoCache.invalidateAfterCommit(id);
+        entityChangePublisher.publish(EntityType.CUSTOMER, id);
+        ofNullable(customer.getAddress())
+                .map(Address::getId)
+                .ifPresent(addressId -> entityChangePublisher.publish(EntityType.ADDRESS, addressId));
         return customerMapperService.mapFrom(customer);
     }
 
@@ -64,10 +206,16 @@ public class CustomerServiceImpl implements CustomerService {
         return relatedAddress;
     }
 
-    public void delete(final int id) {
-        if (!customerRepository.existsById(id)) {
-            throw new EntityNotFoundException(String.format("Customer not found with given id: %s", id));
-        }
-        customerRepository.deleteById(id);
+    public void delete(final int id, final String ifMatch) {
+        final Customer customer = customerRepository.findById(id).orElseThrow(() ->
+                new EntityNotFoundException(String.format("Customer not found with given id: %s", id)));
+        EntityTags.checkIfMatch(ifMatch, id, EntityTags.of(customer));
+        customerRepository.delete(customer);
+        customerDtoCache.invalidateAfterCommit(id);
+        entityChangePublisher.publish(EntityType.CUSTOMER, id);
+        // the address is removed together with its customer
+        ofNullable(customer.getAddress())
+                .map(Address::getId)
+                .ifPresent(addressId -> entityChangePublisher.publish(EntityType.ADDRESS, addressId));
     }
 }
@@ -0,0 +1,92 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.dto.AddressDto;
+import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.entity.Address;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.entity.Order;
+import com.github.christianj98.primarycustomerbase.exception.PreconditionFailedException;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.RESOURCE_MODIFIED_ERROR;
+import static java.util.Objects.isNull;
+
+/**
+ * Strong entity tags of single resources. A representation is read from several rows, so its tag joins
+ * the optimistic locking versions of all of them and changes whenever one of them is updated. A missing row,
+ * such as the address of a customer without one, counts as version 0.
+ */
+public final class EntityTags {
+    private static final String ANY = "*";
+    private static final long MISSING_VERSION = 0;
+
+    private EntityTags() {
+        // private
+    }
+
+    public static String of(final AddressDto addressDto) {
+        return of(addressDto.getVersion());
+    }
+
+    public static String of(final CustomerDto customerDto) {
+        return of(customerDto.getVersion(), versionOf(customerDto.getAddressDto()));
+    }
+
+    public static String of(final OrderDto orderDto) {
+        final CustomerDto customerDto = orderDto.getCustomerDto();
+        return isNull(customerDto)
+                ? of(orderDto.getVersion(), MISSING_VERSION, MISSING_VERSION)
+                : of(orderDto.getVersion(), customerDto.getVersion(), versionOf(customerDto.getAddressDto()));
+    }
+
+    static String of(final Address address) {
+        return of(address.getVersion());
+    }
+
+    static String of(final Customer customer) {
+        return of(customer.getVersion(), versionOf(customer.getAddress()));
+    }
+
+    static String of(final Order order) {
+        final Customer customer = order.getCustomer();
+        return isNull(customer)
+                ? of(order.getVersion(), MISSING_VERSION, MISSING_VERSION)
+                : of(order.getVersion(), customer.getVersion(), versionOf(customer.getAddress()));
+    }
+
+    private static long versionOf(final AddressDto addressDto) {
+        return isNull(addressDto) ? MISSING_VERSION : addressDto.getVersion();
+    }
+
+    private static long versionOf(final Address address) {
+        return isNull(address) ? MISSING_VERSION : address.getVersion();
+    }
+
+    private static String of(final long... versions) {
+        return LongStream.of(versions)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Rejects the write unless the If-Match header is absent, is {@code *} or lists the current tag.
+     * If-Match uses the strong comparison, so weak tags never match.
+     */
+    static void checkIfMatch(final String ifMatch, final int id, final String currentTag) {
+        if (isNull(ifMatch) || matches(ifMatch, currentTag)) {
+            return;
+        }
+        throw new PreconditionFailedException(String.format(RESOURCE_MODIFIED_ERROR.getMessage(),
+                id, ifMatch, currentTag));
+    }
+
+    private static boolean matches(final String ifMatch, final String currentTag) {
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> ANY.equals(tag) || currentTag.equals(tag));
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.christianj98.primarycustomerbase.exception.InvalidPatchException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.INVALID_PATCH_ERROR;
+
+/**
+ * Applies JSON Merge Patches (RFC 7386) to request representations: members of the patch replace the members of
+ * the representation, nested objects are merged recursively and {@code null} removes a member.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonMergePatcher {
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * @return the validated patched copy of the value, empty when the patch leaves the value as it is
+     */
+    public <T> Optional<T> apply(final JsonNode mergePatch, final T value, final Class<T> type) {
+        final JsonNode current = objectMapper.valueToTree(value);
+        final T patchedValue;
+        try {
+            patchedValue = objectMapper.treeToValue(merge(current, mergePatch), type);
+        } catch (JsonProcessingException e) {
+            throw new InvalidPatchException(String.format(INVALID_PATCH_ERROR.getMessage(), e.getOriginalMessage()));
+        }
+        // compared once read back, so 10 and 10.0 or ignored members do not count as a change
+        if (objectMapper.valueToTree(patchedValue).equals(current)) {
+            return Optional.empty();
+        }
+        final Set<ConstraintViolation<T>> violations = validator.validate(patchedValue);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return Optional.of(patchedValue);
+    }
+
+    private static JsonNode merge(final JsonNode target, final JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+        final ObjectNode result = target != null && target.isObject()
+                ? ((ObjectNode) target).deepCopy()
+                : ((ObjectNode) patch).objectNode();
+        patch.fields().forEachRemaining(member -> {
+            if (member.getValue().isNull()) {
+                result.remove(member.getKey());
+            } else {
+                result.set(member.getKey(), merge(result.get(member.getKey()), member.getValue()));
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves many ids with one IN query. The IN-list is padded to one of a few fixed lengths by repeating its last
+ * id, so a handful of prepared statements and their plans serve every request instead of one per id count.
+ */
+public final class MultiGet {
+    public static final int MAX_IDS = 200;
+    static final int[] PADDED_SIZES = {10, 25, 50, 100, MAX_IDS};
+
+    private MultiGet() {
+        // private
+    }
+
+    /**
+     * @return the distinct ids padded to the next fixed length
+     */
+    static List<Integer> pad(final List<Integer> ids) {
+        final List<Integer> paddedIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        final int lastId = paddedIds.get(paddedIds.size() - 1);
+        for (int size : PADDED_SIZES) {
+            if (size >= paddedIds.size()) {
+                while (paddedIds.size() < size) {
+                    paddedIds.add(lastId);
+                }
+                return paddedIds;
+            }
+        }
+        return paddedIds;
+    }
+
+    /**
+     * @return one entry per requested id, in request order and repeated for repeated ids
+     */
+    static <T> List<MultiGetEntryDto<T>> inRequestOrder(final List<Integer> ids, final Map<Integer, T> values) {
+        return ids.stream()
+                .map(id -> values.containsKey(id)
+                        ? MultiGetEntryDto.found(id, values.get(id))
+                        : MultiGetEntryDto.<T>missing(id))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+/**
+ * Formats accepted by the bulk ingestion of orders, one order per line
+ */
+public enum OrderBulkFormat {
+    /**
+     * Comma separated {@code date,amount,customerId} with an optional header line
+     */
+    CSV,
+    /**
+     * One JSON document shaped like {@link com.github.christianj98.primarycustomerbase.dto.OrderCreateDto} per line
+     */
+    NDJSON
+}
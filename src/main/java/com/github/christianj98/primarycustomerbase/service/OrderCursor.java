@@ -0,0 +1,37 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.exception.InvalidCursorException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.INVALID_CURSOR_ERROR;
+
+/**
+ * Opaque position of the last returned order in the (date, id) keyset ordering
+ */
+@Value
+class OrderCursor {
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime date;
+    int id;
+
+    String encode() {
+        final String position = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(final String cursor) {
+        try {
+            final String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separatorIndex = position.lastIndexOf(SEPARATOR);
+            return new OrderCursor(LocalDateTime.parse(position.substring(0, separatorIndex)),
+                    Integer.parseInt(position.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(String.format(INVALID_CURSOR_ERROR.getMessage(), cursor));
+        }
+    }
+}
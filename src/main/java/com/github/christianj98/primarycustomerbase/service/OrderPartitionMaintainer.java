@@ -0,0 +1,37 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderPartitionProperties;
+import com.github.christianj98.primarycustomerbase.repository.OrderPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Creates the partitions of the current and the coming months ahead of time, so new orders do not pile up in the
+ * default partition. Runs on startup and then periodically, a failed run is retried by the next one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderPartitionMaintainer {
+    private final OrderPartitionRepository orderPartitionRepository;
+    private final OrderPartitionProperties orderPartitionProperties;
+
+    @Scheduled(fixedDelayString = "${orders.partitions.maintenance-interval}")
+    public void createFuturePartitions() {
+        final YearMonth currentMonth = YearMonth.now();
+        try {
+            for (int months = 0; months <= orderPartitionProperties.getMonthsAhead(); months++) {
+                final YearMonth month = currentMonth.plusMonths(months);
+                if (orderPartitionRepository.createPartition(month)) {
+                    log.info("Created order partition {}", OrderPartitionRepository.partitionName(month));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Creating order partitions failed, retrying with the next run", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderRejectDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Rejected rows of a bulk upload. Every reject is counted, only those on the first lines are kept. Rows of a chunk
+ * whose customer does not exist are rejected after later rows were already rejected, so a reject may displace one
+ * on a later line.
+ */
+class OrderRejects {
+    private final int maxReported;
+    private final NavigableMap<Long, String> reported = new TreeMap<>();
+    private long count;
+
+    OrderRejects(final int maxReported) {
+        this.maxReported = maxReported;
+    }
+
+    void add(final long lineNumber, final String reason) {
+        count++;
+        if (reported.size() < maxReported) {
+            reported.put(lineNumber, reason);
+        } else if (maxReported > 0 && lineNumber < reported.lastKey()) {
+            reported.pollLastEntry();
+            reported.put(lineNumber, reason);
+        }
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * The kept rejects in line order
+     */
+    List<OrderRejectDto> toList() {
+        final List<OrderRejectDto> rejects = new ArrayList<>(reported.size());
+        reported.forEach((lineNumber, reason) -> rejects.add(new OrderRejectDto(lineNumber, reason)));
+        return rejects;
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses single lines of a bulk upload into orders
+ */
+@Component
+@RequiredArgsConstructor
+class OrderRowParser {
+    private static final String CSV_SEPARATOR = ",";
+    private static final String CSV_HEADER_PREFIX = "date";
+    private static final int CSV_COLUMNS = 3;
+
+    private final ObjectMapper objectMapper;
+
+    boolean isHeader(final OrderBulkFormat format, final long lineNumber, final String line) {
+        return format == OrderBulkFormat.CSV
+                && lineNumber == 1
+                && line.trim().toLowerCase().startsWith(CSV_HEADER_PREFIX);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the line is not an order in the given format
+     */
+    OrderCreateDto parse(final OrderBulkFormat format, final String line) {
+        return format == OrderBulkFormat.CSV ? parseCsv(line) : parseNdjson(line);
+    }
+
+    private OrderCreateDto parseCsv(final String line) {
+        final String[] columns = line.split(CSV_SEPARATOR, -1);
+        if (columns.length != CSV_COLUMNS) {
+            throw new IllegalArgumentException(
+                    String.format("expected %s columns but found %s", CSV_COLUMNS, columns.length));
+        }
+        try {
+            final OrderCreateDto order = new OrderCreateDto();
+            order.setDate(LocalDateTime.parse(columns[0].trim()));
+            order.setAmount(new BigDecimal(columns[1].trim()));
+            order.setCustomerId(Integer.valueOf(columns[2].trim()));
+            return order;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private OrderCreateDto parseNdjson(final String line) {
+        try {
+            return objectMapper.readValue(line, OrderCreateDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package com.github.christianj98.primarycustomerbase.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderBulkResultDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderPageDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryPageDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderUpdateDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderService {
-    List<OrderDto> findAll();
+    OrderPageDto findPage(String cursor, Integer size, LocalDateTime from, LocalDateTime to);
+
+    OrderSummaryDto findSummary(int customerId);
+
+    OrderSummaryPageDto findSummaryPage(String cursor, Integer size);
 
     OrderDto saveOrder(OrderCreateDto orderCreateDto);
 
+    OrderBulkResultDto bulkCreate(InputStream rows, OrderBulkFormat format);
+
     OrderDto findById(int id);
 
-    OrderDto update(OrderUpdateDto orderUpdateDto, int id);
+    List<MultiGetEntryDto<OrderDto>> findAllById(List<Integer> ids);
+
+    OrderDto update(OrderUpdateDto orderUpdateDto, int id, String ifMatch);
+
+    OrderDto patch(JsonNode mergePatch, int id, String ifMatch);
 
-    void delete(int id);
+    void delete(int id, String ifMatch);
 }
@@ -1,31 +1,141 @@
 package com.github.christianj98.primarycustomerbase.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.christianj98.primarycustomerbase.archive.ArchivedOrder;
+import com.github.christianj98.primarycustomerbase.archive.OrderArchive;
+import com.github.christianj98.primarycustomerbase.configuration.OrderBulkProperties;
+import com.github.christianj98.primarycustomerbase.configuration.OrderPaginationProperties;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderBulkResultDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderPageDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryPageDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderUpdateDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
 import com.github.christianj98.primarycustomerbase.entity.Order;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
 import com.github.christianj98.primarycustomerbase.mapper.OrderMapperService;
+import com.github.christianj98.primarycustomerbase.projection.OrderView;
+import com.github.christianj98.primarycustomerbase.repository.CustomerOrderStatsRepository;
 import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderCopyRepository;
 import com.github.christianj98.primarycustomerbase.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CUSTOMER_NOT_FOUND_ERROR;
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.MALFORMED_ORDER_ROW_ERROR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class OrderServiceImpl implements OrderService {
+    // stand in for missing bounds of the date range, the query keeps the same predicates for every request
+    static final LocalDateTime EARLIEST_ORDER_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    static final LocalDateTime LATEST_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final OrderMapperService orderMapperService;
+    private final OrderPaginationProperties orderPaginationProperties;
+    private final OrderBulkProperties orderBulkProperties;
+    private final OrderCopyRepository orderCopyRepository;
+    private final OrderRowParser orderRowParser;
+    private final Validator validator;
+    private final EntityChangePublisher entityChangePublisher;
+    private final JsonMergePatcher jsonMergePatcher;
+    private final CustomerOrderStatsRepository customerOrderStatsRepository;
+    private final OrderArchive orderArchive;
+
+    /**
+     * Pages through the orders dated from the given date inclusive to the other one exclusive, either bound may be
+     * missing
+     */
+    @Transactional(readOnly = true)
+    public OrderPageDto findPage(final String cursor, final Integer size, final LocalDateTime from,
+                                 final LocalDateTime to) {
+        final int pageSize = orderPaginationProperties.resolvePageSize(size);
+        // one extra row tells whether another page exists without a count query
+        final PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        final LocalDateTime fromDate = isNull(from) ? EARLIEST_ORDER_DATE : from;
+        final LocalDateTime toDate = isNull(to) ? LATEST_ORDER_DATE : to;
+        final List<OrderView> orders = isNull(cursor)
+                ? orderRepository.findFirstPageOfOrderViews(fromDate, toDate, pageRequest)
+                : findPageAfter(OrderCursor.decode(cursor), fromDate, toDate, pageRequest);
+        if (orders.size() <= pageSize) {
+            return new OrderPageDto(orderMapperService.mapFromViews(orders), null);
+        }
+        final List<OrderView> page = orders.subList(0, pageSize);
+        final OrderView lastOrder = page.get(pageSize - 1);
+        return new OrderPageDto(orderMapperService.mapFromViews(page),
+                new OrderCursor(lastOrder.getDate(), lastOrder.getId()).encode());
+    }
 
-    public List<OrderDto> findAll() {
-        return orderMapperService.mapFrom(orderRepository.findAllWithCustomerAndAddress());
+    private List<OrderView> findPageAfter(final OrderCursor cursor, final LocalDateTime from, final LocalDateTime to,
+                                          final PageRequest pageRequest) {
+        return orderRepository.findPageOfOrderViewsAfter(cursor.getDate(), cursor.getId(), from, to, pageRequest);
+    }
+
+    /**
+     * Read from the rollup maintained by every order write. A customer without orders gets an empty summary,
+     * the customer is looked up only in that case.
+     */
+    @Transactional(readOnly = true)
+    public OrderSummaryDto findSummary(final int customerId) {
+        return customerOrderStatsRepository.findByCustomerId(customerId).orElseGet(() -> {
+            if (!customerRepository.existsById(customerId)) {
+                throw new EntityNotFoundException(String.format(CUSTOMER_NOT_FOUND_ERROR.getMessage(), customerId));
+            }
+            return OrderSummaryDto.withoutOrders(customerId);
+        });
+    }
+
+    /**
+     * Pages through the summaries of customers with orders in customer id order
+     */
+    @Transactional(readOnly = true)
+    public OrderSummaryPageDto findSummaryPage(final String cursor, final Integer size) {
+        final int pageSize = orderPaginationProperties.resolvePageSize(size);
+        // one extra row tells whether another page exists without a count query
+        final List<OrderSummaryDto> summaries = isNull(cursor)
+                ? customerOrderStatsRepository.findFirstPage(pageSize + 1)
+                : customerOrderStatsRepository.findPageAfter(OrderSummaryCursor.decode(cursor).getCustomerId(),
+                pageSize + 1);
+        if (summaries.size() <= pageSize) {
+            return new OrderSummaryPageDto(summaries, null);
+        }
+        final List<OrderSummaryDto> page = summaries.subList(0, pageSize);
+        return new OrderSummaryPageDto(page, new OrderSummaryCursor(page.get(pageSize - 1).getCustomerId()).encode());
     }
 
     public OrderDto saveOrder(final OrderCreateDto orderCreateDto) {
@@ -33,7 +143,94 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new EntityNotFoundException(
                         String.format("Customer not found with given id: %s", orderCreateDto.getCustomerId())));
         Order order = createOrder(orderCreateDto, customer);
-        return orderMapperService.mapFrom(orderRepository.save(order));
+        final Order createdOrder = orderRepository.save(order);
+        customerOrderStatsRepository.add(List.of(
+                OrderSummaryDto.ofOrder(customer.getId(), createdOrder.getAmount(), createdOrder.getDate())));
+        entityChangePublisher.publish(EntityType.ORDER, createdOrder.getId());
+        return orderMapperService.mapFrom(createdOrder);
+    }
+
+    /**
+     * Reads one order per line and copies the valid ones into the orders table chunk by chunk, so memory use
+     * does not grow with the upload. Customer ids of a chunk are checked with a single query.
+     */
+    public OrderBulkResultDto bulkCreate(final InputStream rows, final OrderBulkFormat format) {
+        final OrderBulkResultDto result = new OrderBulkResultDto();
+        final OrderRejects rejects = new OrderRejects(orderBulkProperties.getMaxReportedRejects());
+        final Map<Long, OrderCreateDto> chunk = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(rows, UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || orderRowParser.isHeader(format, lineNumber, line)) {
+                    continue;
+                }
+                readRow(format, lineNumber, line, chunk, rejects);
+                if (chunk.size() >= orderBulkProperties.getChunkSize()) {
+                    copyChunk(chunk, result, rejects);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        copyChunk(chunk, result, rejects);
+        if (result.getAccepted() > 0) {
+            // copied rows bypass Hibernate, their ids are not known
+            entityChangePublisher.publishAll(EntityType.ORDER);
+        }
+        result.setRejected(rejects.getCount());
+        result.setRejects(rejects.toList());
+        return result;
+    }
+
+    private void readRow(final OrderBulkFormat format,
+                         final long lineNumber,
+                         final String line,
+                         final Map<Long, OrderCreateDto> chunk,
+                         final OrderRejects rejects) {
+        final OrderCreateDto order;
+        try {
+            order = orderRowParser.parse(format, line);
+        } catch (IllegalArgumentException e) {
+            rejects.add(lineNumber, String.format(MALFORMED_ORDER_ROW_ERROR.getMessage(), e.getMessage()));
+            return;
+        }
+        final Set<ConstraintViolation<OrderCreateDto>> violations = validator.validate(order);
+        if (violations.isEmpty()) {
+            chunk.put(lineNumber, order);
+        } else {
+            rejects.add(lineNumber, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private void copyChunk(final Map<Long, OrderCreateDto> chunk, final OrderBulkResultDto result,
+                           final OrderRejects rejects) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        final Set<Integer> existingCustomerIds = customerRepository.findExistingIds(chunk.values().stream()
+                .map(OrderCreateDto::getCustomerId)
+                .collect(Collectors.toSet()));
+        final List<OrderCreateDto> orders = new ArrayList<>(chunk.size());
+        chunk.forEach((lineNumber, order) -> {
+            if (existingCustomerIds.contains(order.getCustomerId())) {
+                orders.add(order);
+            } else {
+                rejects.add(lineNumber, String.format(CUSTOMER_NOT_FOUND_ERROR.getMessage(), order.getCustomerId()));
+            }
+        });
+        result.setAccepted(result.getAccepted() + orderCopyRepository.copy(orders));
+        // the copied orders are rolled up per customer, so the stats of a customer are written once per chunk
+        customerOrderStatsRepository.add(new ArrayList<>(orders.stream()
+                .collect(Collectors.toMap(OrderCreateDto::getCustomerId,
+                        order -> OrderSummaryDto.ofOrder(order.getCustomerId(), order.getAmount(), order.getDate()),
+                        OrderSummaryDto::combine))
+                .values()));
+        chunk.clear();
     }
 
     private Order createOrder(final OrderCreateDto orderCreateDto, final Customer customer) {
@@ -44,32 +241,117 @@ public class OrderServiceImpl implements OrderService {
         return order;
     }
 
+    /**
+     * Orders moved out of the orders table are served from the archive, which is read only
+     */
+    @Transactional(readOnly = true)
     public OrderDto findById(final int id) {
-        return orderRepository.findById(id)
+        return orderRepository.findOrderViewById(id)
                 .map(orderMapperService::mapFrom)
+                .or(() -> orderArchive.findById(id).map(this::mapArchivedOrder))
                 .orElseThrow(() -> new EntityNotFoundException(
                         String.format("Order not found with given id: %s", id)));
     }
 
-    public OrderDto update(final OrderUpdateDto orderUpdateDto, final int id) {
-        return orderRepository.findById(id)
-                .map(mapOrder(orderUpdateDto))
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format("Order not found with given id: %s", id)));
+    /**
+     * Reads the requested orders in one statement. The ids missing from the orders table are looked up in the
+     * archive at once and the customers of the archived orders are read in one more statement.
+     */
+    @Transactional(readOnly = true)
+    public List<MultiGetEntryDto<OrderDto>> findAllById(final List<Integer> ids) {
+        final Map<Integer, OrderDto> orders = new HashMap<>();
+        orderRepository.findOrderViewsByIdIn(MultiGet.pad(ids))
+                .forEach(orderView -> orders.put(orderView.getId(), orderMapperService.mapFrom(orderView)));
+        final List<Integer> missingIds = ids.stream()
+                .filter(id -> !orders.containsKey(id))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            final Collection<ArchivedOrder> archivedOrders = orderArchive.findAllById(missingIds).values();
+            final Map<Integer, Customer> customers = findCustomersOf(archivedOrders);
+            archivedOrders.forEach(archivedOrder -> orders.put(archivedOrder.getId(), orderMapperService.mapFrom(
+                    archivedOrder, customers.get(archivedOrder.getCustomerId()))));
+        }
+        return MultiGet.inRequestOrder(ids, orders);
+    }
+
+    private Map<Integer, Customer> findCustomersOf(final Collection<ArchivedOrder> archivedOrders) {
+        final List<Integer> customerIds = archivedOrders.stream()
+                .map(ArchivedOrder::getCustomerId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (customerIds.isEmpty()) {
+            return Map.of();
+        }
+        return customerRepository.findAllWithAddressByIdIn(MultiGet.pad(customerIds)).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+    }
+
+    private OrderDto mapArchivedOrder(final ArchivedOrder archivedOrder) {
+        return orderMapperService.mapFrom(archivedOrder, Optional.ofNullable(archivedOrder.getCustomerId())
+                .flatMap(customerRepository::findById)
+                .orElse(null));
     }
 
-    public void delete(final int id) {
-        if (!orderRepository.existsById(id)) {
-            throw new EntityNotFoundException(String.format("Order not found with given id: %s", id));
+    /**
+     * Applies the update only when the If-Match header, if any, matches the current entity tag. The changes
+     * are flushed right away, so the returned order carries its new version.
+     */
+    public OrderDto update(final OrderUpdateDto orderUpdateDto, final int id, final String ifMatch) {
+        final Order order = findOrder(id);
+        EntityTags.checkIfMatch(ifMatch, id, EntityTags.of(order));
+        return applyChanges(orderUpdateDto, order, id);
+    }
+
+    /**
+     * Merges the patch into the date and amount of the order. Only changed columns are written, a patch which
+     * changes nothing returns the order as it is without any UPDATE or change notification.
+     */
+    public OrderDto patch(final JsonNode mergePatch, final int id, final String ifMatch) {
+        final Order order = findOrder(id);
+        EntityTags.checkIfMatch(ifMatch, id, EntityTags.of(order));
+        final OrderUpdateDto currentOrder = new OrderUpdateDto();
+        currentOrder.setDate(order.getDate());
+        currentOrder.setAmount(order.getAmount());
+        return jsonMergePatcher.apply(mergePatch, currentOrder, OrderUpdateDto.class)
+                .map(patchedOrder -> applyChanges(patchedOrder, order, id))
+                .orElseGet(() -> orderMapperService.mapFrom(order));
+    }
+
+    private OrderDto applyChanges(final OrderUpdateDto orderUpdateDto, final Order order, final int id) {
+        final BigDecimal previousAmount = order.getAmount();
+        final LocalDateTime previousDate = order.getDate();
+        order.setAmount(orderUpdateDto.getAmount());
+        order.setDate(orderUpdateDto.getDate());
+        orderRepository.flush();
+        if (nonNull(order.getCustomer())
+                && (previousAmount.compareTo(order.getAmount()) != 0 || !previousDate.equals(order.getDate()))) {
+            // the order leaves the stats with its previous values and comes back with the new ones
+            final int customerId = order.getCustomer().getId();
+            customerOrderStatsRepository.remove(customerId, previousAmount, previousDate);
+            customerOrderStatsRepository.add(List.of(
+                    OrderSummaryDto.ofOrder(customerId, order.getAmount(), order.getDate())));
+        }
+        entityChangePublisher.publish(EntityType.ORDER, id);
+        return orderMapperService.mapFrom(order);
+    }
+
+    public void delete(final int id, final String ifMatch) {
+        final Order order = findOrder(id);
+        EntityTags.checkIfMatch(ifMatch, id, EntityTags.of(order));
+        orderRepository.delete(order);
+        if (nonNull(order.getCustomer())) {
+            // the order has to be gone before the stats recompute what it held
+            orderRepository.flush();
+            customerOrderStatsRepository.remove(order.getCustomer().getId(), order.getAmount(), order.getDate());
         }
-        orderRepository.deleteById(id);
+        entityChangePublisher.publish(EntityType.ORDER, id);
     }
 
-    private Function<Order, OrderDto> mapOrder(final OrderUpdateDto orderUpdateDto) {
-        return order -> {
-            order.setAmount(orderUpdateDto.getAmount());
-            order.setDate(orderUpdateDto.getDate());
-            return orderMapperService.mapFrom(order);
-        };
+    private Order findOrder(final int id) {
+        return orderRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        String.format("Order not found with given id: %s", id)));
     }
 }
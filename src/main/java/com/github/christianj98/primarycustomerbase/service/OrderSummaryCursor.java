@@ -0,0 +1,31 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.exception.InvalidCursorException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.INVALID_CURSOR_ERROR;
+
+/**
+ * Opaque position of the last returned order summary, summaries are ordered by customer id
+ */
+@Value
+class OrderSummaryCursor {
+    int customerId;
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Integer.toString(customerId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderSummaryCursor decode(final String cursor) {
+        try {
+            return new OrderSummaryCursor(
+                    Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(String.format(INVALID_CURSOR_ERROR.getMessage(), cursor));
+        }
+    }
+}
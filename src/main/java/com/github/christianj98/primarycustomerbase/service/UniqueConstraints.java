@@ -0,0 +1,30 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Recognizes which unique constraint rejected an insert or update
+ */
+final class UniqueConstraints {
+    private UniqueConstraints() {
+        // private
+    }
+
+    /**
+     * Databases decorate the reported constraint name differently (H2 appends the index definition),
+     * so the name is matched as a case-insensitive fragment
+     */
+    static boolean isViolated(final DataIntegrityViolationException exception, final String constraintName) {
+        for (Throwable cause = exception; nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                final String violatedConstraint = ((ConstraintViolationException) cause).getConstraintName();
+                return nonNull(violatedConstraint)
+                        && violatedConstraint.toLowerCase().contains(constraintName.toLowerCase());
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.christianj98.primarycustomerbase.writebehind;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderWriteStatusDto;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
+import com.github.christianj98.primarycustomerbase.repository.CustomerOrderStatsRepository;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderInsertRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderJournalCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CUSTOMER_NOT_FOUND_ERROR;
+
+/**
+ * Writes a batch of queued orders in a single transaction: one query checks the customers, one multi-row insert
+ * creates the orders and the stats of every customer are updated once per batch. The journal checkpoint moves
+ * past the batch in the same transaction, so a batch is either committed and never replayed or replayed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderBatchWriter {
+    private final CustomerRepository customerRepository;
+    private final OrderInsertRepository orderInsertRepository;
+    private final CustomerOrderStatsRepository customerOrderStatsRepository;
+    private final EntityChangePublisher entityChangePublisher;
+    private final OrderJournalCheckpointRepository orderJournalCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @param batch orders in journal order
+     * @return status of every order of the batch, in the order of the batch
+     */
+    public List<OrderWriteStatusDto> write(final List<PendingOrder> batch, final String journalId) {
+        return transactionTemplate.execute(status -> writeInTransaction(batch, journalId));
+    }
+
+    private List<OrderWriteStatusDto> writeInTransaction(final List<PendingOrder> batch, final String journalId) {
+        final Set<Integer> existingCustomerIds = customerRepository.findExistingIds(batch.stream()
+                .map(pendingOrder -> pendingOrder.getOrder().getCustomerId())
+                .collect(Collectors.toSet()));
+        final List<OrderCreateDto> orders = batch.stream()
+                .map(PendingOrder::getOrder)
+                .filter(order -> existingCustomerIds.contains(order.getCustomerId()))
+                .collect(Collectors.toList());
+        final List<Integer> ids = orderInsertRepository.insertAll(orders);
+        customerOrderStatsRepository.add(new ArrayList<>(orders.stream()
+                .collect(Collectors.toMap(OrderCreateDto::getCustomerId,
+                        order -> OrderSummaryDto.ofOrder(order.getCustomerId(), order.getAmount(), order.getDate()),
+                        OrderSummaryDto::combine))
+                .values()));
+        entityChangePublisher.publish(EntityType.ORDER, ids);
+        orderJournalCheckpointRepository.saveSequence(journalId, batch.get(batch.size() - 1).getSequence());
+
+        final List<OrderWriteStatusDto> statuses = new ArrayList<>(batch.size());
+        int createdOrders = 0;
+        for (PendingOrder pendingOrder : batch) {
+            final Integer customerId = pendingOrder.getOrder().getCustomerId();
+            statuses.add(existingCustomerIds.contains(customerId)
+                    ? OrderWriteStatusDto.created(pendingOrder.getTrackingId(), ids.get(createdOrders++))
+                    : OrderWriteStatusDto.rejected(pendingOrder.getTrackingId(),
+                    String.format(CUSTOMER_NOT_FOUND_ERROR.getMessage(), customerId)));
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,332 @@
+package com.github.christianj98.primarycustomerbase.writebehind;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderWriteBehindProperties;
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Append-only journal of the orders accepted by write-behind, in preallocated segment files mapped into memory.
+ * An append copies the record into the mapped segment and costs no system call. Durability comes from
+ * {@link #awaitDurable(long)}: the first waiting thread forces the segment to disk on behalf of every record
+ * appended so far, threads arriving meanwhile wait for the next force, so one fsync covers a whole group of orders.
+ * <pre>
+ * record: int body length, int CRC32 of the body,
+ *         body: long sequence, long tracking id msb, long tracking id lsb, long date in epoch micros UTC,
+ *               int customer id, int amount scale, short amount length, amount unscaled bytes
+ * </pre>
+ * A zero length marks the unused rest of a segment, a record whose checksum does not match is the torn tail of a
+ * crash and ends the segment as well. Segments are named after the sequence of their first record and deleted
+ * once all their records are committed, a segment without a single readable record is deleted on opening.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "orders.write-behind", name = "enabled", havingValue = "true")
+public class OrderJournal {
+    static final String FILE_SUFFIX = ".journal";
+    static final String ID_FILE = "journal.id";
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int FIXED_BODY_BYTES = 4 * Long.BYTES + 2 * Integer.BYTES + Short.BYTES;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private String id;
+    // guarded by this
+    private MappedByteBuffer current;
+    private long nextSequence;
+    private long appendedSequence;
+    private long committedSequence;
+    // guarded by syncLock
+    private long durableSequence;
+    private boolean syncing;
+
+    public OrderJournal(final OrderWriteBehindProperties orderWriteBehindProperties) {
+        this.directory = orderWriteBehindProperties.getJournal().getDirectory();
+        this.segmentSize = Math.toIntExact(orderWriteBehindProperties.getJournal().getSegmentSize().toBytes());
+    }
+
+    /**
+     * Identifies the journal of this node in the database, kept next to the segments
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Reads the journal and starts a new segment for the coming appends
+     *
+     * @param committedSequence sequence of the last order committed to the database
+     * @return orders journaled after the committed one, in journal order
+     */
+    public synchronized List<PendingOrder> open(final long committedSequence) {
+        segments.clear();
+        this.committedSequence = committedSequence;
+        final List<PendingOrder> uncommittedOrders = new ArrayList<>();
+        long lastSequence = committedSequence;
+        try {
+            Files.createDirectories(directory);
+            id = readOrCreateId();
+            for (Segment segment : listSegments()) {
+                final List<PendingOrder> orders = readRecords(segment.getFile());
+                if (orders.isEmpty()) {
+                    // started but not written to before a crash, the next segment would be named like it
+                    Files.delete(segment.getFile());
+                    continue;
+                }
+                segments.add(segment);
+                for (PendingOrder order : orders) {
+                    lastSequence = Math.max(lastSequence, order.getSequence());
+                    if (order.getSequence() > committedSequence) {
+                        uncommittedOrders.add(order);
+                    }
+                }
+            }
+            nextSequence = lastSequence + 1;
+            appendedSequence = lastSequence;
+            startSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        syncLock.lock();
+        try {
+            durableSequence = lastSequence;
+        } finally {
+            syncLock.unlock();
+        }
+        log.info("Opened order journal {} in {}, {} orders are not committed", id, directory,
+                uncommittedOrders.size());
+        return uncommittedOrders;
+    }
+
+    /**
+     * Copies the order into the journal, it is durable once {@link #awaitDurable(long)} returns for its sequence
+     *
+     * @return sequence of the order in the journal
+     */
+    public synchronized long append(final String trackingId, final OrderCreateDto order) {
+        final long sequence = nextSequence;
+        final ByteBuffer record = encode(sequence, trackingId, order);
+        if (current.remaining() < record.remaining()) {
+            // the full segment is made durable before any record of its successor can be
+            current.force();
+            try {
+                startSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        current.put(record);
+        nextSequence++;
+        appendedSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Blocks until the order with the sequence and all orders before it are on disk
+     */
+    public void awaitDurable(final long sequence) {
+        syncLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                } else {
+                    sync();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments whose orders are all committed
+     */
+    public synchronized void release(final long committedSequence) {
+        this.committedSequence = Math.max(this.committedSequence, committedSequence);
+        while (segments.size() > 1 && segments.get(1).getFirstSequence() <= committedSequence + 1) {
+            delete(segments.remove(0));
+        }
+    }
+
+    /**
+     * Deletes all segments when all their orders are committed, so a cleanly stopped node leaves no journal behind
+     */
+    public synchronized void close() {
+        if (committedSequence >= appendedSequence) {
+            segments.forEach(OrderJournal::delete);
+            segments.clear();
+        }
+    }
+
+    // called holding syncLock, which is released while forcing so appends and further waiters are not blocked
+    private void sync() {
+        syncing = true;
+        syncLock.unlock();
+        long target = 0;
+        boolean forced = false;
+        try {
+            final MappedByteBuffer segment;
+            synchronized (this) {
+                target = appendedSequence;
+                segment = current;
+            }
+            segment.force();
+            forced = true;
+        } finally {
+            syncLock.lock();
+            syncing = false;
+            if (forced) {
+                durableSequence = Math.max(durableSequence, target);
+            }
+            synced.signalAll();
+        }
+    }
+
+    private void startSegment() throws IOException {
+        final Path file = directory.resolve(String.format("orders-%020d%s", nextSequence, FILE_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+        segments.add(new Segment(nextSequence, file));
+    }
+
+    private static void delete(final Segment segment) {
+        try {
+            Files.deleteIfExists(segment.getFile());
+        } catch (IOException e) {
+            log.warn("Deleting the committed journal segment {} failed", segment.getFile(), e);
+        }
+    }
+
+    private String readOrCreateId() throws IOException {
+        final Path idFile = directory.resolve(ID_FILE);
+        if (Files.exists(idFile)) {
+            return Files.readString(idFile, US_ASCII).trim();
+        }
+        final String newId = UUID.randomUUID().toString();
+        Files.writeString(idFile, newId, US_ASCII, StandardOpenOption.CREATE_NEW, StandardOpenOption.SYNC);
+        return newId;
+    }
+
+    private List<Segment> listSegments() throws IOException {
+        final List<Segment> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "orders-*" + FILE_SUFFIX)) {
+            for (Path file : stream) {
+                final String name = file.getFileName().toString();
+                files.add(new Segment(Long.parseLong(name.substring("orders-".length(),
+                        name.length() - FILE_SUFFIX.length())), file));
+            }
+        }
+        files.sort(Comparator.comparingLong(Segment::getFirstSequence));
+        return files;
+    }
+
+    static List<PendingOrder> readRecords(final Path file) throws IOException {
+        final ByteBuffer segment = ByteBuffer.wrap(Files.readAllBytes(file));
+        final List<PendingOrder> orders = new ArrayList<>();
+        final CRC32 checksum = new CRC32();
+        while (segment.remaining() >= RECORD_HEADER_BYTES) {
+            final int length = segment.getInt();
+            final int expectedChecksum = segment.getInt();
+            if (length < FIXED_BODY_BYTES || length > segment.remaining()) {
+                break;
+            }
+            final ByteBuffer body = segment.slice();
+            body.limit(length);
+            checksum.reset();
+            checksum.update(body.duplicate());
+            if ((int) checksum.getValue() != expectedChecksum) {
+                log.warn("Order journal {} ends with a torn record after {} orders", file, orders.size());
+                break;
+            }
+            orders.add(decode(body));
+            segment.position(segment.position() + length);
+        }
+        return orders;
+    }
+
+    private static ByteBuffer encode(final long sequence, final String trackingId, final OrderCreateDto order) {
+        final UUID tracking = UUID.fromString(trackingId);
+        final byte[] amount = order.getAmount().unscaledValue().toByteArray();
+        final int length = FIXED_BODY_BYTES + amount.length;
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        record.putInt(length)
+                .putInt(0)
+                .putLong(sequence)
+                .putLong(tracking.getMostSignificantBits())
+                .putLong(tracking.getLeastSignificantBits())
+                .putLong(toMicros(order.getDate()))
+                .putInt(order.getCustomerId())
+                .putInt(order.getAmount().scale())
+                .putShort((short) amount.length)
+                .put(amount);
+        final CRC32 checksum = new CRC32();
+        checksum.update(record.array(), RECORD_HEADER_BYTES, length);
+        record.putInt(Integer.BYTES, (int) checksum.getValue());
+        return record.flip();
+    }
+
+    private static PendingOrder decode(final ByteBuffer body) {
+        final long sequence = body.getLong();
+        final String trackingId = new UUID(body.getLong(), body.getLong()).toString();
+        final OrderCreateDto order = new OrderCreateDto();
+        order.setDate(toDate(body.getLong()));
+        order.setCustomerId(body.getInt());
+        final int scale = body.getInt();
+        final byte[] amount = new byte[body.getShort()];
+        body.get(amount);
+        order.setAmount(new BigDecimal(new BigInteger(amount), scale));
+        return new PendingOrder(trackingId, order, sequence);
+    }
+
+    private static long toMicros(final LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + date.getNano() / NANOS_PER_MICRO;
+    }
+
+    private static LocalDateTime toDate(final long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * NANOS_PER_MICRO,
+                ZoneOffset.UTC);
+    }
+
+    @Value
+    private static class Segment {
+        long firstSequence;
+        Path file;
+    }
+}
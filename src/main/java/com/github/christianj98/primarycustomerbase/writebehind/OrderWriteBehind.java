@@ -0,0 +1,218 @@
+package com.github.christianj98.primarycustomerbase.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.christianj98.primarycustomerbase.configuration.OrderWriteBehindProperties;
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderWriteStatusDto;
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
+import com.github.christianj98.primarycustomerbase.repository.OrderJournalCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.ORDER_QUEUE_FULL_ERROR;
+import static java.util.Objects.isNull;
+
+/**
+ * Queues orders for a writer thread of its own instead of writing them on the request thread. The writer takes
+ * every order queued while the previous batch was committed, up to orders.write-behind.batch-size, so batches
+ * grow with the load and the commits stay few. A full queue refuses further orders rather than letting the
+ * backlog grow. The status of every queued order is kept by its tracking id for a while.
+ * An order is accepted and queued only once it is durable in the {@link OrderJournal}, so the writer never commits
+ * an order whose journaling failed. On startup the orders journaled after
+ * the last committed batch are written before the writer starts, orders queued when the process died are not lost.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "orders.write-behind", name = "enabled", havingValue = "true")
+public class OrderWriteBehind implements SmartLifecycle {
+    // stops after the web server, so no order is queued once the writer has drained the queue
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1024;
+
+    private final OrderBatchWriter orderBatchWriter;
+    private final OrderJournal orderJournal;
+    private final OrderJournalCheckpointRepository orderJournalCheckpointRepository;
+    private final OrderWriteBehindProperties orderWriteBehindProperties;
+    private final BlockingQueue<PendingOrder> queue;
+    // guarded by queue, journaled orders in journal order until they are durable
+    private final Deque<PendingOrder> journaledOrders = new ArrayDeque<>();
+    private final Cache<String, OrderWriteStatusDto> statuses;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public OrderWriteBehind(final OrderBatchWriter orderBatchWriter,
+                            final OrderJournal orderJournal,
+                            final OrderJournalCheckpointRepository orderJournalCheckpointRepository,
+                            final OrderWriteBehindProperties orderWriteBehindProperties) {
+        this.orderBatchWriter = orderBatchWriter;
+        this.orderJournal = orderJournal;
+        this.orderJournalCheckpointRepository = orderJournalCheckpointRepository;
+        this.orderWriteBehindProperties = orderWriteBehindProperties;
+        this.queue = new ArrayBlockingQueue<>(orderWriteBehindProperties.getQueueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(orderWriteBehindProperties.getTrackedWrites())
+                .expireAfterWrite(orderWriteBehindProperties.getTrackingTimeToLive())
+                .build();
+    }
+
+    /**
+     * Journals and queues the order, returns once the order is durable
+     *
+     * @return pending status of the queued order
+     * @throws ServiceOverloadedException when the queue is full or the writer is stopped
+     */
+    public OrderWriteStatusDto submit(final OrderCreateDto order) {
+        final String trackingId = UUID.randomUUID().toString();
+        final OrderWriteStatusDto status = OrderWriteStatusDto.pending(trackingId);
+        final PendingOrder pendingOrder;
+        synchronized (queue) {
+            if (!running || queue.remainingCapacity() <= journaledOrders.size()) {
+                throw new ServiceOverloadedException(ORDER_QUEUE_FULL_ERROR.getMessage());
+            }
+            pendingOrder = new PendingOrder(trackingId, order, orderJournal.append(trackingId, order));
+            statuses.put(trackingId, status);
+            journaledOrders.add(pendingOrder);
+        }
+        try {
+            orderJournal.awaitDurable(pendingOrder.getSequence());
+        } catch (RuntimeException e) {
+            synchronized (queue) {
+                journaledOrders.remove(pendingOrder);
+                statuses.invalidate(trackingId);
+            }
+            throw e;
+        }
+        queueDurableOrders(pendingOrder.getSequence());
+        return status;
+    }
+
+    /**
+     * Queues every journaled order up to the durable sequence, whichever thread waited for it. The queue takes the
+     * orders in journal order, which the writer relies on for its checkpoints.
+     */
+    private void queueDurableOrders(final long durableSequence) {
+        synchronized (queue) {
+            while (!journaledOrders.isEmpty() && journaledOrders.peek().getSequence() <= durableSequence) {
+                queue.add(journaledOrders.poll());
+            }
+        }
+    }
+
+    public Optional<OrderWriteStatusDto> findStatus(final String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    /**
+     * Replays the uncommitted orders of the journal first, a failed replay fails the startup so no order is
+     * skipped
+     */
+    @Override
+    public synchronized void start() {
+        synchronized (queue) {
+            queue.clear();
+            journaledOrders.clear();
+        }
+        final List<PendingOrder> uncommittedOrders =
+                orderJournal.open(orderJournalCheckpointRepository.findSequence(orderJournal.getId()));
+        final int batchSize = orderWriteBehindProperties.getBatchSize();
+        for (int from = 0; from < uncommittedOrders.size(); from += batchSize) {
+            final List<PendingOrder> batch =
+                    uncommittedOrders.subList(from, Math.min(from + batchSize, uncommittedOrders.size()));
+            orderBatchWriter.write(batch, orderJournal.getId())
+                    .forEach(status -> statuses.put(status.getTrackingId(), status));
+            orderJournal.release(batch.get(batch.size() - 1).getSequence());
+        }
+        if (!uncommittedOrders.isEmpty()) {
+            log.info("Replayed {} journaled orders which were not committed", uncommittedOrders.size());
+        }
+        running = true;
+        writerThread = new Thread(this::writeQueuedOrders, "order-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        orderJournal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void writeQueuedOrders() {
+        final List<PendingOrder> batch = new ArrayList<>(orderWriteBehindProperties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            final PendingOrder first;
+            try {
+                first = queue.poll(orderWriteBehindProperties.getPollTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Writer of queued orders was interrupted, {} orders are not written", queue.size());
+                return;
+            }
+            if (isNull(first)) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, orderWriteBehindProperties.getBatchSize() - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * The orders are durable in the journal, so a failed batch is retried rather than given up. A batch still
+     * failing when the writer stops is replayed on the next startup.
+     */
+    void writeBatch(final List<PendingOrder> batch) {
+        while (true) {
+            try {
+                orderBatchWriter.write(batch, orderJournal.getId())
+                        .forEach(status -> statuses.put(status.getTrackingId(), status));
+                orderJournal.release(batch.get(batch.size() - 1).getSequence());
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Writing a batch of {} queued orders failed, retrying in {}", batch.size(),
+                        orderWriteBehindProperties.getRetryDelay(), e);
+            }
+            if (!running || !pauseBeforeRetry()) {
+                return;
+            }
+        }
+    }
+
+    private boolean pauseBeforeRetry() {
+        try {
+            Thread.sleep(orderWriteBehindProperties.getRetryDelay().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.christianj98.primarycustomerbase.writebehind;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import lombok.Value;
+
+/**
+ * Order accepted by POST /orders and waiting for the writer
+ */
+@Value
+public class PendingOrder {
+    String trackingId;
+    OrderCreateDto order;
+    /**
+     * Position of the order in the journal, ascending in the order the orders were accepted
+     */
+    long sequence;
+}
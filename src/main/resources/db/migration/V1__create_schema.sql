@@ -0,0 +1,43 @@
+-- Ids of customers and addresses are allocated in pools of 50 by Hibernate (allocationSize on the entities)
+CREATE SEQUENCE customers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE addresses_seq START WITH 1 INCREMENT BY 50;
+
+-- (street, city) unique index serves the duplicate check of created addresses
+CREATE TABLE addresses
+(
+    id     INTEGER      NOT NULL,
+    street VARCHAR(255) NOT NULL,
+    city   VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_addresses PRIMARY KEY (id),
+    CONSTRAINT uk_addresses_street_city UNIQUE (street, city)
+);
+
+-- last_name leads the unique index, so it also serves the last_name IN (...) lookup of batch creation;
+-- the unique address_id index serves the inverse one-to-one lookup of an address' customer
+CREATE TABLE customers
+(
+    id         INTEGER      NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    address_id INTEGER,
+    CONSTRAINT pk_customers PRIMARY KEY (id),
+    CONSTRAINT uk_customers_first_name_last_name UNIQUE (last_name, first_name),
+    CONSTRAINT uk_customers_address_id UNIQUE (address_id),
+    CONSTRAINT fk_customers_address FOREIGN KEY (address_id) REFERENCES addresses (id)
+);
+
+-- orders keep identity ids, COPY ingestion inserts rows without going through Hibernate
+CREATE TABLE orders
+(
+    id          INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    date        TIMESTAMP      NOT NULL,
+    amount      NUMERIC(19, 2) NOT NULL,
+    customer_id INTEGER,
+    CONSTRAINT pk_orders PRIMARY KEY (id),
+    CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+-- joins from customers to their orders and the cascade when a customer is deleted
+CREATE INDEX idx_orders_customer_id ON orders (customer_id);
+-- keyset pagination: ORDER BY date, id with WHERE date >= ? AND (date > ? OR id > ?)
+CREATE INDEX idx_orders_date_id ON orders (date, id);
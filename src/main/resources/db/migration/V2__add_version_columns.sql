@@ -0,0 +1,5 @@
+-- optimistic locking versions, they also make up the entity tags of the single resource endpoints;
+-- rows inserted outside Hibernate (COPY ingestion of orders) start at version 0
+ALTER TABLE customers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE addresses ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
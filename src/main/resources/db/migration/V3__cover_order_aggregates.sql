@@ -0,0 +1,8 @@
+-- per-customer order summaries group the orders by customer_id and aggregate date and amount;
+-- with both columns in the index the GROUP BY queries run as index-only scans, the index still serves
+-- the joins from customers to their orders and the cascade when a customer is deleted.
+-- The foreign key is recreated because some databases tie the old index to it.
+ALTER TABLE orders DROP CONSTRAINT fk_orders_customer;
+DROP INDEX idx_orders_customer_id;
+CREATE INDEX idx_orders_customer_id_date_amount ON orders (customer_id, date, amount);
+ALTER TABLE orders ADD CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
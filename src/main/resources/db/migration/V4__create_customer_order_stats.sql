@@ -0,0 +1,19 @@
+-- rollup of the orders of every customer with orders, each order write applies its delta in the same transaction;
+-- min, max and last order date are recomputed from the orders index only when a removed order held one of them
+CREATE TABLE customer_order_stats
+(
+    customer_id     INTEGER        NOT NULL,
+    order_count     BIGINT         NOT NULL,
+    total_amount    NUMERIC(19, 2) NOT NULL,
+    min_amount      NUMERIC(19, 2),
+    max_amount      NUMERIC(19, 2),
+    last_order_date TIMESTAMP,
+    CONSTRAINT pk_customer_order_stats PRIMARY KEY (customer_id),
+    CONSTRAINT fk_customer_order_stats_customer FOREIGN KEY (customer_id) REFERENCES customers (id) ON DELETE CASCADE
+);
+
+INSERT INTO customer_order_stats (customer_id, order_count, total_amount, min_amount, max_amount, last_order_date)
+SELECT customer_id, COUNT(*), SUM(amount), MIN(amount), MAX(amount), MAX(date)
+FROM orders
+WHERE customer_id IS NOT NULL
+GROUP BY customer_id;
@@ -0,0 +1,8 @@
+-- last journal sequence of every node whose orders are committed, advanced in the transaction which writes them,
+-- so a journal is replayed from exactly the first order missing in the database
+CREATE TABLE order_journal_checkpoints
+(
+    journal_id VARCHAR(36) NOT NULL,
+    sequence   BIGINT      NOT NULL,
+    CONSTRAINT pk_order_journal_checkpoints PRIMARY KEY (journal_id)
+);
@@ -0,0 +1,5 @@
+-- numbers the changes of each table across all nodes, carried by the change notifications, so every node derives
+-- the same collection entity tag from the changes it has seen
+CREATE SEQUENCE customer_changes;
+CREATE SEQUENCE address_changes;
+CREATE SEQUENCE order_changes;
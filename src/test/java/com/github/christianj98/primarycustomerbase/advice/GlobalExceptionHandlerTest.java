@@ -1,19 +1,28 @@
 package com.github.christianj98.primarycustomerbase.advice;
 
+import com.github.christianj98.primarycustomerbase.entity.Customer;
 import com.github.christianj98.primarycustomerbase.exception.AddressAssignedToTheCustomerException;
+import com.github.christianj98.primarycustomerbase.exception.InvalidCursorException;
+import com.github.christianj98.primarycustomerbase.exception.InvalidPatchException;
+import com.github.christianj98.primarycustomerbase.exception.PreconditionFailedException;
 import com.github.christianj98.primarycustomerbase.exception.ResourceAlreadyExistsException;
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.ConstraintViolationException;
 
 import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.ADDRESS_ASSIGNED_TO_THR_CUSTOMER_ERROR;
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CONCURRENT_MODIFICATION_ERROR;
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.ORDER_QUEUE_FULL_ERROR;
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -82,4 +91,80 @@ public class GlobalExceptionHandlerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(output).contains("null");
     }
+
+    @Test
+    public void handleInvalidCursorException_returnsBadRequestStatus(CapturedOutput output) {
+        // given
+        final String errorMessage = "Cursor abc is invalid";
+        final InvalidCursorException exception = new InvalidCursorException(errorMessage);
+
+        // when
+        var response = globalExceptionHandler.handleInvalidCursorException(exception);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo(errorMessage);
+        assertThat(output).contains(errorMessage);
+    }
+
+    @Test
+    public void handleInvalidPatchException_returnsBadRequestStatus(CapturedOutput output) {
+        // given
+        final String errorMessage = "Patch cannot be applied: Cannot deserialize value of type `java.math.BigDecimal`";
+        final InvalidPatchException exception = new InvalidPatchException(errorMessage);
+
+        // when
+        var response = globalExceptionHandler.handleInvalidPatchException(exception);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo(errorMessage);
+        assertThat(output).contains(errorMessage);
+    }
+
+    @Test
+    public void handlePreconditionFailedException_returnsPreconditionFailedStatus(CapturedOutput output) {
+        // given
+        final String errorMessage = "Resource with given id 1 does not match \"0\", its current entity tag is \"1\"";
+        final PreconditionFailedException exception = new PreconditionFailedException(errorMessage);
+
+        // when
+        var response = globalExceptionHandler.handlePreconditionFailedException(exception);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(response.getBody()).isEqualTo(errorMessage);
+        assertThat(output).contains(errorMessage);
+    }
+
+    @Test
+    public void handleOptimisticLockingFailureException_returnsConflictStatus() {
+        // given
+        final ObjectOptimisticLockingFailureException exception =
+                new ObjectOptimisticLockingFailureException(Customer.class, 1);
+
+        // when
+        var response = globalExceptionHandler.handleOptimisticLockingFailureException(exception);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isEqualTo(CONCURRENT_MODIFICATION_ERROR.getMessage());
+    }
+
+    @Test
+    public void handleServiceOverloadedException_returnsServiceUnavailableStatus(CapturedOutput output) {
+        // given
+        final ServiceOverloadedException exception =
+                new ServiceOverloadedException(ORDER_QUEUE_FULL_ERROR.getMessage());
+
+        // when
+        var response = globalExceptionHandler.handleServiceOverloadedException(exception);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                .isEqualTo(GlobalExceptionHandler.RETRY_AFTER_SECONDS);
+        assertThat(response.getBody()).isEqualTo(ORDER_QUEUE_FULL_ERROR.getMessage());
+        assertThat(output).contains(ORDER_QUEUE_FULL_ERROR.getMessage());
+    }
 }
@@ -0,0 +1,110 @@
+package com.github.christianj98.primarycustomerbase.archive;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderArchiveProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link OrderArchive}
+ */
+public class OrderArchiveTest {
+    @TempDir
+    Path directory;
+
+    private OrderArchiveProperties orderArchiveProperties;
+
+    @BeforeEach
+    public void init() {
+        orderArchiveProperties = new OrderArchiveProperties();
+        orderArchiveProperties.setDirectory(directory.resolve("archive"));
+    }
+
+    @Test
+    @DisplayName("Appended orders are found by id in the segment covering them")
+    public void append_ordersFoundById() {
+        // given
+        final OrderArchive orderArchive = new OrderArchive(orderArchiveProperties);
+        final ArchivedOrder januaryOrder = new ArchivedOrder(5, ORDER_DATE.minusMonths(1), AMOUNT, 1, 0);
+        final ArchivedOrder laterJanuaryOrder = new ArchivedOrder(9, ORDER_DATE.minusMonths(1), AMOUNT, 2, 0);
+        final ArchivedOrder februaryOrder = new ArchivedOrder(7, ORDER_DATE, AMOUNT, 1, 0);
+
+        // when
+        orderArchive.append(YearMonth.of(2020, 1), List.of(januaryOrder, laterJanuaryOrder));
+        orderArchive.append(YearMonth.of(2020, 2), List.of(februaryOrder));
+
+        // then
+        assertThat(orderArchive.findById(5)).contains(januaryOrder);
+        assertThat(orderArchive.findById(7)).contains(februaryOrder);
+        assertThat(orderArchive.findById(8)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Segments written before a restart are found again")
+    public void constructor_loadsExistingSegments() {
+        // given
+        final ArchivedOrder order = new ArchivedOrder(5, ORDER_DATE, AMOUNT, null, 3);
+        new OrderArchive(orderArchiveProperties).append(YearMonth.of(2020, 2), List.of(order));
+
+        // when
+        final OrderArchive orderArchive = new OrderArchive(orderArchiveProperties);
+
+        // then
+        assertThat(orderArchive.findById(5)).contains(order);
+    }
+
+    @Test
+    @DisplayName("Segments appended by another instance sharing the directory are found")
+    public void findById_segmentAppendedByOtherInstance() {
+        // given
+        final OrderArchive orderArchive = new OrderArchive(orderArchiveProperties);
+        final OrderArchive otherOrderArchive = new OrderArchive(orderArchiveProperties);
+        final ArchivedOrder januaryOrder = new ArchivedOrder(5, ORDER_DATE.minusMonths(1), AMOUNT, 1, 0);
+        final ArchivedOrder februaryOrder = new ArchivedOrder(7, ORDER_DATE, AMOUNT, 1, 0);
+        orderArchive.append(YearMonth.of(2020, 1), List.of(januaryOrder));
+        assertThat(otherOrderArchive.findById(7)).isEmpty();
+
+        // when
+        otherOrderArchive.append(YearMonth.of(2020, 2), List.of(februaryOrder));
+
+        // then
+        assertThat(otherOrderArchive.findById(5)).contains(januaryOrder);
+        assertThat(orderArchive.findById(7)).contains(februaryOrder);
+        assertThat(orderArchive.findById(5)).contains(januaryOrder);
+    }
+
+    @Test
+    @DisplayName("Many ids are found across segments at once, also in segments appended by another instance")
+    public void findAllById_foundAcrossSegments() {
+        // given
+        final OrderArchive orderArchive = new OrderArchive(orderArchiveProperties);
+        final ArchivedOrder januaryOrder = new ArchivedOrder(5, ORDER_DATE.minusMonths(1), AMOUNT, 1, 0);
+        final ArchivedOrder laterJanuaryOrder = new ArchivedOrder(9, ORDER_DATE.minusMonths(1), AMOUNT, 2, 0);
+        final ArchivedOrder februaryOrder = new ArchivedOrder(11, ORDER_DATE, AMOUNT, 1, 0);
+        orderArchive.append(YearMonth.of(2020, 1), List.of(januaryOrder, laterJanuaryOrder));
+        new OrderArchive(orderArchiveProperties).append(YearMonth.of(2020, 2), List.of(februaryOrder));
+
+        // when
+        final Map<Integer, ArchivedOrder> orders = orderArchive.findAllById(List.of(9, 5, 7, 11));
+
+        // then
+        assertThat(orders).isEqualTo(Map.of(5, januaryOrder, 9, laterJanuaryOrder, 11, februaryOrder));
+    }
+
+    @Test
+    @DisplayName("Without an archive directory nothing is archived")
+    public void findById_noDirectory() {
+        // when + then
+        assertThat(new OrderArchive(orderArchiveProperties).findById(1)).isEmpty();
+    }
+}
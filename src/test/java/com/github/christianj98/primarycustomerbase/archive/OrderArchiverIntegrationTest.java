@@ -0,0 +1,98 @@
+package com.github.christianj98.primarycustomerbase.archive;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderPartitionRepository;
+import com.github.christianj98.primarycustomerbase.service.OrderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI_WITH_ID;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderCreateDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "orders.archive.enabled=true",
+        "orders.archive.directory=target/order-archive-it",
+        "orders.archive.min-age=P1Y",
+        "orders.archive.initial-delay=PT24H"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+public class OrderArchiverIntegrationTest {
+    private static final Path ARCHIVE_DIRECTORY = Path.of("target", "order-archive-it");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderPartitionRepository orderPartitionRepository;
+    @Autowired
+    private OrderArchiver orderArchiver;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    public static void clearArchive() throws IOException {
+        // the archive outlives the database which is cleaned for every context
+        FileSystemUtils.deleteRecursively(ARCHIVE_DIRECTORY);
+    }
+
+    @Test
+    @DisplayName("Old orders move into the archive, stay readable by id and their emptied partition is dropped")
+    public void archiveOldOrders_oldOrdersArchived() throws Exception {
+        // given
+        final int customerId = customerRepository.save(createCustomer(FIRST_NAME, LAST_NAME)).getId();
+        final OrderDto oldOrder = orderService.saveOrder(createOrderCreateDto(ORDER_DATE, AMOUNT, customerId));
+        final OrderDto recentOrder = orderService.saveOrder(
+                createOrderCreateDto(LocalDateTime.now().withNano(0), AMOUNT, customerId));
+        orderPartitionRepository.createPartition(YearMonth.from(ORDER_DATE));
+
+        // when
+        final int archivedOrders = orderArchiver.archiveOldOrders();
+
+        // then
+        assertThat(archivedOrders).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+                OrderPartitionRepository.partitionName(YearMonth.from(ORDER_DATE)))).isNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT order_count FROM customer_order_stats WHERE customer_id = ?", Long.class, customerId))
+                .isEqualTo(1L);
+        performAsync(mockMvc, get(ORDERS_URI_WITH_ID, oldOrder.getOrderId()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.date").value(ORDER_DATE.toString()))
+                .andExpect(jsonPath("$.amount").value(AMOUNT.toString()))
+                .andExpect(jsonPath("$.customerDto.firstName").value(FIRST_NAME));
+        performAsync(mockMvc, get(ORDERS_URI_WITH_ID, recentOrder.getOrderId()))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.christianj98.primarycustomerbase.archive;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderArchiveProperties;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
+import com.github.christianj98.primarycustomerbase.repository.CustomerOrderStatsRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderArchiveRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link OrderArchiver}
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderArchiverTest {
+    private static final YearMonth FIRST_KEPT_MONTH = YearMonth.from(LocalDate.now().minusYears(1));
+
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Mock
+    private OrderPartitionRepository orderPartitionRepository;
+
+    @Mock
+    private CustomerOrderStatsRepository customerOrderStatsRepository;
+
+    @Mock
+    private OrderArchive orderArchive;
+
+    @Mock
+    private EntityChangePublisher entityChangePublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderArchiver orderArchiver;
+
+    @BeforeEach
+    public void init() {
+        final OrderArchiveProperties orderArchiveProperties = new OrderArchiveProperties();
+        orderArchiveProperties.setMinAge(Period.ofYears(1));
+        orderArchiver = new OrderArchiver(orderArchiveRepository, orderPartitionRepository,
+                customerOrderStatsRepository, orderArchive, entityChangePublisher,
+                new TransactionTemplate(transactionManager), orderArchiveProperties);
+    }
+
+    @Test
+    @DisplayName("Orders of every month before the first kept month are archived month by month")
+    public void archiveOldOrders_monthByMonth() {
+        // given
+        final YearMonth lastMonth = FIRST_KEPT_MONTH.minusMonths(1);
+        final YearMonth earlierMonth = FIRST_KEPT_MONTH.minusMonths(2);
+        final LocalDateTime earliestDate = earlierMonth.atDay(3).atTime(10, 0);
+        final List<ArchivedOrder> orders = List.of(
+                new ArchivedOrder(4, lastMonth.atDay(1).atStartOfDay(), new BigDecimal("10.00"), 1, 0),
+                new ArchivedOrder(6, lastMonth.atDay(9).atStartOfDay(), new BigDecimal("5.00"), 1, 0),
+                new ArchivedOrder(8, lastMonth.atDay(2).atStartOfDay(), new BigDecimal("7.00"), null, 0));
+        when(orderArchiveRepository.findEarliestDateBefore(FIRST_KEPT_MONTH.atDay(1).atStartOfDay()))
+                .thenReturn(Optional.of(earliestDate));
+        when(orderArchiveRepository.deleteDatedBetween(earlierMonth.atDay(1).atStartOfDay(),
+                lastMonth.atDay(1).atStartOfDay())).thenReturn(List.of());
+        when(orderArchiveRepository.deleteDatedBetween(lastMonth.atDay(1).atStartOfDay(),
+                FIRST_KEPT_MONTH.atDay(1).atStartOfDay())).thenReturn(orders);
+
+        // when
+        final int archivedOrders = orderArchiver.archiveOldOrders();
+
+        // then
+        assertThat(archivedOrders).isEqualTo(3);
+        verify(orderArchive, never()).append(earlierMonth, List.of());
+        final InOrder archiving = inOrder(orderArchive, customerOrderStatsRepository, transactionManager,
+                orderPartitionRepository);
+        archiving.verify(orderArchive).append(lastMonth, orders);
+        archiving.verify(customerOrderStatsRepository).removeAll(List.of(new OrderSummaryDto(1, 2,
+                new BigDecimal("15.00"), new BigDecimal("5.00"), new BigDecimal("10.00"),
+                lastMonth.atDay(9).atStartOfDay())));
+        archiving.verify(transactionManager).commit(any());
+        archiving.verify(orderPartitionRepository).dropPartitionIfEmpty(lastMonth);
+        verify(orderPartitionRepository).dropPartitionIfEmpty(earlierMonth);
+        verify(entityChangePublisher).publish(EntityType.ORDER, List.of(4, 6, 8));
+    }
+
+    @Test
+    @DisplayName("Nothing is archived without orders older than the minimum age")
+    public void archiveOldOrders_nothingOldEnough() {
+        // given
+        when(orderArchiveRepository.findEarliestDateBefore(any())).thenReturn(Optional.empty());
+
+        // when
+        final int archivedOrders = orderArchiver.archiveOldOrders();
+
+        // then
+        assertThat(archivedOrders).isZero();
+        verifyNoInteractions(orderArchive, customerOrderStatsRepository, orderPartitionRepository);
+    }
+
+    @Test
+    @DisplayName("A failed scheduled run is left to the next one")
+    public void archiveOnSchedule_failureSwallowed() {
+        // given
+        when(orderArchiveRepository.findEarliestDateBefore(any())).thenThrow(new IllegalStateException("down"));
+
+        // when
+        orderArchiver.archiveOnSchedule();
+
+        // then
+        verifyNoInteractions(orderArchive);
+    }
+}
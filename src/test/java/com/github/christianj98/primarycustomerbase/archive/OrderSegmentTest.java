@@ -0,0 +1,95 @@
+package com.github.christianj98.primarycustomerbase.archive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link OrderSegment}
+ */
+public class OrderSegmentTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Every column of the written orders is read back, also when consecutive values decrease")
+    public void writeAndRead_ordersRoundTrip() throws IOException {
+        // given
+        final Path file = directory.resolve("orders-2020-02" + OrderSegment.FILE_SUFFIX);
+        final List<ArchivedOrder> orders = List.of(
+                new ArchivedOrder(3, ORDER_DATE, AMOUNT, 7, 0),
+                new ArchivedOrder(8, ORDER_DATE.minusDays(2).withNano(123_456_000), new BigDecimal("0.01"), null, 2),
+                new ArchivedOrder(1_000_000, ORDER_DATE.plusHours(1), new BigDecimal("12345678901234567.89"), 1, 1));
+
+        // when
+        OrderSegment.write(file, orders);
+        final OrderSegment segment = OrderSegment.read(file);
+
+        // then
+        assertThat(segment.size()).isEqualTo(3);
+        assertThat(orders).allSatisfy(order -> assertThat(segment.find(order.getId())).contains(order));
+        assertThat(segment.find(4)).isEmpty();
+        assertThat(Files.list(directory)).containsExactly(file);
+    }
+
+    @Test
+    @DisplayName("The header tells the id range without decoding the columns")
+    public void readHeader_idRange() throws IOException {
+        // given
+        final Path file = directory.resolve("orders-2020-02" + OrderSegment.FILE_SUFFIX);
+        OrderSegment.write(file, List.of(new ArchivedOrder(10, ORDER_DATE, AMOUNT, 1, 0),
+                new ArchivedOrder(20, ORDER_DATE, AMOUNT, 1, 0)));
+
+        // when
+        final OrderSegment.Header header = OrderSegment.readHeader(file);
+
+        // then
+        assertThat(header.getOrders()).isEqualTo(2);
+        assertThat(header.mayContain(10)).isTrue();
+        assertThat(header.mayContain(15)).isTrue();
+        assertThat(header.mayContain(21)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Dates and amounts of orders created in date order take a few bytes per order")
+    public void write_deltaEncodedColumnsAreCompact() throws IOException {
+        // given
+        final Path file = directory.resolve("orders-2020-02" + OrderSegment.FILE_SUFFIX);
+        final List<ArchivedOrder> orders = new ArrayList<>();
+        for (int id = 1; id <= 10_000; id++) {
+            orders.add(new ArchivedOrder(id, ORDER_DATE.plusMinutes(id), BigDecimal.valueOf(id % 100, 2), id % 50 + 1, 0));
+        }
+
+        // when
+        OrderSegment.write(file, orders);
+
+        // then
+        assertThat(Files.size(file)).isLessThan(orders.size() * 4L);
+        assertThat(OrderSegment.read(file).find(5_000)).contains(orders.get(4_999));
+    }
+
+    @Test
+    @DisplayName("A file which is not a segment is rejected")
+    public void read_notASegment() throws IOException {
+        // given
+        final Path file = Files.writeString(directory.resolve("orders.seg"), "date,amount,customerId");
+
+        // when + then
+        assertThatThrownBy(() -> OrderSegment.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("is not an order segment");
+    }
+}
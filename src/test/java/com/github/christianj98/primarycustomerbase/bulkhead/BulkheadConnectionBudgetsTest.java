@@ -0,0 +1,95 @@
+package com.github.christianj98.primarycustomerbase.bulkhead;
+
+import com.github.christianj98.primarycustomerbase.configuration.BulkheadProperties;
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.DATABASE_BUSY_ERROR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link BulkheadConnectionBudgets}
+ */
+@ExtendWith(MockitoExtension.class)
+public class BulkheadConnectionBudgetsTest {
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+
+    private Bulkheads bulkheads;
+    private BulkheadConnectionBudgets connectionBudgets;
+
+    @BeforeEach
+    public void init() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        final BulkheadProperties bulkheadProperties = new BulkheadProperties();
+        bulkheadProperties.setOrders(new BulkheadProperties.Bulkhead(2, 1, 10));
+        bulkheadProperties.setConnectionAcquireTimeout(Duration.ofMillis(50));
+        bulkheads = new Bulkheads(bulkheadProperties, Bulkheads.PLATFORM_THREADS);
+        connectionBudgets = new BulkheadConnectionBudgets(dataSource, bulkheadProperties);
+    }
+
+    @AfterEach
+    public void destroy() {
+        bulkheads.destroy();
+    }
+
+    @Test
+    @DisplayName("Work of a bulkhead whose connections are taken is refused, other bulkheads still get theirs")
+    public void getConnection_budgetOfBulkheadTaken_throwsServiceOverloaded() throws Exception {
+        // given
+        final Connection orderConnection = bulkheads.supply(BulkheadType.ORDER, this::getConnection)
+                .get(5, TimeUnit.SECONDS);
+
+        // when + then
+        assertThatThrownBy(() -> bulkheads.supply(BulkheadType.ORDER, this::getConnection).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ServiceOverloadedException.class)
+                .hasRootCauseMessage(DATABASE_BUSY_ERROR.getMessage());
+        assertThat(bulkheads.supply(BulkheadType.CUSTOMER, this::getConnection).get(5, TimeUnit.SECONDS))
+                .isNotNull();
+        assertThat(connectionBudgets.getActiveConnections(BulkheadType.ORDER)).isEqualTo(1);
+        assertThat(connectionBudgets.getActiveConnections(BulkheadType.CUSTOMER)).isEqualTo(1);
+
+        orderConnection.close();
+        assertThat(bulkheads.supply(BulkheadType.ORDER, this::getConnection).get(5, TimeUnit.SECONDS))
+                .isNotNull();
+    }
+
+    @Test
+    @DisplayName("Connections taken outside of the bulkheads count against no budget")
+    public void getConnection_outsideOfBulkheads_notCounted() throws SQLException {
+        // when
+        final Connection unbudgetedConnection = connectionBudgets.getConnection();
+
+        // then
+        assertThat(unbudgetedConnection).isSameAs(connection);
+        for (BulkheadType bulkheadType : BulkheadType.values()) {
+            assertThat(connectionBudgets.getActiveConnections(bulkheadType)).isZero();
+        }
+    }
+
+    private Connection getConnection() {
+        try {
+            return connectionBudgets.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.christianj98.primarycustomerbase.bulkhead;
+
+import com.github.christianj98.primarycustomerbase.configuration.BulkheadProperties;
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
+import com.github.christianj98.primarycustomerbase.routing.PrimaryStickiness;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.BULKHEAD_FULL_ERROR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link Bulkheads}
+ */
+public class BulkheadsTest {
+    // of Hikari, when spring.datasource.hikari.maximum-pool-size is not set
+    private static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+
+    private Bulkheads bulkheads;
+
+    @BeforeEach
+    public void init() {
+        final BulkheadProperties bulkheadProperties = new BulkheadProperties();
+        bulkheadProperties.setOrders(new BulkheadProperties.Bulkhead(1, 1, 1));
+        bulkheads = new Bulkheads(bulkheadProperties, Bulkheads.PLATFORM_THREADS);
+    }
+
+    @AfterEach
+    public void destroy() {
+        bulkheads.destroy();
+        PrimaryStickiness.clear();
+    }
+
+    @Test
+    @DisplayName("Work runs on a thread of the executor of its resource")
+    public void supply_runsOnResourceExecutor() throws Exception {
+        // when
+        final String threadName = bulkheads.supply(BulkheadType.CUSTOMER, () -> Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(threadName).startsWith("customer-bulkhead-");
+    }
+
+    @Test
+    @DisplayName("Exports run on an executor of their own, apart from the lookups of single customers")
+    public void supply_export_runsOnExportExecutor() throws Exception {
+        // when
+        final String threadName = bulkheads.supply(BulkheadType.CUSTOMER_EXPORT,
+                () -> Thread.currentThread().getName() + " " + Bulkheads.currentBulkhead()).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(threadName).startsWith("customer-export-bulkhead-").endsWith(" CUSTOMER_EXPORT");
+        assertThat(Bulkheads.currentBulkhead()).isNull();
+    }
+
+    @Test
+    @DisplayName("The connections of all bulkheads leave connections of the default pool to the scheduled tasks")
+    public void defaultConnections_belowDefaultPoolSize() {
+        // given
+        final BulkheadProperties bulkheadProperties = new BulkheadProperties();
+
+        // when
+        final int connections = Arrays.stream(BulkheadType.values())
+                .mapToInt(bulkheadType -> bulkheadProperties.forType(bulkheadType).getConnections())
+                .sum();
+
+        // then
+        assertThat(connections).isLessThan(DEFAULT_MAXIMUM_POOL_SIZE);
+    }
+
+    @Test
+    @DisplayName("A resource with busy threads and a full queue refuses further work, other resources still run")
+    public void supply_queueFull_throwsServiceOverloaded() throws Exception {
+        // given
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        bulkheads.supply(BulkheadType.ORDER, () -> {
+            running.countDown();
+            return awaitQuietly(release);
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        bulkheads.supply(BulkheadType.ORDER, () -> true);
+
+        // when + then
+        assertThatThrownBy(() -> bulkheads.supply(BulkheadType.ORDER, () -> true))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .hasMessage(String.format(BULKHEAD_FULL_ERROR.getMessage(), "order"));
+        assertThat(bulkheads.supply(BulkheadType.ADDRESS, () -> true).get(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("A request reading from the primary does so on the executor as well, later requests do not")
+    public void supply_stickyRequest_primaryStickinessPropagated() throws Exception {
+        // given
+        PrimaryStickiness.stick();
+
+        // when
+        final boolean sticky = bulkheads.supply(BulkheadType.CUSTOMER, PrimaryStickiness::isSticky)
+                .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(sticky).isTrue();
+        PrimaryStickiness.clear();
+        // the executor threads do not keep the stickiness of earlier requests
+        assertThat(bulkheads.supply(BulkheadType.CUSTOMER, PrimaryStickiness::isSticky).get(5, TimeUnit.SECONDS))
+                .isFalse();
+    }
+
+    private static boolean awaitQuietly(final CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
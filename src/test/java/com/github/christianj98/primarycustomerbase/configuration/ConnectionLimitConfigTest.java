@@ -0,0 +1,74 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
+import com.github.christianj98.primarycustomerbase.routing.ConnectionLimitingDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.christianj98.primarycustomerbase.configuration.ConnectionLimitConfig.DEFAULT_MAXIMUM_POOL_SIZE;
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.DATABASE_BUSY_ERROR;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI_WITH_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "datasource.connection-limit.enabled=true",
+        "datasource.connection-limit.max-waiting=0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+public class ConnectionLimitConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Requests needing a connection are refused with 503 while all connections are taken")
+    public void shouldRefuseRequestsWhileAllConnectionsAreTaken() throws Exception {
+        // given
+        // the connection budgets of the bulkheads wrap the limited data source
+        assertThat(dataSource.isWrapperFor(ConnectionLimitingDataSource.class)).isTrue();
+        final ConnectionLimitingDataSource limitingDataSource = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        // takes every connection, waiting for the ones a scheduled task of the context may hold for a moment
+        final List<Connection> connections = new ArrayList<>();
+        while (connections.size() < DEFAULT_MAXIMUM_POOL_SIZE) {
+            try {
+                connections.add(dataSource.getConnection());
+            } catch (ServiceOverloadedException e) {
+                Thread.sleep(10);
+            }
+        }
+        assertThat(limitingDataSource.getActiveConnections()).isEqualTo(DEFAULT_MAXIMUM_POOL_SIZE);
+
+        // when + then
+        try {
+            performAsync(mockMvc, get(ORDERS_URI_WITH_ID, 1))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                    .andExpect(content().string(DATABASE_BUSY_ERROR.getMessage()));
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+        performAsync(mockMvc, get(ORDERS_URI_WITH_ID, 1))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.christianj98.primarycustomerbase.dto.AddressDto;
+import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.entity.Address;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.mapper.AddressMapperService;
+import com.github.christianj98.primarycustomerbase.mapper.CustomerMapperService;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.service.AddressServiceImpl;
+import com.github.christianj98.primarycustomerbase.service.CustomerServiceImpl;
+import com.github.christianj98.primarycustomerbase.service.CustomerDtoCache;
+import com.github.christianj98.primarycustomerbase.service.JsonMergePatcher;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityNotFoundException;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link EntityCacheConfig}. Runs without a test transaction, entities cached with
+ * the read-write strategy only become visible to other sessions once their transaction commits.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "entity-cache.customers.maximum-size=100"
+})
+@Import({EntityCacheConfig.class, CustomerServiceImpl.class, AddressServiceImpl.class, CustomerDtoCache.class,
+        CustomerCacheProperties.class, CustomerMapperService.class, AddressMapperService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EntityCacheConfigTest {
+    @Autowired
+    private CustomerServiceImpl customerService;
+    @Autowired
+    private AddressServiceImpl addressService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager entityCacheManager;
+    @Autowired
+    private CustomerMapperService customerMapperService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @MockBean
+    private EntityChangePublisher entityChangePublisher;
+    @MockBean
+    private JsonMergePatcher jsonMergePatcher;
+    private Statistics statistics;
+    private Customer customer;
+
+    @BeforeEach
+    public void init() {
+        final Customer newCustomer = createCustomer(FIRST_NAME, LAST_NAME);
+        newCustomer.setId(null);
+        newCustomer.getAddress().setId(null);
+        customer = customerRepository.save(newCustomer);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Regions are bounded by the configured size and time to live")
+    public void regionsAreBounded() {
+        // when
+        final CaffeineConfiguration<?, ?> customers = entityCacheManager.getCache(Customer.CACHE_REGION)
+                .getConfiguration(CaffeineConfiguration.class);
+        final CaffeineConfiguration<?, ?> addresses = entityCacheManager.getCache(Address.CACHE_REGION)
+                .getConfiguration(CaffeineConfiguration.class);
+
+        // then
+        assertThat(customers.getMaximumSize()).isEqualTo(OptionalLong.of(100));
+        assertThat(addresses.getMaximumSize()).isEqualTo(OptionalLong.of(10_000));
+        assertThat(addresses.getExpireAfterWrite()).isPresent();
+        assertThat(customers.isStatisticsEnabled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("A customer read twice is loaded with its address from the cache the second time")
+    public void findCustomerById_secondReadServedFromCache() {
+        // given
+        findCustomer(customer.getId());
+        statistics.clear();
+
+        // when
+        final CustomerDto foundCustomer = findCustomer(customer.getId());
+
+        // then
+        assertThat(foundCustomer.getLastName()).isEqualTo(LAST_NAME);
+        assertThat(foundCustomer.getAddressDto().getStreet()).isEqualTo(customer.getAddress().getStreet());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("An address read twice is loaded from the cache the second time")
+    public void findAddressById_secondReadServedFromCache() {
+        // given
+        addressService.findById(customer.getAddress().getId());
+        statistics.clear();
+
+        // when
+        final AddressDto foundAddress = addressService.findById(customer.getAddress().getId());
+
+        // then
+        assertThat(foundAddress.getCity()).isEqualTo(customer.getAddress().getCity());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A cached customer is replaced by its update")
+    public void updateCustomer_cachedCustomerUpdated() {
+        // given
+        findCustomer(customer.getId());
+        final CustomerDto changedCustomer = createCustomerDto("Adam", "Nowak");
+        changedCustomer.getAddressDto().setStreet("Polna");
+
+        // when
+        customerService.update(changedCustomer, customer.getId(), null);
+
+        // then
+        final CustomerDto foundCustomer = findCustomer(customer.getId());
+        assertThat(foundCustomer.getFirstName()).isEqualTo("Adam");
+        assertThat(foundCustomer.getLastName()).isEqualTo("Nowak");
+        assertThat(foundCustomer.getAddressDto().getStreet()).isEqualTo("Polna");
+    }
+
+    @Test
+    @DisplayName("A cached customer is evicted by its deletion")
+    public void deleteCustomer_cachedCustomerEvicted() {
+        // given
+        findCustomer(customer.getId());
+
+        // when
+        customerService.delete(customer.getId(), null);
+
+        // then
+        final Optional<Customer> deletedCustomer = transactionTemplate.execute(status ->
+                customerRepository.findById(customer.getId()));
+        assertThat(deletedCustomer).isEmpty();
+        assertThatThrownBy(() -> addressService.findById(customer.getAddress().getId()))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private CustomerDto findCustomer(final int id) {
+        return transactionTemplate.execute(status ->
+                customerMapperService.mapFrom(customerRepository.findById(id).orElseThrow()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+public class EntityCacheMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Second-level cache statistics are exposed per region")
+    public void shouldExposeCacheStatistics() throws Exception {
+        // when + then
+        performAsync(mockMvc, get("/actuator/metrics/hibernate.second.level.cache.requests")
+                        .param("tag", "region:" + Customer.CACHE_REGION))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Integration and E2E tests expect an empty database in every test context,
+ * so the schema is cleaned and migrated from scratch when a context starts
+ */
+@Configuration
+@Profile({"e2e", "integration"})
+public class FlywayTestConfig {
+    @Bean
+    public FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.christianj98.primarycustomerbase.routing.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+
+import static com.github.christianj98.primarycustomerbase.routing.PrimaryStickinessFilter.STICKY_COOKIE_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.CUSTOMERS_URI;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.asJsonString;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The integration database doubles as the only replica, so routing is exercised without a replication setup
+ */
+@SpringBootTest(properties = "datasource.replicas.urls=jdbc:postgresql://localhost:5452/customer-base")
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+public class ReplicaRoutingConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Test
+    @DisplayName("Writes go to the primary and stick the client to it, reads are routed")
+    public void shouldRouteReadsAndStickClientAfterWrite() throws Exception {
+        // when + then
+        // behind the connection budgets of the bulkheads
+        assertThat(dataSource.isWrapperFor(LazyConnectionDataSourceProxy.class)).isTrue();
+        assertThat(dataSource.unwrap(LazyConnectionDataSourceProxy.class).getTargetDataSource())
+                .isSameAs(replicaRoutingDataSource);
+        performAsync(mockMvc, post(CUSTOMERS_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(createCustomerDto(FIRST_NAME, LAST_NAME))))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(STICKY_COOKIE_NAME));
+        performAsync(mockMvc, get(CUSTOMERS_URI).cookie(new Cookie(STICKY_COOKIE_NAME, "1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastName").value(LAST_NAME));
+        performAsync(mockMvc, get(CUSTOMERS_URI))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastName").value(LAST_NAME));
+    }
+}
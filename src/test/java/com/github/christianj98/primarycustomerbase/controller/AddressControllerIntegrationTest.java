@@ -29,6 +29,7 @@ import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtil
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.HOST;
 import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.asJsonString;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -72,7 +73,7 @@ public class AddressControllerIntegrationTest {
         addressRepository.save(address);
 
         // when
-        mockMvc.perform(get(ADDRESSES_URI)
+        performAsync(mockMvc, get(ADDRESSES_URI)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -85,7 +86,7 @@ public class AddressControllerIntegrationTest {
     @DisplayName("Create address in table")
     public void save_createAddressWithSuccess() throws Exception {
         // when + then
-        final String location = mockMvc.perform(post(ADDRESSES_URI)
+        final String location = performAsync(mockMvc, post(ADDRESSES_URI)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(addressDto)))
                 .andDo(print())
@@ -108,7 +109,7 @@ public class AddressControllerIntegrationTest {
         address = addressRepository.save(address);
 
         // when + then
-        mockMvc.perform(post(ADDRESSES_URI)
+        performAsync(mockMvc, post(ADDRESSES_URI)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(addressDto)))
                 .andDo(print())
@@ -123,7 +124,7 @@ public class AddressControllerIntegrationTest {
         address = addressRepository.save(address);
 
         // when + then
-        mockMvc.perform(get(ADDRESSES_WITH_ID_URI, address.getId())
+        performAsync(mockMvc, get(ADDRESSES_WITH_ID_URI, address.getId())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -138,7 +139,7 @@ public class AddressControllerIntegrationTest {
         int id = 999;
 
         // when + then
-        final String errorMessage = mockMvc.perform(get(ADDRESSES_WITH_ID_URI, id)
+        final String errorMessage = performAsync(mockMvc, get(ADDRESSES_WITH_ID_URI, id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
@@ -157,7 +158,7 @@ public class AddressControllerIntegrationTest {
         final AddressDto addressToUpdate = createAddressDto("Perla", "Perl");
 
         // when + then
-        mockMvc.perform(put(ADDRESSES_WITH_ID_URI, id)
+        performAsync(mockMvc, put(ADDRESSES_WITH_ID_URI, id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(addressToUpdate)))
                 .andDo(print())
@@ -174,7 +175,7 @@ public class AddressControllerIntegrationTest {
         int id = 999;
 
         // when + then
-        mockMvc.perform(put(ADDRESSES_WITH_ID_URI, id)
+        performAsync(mockMvc, put(ADDRESSES_WITH_ID_URI, id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(addressDto)))
                 .andDo(print())
@@ -188,7 +189,7 @@ public class AddressControllerIntegrationTest {
         int id = 999;
 
         // when + then
-        final String errorMessage = mockMvc.perform(delete(ADDRESSES_WITH_ID_URI, id)
+        final String errorMessage = performAsync(mockMvc, delete(ADDRESSES_WITH_ID_URI, id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
@@ -206,7 +207,7 @@ public class AddressControllerIntegrationTest {
         final int addressId = createdCustomer.getAddress().getId();
 
         // when
-        mockMvc.perform(delete(ADDRESSES_WITH_ID_URI, addressId)
+        performAsync(mockMvc, delete(ADDRESSES_WITH_ID_URI, addressId)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isConflict());
@@ -219,10 +220,34 @@ public class AddressControllerIntegrationTest {
         address = addressRepository.save(address);
 
         // when
-        mockMvc.perform(delete(ADDRESSES_WITH_ID_URI, address.getId())
+        performAsync(mockMvc, delete(ADDRESSES_WITH_ID_URI, address.getId())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNoContent());
         assertThat(addressRepository.existsById(address.getId())).isFalse();
     }
+
+    @Test
+    @DisplayName("Find addresses by ids in request order, unknown ids are marked as missing")
+    public void findAllById_addressesInRequestOrder() throws Exception {
+        // given
+        final Address firstAddress = addressRepository.save(address);
+        final Address otherAddress = createAddress("Polna", CITY);
+        otherAddress.setId(null);
+        final Address secondAddress = addressRepository.save(otherAddress);
+        final int missingId = secondAddress.getId() + 100;
+
+        // when + then
+        performAsync(mockMvc, get(ADDRESSES_URI)
+                        .param("ids", String.format("%d,%d,%d", missingId, secondAddress.getId(),
+                                firstAddress.getId())))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(missingId))
+                .andExpect(jsonPath("$[0].found").value(false))
+                .andExpect(jsonPath("$[1].found").value(true))
+                .andExpect(jsonPath("$[1].value.street").value("Polna"))
+                .andExpect(jsonPath("$[2].value.street").value(STREET));
+    }
 }
@@ -1,21 +1,30 @@
 package com.github.christianj98.primarycustomerbase.controller;
 
+import com.github.christianj98.primarycustomerbase.bulkhead.Bulkheads;
+import com.github.christianj98.primarycustomerbase.configuration.BulkheadProperties;
 import com.github.christianj98.primarycustomerbase.dto.AddressDto;
 import com.github.christianj98.primarycustomerbase.exception.AddressAssignedToTheCustomerException;
 import com.github.christianj98.primarycustomerbase.exception.ResourceAlreadyExistsException;
+import com.github.christianj98.primarycustomerbase.invalidation.CollectionVersions;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
 import com.github.christianj98.primarycustomerbase.service.AddressService;
+import com.github.christianj98.primarycustomerbase.service.JsonMergePatcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import javax.persistence.EntityNotFoundException;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.ADDRESSES_URI;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.ADDRESSES_WITH_ID_URI;
@@ -24,13 +33,19 @@ import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.createAddressDto;
 import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.HOST;
 import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.asJsonString;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -42,6 +57,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Test class with light integration tests for {@link AddressController}
  */
 @WebMvcTest(AddressController.class)
+@Import(Bulkheads.class)
+@EnableConfigurationProperties(BulkheadProperties.class)
 public class AddressControllerLightIntegrationTest {
 
     @Autowired
@@ -50,6 +67,9 @@ public class AddressControllerLightIntegrationTest {
     @MockBean
     private AddressService addressService;
 
+    @MockBean
+    private CollectionVersions collectionVersions;
+
     private AddressDto addressDto;
 
     @BeforeEach
@@ -63,7 +83,7 @@ public class AddressControllerLightIntegrationTest {
         when(addressService.findAll()).thenReturn(List.of(addressDto));
 
         // when + then
-        mockMvc.perform(get(ADDRESSES_URI)
+        performAsync(mockMvc, get(ADDRESSES_URI)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -79,7 +99,7 @@ public class AddressControllerLightIntegrationTest {
         when(addressService.createAddress(any())).thenReturn(addressDto);
 
         // when + then
-        final String location = mockMvc.perform(post(ADDRESSES_URI)
+        final String location = performAsync(mockMvc, post(ADDRESSES_URI)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(addressDto)))
                 .andDo(print())
@@ -102,7 +122,7 @@ public class AddressControllerLightIntegrationTest {
         when(addressService.createAddress(any())).thenThrow(ResourceAlreadyExistsException.class);
 
         // when + then
-        mockMvc.perform(post(ADDRESSES_URI)
+        performAsync(mockMvc, post(ADDRESSES_URI)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(addressDto)))
                 .andDo(print())
@@ -110,6 +130,21 @@ public class AddressControllerLightIntegrationTest {
                 .andExpect(header().doesNotExist("Location"));
     }
 
+    @Test
+    @DisplayName("Find all addresses but the list has not changed")
+    public void findAll_addressesNotModified() throws Exception {
+        // given
+        final String eTag = "\"3\"";
+        when(collectionVersions.eTag(EntityType.ADDRESS)).thenReturn(Optional.of(eTag));
+
+        // when + then
+        performAsync(mockMvc, get(ADDRESSES_URI)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(addressService);
+    }
+
     @Test
     @DisplayName("Find address by id and address was found")
     public void findById_addressFound() throws Exception {
@@ -117,7 +152,7 @@ public class AddressControllerLightIntegrationTest {
         when(addressService.findById(anyInt())).thenReturn(addressDto);
 
         // when + then
-        mockMvc.perform(get(ADDRESSES_URI + "/{id}", addressDto.getId())
+        performAsync(mockMvc, get(ADDRESSES_URI + "/{id}", addressDto.getId())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -125,6 +160,37 @@ public class AddressControllerLightIntegrationTest {
                 .andExpect(jsonPath("$.city").value(CITY));
     }
 
+    @Test
+    @DisplayName("Find address by id and the client already has the current version")
+    public void findById_addressNotModified() throws Exception {
+        // given
+        addressDto.setVersion(2);
+        when(addressService.findById(anyInt())).thenReturn(addressDto);
+
+        // when + then
+        performAsync(mockMvc, get(ADDRESSES_URI + "/{id}", addressDto.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
+    @Test
+    @DisplayName("Find address by id and the client has an older version")
+    public void findById_addressModified() throws Exception {
+        // given
+        addressDto.setVersion(3);
+        when(addressService.findById(anyInt())).thenReturn(addressDto);
+
+        // when + then
+        performAsync(mockMvc, get(ADDRESSES_URI + "/{id}", addressDto.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.street").value(STREET));
+    }
+
     @Test
     @DisplayName("Find address by id but address was not found")
     public void findById_addressNotFound() throws Exception {
@@ -133,7 +199,7 @@ public class AddressControllerLightIntegrationTest {
         when(addressService.findById(anyInt())).thenThrow(EntityNotFoundException.class);
 
         // when + then
-        mockMvc.perform(get(ADDRESSES_URI + "/{id}", id)
+        performAsync(mockMvc, get(ADDRESSES_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound());
@@ -144,10 +210,10 @@ public class AddressControllerLightIntegrationTest {
     public void updateAddress_addressUpdated() throws Exception {
         // given
         int id = 1;
-        when(addressService.update(any(), anyInt())).thenReturn(addressDto);
+        when(addressService.update(any(), anyInt(), any())).thenReturn(addressDto);
 
         // when + then
-        mockMvc.perform(put(ADDRESSES_URI + "/{id}", id)
+        performAsync(mockMvc, put(ADDRESSES_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(addressDto)))
                 .andDo(print())
@@ -161,10 +227,10 @@ public class AddressControllerLightIntegrationTest {
     public void updateAddress_addressNotFound() throws Exception {
         // given
         int id = 1;
-        when(addressService.update(any(), anyInt())).thenThrow(EntityNotFoundException.class);
+        when(addressService.update(any(), anyInt(), any())).thenThrow(EntityNotFoundException.class);
 
         // when + then
-        mockMvc.perform(put(ADDRESSES_URI + "/{id}", id)
+        performAsync(mockMvc, put(ADDRESSES_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(addressDto)))
                 .andDo(print())
@@ -176,11 +242,11 @@ public class AddressControllerLightIntegrationTest {
     public void deleteAddress_addressNotFound() throws Exception {
         // given
         int id = 999;
-        doThrow(EntityNotFoundException.class).when(addressService).delete(anyInt());
+        doThrow(EntityNotFoundException.class).when(addressService).delete(anyInt(), any());
 
 
         // when + then
-        mockMvc.perform(delete(ADDRESSES_WITH_ID_URI, id)
+        performAsync(mockMvc, delete(ADDRESSES_WITH_ID_URI, id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound());
@@ -190,11 +256,11 @@ public class AddressControllerLightIntegrationTest {
     @DisplayName("Address is already assigned to the customer and cannot be deleted")
     public void deleteAddress_addressAlreadyAssignedToTheCustomer() throws Exception {
         // given
-        doThrow(AddressAssignedToTheCustomerException.class).when(addressService).delete(anyInt());
+        doThrow(AddressAssignedToTheCustomerException.class).when(addressService).delete(anyInt(), any());
         int addressId = 1;
 
         // when
-        mockMvc.perform(delete(ADDRESSES_WITH_ID_URI, addressId)
+        performAsync(mockMvc, delete(ADDRESSES_WITH_ID_URI, addressId)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isConflict());
@@ -204,10 +270,27 @@ public class AddressControllerLightIntegrationTest {
     @DisplayName("Address is deleted successfully")
     public void deleteAddress_addressDeleted() throws Exception {
         // when + then
-        mockMvc.perform(delete(ADDRESSES_WITH_ID_URI, addressDto.getId())
+        performAsync(mockMvc, delete(ADDRESSES_WITH_ID_URI, addressDto.getId())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("Patch address with given id")
+    public void patchAddress_addressPatched() throws Exception {
+        // given
+        int id = 1;
+        when(addressService.patch(any(), anyInt(), any())).thenReturn(addressDto);
+
+        // when + then
+        performAsync(mockMvc, patch(ADDRESSES_WITH_ID_URI, id)
+                        .contentType(JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"street\":\"" + addressDto.getStreet() + "\"}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.street").value(addressDto.getStreet()));
+        verify(addressService).patch(any(), eq(id), isNull());
+    }
 }
@@ -1,18 +1,37 @@
 package com.github.christianj98.primarycustomerbase.controller;
 
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.entity.Order;
+import com.github.christianj98.primarycustomerbase.repository.CustomerOrderStatsRepository;
 import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderRepository;
+import com.github.christianj98.primarycustomerbase.service.CustomerOrderStatsRebuilder;
+import com.github.christianj98.primarycustomerbase.service.JsonMergePatcher;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.CUSTOMERS_URI;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
@@ -20,10 +39,15 @@ import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtil
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
 import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.asJsonString;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI_WITH_ID;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderCreateDto;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -45,6 +69,14 @@ public class CustomerControllerIntegrationTest {
 
     @Autowired
     private CustomerRepository customerRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerOrderStatsRebuilder customerOrderStatsRebuilder;
+    @Autowired
+    private CustomerOrderStatsRepository customerOrderStatsRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     private CustomerDto customerDto;
 
@@ -63,7 +95,7 @@ public class CustomerControllerIntegrationTest {
         final String expectedLocation = "http://localhost/customers/" + customer.getId();
 
         // when + then
-        mockMvc.perform(post(CUSTOMERS_URI)
+        performAsync(mockMvc, post(CUSTOMERS_URI)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(customerDto)))
                 .andExpect(status().isCreated())
@@ -81,13 +113,52 @@ public class CustomerControllerIntegrationTest {
         customer = customerRepository.save(customer);
 
         // when + then
-        mockMvc.perform(post(CUSTOMERS_URI)
+        performAsync(mockMvc, post(CUSTOMERS_URI)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(customerDto)))
                 .andExpect(status().isConflict())
                 .andExpect(header().doesNotExist("Location"));
     }
 
+    @Test
+    @DisplayName("Create customers in one batch")
+    public void createCustomers_expectAllCustomersCreated() throws Exception {
+        // given
+        final CustomerDto otherCustomerDto = createCustomerDto("Anna", "Nowak");
+        otherCustomerDto.getAddressDto().setStreet("Polna");
+        final List<CustomerDto> customerDtos = List.of(customerDto, otherCustomerDto);
+
+        // when
+        performAsync(mockMvc, post(CUSTOMERS_URI + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDtos)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].lastName").value("Nowak"));
+
+        // then
+        assertThat(customerRepository.findAllCustomerViews()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Try to create customers in one batch when one of them already exists")
+    public void createCustomers_expectConflict() throws Exception {
+        // given
+        customerRepository.save(customer);
+        final CustomerDto otherCustomerDto = createCustomerDto("Anna", "Nowak");
+        otherCustomerDto.getAddressDto().setStreet("Polna");
+        final List<CustomerDto> customerDtos = List.of(otherCustomerDto, customerDto);
+
+        // when
+        performAsync(mockMvc, post(CUSTOMERS_URI + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDtos)))
+                .andExpect(status().isConflict());
+
+        // then
+        assertThat(customerRepository.findAllCustomerViews()).hasSize(1);
+    }
+
     @Test
     @DisplayName("Find all customers in DB")
     public void findAll_expectAllCustomersFromDb() throws Exception {
@@ -95,7 +166,7 @@ public class CustomerControllerIntegrationTest {
         customer = customerRepository.save(customer);
 
         // when + then
-        mockMvc.perform(get(CUSTOMERS_URI)
+        performAsync(mockMvc, get(CUSTOMERS_URI)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
@@ -105,6 +176,33 @@ public class CustomerControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].addressDto.city").value(customer.getAddress().getCity()));
     }
 
+    @Test
+    @DisplayName("Export all customers in DB as newline-delimited JSON")
+    public void exportCustomers_expectOneLinePerCustomer() throws Exception {
+        // given
+        final Customer otherCustomer = createCustomer("Anna", "Nowak");
+        otherCustomer.setId(null);
+        otherCustomer.getAddress().setId(null);
+        otherCustomer.setId(null);
+        otherCustomer.getAddress().setId(null);
+        otherCustomer.getAddress().setStreet("Polna");
+        customerRepository.save(customer);
+        customerRepository.save(otherCustomer);
+
+        // when
+        final String responseBody = performAsync(mockMvc, get(CUSTOMERS_URI + "/export"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // then
+        assertThat(responseBody.split("\n"))
+                .hasSize(2)
+                .allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"))
+                .anySatisfy(line -> assertThat(line).contains(FIRST_NAME, LAST_NAME, customer.getAddress().getCity()));
+    }
+
     @Test
     @DisplayName("Find one customer by id")
     public void findById_expectOneCustomerFromDb() throws Exception {
@@ -112,7 +210,7 @@ public class CustomerControllerIntegrationTest {
         customer = customerRepository.save(customer);
 
         // when + then
-        mockMvc.perform(get(CUSTOMERS_URI + "/{id}", customer.getId())
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}", customer.getId())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -127,7 +225,7 @@ public class CustomerControllerIntegrationTest {
         int id = 999;
 
         // when + then
-        final String responseBody = mockMvc.perform(get(CUSTOMERS_URI + "/{id}", id)
+        final String responseBody = performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
@@ -145,7 +243,7 @@ public class CustomerControllerIntegrationTest {
         final CustomerDto customerDtoToUpdate = createCustomerDto("Andrzej", "Nowak");
 
         // when + then
-        mockMvc.perform(put(CUSTOMERS_URI + "/{id}", customer.getId())
+        performAsync(mockMvc, put(CUSTOMERS_URI + "/{id}", customer.getId())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(customerDtoToUpdate)))
                 .andDo(print())
@@ -164,7 +262,7 @@ public class CustomerControllerIntegrationTest {
         final CustomerDto customerDtoToUpdate = createCustomerDto("Andrzej", "Nowak");
 
         // when + then
-        final String responseBody = mockMvc.perform(put(CUSTOMERS_URI + "/{id}", id)
+        final String responseBody = performAsync(mockMvc, put(CUSTOMERS_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(customerDtoToUpdate)))
                 .andDo(print())
@@ -182,7 +280,7 @@ public class CustomerControllerIntegrationTest {
         int id = 999;
 
         // when + then
-        final String responseBody = mockMvc.perform(delete(CUSTOMERS_URI + "/{id}", id)
+        final String responseBody = performAsync(mockMvc, delete(CUSTOMERS_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
@@ -199,9 +297,278 @@ public class CustomerControllerIntegrationTest {
         customer = customerRepository.save(customer);
 
         // when + then
-        mockMvc.perform(delete(CUSTOMERS_URI + "/{id}", customer.getId())
+        performAsync(mockMvc, delete(CUSTOMERS_URI + "/{id}", customer.getId())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    @DisplayName("Conditional requests follow the version of the customer and of its address")
+    public void conditionalRequests_followEntityVersions() throws Exception {
+        // given
+        customer = customerRepository.save(customer);
+        final CustomerDto customerDtoToUpdate = createCustomerDto("Andrzej", "Nowak");
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-0\""));
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}", customer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+                .andExpect(status().isNotModified());
+        performAsync(mockMvc, put(CUSTOMERS_URI + "/{id}", customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDtoToUpdate)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""));
+        performAsync(mockMvc, put(CUSTOMERS_URI + "/{id}", customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDto)))
+                .andExpect(status().isPreconditionFailed());
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}", customer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""))
+                .andExpect(jsonPath("$.firstName").value(customerDtoToUpdate.getFirstName()));
+        performAsync(mockMvc, delete(CUSTOMERS_URI + "/{id}", customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0-0\""))
+                .andExpect(status().isPreconditionFailed());
+        performAsync(mockMvc, delete(CUSTOMERS_URI + "/{id}", customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"1-0\""))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Unchanged list of customers is not queried again, a created customer changes its tag")
+    public void findAll_conditionalRequests_followCreatedCustomers() throws Exception {
+        // given
+        customerRepository.save(customer);
+        final CustomerDto otherCustomerDto = createCustomerDto("Anna", "Nowak");
+        otherCustomerDto.getAddressDto().setStreet("Polna");
+        final String eTag = awaitCustomersETag(null);
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        performAsync(mockMvc, post(CUSTOMERS_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(otherCustomerDto)))
+                .andExpect(status().isCreated());
+        performAsync(mockMvc, get(CUSTOMERS_URI)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        assertThat(awaitCustomersETag(eTag)).isNotEqualTo(eTag);
+    }
+
+    /**
+     * Collection tags are only issued once the change numbers came back through the listener, so poll for them.
+     */
+    private String awaitCustomersETag(final String previousETag) throws Exception {
+        final Instant deadline = Instant.now().plusSeconds(10);
+        while (true) {
+            final String eTag = performAsync(mockMvc, get(CUSTOMERS_URI))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(HttpHeaders.ETAG);
+            if (eTag != null && !eTag.equals(previousETag)) {
+                return eTag;
+            }
+            assertThat(Instant.now()).as("no new tag for customers").isBefore(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    @DisplayName("Patch writes only what changed, a patch repeating the current values writes nothing")
+    public void patch_changesOnlyPatchedRow() throws Exception {
+        // given
+        customer = customerRepository.save(customer);
+        final String mergePatch = "{\"addressDto\":{\"street\":\"Polna\"}}";
+
+        // when + then
+        performAsync(mockMvc, patch(CUSTOMERS_URI + "/{id}", customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0-0\"")
+                        .contentType(JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+                        .content(mergePatch))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-1\""))
+                .andExpect(jsonPath("$.firstName").value(FIRST_NAME))
+                .andExpect(jsonPath("$.addressDto.street").value("Polna"));
+        performAsync(mockMvc, patch(CUSTOMERS_URI + "/{id}", customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0-1\"")
+                        .contentType(JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+                        .content(mergePatch))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-1\""));
+        performAsync(mockMvc, patch(CUSTOMERS_URI + "/{id}", customer.getId())
+                        .contentType(JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"lastName\":null}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Order summaries follow the orders created, updated and deleted")
+    public void orderSummaries_aggregatedPerCustomer() throws Exception {
+        // given
+        customer = customerRepository.save(customer);
+        final Customer otherCustomer = createCustomer("Anna", "Nowak");
+        // ids of the test customer are preset, cleared ones make the repository insert instead of merge
+        otherCustomer.setId(null);
+        otherCustomer.getAddress().setId(null);
+        otherCustomer.setId(null);
+        otherCustomer.getAddress().setId(null);
+        otherCustomer.getAddress().setStreet("Polna");
+        final Customer customerWithoutOrders = customerRepository.save(otherCustomer);
+        final int firstOrderId = createOrder(LocalDateTime.of(2021, 1, 1, 10, 0), "10.50");
+        createOrder(LocalDateTime.of(2021, 3, 1, 10, 0), "20.00");
+        final int maxOrderId = createOrder(LocalDateTime.of(2021, 2, 1, 10, 0), "40.00");
+        performAsync(mockMvc, put(ORDERS_URI_WITH_ID, firstOrderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"date\":\"2021-01-01T10:00:00\",\"amount\":5.00}"))
+                .andExpect(status().isOk());
+        performAsync(mockMvc, delete(ORDERS_URI_WITH_ID, maxOrderId))
+                .andExpect(status().isNoContent());
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}/order-summary", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCount").value(2))
+                .andExpect(jsonPath("$.totalAmount").value(25.0))
+                .andExpect(jsonPath("$.minAmount").value(5.0))
+                .andExpect(jsonPath("$.maxAmount").value(20.0))
+                .andExpect(jsonPath("$.lastOrderDate").value("2021-03-01T10:00:00"));
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}/order-summary", customerWithoutOrders.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCount").value(0));
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}/order-summary", 999))
+                .andExpect(status().isNotFound());
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/order-summaries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].customerId").value(customer.getId()));
+    }
+
+    @Test
+    @DisplayName("Rebuild recomputes the order stats from the orders table")
+    public void rebuildOrderStats_recomputedFromOrders() throws Exception {
+        // given
+        customer = customerRepository.save(customer);
+        createOrder(LocalDateTime.of(2021, 1, 1, 10, 0), "10.50");
+        // written past the service, so the stats still count the first order only
+        saveOrder(LocalDateTime.of(2021, 3, 1, 10, 0), "20.00");
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}/order-summary", customer.getId()))
+                .andExpect(jsonPath("$.orderCount").value(1));
+
+        // when
+        final int customers = customerOrderStatsRebuilder.rebuild();
+
+        // then
+        assertThat(customers).isEqualTo(1);
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}/order-summary", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCount").value(2))
+                .andExpect(jsonPath("$.totalAmount").value(30.5))
+                .andExpect(jsonPath("$.maxAmount").value(20.0))
+                .andExpect(jsonPath("$.lastOrderDate").value("2021-03-01T10:00:00"));
+    }
+
+    @Test
+    @DisplayName("An order written while its chunk is rebuilt is kept in the order stats")
+    public void rebuildOrderStats_concurrentWriter_orderKept() throws Exception {
+        // given
+        customer = customerRepository.save(customer);
+        // written past the service, so the customer has no stats yet
+        saveOrder(LocalDateTime.of(2021, 1, 1, 10, 0), "10.50");
+        final CountDownLatch written = new CountDownLatch(1);
+        final CountDownLatch commit = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> writer = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                saveOrder(LocalDateTime.of(2021, 3, 1, 10, 0), "20.00");
+                customerOrderStatsRepository.add(List.of(OrderSummaryDto.ofOrder(customer.getId(),
+                        new BigDecimal("20.00"), LocalDateTime.of(2021, 3, 1, 10, 0))));
+                written.countDown();
+                awaitQuietly(commit);
+            }));
+            assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // when
+            final Future<Integer> rebuild = executor.submit(customerOrderStatsRebuilder::rebuild);
+            Thread.sleep(200);
+            commit.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+
+            // then
+            assertThat(rebuild.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}/order-summary", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCount").value(2))
+                .andExpect(jsonPath("$.totalAmount").value(30.5));
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int createOrder(final LocalDateTime date, final String amount) throws Exception {
+        final String createdOrder = performAsync(mockMvc, post(ORDERS_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(createOrderCreateDto(date, new BigDecimal(amount), customer.getId()))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return JsonPath.read(createdOrder, "$.orderId");
+    }
+
+    private void saveOrder(final LocalDateTime date, final String amount) {
+        final Order order = new Order();
+        order.setDate(date);
+        order.setAmount(new BigDecimal(amount));
+        order.setCustomer(customer);
+        orderRepository.save(order);
+    }
+
+    @Test
+    @DisplayName("Find customers by ids in request order, unknown ids are marked as missing")
+    public void findAllById_customersInRequestOrder() throws Exception {
+        // given
+        final Customer firstCustomer = customerRepository.save(customer);
+        final Customer otherCustomer = createCustomer("Anna", "Nowak");
+        otherCustomer.setId(null);
+        otherCustomer.getAddress().setId(null);
+        otherCustomer.getAddress().setStreet("Polna");
+        final Customer secondCustomer = customerRepository.save(otherCustomer);
+        final int missingId = secondCustomer.getId() + 100;
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI)
+                        .param("ids", String.format("%d,%d,%d,%d", secondCustomer.getId(), missingId,
+                                firstCustomer.getId(), secondCustomer.getId())))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].id").value(secondCustomer.getId()))
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].value.lastName").value("Nowak"))
+                .andExpect(jsonPath("$[0].value.addressDto.street").value("Polna"))
+                .andExpect(jsonPath("$[1].id").value(missingId))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[1].value").doesNotExist())
+                .andExpect(jsonPath("$[2].value.lastName").value(LAST_NAME))
+                .andExpect(jsonPath("$[3].value.lastName").value("Nowak"));
+    }
 }
@@ -1,19 +1,40 @@
 package com.github.christianj98.primarycustomerbase.controller;
 
+import com.github.christianj98.primarycustomerbase.bulkhead.Bulkheads;
+import com.github.christianj98.primarycustomerbase.configuration.BulkheadProperties;
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryPageDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.exception.InvalidPatchException;
+import com.github.christianj98.primarycustomerbase.exception.PreconditionFailedException;
 import com.github.christianj98.primarycustomerbase.exception.ResourceAlreadyExistsException;
+import com.github.christianj98.primarycustomerbase.invalidation.CollectionVersions;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
 import com.github.christianj98.primarycustomerbase.mapper.CustomerMapperService;
 import com.github.christianj98.primarycustomerbase.service.CustomerService;
+import com.github.christianj98.primarycustomerbase.service.JsonMergePatcher;
+import com.github.christianj98.primarycustomerbase.service.MultiGet;
+import com.github.christianj98.primarycustomerbase.service.OrderService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.CUSTOMERS_URI;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
@@ -21,17 +42,25 @@ import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtil
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
 import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.asJsonString;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -40,6 +69,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Test class with light integration tests for {@link CustomerController}
  */
 @WebMvcTest(CustomerController.class)
+@Import(Bulkheads.class)
+@EnableConfigurationProperties(BulkheadProperties.class)
 public class CustomerControllerLightIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
@@ -49,6 +80,10 @@ public class CustomerControllerLightIntegrationTest {
 
     @MockBean
     private CustomerMapperService customerMapperService;
+    @MockBean
+    private CollectionVersions collectionVersions;
+    @MockBean
+    private OrderService orderService;
 
     @Test
     public void createCustomer_successfulAttempt() throws Exception {
@@ -59,7 +94,7 @@ public class CustomerControllerLightIntegrationTest {
         when(customerMapperService.mapFrom(any(Customer.class))).thenReturn(customerDto);
 
         // when + then
-        mockMvc.perform(post(CUSTOMERS_URI)
+        performAsync(mockMvc, post(CUSTOMERS_URI)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(customerDto)))
                 .andDo(print())
@@ -78,24 +113,82 @@ public class CustomerControllerLightIntegrationTest {
         when(customerService.save(any(CustomerDto.class))).thenThrow(ResourceAlreadyExistsException.class);
 
         // when + then
-        mockMvc.perform(post(CUSTOMERS_URI)
+        performAsync(mockMvc, post(CUSTOMERS_URI)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(customerDto)))
                 .andExpect(status().isConflict())
                 .andExpect(header().doesNotExist("Location"));
     }
 
+    @Test
+    public void createCustomers_successfulAttempt() throws Exception {
+        // given
+        final List<CustomerDto> customerDtos = List.of(createCustomerDto(FIRST_NAME, LAST_NAME),
+                createCustomerDto("Anna", "Nowak"));
+        final List<Customer> customers = List.of(createCustomer(FIRST_NAME, LAST_NAME),
+                createCustomer("Anna", "Nowak"));
+
+        when(customerService.saveAll(anyList())).thenReturn(customers);
+        when(customerMapperService.mapFrom(customers)).thenReturn(customerDtos);
+
+        // when + then
+        performAsync(mockMvc, post(CUSTOMERS_URI + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDtos)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].firstName").value(FIRST_NAME))
+                .andExpect(jsonPath("$[1].firstName").value("Anna"));
+    }
+
+    @Test
+    public void createCustomers_invalidCustomer_expectBadRequest() throws Exception {
+        // given
+        final CustomerDto invalidCustomerDto = createCustomerDto(FIRST_NAME, "");
+
+        // when + then
+        performAsync(mockMvc, post(CUSTOMERS_URI + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(List.of(invalidCustomerDto))))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    public void createCustomers_tooManyCustomers_expectBadRequest() throws Exception {
+        // given
+        final List<CustomerDto> customerDtos = Collections.nCopies(CustomerController.CUSTOMER_BATCH_MAX_SIZE + 1,
+                createCustomerDto(FIRST_NAME, LAST_NAME));
+
+        // when + then
+        performAsync(mockMvc, post(CUSTOMERS_URI + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDtos)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    public void createCustomers_emptyBatch_expectBadRequest() throws Exception {
+        // when + then
+        performAsync(mockMvc, post(CUSTOMERS_URI + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
+
     @Test
     public void findAllCustomer_expectAllCustomersFromDb() throws Exception {
         // given
-        final Customer customer = createCustomer(FIRST_NAME, LAST_NAME);
         final CustomerDto customerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
 
-        when(customerService.findAll()).thenReturn(List.of(customer));
-        when(customerMapperService.mapFrom(anyList())).thenReturn(List.of(customerDto));
+        when(customerService.findAll()).thenReturn(List.of(customerDto));
 
         // when
-        mockMvc.perform(get(CUSTOMERS_URI)
+        performAsync(mockMvc, get(CUSTOMERS_URI)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -107,6 +200,71 @@ public class CustomerControllerLightIntegrationTest {
                 .andExpect(jsonPath("$[0].addressDto.city").value(customerDto.getAddressDto().getCity()));
     }
 
+    @Test
+    public void findAllCustomer_unchangedList_expectNotModifiedWithoutQuery() throws Exception {
+        // given
+        final String eTag = "\"4-2\"";
+        when(collectionVersions.eTag(EntityType.CUSTOMER, EntityType.ADDRESS)).thenReturn(Optional.of(eTag));
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    public void findAllCustomer_changedList_expectListWithEntityTag() throws Exception {
+        // given
+        final String eTag = "\"5-2\"";
+        when(collectionVersions.eTag(EntityType.CUSTOMER, EntityType.ADDRESS)).thenReturn(Optional.of(eTag));
+        when(customerService.findAll()).thenReturn(List.of(createCustomerDto(FIRST_NAME, LAST_NAME)));
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"4-2\""))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(jsonPath("$[0].firstName").value(FIRST_NAME));
+    }
+
+    @Test
+    public void findAllCustomer_listJustChanged_expectListWithoutEntityTag() throws Exception {
+        // given
+        when(collectionVersions.eTag(EntityType.CUSTOMER, EntityType.ADDRESS)).thenReturn(Optional.empty());
+        when(customerService.findAll()).thenReturn(List.of(createCustomerDto(FIRST_NAME, LAST_NAME)));
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void exportCustomers_expectOneJsonDocumentPerLine() throws Exception {
+        // given
+        final CustomerDto customerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
+        final CustomerDto otherCustomerDto = createCustomerDto("Anna", "Nowak");
+        doAnswer(invocation -> {
+            final Consumer<CustomerDto> consumer = invocation.getArgument(0);
+            consumer.accept(customerDto);
+            consumer.accept(otherCustomerDto);
+            return null;
+        }).when(customerService).exportAll(any());
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/export"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(asJsonString(customerDto) + "\n" + asJsonString(otherCustomerDto) + "\n"));
+    }
+
     @Test
     public void findById_expectOneCustomer() throws Exception {
         // given
@@ -116,7 +274,7 @@ public class CustomerControllerLightIntegrationTest {
         when(customerService.findById(anyInt())).thenReturn(customerDto);
 
         // when
-        mockMvc.perform(get(CUSTOMERS_URI + "/{id}", id)
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -126,6 +284,41 @@ public class CustomerControllerLightIntegrationTest {
                 .andExpect(jsonPath("$.addressDto.city").value(customerDto.getAddressDto().getCity()));
     }
 
+    @Test
+    public void findById_expectEntityTagOfCustomerAndAddressVersions() throws Exception {
+        // given
+        int id = 1;
+        final CustomerDto customerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
+        customerDto.setVersion(3);
+        customerDto.getAddressDto().setVersion(7);
+
+        when(customerService.findById(anyInt())).thenReturn(customerDto);
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-7\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    public void findById_unchangedCustomer_expectNotModified() throws Exception {
+        // given
+        int id = 1;
+        final CustomerDto customerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
+        customerDto.setVersion(3);
+        customerDto.getAddressDto().setVersion(7);
+
+        when(customerService.findById(anyInt())).thenReturn(customerDto);
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}", id)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-7\""))
+                .andExpect(content().string(""));
+    }
+
     @Test
     public void findById_expectEntityNotFoundException() throws Exception {
         // given
@@ -134,7 +327,7 @@ public class CustomerControllerLightIntegrationTest {
         when(customerService.findById(anyInt())).thenThrow(EntityNotFoundException.class);
 
         // when
-        final Exception resolvedException = mockMvc.perform(get(CUSTOMERS_URI + "/{id}", id)
+        final Exception resolvedException = performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
@@ -148,10 +341,10 @@ public class CustomerControllerLightIntegrationTest {
         // given
         int id = 1;
         final CustomerDto customerDtoToUpdate = createCustomerDto("Andrzej", "Nowak");
-        when(customerService.update(any(), anyInt())).thenReturn(customerDtoToUpdate);
+        when(customerService.update(any(), anyInt(), any())).thenReturn(customerDtoToUpdate);
 
         // when
-        mockMvc.perform(put(CUSTOMERS_URI + "/{id}", id)
+        performAsync(mockMvc, put(CUSTOMERS_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(customerDtoToUpdate)))
                 .andDo(print())
@@ -167,10 +360,10 @@ public class CustomerControllerLightIntegrationTest {
         // given
         int id = 1;
         final CustomerDto customerDtoToUpdate = createCustomerDto("Andrzej", "Nowak");
-        when(customerService.update(any(), anyInt())).thenThrow(EntityNotFoundException.class);
+        when(customerService.update(any(), anyInt(), any())).thenThrow(EntityNotFoundException.class);
 
         // when + then
-        var exception = mockMvc.perform(put(CUSTOMERS_URI + "/{id}", id)
+        var exception = performAsync(mockMvc, put(CUSTOMERS_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(customerDtoToUpdate)))
                 .andDo(print())
@@ -180,13 +373,78 @@ public class CustomerControllerLightIntegrationTest {
         assertThat(exception).isInstanceOf(EntityNotFoundException.class);
     }
 
+    @Test
+    public void update_withIfMatch_expectHeaderPassedToService() throws Exception {
+        // given
+        int id = 1;
+        final CustomerDto customerDtoToUpdate = createCustomerDto("Andrzej", "Nowak");
+        customerDtoToUpdate.setVersion(4);
+        when(customerService.update(any(), anyInt(), any())).thenReturn(customerDtoToUpdate);
+
+        // when
+        performAsync(mockMvc, put(CUSTOMERS_URI + "/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"3-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDtoToUpdate)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4-0\""));
+
+        // then
+        verify(customerService).update(any(), eq(id), eq("\"3-0\""));
+    }
+
+    @Test
+    public void update_staleEntityTag_expectPreconditionFailed() throws Exception {
+        // given
+        int id = 1;
+        final CustomerDto customerDtoToUpdate = createCustomerDto("Andrzej", "Nowak");
+        when(customerService.update(any(), anyInt(), any())).thenThrow(PreconditionFailedException.class);
+
+        // when + then
+        performAsync(mockMvc, put(CUSTOMERS_URI + "/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"1-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDtoToUpdate)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void update_concurrentModification_expectConflict() throws Exception {
+        // given
+        int id = 1;
+        final CustomerDto customerDtoToUpdate = createCustomerDto("Andrzej", "Nowak");
+        when(customerService.update(any(), anyInt(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, id));
+
+        // when + then
+        performAsync(mockMvc, put(CUSTOMERS_URI + "/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDtoToUpdate)))
+                .andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void delete_staleEntityTag_expectPreconditionFailed() throws Exception {
+        // given
+        int id = 1;
+        doThrow(PreconditionFailedException.class).when(customerService).delete(anyInt(), any());
+
+        // when + then
+        performAsync(mockMvc, delete(CUSTOMERS_URI + "/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"1-0\""))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     public void delete_expectDeletedCustomer() throws Exception {
         // given
         int id = 1;
 
         // when
-        mockMvc.perform(delete(CUSTOMERS_URI + "/{id}", id)
+        performAsync(mockMvc, delete(CUSTOMERS_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNoContent());
@@ -196,10 +454,10 @@ public class CustomerControllerLightIntegrationTest {
     public void delete_expectCustomerNotFound() throws Exception {
         // given
         int id = 1;
-        doThrow(EntityNotFoundException.class).when(customerService).delete(anyInt());
+        doThrow(EntityNotFoundException.class).when(customerService).delete(anyInt(), any());
 
         // when + then
-        var exception = mockMvc.perform(delete(CUSTOMERS_URI + "/{id}", id)
+        var exception = performAsync(mockMvc, delete(CUSTOMERS_URI + "/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
@@ -207,4 +465,132 @@ public class CustomerControllerLightIntegrationTest {
                 .getResolvedException();
         assertThat(exception).isInstanceOf(EntityNotFoundException.class);
     }
+
+    @Test
+    public void patch_expectPatchedCustomerWithEntityTag() throws Exception {
+        // given
+        int id = 1;
+        final CustomerDto patchedCustomer = createCustomerDto(FIRST_NAME, "Nowak");
+        patchedCustomer.setVersion(2);
+        when(customerService.patch(any(), anyInt(), any())).thenReturn(patchedCustomer);
+
+        // when
+        performAsync(mockMvc, patch(CUSTOMERS_URI + "/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"1-0\"")
+                        .contentType(JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"lastName\":\"Nowak\"}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-0\""))
+                .andExpect(jsonPath("$.lastName").value("Nowak"));
+
+        // then
+        verify(customerService).patch(argThat(mergePatch -> mergePatch.size() == 1
+                && "Nowak".equals(mergePatch.path("lastName").asText())), eq(id), eq("\"1-0\""));
+    }
+
+    @Test
+    public void patch_plainJson_expectUnsupportedMediaType() throws Exception {
+        // when + then
+        performAsync(mockMvc, patch(CUSTOMERS_URI + "/{id}", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastName\":\"Nowak\"}"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    public void patch_invalidPatch_expectBadRequest() throws Exception {
+        // given
+        when(customerService.patch(any(), anyInt(), any()))
+                .thenThrow(new InvalidPatchException("Patch cannot be applied: unexpected value"));
+
+        // when + then
+        performAsync(mockMvc, patch(CUSTOMERS_URI + "/{id}", 1)
+                        .contentType(JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"addressDto\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Patch cannot be applied: unexpected value"));
+    }
+
+    @Test
+    public void findOrderSummary_expectAggregatesOfCustomer() throws Exception {
+        // given
+        int id = 1;
+        when(orderService.findSummary(id)).thenReturn(OrderSummaryDto.withoutOrders(id));
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}/order-summary", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value(id))
+                .andExpect(jsonPath("$.orderCount").value(0));
+    }
+
+    @Test
+    public void findOrderSummary_expectCustomerNotFound() throws Exception {
+        // given
+        when(orderService.findSummary(anyInt())).thenThrow(EntityNotFoundException.class);
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/{id}/order-summary", 1))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void findOrderSummaries_expectPageWithNextLink() throws Exception {
+        // given
+        when(collectionVersions.eTag(any())).thenReturn(Optional.empty());
+        when(orderService.findSummaryPage(any(), any())).thenReturn(
+                new OrderSummaryPageDto(List.of(OrderSummaryDto.withoutOrders(1)), "Mg"));
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/order-summaries?size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].customerId").value(1))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/customers/order-summaries?size=1&cursor=Mg>; rel=\"next\""));
+        verify(orderService).findSummaryPage(null, 1);
+    }
+
+    @Test
+    public void findOrderSummaries_unchangedOrders_expectNotModifiedWithoutQuery() throws Exception {
+        // given
+        when(collectionVersions.eTag(any())).thenReturn(Optional.of("\"e-1-1\""));
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI + "/order-summaries")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"e-1-1\""))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    public void findAllById_tooManyIds_expectBadRequest() throws Exception {
+        // given
+        final String ids = IntStream.rangeClosed(1, MultiGet.MAX_IDS + 1)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI).param("ids", ids))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    public void findAllById_entriesReturned() throws Exception {
+        // given
+        when(customerService.findAllById(List.of(2, 7)))
+                .thenReturn(List.of(MultiGetEntryDto.found(2, createCustomerDto(FIRST_NAME, LAST_NAME)),
+                        MultiGetEntryDto.missing(7)));
+
+        // when + then
+        performAsync(mockMvc, get(CUSTOMERS_URI).param("ids", "2,7"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].value.firstName").value(FIRST_NAME))
+                .andExpect(jsonPath("$[1].id").value(7))
+                .andExpect(jsonPath("$[1].found").value(false));
+    }
 }
@@ -6,23 +6,34 @@ import com.github.christianj98.primarycustomerbase.dto.OrderUpdateDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
 import com.github.christianj98.primarycustomerbase.entity.Order;
 import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderPartitionRepository;
 import com.github.christianj98.primarycustomerbase.repository.OrderRepository;
+import com.github.christianj98.primarycustomerbase.service.OrderPartitionMaintainer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.asJsonString;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ID;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_BULK_URI;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI_WITH_ID;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
@@ -53,6 +64,12 @@ public class OrderControllerIntegrationTest {
     private CustomerRepository customerRepository;
     @Autowired
     private OrderRepository orderRepository;
+    @Autowired
+    private OrderPartitionRepository orderPartitionRepository;
+    @Autowired
+    private OrderPartitionMaintainer orderPartitionMaintainer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     private OrderDto orderDto;
     private Order order;
@@ -74,7 +91,7 @@ public class OrderControllerIntegrationTest {
     @DisplayName("Find all orders together with information about the customer and the address")
     public void findAllOrders_AllExistingOrdersFound() throws Exception {
         // when + then
-        mockMvc.perform(get(ORDERS_URI).contentType(APPLICATION_JSON))
+        performAsync(mockMvc, get(ORDERS_URI).contentType(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
@@ -85,7 +102,7 @@ public class OrderControllerIntegrationTest {
     @DisplayName("Save order for existing customer but customer does not exist")
     public void saveOrder_CustomerNotExist() throws Exception {
         // when + then
-        mockMvc.perform(post(ORDERS_URI)
+        performAsync(mockMvc, post(ORDERS_URI)
                         .contentType(APPLICATION_JSON)
                         .content(asJsonString(orderCreateDto)))
                 .andDo(print())
@@ -99,7 +116,7 @@ public class OrderControllerIntegrationTest {
         customerRepository.save(customer);
 
         // when
-        mockMvc.perform(post(ORDERS_URI)
+        performAsync(mockMvc, post(ORDERS_URI)
                         .contentType(APPLICATION_JSON)
                         .content(asJsonString(orderCreateDto)))
                 .andDo(print())
@@ -108,6 +125,53 @@ public class OrderControllerIntegrationTest {
                 .andExpect(jsonPath("$.amount").value(orderCreateDto.getAmount().toString()));
     }
 
+    @Test
+    @DisplayName("Bulk create orders from CSV with the COPY protocol")
+    public void bulkCreateOrders_csvRows_validRowsCopied() throws Exception {
+        // given
+        final Customer savedCustomer = customerRepository.save(customer);
+        final String rows = "date,amount,customerId\n"
+                + "2020-02-03T01:02:04,999.99," + savedCustomer.getId() + "\n"
+                + "2020-02-04T01:02:04,10.50," + savedCustomer.getId() + "\n"
+                + "2020-02-05T01:02:04,10.50," + (savedCustomer.getId() + 1000) + "\n";
+
+        // when
+        performAsync(mockMvc, post(ORDERS_BULK_URI)
+                        .contentType(OrderController.TEXT_CSV_VALUE)
+                        .content(rows))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejects[0].line").value(4));
+
+        // then
+        assertThat(orderRepository.findAllWithCustomerAndAddress())
+                .extracting(Order::getAmount)
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactlyInAnyOrder(AMOUNT, new BigDecimal("10.50"));
+    }
+
+    @Test
+    @DisplayName("Bulk create orders from newline-delimited JSON with the COPY protocol")
+    public void bulkCreateOrders_ndjsonRows_validRowsCopied() throws Exception {
+        // given
+        final Customer savedCustomer = customerRepository.save(customer);
+        orderCreateDto.setCustomerId(savedCustomer.getId());
+
+        // when
+        performAsync(mockMvc, post(ORDERS_BULK_URI)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(asJsonString(orderCreateDto) + "\n" + asJsonString(orderCreateDto) + "\n"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        // then
+        assertThat(orderRepository.count()).isEqualTo(2);
+    }
+
     @Test
     @DisplayName("Find order by id")
     public void findOrderById_orderFound() throws Exception {
@@ -116,7 +180,7 @@ public class OrderControllerIntegrationTest {
         orderRepository.save(order);
 
         // when + then
-        mockMvc.perform(get(ORDERS_URI_WITH_ID, ID)
+        performAsync(mockMvc, get(ORDERS_URI_WITH_ID, ID)
                         .contentType(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -130,7 +194,7 @@ public class OrderControllerIntegrationTest {
     @DisplayName("Find order by id but order does not exist")
     public void findOrderById_orderNotFound() throws Exception {
         // when + then
-        final String responseBody = mockMvc.perform(get(ORDERS_URI_WITH_ID, ID)
+        final String responseBody = performAsync(mockMvc, get(ORDERS_URI_WITH_ID, ID)
                         .contentType(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
@@ -148,7 +212,7 @@ public class OrderControllerIntegrationTest {
         orderRepository.save(order);
 
         // when + then
-        mockMvc.perform(put(ORDERS_URI_WITH_ID, ID)
+        performAsync(mockMvc, put(ORDERS_URI_WITH_ID, ID)
                         .contentType(APPLICATION_JSON)
                         .content(asJsonString(orderUpdateDto)))
                 .andDo(print())
@@ -167,7 +231,7 @@ public class OrderControllerIntegrationTest {
         int id = 999;
 
         // when + then
-        final String responseBody = mockMvc.perform(put(ORDERS_URI_WITH_ID, id)
+        final String responseBody = performAsync(mockMvc, put(ORDERS_URI_WITH_ID, id)
                         .contentType(APPLICATION_JSON)
                         .content(asJsonString(orderUpdateDto)))
                 .andDo(print())
@@ -184,7 +248,7 @@ public class OrderControllerIntegrationTest {
         int id = 999;
 
         // when + then
-        final String responseBody = mockMvc.perform(delete(ORDERS_URI_WITH_ID, id)
+        final String responseBody = performAsync(mockMvc, delete(ORDERS_URI_WITH_ID, id)
                         .contentType(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
@@ -201,10 +265,93 @@ public class OrderControllerIntegrationTest {
         orderRepository.save(order);
 
         // when + then
-        mockMvc.perform(delete(ORDERS_URI_WITH_ID, ID)
+        performAsync(mockMvc, delete(ORDERS_URI_WITH_ID, ID)
                         .contentType(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("Find orders dated within a range, only the partitions of the range are scanned")
+    public void findAllOrders_dateRange_partitionsPruned() throws Exception {
+        // given
+        customerRepository.save(customer);
+        orderRepository.save(createOrder(ORDER_DATE.minusMonths(1), AMOUNT));
+        final Order februaryOrder = orderRepository.save(order);
+        orderRepository.save(createOrder(ORDER_DATE.plusMonths(1), AMOUNT));
+        // the orders were written to the default partition, creating the partitions moves them over
+        assertThat(orderPartitionRepository.createPartition(YearMonth.of(2020, 1))).isTrue();
+        assertThat(orderPartitionRepository.createPartition(YearMonth.of(2020, 2))).isTrue();
+        assertThat(orderPartitionRepository.createPartition(YearMonth.of(2020, 2))).isFalse();
+        final LocalDateTime from = LocalDateTime.of(2020, 2, 1, 0, 0);
+        final LocalDateTime to = LocalDateTime.of(2020, 3, 1, 0, 0);
+
+        // when + then
+        performAsync(mockMvc, get(ORDERS_URI).param("from", from.toString()).param("to", to.toString()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].orderId").value(februaryOrder.getId()));
+        assertThat(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM orders WHERE id = ?",
+                String.class, februaryOrder.getId())).isEqualTo("orders_2020_02");
+        assertThat(String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id FROM orders WHERE date >= ? AND date < ?", String.class,
+                Timestamp.valueOf(from), Timestamp.valueOf(to))))
+                .contains("orders_2020_02")
+                .doesNotContain("orders_2020_01", "orders_default");
+    }
+
+    @Test
+    @DisplayName("Detached partition takes its orders out of the orders table and keeps them in a table of its own")
+    public void detachPartition_ordersKeptInStandaloneTable() throws Exception {
+        // given
+        customerRepository.save(customer);
+        final Order februaryOrder = orderRepository.save(order);
+        orderPartitionRepository.createPartition(YearMonth.of(2020, 2));
+
+        // when
+        orderPartitionRepository.detachPartition(YearMonth.of(2020, 2));
+
+        // then
+        performAsync(mockMvc, get(ORDERS_URI_WITH_ID, februaryOrder.getId()))
+                .andExpect(status().isNotFound());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders_2020_02 WHERE id = ?",
+                Integer.class, februaryOrder.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Partitions of the current and the coming months are created ahead of time")
+    public void createFuturePartitions_partitionsCreated() {
+        // when
+        orderPartitionMaintainer.createFuturePartitions();
+
+        // then
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+                OrderPartitionRepository.partitionName(YearMonth.now().plusMonths(3))))
+                .isEqualTo(OrderPartitionRepository.partitionName(YearMonth.now().plusMonths(3)));
+    }
+
+    @Test
+    @DisplayName("Find orders by ids in request order, unknown ids are marked as missing")
+    public void findAllById_ordersInRequestOrder() throws Exception {
+        // given
+        customerRepository.save(customer);
+        final Order firstOrder = orderRepository.save(order);
+        final Order secondOrder = orderRepository.save(createOrder(ORDER_DATE.plusDays(1), BigDecimal.TEN));
+        final int missingId = secondOrder.getId() + 100;
+
+        // when + then
+        performAsync(mockMvc, get(ORDERS_URI)
+                        .param("ids", String.format("%d,%d,%d", secondOrder.getId(), missingId, firstOrder.getId())))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].value.orderId").value(secondOrder.getId()))
+                .andExpect(jsonPath("$[0].value.customerDto.lastName").value(LAST_NAME))
+                .andExpect(jsonPath("$[1].id").value(missingId))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[2].value.orderId").value(firstOrder.getId()))
+                .andExpect(jsonPath("$[2].value.amount").value(valueOf(AMOUNT)));
+    }
 }
@@ -1,47 +1,71 @@
 package com.github.christianj98.primarycustomerbase.controller;
 
+import com.github.christianj98.primarycustomerbase.bulkhead.Bulkheads;
+import com.github.christianj98.primarycustomerbase.configuration.BulkheadProperties;
+import com.github.christianj98.primarycustomerbase.dto.OrderBulkResultDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderPageDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderRejectDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderUpdateDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.exception.InvalidCursorException;
+import com.github.christianj98.primarycustomerbase.exception.PreconditionFailedException;
+import com.github.christianj98.primarycustomerbase.invalidation.CollectionVersions;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
+import com.github.christianj98.primarycustomerbase.service.JsonMergePatcher;
+import com.github.christianj98.primarycustomerbase.service.OrderBulkFormat;
 import com.github.christianj98.primarycustomerbase.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import javax.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.asJsonString;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ID;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_BULK_URI;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI_WITH_ID;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_WRITES_URI_WITH_ID;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderCreateDto;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderDto;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderUpdateDto;
 import static java.lang.String.valueOf;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -49,11 +73,16 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Integration test class for {@link OrderController}
  */
 @WebMvcTest(OrderController.class)
+@Import(Bulkheads.class)
+@EnableConfigurationProperties(BulkheadProperties.class)
 public class OrderControllerLightIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
     @MockBean
     private OrderService orderService;
+
+    @MockBean
+    private CollectionVersions collectionVersions;
     private OrderDto orderDto;
     private OrderCreateDto orderCreateDto;
     private Customer customer;
@@ -68,21 +97,144 @@ public class OrderControllerLightIntegrationTest {
         orderUpdateDto = createOrderUpdateDto();
     }
 
+    @Test
+    @DisplayName("Bulk create orders from CSV and report the rejected rows")
+    public void bulkCreateOrders_csv_resultReturned() throws Exception {
+        // given
+        final OrderBulkResultDto result = new OrderBulkResultDto();
+        result.setAccepted(1);
+        result.setRejected(1);
+        result.getRejects().add(new OrderRejectDto(3, "Customer not found with given id: 7"));
+        when(orderService.bulkCreate(any(), eq(OrderBulkFormat.CSV))).thenReturn(result);
+
+        // when + then
+        performAsync(mockMvc, post(ORDERS_BULK_URI)
+                        .contentType(OrderController.TEXT_CSV_VALUE)
+                        .content("2020-02-03T01:02:04,999.99,1\n"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejects[0].line").value(3))
+                .andExpect(jsonPath("$.rejects[0].reason").value("Customer not found with given id: 7"));
+    }
+
+    @Test
+    @DisplayName("Bulk create orders from newline-delimited JSON")
+    public void bulkCreateOrders_ndjson_resultReturned() throws Exception {
+        // given
+        when(orderService.bulkCreate(any(), eq(OrderBulkFormat.NDJSON))).thenReturn(new OrderBulkResultDto());
+
+        // when + then
+        performAsync(mockMvc, post(ORDERS_BULK_URI)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(asJsonString(orderCreateDto) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(0));
+    }
+
+    @Test
+    @DisplayName("Bulk create orders rejects unsupported content type")
+    public void bulkCreateOrders_json_unsupportedMediaType() throws Exception {
+        // when + then
+        performAsync(mockMvc, post(ORDERS_BULK_URI)
+                        .contentType(APPLICATION_JSON)
+                        .content(asJsonString(List.of(orderCreateDto))))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     @DisplayName("Find all orders together with information about the customer and the address")
     public void findAllOrders_AllExistingOrdersFound() throws Exception {
         // given
-        when(orderService.findAll()).thenReturn(List.of(orderDto));
+        when(orderService.findPage(isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(new OrderPageDto(List.of(orderDto), null));
 
         // when + then
-        mockMvc.perform(get(ORDERS_URI).contentType(MediaType.APPLICATION_JSON))
+        performAsync(mockMvc, get(ORDERS_URI).contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].date").value(orderDto.getDate().toString()))
                 .andExpect(jsonPath("$[0].amount").value(orderDto.getAmount().toString()))
                 .andExpect(jsonPath("$[0].customerDto.firstName").value(orderDto.getCustomerDto().getFirstName()))
-                .andExpect(jsonPath("$[0].customerDto.lastName").value(orderDto.getCustomerDto().getLastName()));
+                .andExpect(jsonPath("$[0].customerDto.lastName").value(orderDto.getCustomerDto().getLastName()))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @DisplayName("Find page of orders which links the next page")
+    public void findAllOrders_nextPageLinked() throws Exception {
+        // given
+        final String cursor = "MjAyMC0wMi0wM1QwMTowMjowNHwx";
+        when(orderService.findPage(isNull(), eq(1), isNull(), isNull()))
+                .thenReturn(new OrderPageDto(List.of(orderDto), cursor));
+
+        // when + then
+        performAsync(mockMvc, get(ORDERS_URI + "?size=1").contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].amount").value(orderDto.getAmount().toString()))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/orders?size=1&cursor=" + cursor + ">; rel=\"next\""));
+    }
+
+    @Test
+    @DisplayName("Find page of orders dated within a range, the next page keeps the range")
+    public void findAllOrders_dateRange() throws Exception {
+        // given
+        final String cursor = "MjAyMC0wMi0wM1QwMTowMjowNHwx";
+        when(orderService.findPage(isNull(), isNull(), eq(LocalDateTime.of(2020, 2, 1, 0, 0)),
+                eq(LocalDateTime.of(2020, 3, 1, 0, 0)))).thenReturn(new OrderPageDto(List.of(orderDto), cursor));
+
+        // when + then
+        performAsync(mockMvc, get(ORDERS_URI + "?from=2020-02-01T00:00:00&to=2020-03-01T00:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].amount").value(orderDto.getAmount().toString()))
+                .andExpect(header().string(HttpHeaders.LINK, "<http://localhost/orders"
+                        + "?from=2020-02-01T00:00:00&to=2020-03-01T00:00:00&cursor=" + cursor + ">; rel=\"next\""));
+    }
+
+    @Test
+    @DisplayName("Find page of orders with a date bound which is not a date")
+    public void findAllOrders_invalidDateBound() throws Exception {
+        // when + then
+        performAsync(mockMvc, get(ORDERS_URI).param("from", "yesterday"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("Find page of orders which has not changed since the previous poll")
+    public void findAllOrders_notModified() throws Exception {
+        // given
+        final String eTag = "\"7-4-2\"";
+        when(collectionVersions.eTag(EntityType.ORDER, EntityType.CUSTOMER, EntityType.ADDRESS))
+                .thenReturn(Optional.of(eTag));
+
+        // when + then
+        performAsync(mockMvc, get(ORDERS_URI + "?size=1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("Find page of orders with malformed cursor")
+    public void findAllOrders_invalidCursor() throws Exception {
+        // given
+        when(orderService.findPage(eq("abc"), isNull(), isNull(), isNull()))
+                .thenThrow(new InvalidCursorException("Cursor abc is invalid"));
+
+        // when + then
+        performAsync(mockMvc, get(ORDERS_URI).param("cursor", "abc").contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -92,7 +244,7 @@ public class OrderControllerLightIntegrationTest {
         when(orderService.saveOrder(any())).thenThrow(EntityNotFoundException.class);
 
         // when + then
-        mockMvc.perform(post(ORDERS_URI)
+        performAsync(mockMvc, post(ORDERS_URI)
                         .contentType(APPLICATION_JSON)
                         .content(asJsonString(orderCreateDto)))
                 .andDo(print())
@@ -106,7 +258,7 @@ public class OrderControllerLightIntegrationTest {
         when(orderService.saveOrder(any())).thenReturn(orderDto);
 
         // when
-        mockMvc.perform(post(ORDERS_URI)
+        performAsync(mockMvc, post(ORDERS_URI)
                         .contentType(APPLICATION_JSON)
                         .content(asJsonString(orderCreateDto)))
                 .andDo(print())
@@ -123,14 +275,15 @@ public class OrderControllerLightIntegrationTest {
         when(orderService.findById(ID)).thenReturn(orderDto);
 
         // when + then
-        mockMvc.perform(get(ORDERS_URI_WITH_ID, ID)
+        performAsync(mockMvc, get(ORDERS_URI_WITH_ID, ID)
                         .contentType(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.amount").value(valueOf(orderDto.getAmount())))
                 .andExpect(jsonPath("$.date").value(valueOf(orderDto.getDate())))
                 .andExpect(jsonPath("$.customerDto.firstName").value(customer.getFirstName()))
-                .andExpect(jsonPath("$.customerDto.lastName").value(customer.getLastName()));
+                .andExpect(jsonPath("$.customerDto.lastName").value(customer.getLastName()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-0-0\""));
     }
 
     @Test
@@ -140,7 +293,7 @@ public class OrderControllerLightIntegrationTest {
         when(orderService.findById(ID)).thenThrow(EntityNotFoundException.class);
 
         // when + then
-        mockMvc.perform(get(ORDERS_URI_WITH_ID, ID)
+        performAsync(mockMvc, get(ORDERS_URI_WITH_ID, ID)
                         .contentType(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound());
@@ -150,10 +303,10 @@ public class OrderControllerLightIntegrationTest {
     @DisplayName("Update order with specific id")
     public void updateOrder_orderUpdatedSuccessfully() throws Exception {
         // given
-        when(orderService.update(any(), anyInt())).thenReturn(orderDto);
+        when(orderService.update(any(), anyInt(), any())).thenReturn(orderDto);
 
         // when + then
-        mockMvc.perform(put(ORDERS_URI_WITH_ID, ID)
+        performAsync(mockMvc, put(ORDERS_URI_WITH_ID, ID)
                         .contentType(APPLICATION_JSON)
                         .content(asJsonString(orderUpdateDto)))
                 .andDo(print())
@@ -169,10 +322,10 @@ public class OrderControllerLightIntegrationTest {
     @DisplayName("Update order but order does not exist")
     public void updateOrder_orderNotFound() throws Exception {
         // given
-        when(orderService.update(any(), anyInt())).thenThrow(EntityNotFoundException.class);
+        when(orderService.update(any(), anyInt(), any())).thenThrow(EntityNotFoundException.class);
 
         // when + then
-        mockMvc.perform(put(ORDERS_URI_WITH_ID, ID)
+        performAsync(mockMvc, put(ORDERS_URI_WITH_ID, ID)
                         .contentType(APPLICATION_JSON)
                         .content(asJsonString(orderUpdateDto)))
                 .andDo(print())
@@ -184,26 +337,64 @@ public class OrderControllerLightIntegrationTest {
     public void deleteOrder_orderNotFound() throws Exception {
         // given
         int id = 999;
-        doThrow(EntityNotFoundException.class).when(orderService).delete(anyInt());
+        doThrow(EntityNotFoundException.class).when(orderService).delete(anyInt(), any());
 
         // when + then
-        mockMvc.perform(delete(ORDERS_URI_WITH_ID, id)
+        performAsync(mockMvc, delete(ORDERS_URI_WITH_ID, id)
                         .contentType(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Delete order but the client has an older version")
+    public void deleteOrder_staleEntityTag() throws Exception {
+        // given
+        doThrow(PreconditionFailedException.class).when(orderService).delete(anyInt(), any());
+
+        // when + then
+        performAsync(mockMvc, delete(ORDERS_URI_WITH_ID, ID)
+                        .header(HttpHeaders.IF_MATCH, "\"0-0-0\""))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("Delete order with specific id")
     public void deleteOrder_orderDeleteSuccessfully() throws Exception {
         // given
-        doNothing().when(orderService).delete(anyInt());
+        doNothing().when(orderService).delete(anyInt(), any());
 
         // when + then
-        mockMvc.perform(delete(ORDERS_URI_WITH_ID, ID)
+        performAsync(mockMvc, delete(ORDERS_URI_WITH_ID, ID)
                         .contentType(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("Patch order with merge patch")
+    public void patchOrder_orderPatched() throws Exception {
+        // given
+        when(orderService.patch(any(), anyInt(), any())).thenReturn(orderDto);
+
+        // when + then
+        performAsync(mockMvc, patch(ORDERS_URI_WITH_ID, ID)
+                        .contentType(JsonMergePatcher.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"amount\":" + orderDto.getAmount() + "}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.amount").value(valueOf(orderDto.getAmount())));
+    }
+
+    @Test
+    @DisplayName("Write status is not found without write-behind")
+    public void findWriteStatus_writeBehindDisabled_notFound() throws Exception {
+        // when + then
+        performAsync(mockMvc, get(ORDER_WRITES_URI_WITH_ID, "tracking-id"))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Order write not found with given tracking id: tracking-id"));
+    }
 }
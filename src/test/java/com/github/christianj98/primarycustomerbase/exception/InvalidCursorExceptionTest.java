@@ -0,0 +1,21 @@
+package com.github.christianj98.primarycustomerbase.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InvalidCursorExceptionTest {
+    @Test
+    public void shouldCreateCorrectExceptionMessage() {
+        final String expectedMessage = "Cursor is invalid";
+        InvalidCursorException exception = assertThrows(
+                InvalidCursorException.class,
+                () -> {
+                    throw new InvalidCursorException(expectedMessage);
+                });
+
+        final String actualMessage = exception.getMessage();
+        assertThat(actualMessage).isEqualTo(expectedMessage);
+    }
+}
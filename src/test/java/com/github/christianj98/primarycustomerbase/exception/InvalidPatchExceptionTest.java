@@ -0,0 +1,21 @@
+package com.github.christianj98.primarycustomerbase.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InvalidPatchExceptionTest {
+    @Test
+    public void shouldCreateCorrectExceptionMessage() {
+        final String expectedMessage = "Patch cannot be applied: unexpected value";
+        InvalidPatchException exception = assertThrows(
+                InvalidPatchException.class,
+                () -> {
+                    throw new InvalidPatchException(expectedMessage);
+                });
+
+        final String actualMessage = exception.getMessage();
+        assertThat(actualMessage).isEqualTo(expectedMessage);
+    }
+}
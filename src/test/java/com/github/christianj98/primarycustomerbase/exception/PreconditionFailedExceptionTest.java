@@ -0,0 +1,21 @@
+package com.github.christianj98.primarycustomerbase.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PreconditionFailedExceptionTest {
+    @Test
+    public void shouldCreateCorrectExceptionMessage() {
+        final String expectedMessage = "Resource has been modified";
+        PreconditionFailedException exception = assertThrows(
+                PreconditionFailedException.class,
+                () -> {
+                    throw new PreconditionFailedException(expectedMessage);
+                });
+
+        final String actualMessage = exception.getMessage();
+        assertThat(actualMessage).isEqualTo(expectedMessage);
+    }
+}
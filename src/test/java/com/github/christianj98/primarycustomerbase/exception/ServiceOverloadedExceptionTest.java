@@ -0,0 +1,21 @@
+package com.github.christianj98.primarycustomerbase.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ServiceOverloadedExceptionTest {
+    @Test
+    public void shouldCreateCorrectExceptionMessage() {
+        final String expectedMessage = "Too many orders are waiting to be written, retry later";
+        ServiceOverloadedException exception = assertThrows(
+                ServiceOverloadedException.class,
+                () -> {
+                    throw new ServiceOverloadedException(expectedMessage);
+                });
+
+        final String actualMessage = exception.getMessage();
+        assertThat(actualMessage).isEqualTo(expectedMessage);
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link CollectionVersions}
+ */
+public class CollectionVersionsTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    @AfterEach
+    public void cleanUp() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("No tag is issued before listening for announcements started")
+    public void eTag_versionUnknown_empty() {
+        // given
+        final CollectionVersions collectionVersions = createCollectionVersions(Duration.ZERO);
+
+        // when
+        collectionVersions.onEntityChanged(EntityChangedEvent.all(EntityType.CUSTOMER));
+
+        // then
+        assertThat(collectionVersions.eTag(EntityType.CUSTOMER)).isPresent();
+        assertThat(collectionVersions.eTag(EntityType.CUSTOMER, EntityType.ADDRESS)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Tag stays the same until one of the listed tables changes")
+    public void eTag_changesWithListedTablesOnly() {
+        // given
+        final CollectionVersions collectionVersions = createListeningCollectionVersions(Duration.ZERO);
+        final Optional<String> initialTag = collectionVersions.eTag(EntityType.CUSTOMER, EntityType.ADDRESS);
+
+        // when
+        collectionVersions.onEntityChanged(EntityChangedEvent.of(EntityType.ORDER, 1).withChangeNumber(10));
+        final Optional<String> tagAfterOrderChange = collectionVersions.eTag(EntityType.CUSTOMER, EntityType.ADDRESS);
+        collectionVersions.onEntityChanged(EntityChangedEvent.of(EntityType.ADDRESS, 1).withChangeNumber(11));
+        final Optional<String> tagAfterAddressChange = collectionVersions.eTag(EntityType.CUSTOMER, EntityType.ADDRESS);
+
+        // then
+        assertThat(initialTag).isPresent();
+        assertThat(tagAfterOrderChange).isEqualTo(initialTag);
+        assertThat(tagAfterAddressChange).isPresent().isNotEqualTo(initialTag);
+    }
+
+    @Test
+    @DisplayName("Nodes which received the same announcements issue the same tag")
+    public void eTag_sameOnNodesWithSameAnnouncements() {
+        // given
+        final CollectionVersions node = createListeningCollectionVersions(Duration.ZERO);
+        final CollectionVersions otherNode = createListeningCollectionVersions(Duration.ZERO);
+
+        // when
+        node.onEntityChanged(EntityChangedEvent.of(EntityType.ORDER, 1).withChangeNumber(20));
+        otherNode.onEntityChanged(EntityChangedEvent.of(EntityType.ORDER, 1).withChangeNumber(20));
+
+        // then
+        assertThat(node.eTag(EntityType.ORDER)).isPresent().isEqualTo(otherNode.eTag(EntityType.ORDER));
+    }
+
+    @Test
+    @DisplayName("A change committed after a later numbered one still changes the tag")
+    public void eTag_changeNumbersCommittedOutOfOrder_tagChanges() {
+        // given
+        final CollectionVersions collectionVersions = createListeningCollectionVersions(Duration.ZERO);
+        collectionVersions.onEntityChanged(EntityChangedEvent.of(EntityType.ORDER, 2).withChangeNumber(31));
+        final Optional<String> tagAfterLaterNumber = collectionVersions.eTag(EntityType.ORDER);
+
+        // when
+        collectionVersions.onEntityChanged(EntityChangedEvent.of(EntityType.ORDER, 1).withChangeNumber(30));
+
+        // then
+        assertThat(collectionVersions.eTag(EntityType.ORDER)).isPresent().isNotEqualTo(tagAfterLaterNumber);
+    }
+
+    @Test
+    @DisplayName("No tag is issued when the change number cannot be taken")
+    public void onEntityChanged_changeNumberNotTaken_noTag() {
+        // given
+        final CollectionVersions collectionVersions = new CollectionVersions(Duration.ZERO, nanos::get, type -> {
+            throw new DataAccessResourceFailureException("down");
+        });
+
+        // when
+        collectionVersions.onEntityChanged(EntityChangedEvent.all(EntityType.ORDER));
+
+        // then
+        assertThat(collectionVersions.eTag(EntityType.ORDER)).isEmpty();
+        collectionVersions.onEntityChanged(EntityChangedEvent.of(EntityType.ORDER, 1).withChangeNumber(5));
+        assertThat(collectionVersions.eTag(EntityType.ORDER)).isPresent();
+    }
+
+    @Test
+    @DisplayName("No tag is issued while a change may not have reached the replicas")
+    public void eTag_emptyWithinSettleWindow() {
+        // given
+        final CollectionVersions collectionVersions = createListeningCollectionVersions(Duration.ofSeconds(5));
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(collectionVersions.eTag(EntityType.ORDER)).isPresent();
+
+        // when
+        collectionVersions.onEntityChanged(EntityChangedEvent.all(EntityType.ORDER).withChangeNumber(40));
+
+        // then
+        assertThat(collectionVersions.eTag(EntityType.ORDER)).isEmpty();
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(collectionVersions.eTag(EntityType.ORDER)).isPresent();
+    }
+
+    @Test
+    @DisplayName("A write of this node suppresses the tag until its announcement comes back")
+    public void awaitAnnouncement_committed_noTagUntilAnnounced() {
+        // given
+        final CollectionVersions collectionVersions = createListeningCollectionVersions(Duration.ZERO);
+        final Optional<String> initialTag = collectionVersions.eTag(EntityType.CUSTOMER);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        collectionVersions.awaitAnnouncement(EntityType.CUSTOMER, 50);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // then
+        assertThat(initialTag).isPresent();
+        assertThat(collectionVersions.eTag(EntityType.CUSTOMER)).isEmpty();
+        collectionVersions.onEntityChanged(EntityChangedEvent.of(EntityType.CUSTOMER, 1).withChangeNumber(50));
+        assertThat(collectionVersions.eTag(EntityType.CUSTOMER)).isPresent().isNotEqualTo(initialTag);
+    }
+
+    @Test
+    @DisplayName("A rolled back write of this node is forgotten")
+    public void awaitAnnouncement_rolledBack_tagKept() {
+        // given
+        final CollectionVersions collectionVersions = createListeningCollectionVersions(Duration.ZERO);
+        final Optional<String> initialTag = collectionVersions.eTag(EntityType.CUSTOMER);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        collectionVersions.awaitAnnouncement(EntityType.CUSTOMER, 60);
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then
+        assertThat(collectionVersions.eTag(EntityType.CUSTOMER)).isPresent().isEqualTo(initialTag);
+    }
+
+    private CollectionVersions createCollectionVersions(final Duration settleWindow) {
+        return new CollectionVersions(settleWindow, nanos::get, type -> changeSequence.incrementAndGet());
+    }
+
+    /**
+     * Version of every table known, as once listening for announcements started
+     */
+    private CollectionVersions createListeningCollectionVersions(final Duration settleWindow) {
+        final CollectionVersions collectionVersions = createCollectionVersions(settleWindow);
+        for (EntityType type : EntityType.values()) {
+            collectionVersions.onEntityChanged(EntityChangedEvent.all(type));
+        }
+        return collectionVersions;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+import com.github.christianj98.primarycustomerbase.entity.Address;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Test class for {@link EntityCacheEvictor}
+ */
+@ExtendWith(MockitoExtension.class)
+public class EntityCacheEvictorTest {
+    @InjectMocks
+    private EntityCacheEvictor entityCacheEvictor;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @BeforeEach
+    public void init() {
+        lenient().when(entityManagerFactory.getCache()).thenReturn(cache);
+    }
+
+    @Test
+    public void onEntityChanged_customer_evictsCustomer() {
+        // when
+        entityCacheEvictor.onEntityChanged(EntityChangedEvent.of(EntityType.CUSTOMER, 1));
+
+        // then
+        verify(cache).evict(Customer.class, 1);
+    }
+
+    @Test
+    public void onEntityChanged_allAddresses_evictsAddressRegion() {
+        // when
+        entityCacheEvictor.onEntityChanged(EntityChangedEvent.all(EntityType.ADDRESS));
+
+        // then
+        verify(cache).evict(Address.class);
+    }
+
+    @Test
+    public void onEntityChanged_order_nothingEvicted() {
+        // when
+        entityCacheEvictor.onEntityChanged(EntityChangedEvent.of(EntityType.ORDER, 1));
+
+        // then
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    public void hasEvictedWithin_afterEviction_true() {
+        // when
+        entityCacheEvictor.onEntityChanged(EntityChangedEvent.of(EntityType.CUSTOMER, 1));
+
+        // then
+        assertThat(entityCacheEvictor.hasEvictedWithin(Duration.ofMinutes(1))).isTrue();
+    }
+
+    @Test
+    public void hasEvictedWithin_orderChangedOnly_false() {
+        // when
+        entityCacheEvictor.onEntityChanged(EntityChangedEvent.of(EntityType.ORDER, 1));
+
+        // then
+        assertThat(entityCacheEvictor.hasEvictedWithin(Duration.ofMinutes(1))).isFalse();
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+import com.github.christianj98.primarycustomerbase.configuration.EntityChangeProperties;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.service.CustomerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class with integration tests for {@link EntityChangeListener}. Another node is simulated by changing
+ * the customers table directly and sending the notification by hand.
+ */
+@SpringBootTest
+@DirtiesContext
+@ActiveProfiles("integration")
+public class EntityChangeListenerIntegrationTest {
+    private static final String CHANGED_LAST_NAME = "Nowak";
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityChangeProperties entityChangeProperties;
+
+    @Test
+    @DisplayName("A customer changed on another node is evicted from every local cache")
+    public void shouldEvictCustomerChangedOnAnotherNode() throws InterruptedException {
+        // given
+        final Customer newCustomer = createCustomer(FIRST_NAME, LAST_NAME);
+        newCustomer.setId(null);
+        newCustomer.getAddress().setId(null);
+        final int id = customerRepository.save(newCustomer).getId();
+        customerService.findById(id);
+        jdbcTemplate.update("UPDATE customers SET last_name = ? WHERE id = ?", CHANGED_LAST_NAME, id);
+        assertThat(customerService.findById(id).getLastName()).isEqualTo(LAST_NAME);
+
+        // when
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, entityChangeProperties.getChannel(),
+                EntityChangedEvent.of(EntityType.CUSTOMER, id).toPayload());
+
+        // then
+        final Instant deadline = Instant.now().plus(Duration.ofSeconds(10));
+        while (!CHANGED_LAST_NAME.equals(customerService.findById(id).getLastName())
+                && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+        }
+        assertThat(customerService.findById(id).getLastName()).isEqualTo(CHANGED_LAST_NAME);
+    }
+}
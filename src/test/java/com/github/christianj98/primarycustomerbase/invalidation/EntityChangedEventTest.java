@@ -0,0 +1,77 @@
+package com.github.christianj98.primarycustomerbase.invalidation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link EntityChangedEvent}
+ */
+public class EntityChangedEventTest {
+
+    @Test
+    @DisplayName("Change number is carried after the id")
+    public void toPayload_fromPayload_sameEventWithChangeNumber() {
+        // given
+        final EntityChangedEvent event = EntityChangedEvent.of(EntityType.CUSTOMER, 42).withChangeNumber(7);
+
+        // when
+        final String payload = event.toPayload();
+
+        // then
+        assertThat(payload).isEqualTo("customer:42@7");
+        assertThat(EntityChangedEvent.fromPayload(payload)).contains(event);
+        assertThat(EntityChangedEvent.fromPayload("order:*@8")).contains(EntityChangedEvent.all(EntityType.ORDER)
+                .withChangeNumber(8));
+        assertThat(EntityChangedEvent.fromPayload("order:1@eight")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("An event survives the trip through a notification payload")
+    public void toPayload_fromPayload_sameEvent() {
+        // given
+        final EntityChangedEvent event = EntityChangedEvent.of(EntityType.CUSTOMER, 42);
+
+        // when
+        final String payload = event.toPayload();
+
+        // then
+        assertThat(payload).isEqualTo("customer:42");
+        assertThat(EntityChangedEvent.fromPayload(payload)).contains(event);
+    }
+
+    @Test
+    @DisplayName("An event of all entities of a type survives the trip through a notification payload")
+    public void toPayload_fromPayload_sameAllEvent() {
+        // given
+        final EntityChangedEvent event = EntityChangedEvent.all(EntityType.ORDER);
+
+        // when
+        final String payload = event.toPayload();
+
+        // then
+        assertThat(payload).isEqualTo("order:*");
+        assertThat(EntityChangedEvent.fromPayload(payload)).contains(event);
+    }
+
+    @Test
+    @DisplayName("Unknown payloads are not turned into events")
+    public void fromPayload_unknownPayload_empty() {
+        // when + then
+        assertThat(EntityChangedEvent.fromPayload("customer")).isEmpty();
+        assertThat(EntityChangedEvent.fromPayload("invoice:1")).isEmpty();
+        assertThat(EntityChangedEvent.fromPayload("order:first")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("An event without id stands for all entities of its type")
+    public void all_noId() {
+        // when
+        final EntityChangedEvent event = EntityChangedEvent.all(EntityType.ADDRESS);
+
+        // then
+        assertThat(event.isAll()).isTrue();
+        assertThat(EntityChangedEvent.of(EntityType.ADDRESS, 1).isAll()).isFalse();
+    }
+}
@@ -3,6 +3,7 @@ package com.github.christianj98.primarycustomerbase.mapper;
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
 import com.github.christianj98.primarycustomerbase.entity.Address;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.projection.CustomerView;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +21,8 @@ import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtil
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerView;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -88,4 +91,21 @@ public class CustomerMapperServiceTest {
                 .collect(Collectors.toList()));
     }
 
+    @Test
+    @DisplayName("Map customer dto from customer view")
+    public void shouldMapFromCustomerView() {
+        // given
+        final CustomerView customerView = createCustomerView(FIRST_NAME, LAST_NAME);
+
+        // when
+        final CustomerDto customerDto = customerMapperService.mapFrom(customerView);
+
+        // then
+        assertThat(customerDto.getFirstName()).isEqualTo(customerView.getFirstName());
+        assertThat(customerDto.getLastName()).isEqualTo(customerView.getLastName());
+        assertThat(customerDto.getAddressDto().getId()).isEqualTo(customerView.getAddressId());
+        assertThat(customerDto.getAddressDto().getStreet()).isEqualTo(customerView.getStreet());
+        assertThat(customerDto.getAddressDto().getCity()).isEqualTo(customerView.getCity());
+        verifyNoInteractions(addressMapperService);
+    }
 }
@@ -1,9 +1,12 @@
 package com.github.christianj98.primarycustomerbase.mapper;
 
+import com.github.christianj98.primarycustomerbase.archive.ArchivedOrder;
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
 import com.github.christianj98.primarycustomerbase.entity.Order;
+import com.github.christianj98.primarycustomerbase.projection.CustomerView;
+import com.github.christianj98.primarycustomerbase.projection.OrderView;
 import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,10 +19,12 @@ import java.util.List;
 
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrder;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderView;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -77,4 +82,46 @@ public class OrderMapperServiceTest {
                         order.getAmount(),
                         customerDto)));
     }
+
+    @Test
+    @DisplayName("Maps list of order dtos from list of order views")
+    public void mapFromViews_mapsOrderDtosFromOrderViews() {
+        // given
+        final OrderView orderView = createOrderView(1, ORDER_DATE, AMOUNT);
+        final CustomerDto customerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
+        when(customerMapperService.mapFrom(any(CustomerView.class))).thenReturn(customerDto);
+
+        // when
+        final List<OrderDto> orderDtos = orderMapperService.mapFromViews(List.of(orderView));
+
+        // then
+        assertThat(orderDtos).extracting(OrderDto::getOrderId,
+                        OrderDto::getDate,
+                        OrderDto::getAmount,
+                        OrderDto::getCustomerDto)
+                .isEqualTo(List.of(Tuple.tuple(orderView.getId(),
+                        orderView.getDate(),
+                        orderView.getAmount(),
+                        customerDto)));
+    }
+
+    @Test
+    @DisplayName("Maps order dto from archived order and its customer")
+    public void mapFrom_mapsOrderDtoFromArchivedOrder() {
+        // given
+        final ArchivedOrder archivedOrder = new ArchivedOrder(3, ORDER_DATE, AMOUNT, 1, 2);
+        final Customer customer = createCustomer(FIRST_NAME, LAST_NAME);
+        final CustomerDto customerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto);
+
+        // when
+        final OrderDto orderDto = orderMapperService.mapFrom(archivedOrder, customer);
+        final OrderDto orderDtoWithoutCustomer = orderMapperService.mapFrom(archivedOrder, null);
+
+        // then
+        assertThat(orderDto).extracting(OrderDto::getOrderId, OrderDto::getDate, OrderDto::getAmount,
+                        OrderDto::getCustomerDto, OrderDto::getVersion)
+                .containsExactly(3, ORDER_DATE, AMOUNT, customerDto, 2L);
+        assertThat(orderDtoWithoutCustomer.getCustomerDto()).isNull();
+    }
 }
@@ -1,10 +1,16 @@
 package com.github.christianj98.primarycustomerbase.repository;
 
+import com.github.christianj98.primarycustomerbase.dto.AddressDto;
 import com.github.christianj98.primarycustomerbase.entity.Address;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.List;
@@ -13,13 +19,14 @@ import java.util.Optional;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.CITY;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.STREET;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.createAddress;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Test class for {@link AddressRepository}
  */
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class AddressRepositoryTest {
     private static final String CLARK_STREET = "Clark";
     private static final String NY_CITY = "NY City";
@@ -27,6 +34,9 @@ public class AddressRepositoryTest {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     private Address address;
 
     @BeforeEach
@@ -45,6 +55,57 @@ public class AddressRepositoryTest {
         assertThat(addresses).extracting(Address::getCity).containsOnly(address.getCity());
     }
 
+    @Test
+    public void whenFindAllAddressDtos_ThenReturnAllAddressesWithSingleStatement() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            final Customer customer = createCustomer("Jan" + i, "Kowalski" + i);
+            customer.setId(null);
+            customer.setAddress(createAddress(STREET + i, CITY));
+            customer.getAddress().setId(null);
+            testEntityManager.persist(customer);
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        final Statistics statistics = testEntityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        // when
+        final List<AddressDto> addresses = addressRepository.findAllAddressDtos();
+
+        // then
+        assertThat(addresses).hasSize(4);
+        assertThat(addresses).extracting(AddressDto::getId).contains(address.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenFindAddressDtoById_ThenReturnExistingAddress() {
+        // when
+        final Optional<AddressDto> optionalAddress = addressRepository.findAddressDtoById(address.getId());
+
+        // then
+        assertThat(optionalAddress).isNotEmpty();
+        assertThat(optionalAddress.get()).extracting(AddressDto::getStreet).isEqualTo(STREET);
+        assertThat(optionalAddress.get()).extracting(AddressDto::getCity).isEqualTo(CITY);
+    }
+
+    @Test
+    public void whenSaveExistingAddress_ThenUniqueConstraintIsViolated() {
+        // given
+        final Address duplicatedAddress = createAddress(STREET, CITY);
+        duplicatedAddress.setId(null);
+
+        // when + then
+        assertThatThrownBy(() -> addressRepository.saveAndFlush(duplicatedAddress))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(e -> assertThat(e.getMessage().toLowerCase())
+                        .contains(Address.UNIQUE_STREET_CITY_CONSTRAINT));
+    }
+
     @Test
     public void whenExistsByStreetAndCity_ThenReturnTrueIfAddressExist() {
         // when
@@ -84,7 +145,6 @@ public class AddressRepositoryTest {
         assertThat(optionalAddress.get()).extracting(Address::getStreet).isEqualTo(STREET);
         assertThat(optionalAddress.get()).extracting(Address::getCity).isEqualTo(CITY);
         assertThat(optionalAddress.get()).extracting(Address::getId).isEqualTo(address.getId());
-        assertThat(optionalAddress.get()).extracting(Address::getCustomer).isNull();
     }
 
     @Test
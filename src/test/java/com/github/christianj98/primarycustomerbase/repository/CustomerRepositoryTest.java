@@ -1,23 +1,38 @@
 package com.github.christianj98.primarycustomerbase.repository;
 
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.projection.CustomerName;
+import com.github.christianj98.primarycustomerbase.projection.CustomerView;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.CITY;
+import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.STREET;
+import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.createAddress;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class CustomerRepositoryTest {
     @Autowired
     private CustomerRepository customerRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
     private Customer customer;
 
     @BeforeEach
@@ -36,6 +51,45 @@ public class CustomerRepositoryTest {
         assertThat(customers).extracting(Customer::getLastName).containsOnly(LAST_NAME);
     }
 
+    @Test
+    public void whenFindAllCustomerViews_ThenReturnAllUsersWithAddress() {
+        // when
+        final List<CustomerView> customers = customerRepository.findAllCustomerViews();
+
+        // then
+        assertThat(customers).hasSize(1);
+        assertThat(customers).extracting(CustomerView::getFirstName).containsOnly(FIRST_NAME);
+        assertThat(customers).extracting(CustomerView::getLastName).containsOnly(LAST_NAME);
+        assertThat(customers).extracting(CustomerView::getCity).containsOnly(customer.getAddress().getCity());
+    }
+
+    @Test
+    public void whenFindCustomerViewById_ThenReturnOptionalCustomer() {
+        // when
+        final Optional<CustomerView> foundCustomer = customerRepository.findCustomerViewById(customer.getId());
+
+        // then
+        assertThat(foundCustomer).isPresent();
+        assertThat(foundCustomer.get().getId()).isEqualTo(customer.getId());
+        assertThat(foundCustomer.get().getAddressId()).isEqualTo(customer.getAddress().getId());
+        assertThat(foundCustomer.get().getStreet()).isEqualTo(customer.getAddress().getStreet());
+    }
+
+    @Test
+    public void whenStreamAll_ThenStreamAllUsersWithAddress() {
+        // when
+        final List<Customer> customers;
+        try (Stream<Customer> customerStream = customerRepository.streamAll()) {
+            customers = customerStream.collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(customers).hasSize(1);
+        assertThat(customers).extracting(Customer::getFirstName).containsOnly(FIRST_NAME);
+        assertThat(customers).extracting(customer -> customer.getAddress().getStreet())
+                .containsOnly(customer.getAddress().getStreet());
+    }
+
     @Test
     public void whenSaveCustomer_ThenReturnCustomer() {
         // when
@@ -47,6 +101,59 @@ public class CustomerRepositoryTest {
         assertThat(createdCustomer.getLastName()).isEqualTo(LAST_NAME);
     }
 
+    @Test
+    public void whenSaveAll_ThenInsertCustomersAndAddressesInBatches() {
+        // given
+        final List<Customer> customers = IntStream.range(0, 60)
+                .mapToObj(i -> {
+                    final Customer newCustomer = createCustomer("Jan" + i, "Nowak" + i);
+                    newCustomer.setId(null);
+                    newCustomer.setAddress(createAddress(STREET + i, CITY));
+                    newCustomer.getAddress().setId(null);
+                    return newCustomer;
+                })
+                .collect(Collectors.toList());
+        testEntityManager.flush();
+        final Statistics statistics = testEntityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        // when
+        final List<Customer> createdCustomers = customerRepository.saveAll(customers);
+        testEntityManager.flush();
+
+        // then
+        assertThat(createdCustomers).extracting(Customer::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        // one pooled sequence call and one batched insert statement per table
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void whenSaveCustomerWithExistingName_ThenUniqueConstraintIsViolated() {
+        // given
+        final Customer duplicatedCustomer = createCustomer(FIRST_NAME, LAST_NAME);
+        duplicatedCustomer.setId(null);
+        duplicatedCustomer.setAddress(createAddress("Polna", CITY));
+        duplicatedCustomer.getAddress().setId(null);
+
+        // when + then
+        assertThatThrownBy(() -> customerRepository.saveAndFlush(duplicatedCustomer))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(e -> assertThat(e.getMessage().toLowerCase()).contains(Customer.UNIQUE_NAME_CONSTRAINT));
+    }
+
+    @Test
+    public void whenFindNamesByLastNameIn_ThenReturnMatchingNames() {
+        // when
+        final List<CustomerName> names = customerRepository.findNamesByLastNameIn(List.of(LAST_NAME, "Nowak"));
+
+        // then
+        assertThat(names).containsOnly(new CustomerName(FIRST_NAME, LAST_NAME));
+    }
+
     @Test
     public void whenFindById_ThenReturnOptionalCustomer() {
         // when
@@ -2,11 +2,13 @@ package com.github.christianj98.primarycustomerbase.repository;
 
 import com.github.christianj98.primarycustomerbase.entity.Customer;
 import com.github.christianj98.primarycustomerbase.entity.Order;
+import com.github.christianj98.primarycustomerbase.projection.OrderView;
 import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.util.List;
@@ -48,6 +50,37 @@ public class OrderRepositoryTest {
                 .isEqualTo(List.of(Tuple.tuple(order.getDate(), order.getAmount())));
     }
 
+    @Test
+    public void whenFindFirstPageOfOrderViews_ThenReturnOrdersByDateAndId() {
+        // given
+        final Order earlierOrder = orderRepository.save(createOrder(ORDER_DATE.minusDays(1), AMOUNT));
+        final Order sameDateOrder = orderRepository.save(createOrder(ORDER_DATE, AMOUNT));
+
+        // when
+        final List<OrderView> orders = orderRepository.findFirstPageOfOrderViews(
+                ORDER_DATE.minusYears(1), ORDER_DATE.plusYears(1), PageRequest.of(0, 2));
+
+        // then
+        assertThat(orders).extracting(OrderView::getId).containsExactly(earlierOrder.getId(), order.getId());
+        assertThat(sameDateOrder.getId()).isGreaterThan(order.getId());
+    }
+
+    @Test
+    public void whenFindPageOfOrderViewsAfter_ThenReturnOrdersAfterPosition() {
+        // given
+        final Order sameDateOrder = orderRepository.save(createOrder(ORDER_DATE, AMOUNT));
+        final Order laterOrder = orderRepository.save(createOrder(ORDER_DATE.plusDays(1), AMOUNT));
+        orderRepository.save(createOrder(ORDER_DATE.minusDays(1), AMOUNT));
+
+        // when
+        final List<OrderView> orders = orderRepository.findPageOfOrderViewsAfter(
+                order.getDate(), order.getId(), ORDER_DATE.minusYears(1), ORDER_DATE.plusYears(1),
+                PageRequest.of(0, 10));
+
+        // then
+        assertThat(orders).extracting(OrderView::getId).containsExactly(sameDateOrder.getId(), laterOrder.getId());
+    }
+
     @Test
     public void whenSaveOrder_theReturnCreatedOrder() {
         // when
@@ -73,6 +106,21 @@ public class OrderRepositoryTest {
         assertThat(foundOrder.get().getCustomer()).isEqualTo(order.getCustomer());
     }
 
+    @Test
+    public void whenFindOrderViewById_thenReturnOrderWithCustomerAndAddress() {
+        // when
+        final Optional<OrderView> foundOrder = orderRepository.findOrderViewById(order.getId());
+
+        // then
+        assertThat(foundOrder).isPresent();
+        assertThat(foundOrder.get().getId()).isEqualTo(order.getId());
+        assertThat(foundOrder.get().getDate()).isEqualTo(order.getDate());
+        assertThat(foundOrder.get().getAmount()).isEqualByComparingTo(order.getAmount());
+        assertThat(foundOrder.get().getCustomer().getFirstName()).isEqualTo(FIRST_NAME);
+        assertThat(foundOrder.get().getCustomer().getLastName()).isEqualTo(LAST_NAME);
+        assertThat(foundOrder.get().getCustomer().getStreet()).isEqualTo(customer.getAddress().getStreet());
+    }
+
     @Test
     public void whenExistsById_thenReturnTrue() {
         // when
@@ -90,4 +138,22 @@ public class OrderRepositoryTest {
         // then
         assertThat(orderRepository.existsById(order.getId())).isFalse();
     }
+
+    @Test
+    public void whenFindPageOfOrderViewsInDateRange_ThenReturnOrdersFromInclusiveToExclusive() {
+        // given
+        final Order laterOrder = orderRepository.save(createOrder(ORDER_DATE.plusDays(1), AMOUNT));
+        orderRepository.save(createOrder(ORDER_DATE.plusDays(2), AMOUNT));
+        orderRepository.save(createOrder(ORDER_DATE.minusDays(1), AMOUNT));
+
+        // when
+        final List<OrderView> firstPage = orderRepository.findFirstPageOfOrderViews(
+                ORDER_DATE, ORDER_DATE.plusDays(2), PageRequest.of(0, 10));
+        final List<OrderView> pageAfter = orderRepository.findPageOfOrderViewsAfter(
+                order.getDate(), order.getId(), ORDER_DATE, ORDER_DATE.plusDays(2), PageRequest.of(0, 10));
+
+        // then
+        assertThat(firstPage).extracting(OrderView::getId).containsExactly(order.getId(), laterOrder.getId());
+        assertThat(pageAfter).extracting(OrderView::getId).containsExactly(laterOrder.getId());
+    }
 }
@@ -0,0 +1,119 @@
+package com.github.christianj98.primarycustomerbase.routing;
+
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.DATABASE_BUSY_ERROR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link ConnectionLimitingDataSource}
+ */
+@ExtendWith(MockitoExtension.class)
+public class ConnectionLimitingDataSourceTest {
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+
+    @Test
+    @DisplayName("Closing a connection hands its permit back once, even when closed twice")
+    public void getConnection_closedConnection_permitReleasedOnce() throws SQLException {
+        // given
+        when(dataSource.getConnection()).thenReturn(connection);
+        final ConnectionLimitingDataSource limitingDataSource =
+                new ConnectionLimitingDataSource(dataSource, 2, 0, Duration.ZERO);
+        final Connection limitedConnection = limitingDataSource.getConnection();
+        limitingDataSource.getConnection();
+
+        // when
+        limitedConnection.close();
+        limitedConnection.close();
+
+        // then
+        assertThat(limitingDataSource.getActiveConnections()).isEqualTo(1);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("A request finding no free connection and no free place to wait is refused at once")
+    public void getConnection_noWaitingAllowed_throwsServiceOverloaded() throws SQLException {
+        // given
+        when(dataSource.getConnection()).thenReturn(connection);
+        final ConnectionLimitingDataSource limitingDataSource =
+                new ConnectionLimitingDataSource(dataSource, 1, 0, Duration.ofSeconds(10));
+        limitingDataSource.getConnection();
+
+        // when + then
+        assertThatThrownBy(limitingDataSource::getConnection)
+                .isInstanceOf(ServiceOverloadedException.class)
+                .hasMessage(DATABASE_BUSY_ERROR.getMessage());
+        verify(dataSource).getConnection();
+    }
+
+    @Test
+    @DisplayName("A request waiting longer than the acquire timeout is refused")
+    public void getConnection_acquireTimeoutElapsed_throwsServiceOverloaded() throws SQLException {
+        // given
+        when(dataSource.getConnection()).thenReturn(connection);
+        final ConnectionLimitingDataSource limitingDataSource =
+                new ConnectionLimitingDataSource(dataSource, 1, 1, Duration.ofMillis(10));
+        limitingDataSource.getConnection();
+
+        // when + then
+        assertThatThrownBy(limitingDataSource::getConnection)
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    @Test
+    @DisplayName("A waiting request gets the connection which is closed meanwhile")
+    public void getConnection_connectionClosedWhileWaiting_connectionHandedOut() throws Exception {
+        // given
+        when(dataSource.getConnection()).thenReturn(connection);
+        final ConnectionLimitingDataSource limitingDataSource =
+                new ConnectionLimitingDataSource(dataSource, 1, 1, Duration.ofSeconds(5));
+        final Connection heldConnection = limitingDataSource.getConnection();
+        final CompletableFuture<Connection> waitingRequest = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limitingDataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // when
+        heldConnection.close();
+
+        // then
+        assertThat(waitingRequest.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(limitingDataSource.getActiveConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A failed connection attempt does not keep its permit")
+    public void getConnection_targetFails_permitReleased() throws SQLException {
+        // given
+        when(dataSource.getConnection()).thenThrow(new SQLException("database down"));
+        final ConnectionLimitingDataSource limitingDataSource =
+                new ConnectionLimitingDataSource(dataSource, 1, 0, Duration.ZERO);
+
+        // when + then
+        assertThatThrownBy(limitingDataSource::getConnection).isInstanceOf(SQLException.class);
+        assertThat(limitingDataSource.getActiveConnections()).isZero();
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.christianj98.primarycustomerbase.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.github.christianj98.primarycustomerbase.routing.PrimaryStickinessFilter.STICKY_COOKIE_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link PrimaryStickinessFilter}
+ */
+public class PrimaryStickinessFilterTest {
+    private final PrimaryStickinessFilter primaryStickinessFilter = new PrimaryStickinessFilter(Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("A write sticks the client to the primary")
+    public void doFilter_write_setStickyCookie() throws ServletException, IOException {
+        // given
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/customers");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AtomicBoolean sticky = new AtomicBoolean();
+
+        // when
+        primaryStickinessFilter.doFilter(request, response, recordStickiness(sticky));
+
+        // then
+        assertThat(sticky).isTrue();
+        assertThat(response.getCookie(STICKY_COOKIE_NAME)).isNotNull();
+        assertThat(response.getCookie(STICKY_COOKIE_NAME).getMaxAge()).isEqualTo(5);
+        assertThat(PrimaryStickiness.isSticky()).isFalse();
+    }
+
+    @Test
+    @DisplayName("A read with the sticky cookie uses the primary")
+    public void doFilter_readWithStickyCookie_stickToPrimary() throws ServletException, IOException {
+        // given
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customers");
+        request.setCookies(new Cookie(STICKY_COOKIE_NAME, "1"));
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AtomicBoolean sticky = new AtomicBoolean();
+
+        // when
+        primaryStickinessFilter.doFilter(request, response, recordStickiness(sticky));
+
+        // then
+        assertThat(sticky).isTrue();
+        assertThat(response.getCookie(STICKY_COOKIE_NAME)).isNull();
+    }
+
+    @Test
+    @DisplayName("A read without the sticky cookie may use a replica")
+    public void doFilter_readWithoutStickyCookie_notSticky() throws ServletException, IOException {
+        // given
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customers");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AtomicBoolean sticky = new AtomicBoolean(true);
+
+        // when
+        primaryStickinessFilter.doFilter(request, response, recordStickiness(sticky));
+
+        // then
+        assertThat(sticky).isFalse();
+        assertThat(response.getCookie(STICKY_COOKIE_NAME)).isNull();
+    }
+
+    private FilterChain recordStickiness(final AtomicBoolean sticky) {
+        return (request, response) -> sticky.set(PrimaryStickiness.isSticky());
+    }
+}
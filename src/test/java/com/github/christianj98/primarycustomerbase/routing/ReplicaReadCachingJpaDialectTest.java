@@ -0,0 +1,114 @@
+package com.github.christianj98.primarycustomerbase.routing;
+
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for {@link ReplicaReadCachingJpaDialect}
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReplicaReadCachingJpaDialectTest {
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManager entityManager;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SessionImplementor session;
+
+    private boolean replicasMayBeStale;
+    private ReplicaReadCachingJpaDialect replicaReadCachingJpaDialect;
+
+    @BeforeEach
+    public void init() {
+        replicaReadCachingJpaDialect = new ReplicaReadCachingJpaDialect(() -> replicasMayBeStale);
+        lenient().when(entityManager.unwrap(any())).thenReturn(session);
+        lenient().when(session.getHibernateFlushMode()).thenReturn(FlushMode.AUTO);
+        lenient().when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        lenient().when(session.getJdbcCoordinator().getLogicalConnection().getConnectionHandlingMode())
+                .thenReturn(PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        PrimaryStickiness.clear();
+    }
+
+    @Test
+    @DisplayName("Replica reads right after an eviction do not put entities into the cache until cleanup")
+    public void beginTransaction_readOnlyAfterEviction_cachePutsSkipped() throws SQLException {
+        // given
+        replicasMayBeStale = true;
+
+        // when
+        final Object transactionData = replicaReadCachingJpaDialect.beginTransaction(entityManager, readOnly());
+
+        // then
+        verify(session).setCacheMode(CacheMode.GET);
+
+        // when
+        replicaReadCachingJpaDialect.cleanupTransaction(transactionData);
+
+        // then
+        verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+
+    @Test
+    @DisplayName("Replica reads populate the cache when nothing was evicted recently")
+    public void beginTransaction_readOnlyWithoutEviction_cacheModeKept() throws SQLException {
+        // when
+        replicaReadCachingJpaDialect.beginTransaction(entityManager, readOnly());
+
+        // then
+        verify(session, never()).setCacheMode(any());
+    }
+
+    @Test
+    @DisplayName("Reads on the primary populate the cache right after an eviction")
+    public void beginTransaction_stickyAfterEviction_cacheModeKept() throws SQLException {
+        // given
+        replicasMayBeStale = true;
+        PrimaryStickiness.stick();
+
+        // when
+        replicaReadCachingJpaDialect.beginTransaction(entityManager, readOnly());
+
+        // then
+        verify(session, never()).setCacheMode(any());
+    }
+
+    @Test
+    @DisplayName("Read-write transactions populate the cache right after an eviction")
+    public void beginTransaction_readWriteAfterEviction_cacheModeKept() throws SQLException {
+        // given
+        replicasMayBeStale = true;
+
+        // when
+        replicaReadCachingJpaDialect.beginTransaction(entityManager, new DefaultTransactionDefinition());
+
+        // then
+        verify(session, never()).setCacheMode(any());
+    }
+
+    private static DefaultTransactionDefinition readOnly() {
+        final DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.christianj98.primarycustomerbase.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link ReplicaRoutingDataSource}
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTest {
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource firstReplica;
+    @Mock
+    private DataSource secondReplica;
+    @Mock
+    private Connection connection;
+
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    public void init() {
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        PrimaryStickiness.clear();
+    }
+
+    @Test
+    @DisplayName("Read-write transactions use the primary")
+    public void getConnection_readWriteTransaction_usePrimary() throws SQLException {
+        // given
+        when(primary.getConnection()).thenReturn(connection);
+
+        // when
+        replicaRoutingDataSource.getConnection();
+
+        // then
+        verify(primary).getConnection();
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions are spread over the replicas round-robin")
+    public void getConnection_readOnlyTransaction_useReplicasRoundRobin() throws SQLException {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstReplica.getConnection()).thenReturn(connection);
+        when(secondReplica.getConnection()).thenReturn(connection);
+
+        // when
+        replicaRoutingDataSource.getConnection();
+        replicaRoutingDataSource.getConnection();
+        replicaRoutingDataSource.getConnection();
+
+        // then
+        verify(firstReplica, times(2)).getConnection();
+        verify(secondReplica).getConnection();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions of a sticky client use the primary")
+    public void getConnection_readOnlyTransactionOfStickyClient_usePrimary() throws SQLException {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        PrimaryStickiness.stick();
+        when(primary.getConnection()).thenReturn(connection);
+
+        // when
+        replicaRoutingDataSource.getConnection();
+
+        // then
+        verify(primary).getConnection();
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    @DisplayName("Routing without replicas is rejected")
+    public void create_withoutReplicas_throwsIllegalArgumentException() {
+        // when + then
+        assertThatThrownBy(() -> new ReplicaRoutingDataSource(primary, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
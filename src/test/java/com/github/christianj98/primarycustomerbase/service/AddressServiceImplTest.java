@@ -1,11 +1,17 @@
 package com.github.christianj98.primarycustomerbase.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.github.christianj98.primarycustomerbase.dto.AddressDto;
 import com.github.christianj98.primarycustomerbase.entity.Address;
 import com.github.christianj98.primarycustomerbase.exception.AddressAssignedToTheCustomerException;
+import com.github.christianj98.primarycustomerbase.exception.PreconditionFailedException;
 import com.github.christianj98.primarycustomerbase.exception.ResourceAlreadyExistsException;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
 import com.github.christianj98.primarycustomerbase.mapper.AddressMapperService;
 import com.github.christianj98.primarycustomerbase.repository.AddressRepository;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,20 +23,20 @@ import javax.persistence.EntityNotFoundException;
 import java.util.List;
 import java.util.Optional;
 
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.ADDRESS_ALREADY_EXIST_ERROR;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.CITY;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.STREET;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.createAddress;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.createAddressDto;
-import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
-import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
-import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.createConstraintViolation;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -47,6 +53,18 @@ public class AddressServiceImplTest {
     @Mock
     private AddressMapperService addressMapperService;
 
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CustomerDtoCache customerDtoCache;
+
+    @Mock
+    private EntityChangePublisher entityChangePublisher;
+
+    @Mock
+    private JsonMergePatcher jsonMergePatcher;
+
     private Address address;
 
     private AddressDto addressDto;
@@ -60,8 +78,7 @@ public class AddressServiceImplTest {
     @Test
     public void findAll_UseRepository() {
         // given
-        when(addressRepository.findAll()).thenReturn(List.of(address));
-        when(addressMapperService.mapFrom(anyList())).thenReturn(List.of(addressDto));
+        when(addressRepository.findAllAddressDtos()).thenReturn(List.of(addressDto));
 
         // when
         final List<AddressDto> addressDtos = addressService.findAll();
@@ -69,13 +86,13 @@ public class AddressServiceImplTest {
         // then
         assertThat(addressDtos).extracting(AddressDto::getStreet).containsOnly(address.getStreet());
         assertThat(addressDtos).extracting(AddressDto::getCity).containsOnly(address.getCity());
+        verifyNoInteractions(addressMapperService);
     }
 
     @Test
     public void save_addressCreated() {
         // given
-        when(addressRepository.existsByStreetAndCity(anyString(), anyString())).thenReturn(false);
-        when(addressRepository.save(any())).thenReturn(address);
+        when(addressRepository.saveAndFlush(any())).thenReturn(address);
         when(addressMapperService.mapFrom(any(Address.class))).thenReturn(addressDto);
         when(addressMapperService.mapFrom(any(AddressDto.class))).thenReturn(address);
 
@@ -86,24 +103,28 @@ public class AddressServiceImplTest {
         assertThat(createdAddressDto.getId()).isEqualTo(address.getId());
         assertThat(createdAddressDto.getStreet()).isEqualTo(address.getStreet());
         assertThat(createdAddressDto.getCity()).isEqualTo(address.getCity());
+        verify(entityChangePublisher).publish(EntityType.ADDRESS, address.getId());
     }
 
     @Test
     public void save_addressAlreadyExist() {
         // given
-        when(addressRepository.existsByStreetAndCity(anyString(), anyString())).thenReturn(true);
+        when(addressMapperService.mapFrom(any(AddressDto.class))).thenReturn(address);
+        when(addressRepository.saveAndFlush(any()))
+                .thenThrow(createConstraintViolation(Address.UNIQUE_STREET_CITY_CONSTRAINT));
 
         // when + then
         assertThatThrownBy(() -> addressService.createAddress(addressDto))
                 .isInstanceOf(ResourceAlreadyExistsException.class)
-                .hasMessageContainingAll(STREET, CITY);
+                .hasMessage(String.format(ADDRESS_ALREADY_EXIST_ERROR.getMessage(), STREET, CITY));
+        verify(addressRepository, never()).existsByStreetAndCity(anyString(), anyString());
     }
 
     @Test
     public void findById_returnFoundAddress() {
         // given
         when(addressRepository.findById(anyInt())).thenReturn(Optional.of(address));
-        when(addressMapperService.mapFrom(any(Address.class))).thenReturn(addressDto);
+        when(addressMapperService.mapFrom(address)).thenReturn(addressDto);
 
         // when
         final AddressDto foundAddress = addressService.findById(address.getId());
@@ -133,15 +154,20 @@ public class AddressServiceImplTest {
         final AddressDto addressToUpdate = new AddressDto();
         addressToUpdate.setStreet("Polna");
         addressToUpdate.setCity("Warsaw");
+        final int customerId = 7;
         when(addressRepository.getReferenceById(anyInt())).thenReturn(address);
         when(addressMapperService.mapFrom(any(Address.class))).thenReturn(addressToUpdate);
+        when(customerRepository.findIdByAddressId(id)).thenReturn(Optional.of(customerId));
 
         // when
-        final AddressDto updatedAddress = addressService.update(addressToUpdate, id);
+        final AddressDto updatedAddress = addressService.update(addressToUpdate, id, null);
 
         // then
         assertThat(updatedAddress.getStreet()).isEqualTo(addressToUpdate.getStreet());
         assertThat(updatedAddress.getCity()).isEqualTo(addressToUpdate.getCity());
+        verify(customerDtoCache).invalidateAfterCommit(customerId);
+        verify(entityChangePublisher).publish(EntityType.ADDRESS, id);
+        verify(entityChangePublisher).publish(EntityType.CUSTOMER, customerId);
     }
 
     @Test
@@ -151,7 +177,7 @@ public class AddressServiceImplTest {
         when(addressRepository.getReferenceById(anyInt())).thenThrow(EntityNotFoundException.class);
 
         // when + then
-        assertThatThrownBy(() -> addressService.update(addressDto, id))
+        assertThatThrownBy(() -> addressService.update(addressDto, id, null))
                 .isInstanceOf(EntityNotFoundException.class);
     }
 
@@ -162,7 +188,7 @@ public class AddressServiceImplTest {
         when(addressRepository.findById(anyInt())).thenReturn(Optional.empty());
 
         // when + then
-        assertThatThrownBy(() -> addressService.delete(id))
+        assertThatThrownBy(() -> addressService.delete(id, null))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining(Integer.toString(id));
     }
@@ -171,27 +197,92 @@ public class AddressServiceImplTest {
     public void delete_cannotDeleteAddressBecauseIsAssignedToTheCustomer() {
         // given
         int id = 1;
-        address.setCustomer(createCustomer(FIRST_NAME, LAST_NAME));
         when(addressRepository.findById(anyInt())).thenReturn(Optional.of(address));
+        when(customerRepository.existsByAddressId(id)).thenReturn(true);
 
         // when
-        assertThatThrownBy(() -> addressService.delete(id))
+        assertThatThrownBy(() -> addressService.delete(id, null))
                 .isInstanceOf(AddressAssignedToTheCustomerException.class)
                 .hasMessageContaining("address is assigned to the customer");
 
     }
 
+    @Test
+    public void update_ifMatchDoesNotMatch() {
+        // given
+        int id = 1;
+        address.setVersion(4);
+        when(addressRepository.getReferenceById(anyInt())).thenReturn(address);
+
+        // when + then
+        assertThatThrownBy(() -> addressService.update(addressDto, id, "\"3\""))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("\"4\"");
+        verifyNoInteractions(entityChangePublisher, customerDtoCache);
+    }
+
+    @Test
+    public void delete_ifMatchDoesNotMatch() {
+        // given
+        int id = 1;
+        when(addressRepository.findById(anyInt())).thenReturn(Optional.of(address));
+
+        // when + then
+        assertThatThrownBy(() -> addressService.delete(id, "\"1\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(addressRepository, never()).delete(any());
+    }
+
     @Test
     public void delete_addressDeleted() {
         // given
         int id = 1;
-        address.setCustomer(null);
         when(addressRepository.findById(anyInt())).thenReturn(Optional.of(address));
+        when(customerRepository.existsByAddressId(id)).thenReturn(false);
 
         // when
-        addressService.delete(id);
+        addressService.delete(id, null);
 
         // then
         verify(addressRepository).delete(address);
+        verify(entityChangePublisher).publish(EntityType.ADDRESS, id);
+    }
+
+    @Test
+    public void patch_addressPatched() {
+        // given
+        int id = 1;
+        final JsonNode mergePatch = JsonNodeFactory.instance.objectNode().put("street", "Polna");
+        when(addressRepository.getReferenceById(anyInt())).thenReturn(address);
+        when(addressMapperService.mapFrom(any(Address.class))).thenReturn(addressDto);
+        when(jsonMergePatcher.apply(mergePatch, addressDto, AddressDto.class))
+                .thenReturn(Optional.of(createAddressDto("Polna", CITY)));
+
+        // when
+        addressService.patch(mergePatch, id, null);
+
+        // then
+        assertThat(address.getStreet()).isEqualTo("Polna");
+        assertThat(address.getCity()).isEqualTo(CITY);
+        verify(addressRepository).flush();
+        verify(entityChangePublisher).publish(EntityType.ADDRESS, id);
+    }
+
+    @Test
+    public void patch_nothingChanged() {
+        // given
+        int id = 1;
+        final JsonNode mergePatch = JsonNodeFactory.instance.objectNode().put("street", STREET);
+        when(addressRepository.getReferenceById(anyInt())).thenReturn(address);
+        when(addressMapperService.mapFrom(any(Address.class))).thenReturn(addressDto);
+        when(jsonMergePatcher.apply(mergePatch, addressDto, AddressDto.class)).thenReturn(Optional.empty());
+
+        // when
+        final AddressDto patchedAddress = addressService.patch(mergePatch, id, null);
+
+        // then
+        assertThat(patchedAddress).isSameAs(addressDto);
+        verify(addressRepository, never()).flush();
+        verifyNoInteractions(entityChangePublisher, customerDtoCache, customerRepository);
     }
 }
@@ -0,0 +1,304 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.configuration.CustomerCacheProperties;
+import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangedEvent;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
+import com.github.christianj98.primarycustomerbase.mapper.CustomerMapperService;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.routing.PrimaryStickiness;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link CustomerDtoCache}
+ */
+@ExtendWith(MockitoExtension.class)
+public class CustomerDtoCacheTest {
+    private static final int ID = 1;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CustomerMapperService customerMapperService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private CustomerDtoCache customerDtoCache;
+
+    private Customer customer;
+
+    private CustomerDto customerDto;
+
+    @BeforeEach
+    public void init() {
+        final CustomerCacheProperties customerCacheProperties = new CustomerCacheProperties();
+        customerCacheProperties.setRefreshAfterWrite(Duration.ofMinutes(1));
+        customerCacheProperties.setExpireAfterWrite(Duration.ofMinutes(5));
+        customerDtoCache = new CustomerDtoCache(customerCacheProperties, customerRepository, customerMapperService,
+                transactionManager, nanos::get, new DirectExecutorService());
+        customer = createCustomer(FIRST_NAME, LAST_NAME);
+        customerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("A cached customer is returned without loading it again")
+    public void get_cachedCustomer_loadedOnce() {
+        // given
+        when(customerRepository.findById(ID)).thenReturn(Optional.of(customer));
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto);
+
+        // when
+        customerDtoCache.get(ID);
+        final CustomerDto foundCustomer = customerDtoCache.get(ID);
+
+        // then
+        assertThat(foundCustomer).isEqualTo(customerDto);
+        verify(customerRepository).findById(ID);
+    }
+
+    @Test
+    @DisplayName("A caller modifying the returned customer does not change the cached one")
+    public void get_returnedCustomerModified_cachedCustomerUnchanged() {
+        // given
+        when(customerRepository.findById(ID)).thenReturn(Optional.of(customer));
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto);
+        final CustomerDto firstRead = customerDtoCache.get(ID);
+
+        // when
+        firstRead.setLastName("Nowak");
+        firstRead.getAddressDto().setCity("Gdansk");
+        final CustomerDto secondRead = customerDtoCache.get(ID);
+
+        // then
+        assertThat(secondRead.getLastName()).isEqualTo(LAST_NAME);
+        assertThat(secondRead.getAddressDto().getCity()).isEqualTo(customerDto.getAddressDto().getCity());
+        assertThat(secondRead).isNotSameAs(customerDto);
+    }
+
+    @Test
+    @DisplayName("Concurrent misses for the same id share one load")
+    public void get_concurrentMisses_loadedOnce() throws Exception {
+        // given
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(customerRepository.findById(ID)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.of(customer);
+        });
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto);
+
+        // when
+        final CompletableFuture<CustomerDto> firstRead = CompletableFuture.supplyAsync(() -> customerDtoCache.get(ID));
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        final CompletableFuture<CustomerDto> secondRead = CompletableFuture.supplyAsync(() -> customerDtoCache.get(ID));
+        releaseLoad.countDown();
+
+        // then
+        assertThat(firstRead.get(5, TimeUnit.SECONDS)).isEqualTo(customerDto);
+        assertThat(secondRead.get(5, TimeUnit.SECONDS)).isEqualTo(customerDto);
+        verify(customerRepository).findById(ID);
+    }
+
+    @Test
+    @DisplayName("An unknown id is not cached")
+    public void get_unknownId_throwsEntityNotFoundException() {
+        // given
+        when(customerRepository.findById(ID)).thenReturn(Optional.empty());
+
+        // when + then
+        assertThatThrownBy(() -> customerDtoCache.get(ID))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining(Integer.toString(ID));
+        assertThatThrownBy(() -> customerDtoCache.get(ID))
+                .isInstanceOf(EntityNotFoundException.class);
+        verify(customerRepository, times(2)).findById(ID);
+    }
+
+    @Test
+    @DisplayName("A customer is loaded from the primary")
+    public void get_missingCustomer_loadedFromPrimary() {
+        // given
+        when(customerRepository.findById(ID)).thenAnswer(invocation -> {
+            assertThat(PrimaryStickiness.isSticky()).isTrue();
+            return Optional.of(customer);
+        });
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto);
+
+        // when
+        customerDtoCache.get(ID);
+
+        // then
+        verify(customerRepository).findById(ID);
+        assertThat(PrimaryStickiness.isSticky()).isFalse();
+    }
+
+    @Test
+    @DisplayName("A customer read after the refresh time is reloaded while the cached one is returned")
+    public void get_afterRefreshTime_reloadsCustomer() {
+        // given
+        final CustomerDto refreshedCustomerDto = createCustomerDto(FIRST_NAME, "Nowak");
+        when(customerRepository.findById(ID)).thenReturn(Optional.of(customer));
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto, refreshedCustomerDto);
+        customerDtoCache.get(ID);
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        // when
+        final CustomerDto staleCustomer = customerDtoCache.get(ID);
+        final CustomerDto refreshedCustomer = customerDtoCache.get(ID);
+
+        // then
+        assertThat(staleCustomer).isEqualTo(customerDto);
+        assertThat(refreshedCustomer).isEqualTo(refreshedCustomerDto);
+        verify(customerRepository, times(2)).findById(ID);
+    }
+
+    @Test
+    @DisplayName("A customer older than the expiry time is loaded again")
+    public void get_afterExpiry_loadsCustomerAgain() {
+        // given
+        final CustomerDto reloadedCustomerDto = createCustomerDto(FIRST_NAME, "Nowak");
+        when(customerRepository.findById(ID)).thenReturn(Optional.of(customer));
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto, reloadedCustomerDto);
+        customerDtoCache.get(ID);
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        // when
+        final CustomerDto foundCustomer = customerDtoCache.get(ID);
+
+        // then
+        assertThat(foundCustomer).isEqualTo(reloadedCustomerDto);
+    }
+
+    @Test
+    @DisplayName("A customer changed in a transaction is dropped once the transaction commits")
+    public void invalidateAfterCommit_inTransaction_dropsCustomerAfterCommit() {
+        // given
+        when(customerRepository.findById(ID)).thenReturn(Optional.of(customer));
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto);
+        customerDtoCache.get(ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        customerDtoCache.invalidateAfterCommit(ID);
+        customerDtoCache.get(ID);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        customerDtoCache.get(ID);
+
+        // then
+        verify(customerRepository, times(2)).findById(ID);
+    }
+
+    @Test
+    @DisplayName("A customer changed outside of a transaction is dropped right away")
+    public void invalidateAfterCommit_withoutTransaction_dropsCustomer() {
+        // given
+        when(customerRepository.findById(ID)).thenReturn(Optional.of(customer));
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto);
+        customerDtoCache.get(ID);
+
+        // when
+        customerDtoCache.invalidateAfterCommit(ID);
+        customerDtoCache.get(ID);
+
+        // then
+        verify(customerRepository, times(2)).findById(ID);
+    }
+
+    @Test
+    @DisplayName("A customer changed on any node is dropped when the change is announced")
+    public void onEntityChanged_customer_dropsCustomer() {
+        // given
+        when(customerRepository.findById(ID)).thenReturn(Optional.of(customer));
+        when(customerMapperService.mapFrom(customer)).thenReturn(customerDto);
+        customerDtoCache.get(ID);
+
+        // when
+        customerDtoCache.onEntityChanged(EntityChangedEvent.of(EntityType.ORDER, ID));
+        customerDtoCache.get(ID);
+        customerDtoCache.onEntityChanged(EntityChangedEvent.of(EntityType.CUSTOMER, ID));
+        customerDtoCache.get(ID);
+
+        // then
+        verify(customerRepository, times(2)).findById(ID);
+    }
+
+    /**
+     * Runs reloads on the calling thread, so they are done once a read returns
+     */
+    private static class DirectExecutorService extends AbstractExecutorService {
+        private boolean shutdown;
+
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return true;
+        }
+    }
+}
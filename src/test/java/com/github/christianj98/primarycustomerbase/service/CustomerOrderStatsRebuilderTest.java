@@ -0,0 +1,116 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderStatsProperties;
+import com.github.christianj98.primarycustomerbase.repository.CustomerOrderStatsRepository;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link CustomerOrderStatsRebuilder}
+ */
+@ExtendWith(MockitoExtension.class)
+public class CustomerOrderStatsRebuilderTest {
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CustomerOrderStatsRepository customerOrderStatsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CustomerOrderStatsRebuilder customerOrderStatsRebuilder;
+
+    @BeforeEach
+    public void init() {
+        final OrderStatsProperties orderStatsProperties = new OrderStatsProperties();
+        orderStatsProperties.setChunkSize(10);
+        orderStatsProperties.setThreads(2);
+        customerOrderStatsRebuilder = new CustomerOrderStatsRebuilder(customerRepository,
+                customerOrderStatsRepository, new TransactionTemplate(transactionManager), orderStatsProperties);
+    }
+
+    @Test
+    @DisplayName("Customer ids are rebuilt in chunks aligned to the lock ranges, each chunk in a transaction of its own")
+    public void rebuild_splitsCustomerIdsIntoChunks() {
+        // given
+        when(customerRepository.findMinId()).thenReturn(Optional.of(1));
+        when(customerRepository.findMaxId()).thenReturn(Optional.of(25));
+        when(customerOrderStatsRepository.rebuild(anyInt(), anyInt())).thenReturn(4);
+
+        // when
+        final int customers = customerOrderStatsRebuilder.rebuild();
+
+        // then
+        assertThat(customers).isEqualTo(12);
+        verify(customerOrderStatsRepository).rebuild(1, 10);
+        verify(customerOrderStatsRepository).rebuild(10, 20);
+        verify(customerOrderStatsRepository).rebuild(20, 26);
+        verify(transactionManager, times(3)).commit(null);
+    }
+
+    @Test
+    @DisplayName("Nothing is rebuilt without customers")
+    public void rebuild_noCustomers() {
+        // given
+        when(customerRepository.findMinId()).thenReturn(Optional.empty());
+        when(customerRepository.findMaxId()).thenReturn(Optional.empty());
+
+        // when
+        final int customers = customerOrderStatsRebuilder.rebuild();
+
+        // then
+        assertThat(customers).isZero();
+        verifyNoInteractions(customerOrderStatsRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("A failed chunk fails the rebuild")
+    public void rebuild_chunkFailed_throwsIllegalState() {
+        // given
+        when(customerRepository.findMinId()).thenReturn(Optional.of(1));
+        when(customerRepository.findMaxId()).thenReturn(Optional.of(5));
+        when(customerOrderStatsRepository.rebuild(1, 6)).thenThrow(new IllegalArgumentException("broken"));
+
+        // when + then
+        assertThatThrownBy(() -> customerOrderStatsRebuilder.rebuild())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Rebuilding order stats failed")
+                .hasRootCauseMessage("broken");
+    }
+
+    @Test
+    @DisplayName("The rebuild runs on startup only when requested by the argument")
+    public void run_rebuildsOnlyWithOption() {
+        // when
+        customerOrderStatsRebuilder.run(new DefaultApplicationArguments("--server.port=0"));
+
+        // then
+        verifyNoInteractions(customerRepository, customerOrderStatsRepository);
+
+        // when
+        customerOrderStatsRebuilder.run(
+                new DefaultApplicationArguments("--" + CustomerOrderStatsRebuilder.REBUILD_OPTION));
+
+        // then
+        verify(customerRepository).findMinId();
+    }
+}
@@ -1,12 +1,20 @@
 package com.github.christianj98.primarycustomerbase.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.github.christianj98.primarycustomerbase.dto.AddressDto;
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
 import com.github.christianj98.primarycustomerbase.entity.Address;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.exception.PreconditionFailedException;
 import com.github.christianj98.primarycustomerbase.exception.ResourceAlreadyExistsException;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
 import com.github.christianj98.primarycustomerbase.mapper.AddressMapperService;
 import com.github.christianj98.primarycustomerbase.mapper.CustomerMapperService;
+import com.github.christianj98.primarycustomerbase.projection.CustomerName;
+import com.github.christianj98.primarycustomerbase.projection.CustomerView;
 import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,13 +23,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CUSTOMER_ALREADY_EXIST_ERROR;
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.CUSTOMER_BATCH_CONFLICT_ERROR;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.CITY;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.STREET;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.createAddress;
@@ -29,10 +43,15 @@ import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtil
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerView;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.createConstraintViolation;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -50,6 +69,18 @@ public class CustomerServiceImplTest {
     @Mock
     private AddressMapperService addressMapperService;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CustomerDtoCache customerDtoCache;
+
+    @Mock
+    private EntityChangePublisher entityChangePublisher;
+
+    @Mock
+    private JsonMergePatcher jsonMergePatcher;
+
     private CustomerDto customerDto;
 
     private Customer customer;
@@ -67,7 +98,10 @@ public class CustomerServiceImplTest {
     @DisplayName("check if exception will be thrown when customer exist")
     public void save_existingCustomerDto_ThrowsResourceAlreadyExistsException() {
         // given
-        when(customerRepository.existsByFirstNameAndLastName(any(), any())).thenReturn(true);
+        when(customerMapperService.mapFrom(any(CustomerDto.class))).thenReturn(customer);
+        when(addressMapperService.mapFrom(any(AddressDto.class))).thenReturn(address);
+        when(customerRepository.saveAndFlush(any()))
+                .thenThrow(createConstraintViolation(Customer.UNIQUE_NAME_CONSTRAINT));
 
         // when + then
         assertThatThrownBy(() -> customerService.save(customerDto))
@@ -77,14 +111,41 @@ public class CustomerServiceImplTest {
                         customerDto.getLastName()));
     }
 
+    @Test
+    @DisplayName("check if exception will be thrown when address of the customer exist")
+    public void save_existingAddress_ThrowsResourceAlreadyExistsException() {
+        // given
+        when(customerMapperService.mapFrom(any(CustomerDto.class))).thenReturn(customer);
+        when(addressMapperService.mapFrom(any(AddressDto.class))).thenReturn(address);
+        when(customerRepository.saveAndFlush(any()))
+                .thenThrow(createConstraintViolation(Address.UNIQUE_STREET_CITY_CONSTRAINT.toUpperCase()));
+
+        // when + then
+        assertThatThrownBy(() -> customerService.save(customerDto))
+                .isInstanceOf(ResourceAlreadyExistsException.class)
+                .hasMessageContainingAll(FIRST_NAME, LAST_NAME, STREET, CITY);
+    }
+
+    @Test
+    @DisplayName("check if other integrity violations are not reported as conflicts")
+    public void save_otherIntegrityViolation_RethrowsDataIntegrityViolationException() {
+        // given
+        when(customerMapperService.mapFrom(any(CustomerDto.class))).thenReturn(customer);
+        when(addressMapperService.mapFrom(any(AddressDto.class))).thenReturn(address);
+        when(customerRepository.saveAndFlush(any())).thenThrow(createConstraintViolation("fk_customers_address"));
+
+        // when + then
+        assertThatThrownBy(() -> customerService.save(customerDto))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
     @Test
     @DisplayName("Try to save Customer")
     public void save_validCustomerDto_ReturnsCreatedCustomer() {
         // given
-        when(customerRepository.existsByFirstNameAndLastName(any(), any())).thenReturn(false);
         when(customerMapperService.mapFrom(any(CustomerDto.class))).thenReturn(customer);
         when(addressMapperService.mapFrom(any(AddressDto.class))).thenReturn(address);
-        when(customerRepository.save(any())).thenReturn(customer);
+        when(customerRepository.saveAndFlush(any())).thenReturn(customer);
 
         // when
         final Customer createdCustomer = customerService.save(customerDto);
@@ -94,23 +155,113 @@ public class CustomerServiceImplTest {
         assertThat(createdCustomer.getLastName()).isEqualTo(customerDto.getLastName());
         assertThat(createdCustomer.getAddress().getStreet()).isEqualTo(customerDto.getAddressDto().getStreet());
         assertThat(createdCustomer.getAddress().getCity()).isEqualTo(customerDto.getAddressDto().getCity());
-        verify(customerRepository).existsByFirstNameAndLastName(FIRST_NAME, LAST_NAME);
         verify(customerMapperService).mapFrom(customerDto);
-        verify(customerRepository).save(customer);
+        verify(customerRepository).saveAndFlush(customer);
+        verify(customerRepository, never()).existsByFirstNameAndLastName(any(), any());
+        verify(entityChangePublisher).publish(EntityType.CUSTOMER, customer.getId());
+        verify(entityChangePublisher).publish(EntityType.ADDRESS, customer.getAddress().getId());
+    }
+
+    @Test
+    @DisplayName("Save all customers with a single duplicate check")
+    public void saveAll_validCustomerDtos_ReturnsCreatedCustomers() {
+        // given
+        final CustomerDto otherCustomerDto = createCustomerDto("Anna", "Nowak");
+        when(customerRepository.findNamesByLastNameIn(any())).thenReturn(List.of());
+        when(customerMapperService.mapFrom(any(CustomerDto.class))).thenReturn(customer);
+        when(addressMapperService.mapFrom(any(AddressDto.class))).thenReturn(address);
+        when(customerRepository.saveAllAndFlush(anyList())).thenReturn(List.of(customer, customer));
+
+        // when
+        final List<Customer> createdCustomers = customerService.saveAll(List.of(customerDto, otherCustomerDto));
+
+        // then
+        assertThat(createdCustomers).hasSize(2);
+        verify(customerRepository).findNamesByLastNameIn(Set.of(LAST_NAME, "Nowak"));
+        verify(customerRepository).saveAllAndFlush(List.of(customer, customer));
+        verify(customerRepository, never()).existsByFirstNameAndLastName(any(), any());
+        verify(entityChangePublisher).publish(EntityType.CUSTOMER, List.of(customer.getId(), customer.getId()));
+        verify(entityChangePublisher).publish(EntityType.ADDRESS,
+                List.of(customer.getAddress().getId(), customer.getAddress().getId()));
+    }
+
+    @Test
+    @DisplayName("Try to save all customers when one of them already exists")
+    public void saveAll_existingCustomerDto_ThrowsResourceAlreadyExistsException() {
+        // given
+        when(customerRepository.findNamesByLastNameIn(any()))
+                .thenReturn(List.of(new CustomerName(FIRST_NAME, LAST_NAME)));
+
+        // when + then
+        assertThatThrownBy(() -> customerService.saveAll(List.of(customerDto)))
+                .isInstanceOf(ResourceAlreadyExistsException.class)
+                .hasMessage(String.format(CUSTOMER_ALREADY_EXIST_ERROR.getMessage(), FIRST_NAME, LAST_NAME));
+        verify(customerRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @DisplayName("Try to save all customers when the batch repeats a customer")
+    public void saveAll_repeatedCustomerDto_ThrowsResourceAlreadyExistsException() {
+        // given
+        when(customerRepository.findNamesByLastNameIn(any())).thenReturn(List.of());
+        when(customerMapperService.mapFrom(any(CustomerDto.class))).thenReturn(customer);
+        when(addressMapperService.mapFrom(any(AddressDto.class))).thenReturn(address);
+
+        final CustomerDto repeatedCustomerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
+
+        // when + then
+        assertThatThrownBy(() -> customerService.saveAll(List.of(customerDto, repeatedCustomerDto)))
+                .isInstanceOf(ResourceAlreadyExistsException.class)
+                .hasMessage(String.format(CUSTOMER_ALREADY_EXIST_ERROR.getMessage(), FIRST_NAME, LAST_NAME));
+        verify(customerRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @DisplayName("Try to save all customers when a concurrent create inserted one of them first")
+    public void saveAll_concurrentlyCreatedCustomer_ThrowsResourceAlreadyExistsException() {
+        // given
+        when(customerRepository.findNamesByLastNameIn(any())).thenReturn(List.of());
+        when(customerMapperService.mapFrom(any(CustomerDto.class))).thenReturn(customer);
+        when(addressMapperService.mapFrom(any(AddressDto.class))).thenReturn(address);
+        when(customerRepository.saveAllAndFlush(anyList()))
+                .thenThrow(createConstraintViolation(Customer.UNIQUE_NAME_CONSTRAINT));
+
+        // when + then
+        assertThatThrownBy(() -> customerService.saveAll(List.of(customerDto)))
+                .isInstanceOf(ResourceAlreadyExistsException.class)
+                .hasMessage(CUSTOMER_BATCH_CONFLICT_ERROR.getMessage());
     }
 
     @Test
     @DisplayName("Find all customers from the table")
     public void findAll_UseRepository() {
         // given
-        when(customerRepository.findAll()).thenReturn(Collections.singletonList(customer));
+        final CustomerView customerView = createCustomerView(FIRST_NAME, LAST_NAME);
+        when(customerRepository.findAllCustomerViews()).thenReturn(Collections.singletonList(customerView));
+        when(customerMapperService.mapFromViews(List.of(customerView))).thenReturn(List.of(customerDto));
+
+        // when
+        final List<CustomerDto> customers = customerService.findAll();
+
+        // then
+        assertThat(customers).containsOnly(customerDto);
+        verify(customerRepository).findAllCustomerViews();
+    }
+
+    @Test
+    @DisplayName("Export all customers and detach each of them")
+    public void exportAll_mapsAndDetachesEveryCustomer() {
+        // given
+        final List<CustomerDto> exportedCustomers = new ArrayList<>();
+        when(customerRepository.streamAll()).thenReturn(Stream.of(customer));
+        when(customerMapperService.mapFrom(any(Customer.class))).thenReturn(customerDto);
 
         // when
-        final List<Customer> customers = customerService.findAll();
+        customerService.exportAll(exportedCustomers::add);
 
         // then
-        assertThat(customers).containsOnly(customer);
-        verify(customerRepository).findAll();
+        assertThat(exportedCustomers).containsExactly(customerDto);
+        verify(entityManager).detach(customer);
     }
 
     @Test
@@ -119,8 +270,7 @@ public class CustomerServiceImplTest {
         // given
         int id = 1;
 
-        when(customerRepository.findById(id)).thenReturn(Optional.of(customer));
-        when(customerMapperService.mapFrom(any(Customer.class))).thenReturn(customerDto);
+        when(customerDtoCache.get(id)).thenReturn(customerDto);
 
         // when
         final CustomerDto foundCustomerDto = customerService.findById(id);
@@ -128,6 +278,7 @@ public class CustomerServiceImplTest {
         // then
         assertThat(foundCustomerDto.getFirstName()).isEqualTo(FIRST_NAME);
         assertThat(foundCustomerDto.getLastName()).isEqualTo(LAST_NAME);
+        verifyNoInteractions(customerRepository);
     }
 
     @Test
@@ -136,7 +287,8 @@ public class CustomerServiceImplTest {
         // given
         int id = 2137;
 
-        when(customerRepository.findById(id)).thenReturn(Optional.empty());
+        when(customerDtoCache.get(id)).thenThrow(
+                new EntityNotFoundException(String.format("Customer not found with given id: %s", id)));
 
         // when + then
         assertThatThrownBy(() -> customerService.findById(id))
@@ -153,7 +305,7 @@ public class CustomerServiceImplTest {
         when(customerRepository.getReferenceById(id)).thenThrow(EntityNotFoundException.class);
 
         // when + then
-        assertThatThrownBy(() -> customerService.update(customerDto, id))
+        assertThatThrownBy(() -> customerService.update(customerDto, id, null))
                 .isInstanceOf(EntityNotFoundException.class);
     }
 
@@ -169,13 +321,53 @@ public class CustomerServiceImplTest {
         when(customerMapperService.mapFrom(any(Customer.class))).thenReturn(customerDto);
 
         // when
-        final CustomerDto updatedCustomerDto = customerService.update(customerDto, id);
+        final CustomerDto updatedCustomerDto = customerService.update(customerDto, id, null);
 
         // then
         assertThat(updatedCustomerDto.getFirstName()).isEqualTo(customerDto.getFirstName());
         assertThat(updatedCustomerDto.getLastName()).isEqualTo(customerDto.getLastName());
         assertThat(updatedCustomerDto.getAddressDto().getStreet()).isEqualTo(customerDto.getAddressDto().getStreet());
         assertThat(updatedCustomerDto.getAddressDto().getCity()).isEqualTo(customerDto.getAddressDto().getCity());
+        verify(customerDtoCache).invalidateAfterCommit(id);
+        verify(entityChangePublisher).publish(EntityType.CUSTOMER, id);
+        verify(entityChangePublisher).publish(EntityType.ADDRESS, customer.getAddress().getId());
+    }
+
+    @Test
+    @DisplayName("Update one customer but If-Match does not list the current entity tag")
+    public void update_ifMatchDoesNotMatch() {
+        // given
+        int id = 1;
+        customer.setVersion(2);
+        customer.getAddress().setVersion(5);
+
+        when(customerRepository.getReferenceById(id)).thenReturn(customer);
+
+        // when + then
+        assertThatThrownBy(() -> customerService.update(customerDto, id, "W/\"2-5\", \"2-4\""))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("\"2-5\"");
+        verify(customerRepository, never()).flush();
+        verifyNoInteractions(customerDtoCache, entityChangePublisher);
+    }
+
+    @Test
+    @DisplayName("Update one customer when If-Match lists the current entity tag")
+    public void update_ifMatchMatches() {
+        // given
+        int id = 1;
+        customer.setVersion(2);
+        customer.getAddress().setVersion(5);
+
+        when(customerRepository.getReferenceById(id)).thenReturn(customer);
+        when(customerMapperService.mapFrom(any(Customer.class))).thenReturn(customerDto);
+
+        // when
+        customerService.update(customerDto, id, "\"2-5\"");
+
+        // then
+        verify(customerRepository).flush();
+        verify(customerDtoCache).invalidateAfterCommit(id);
     }
 
     @Test
@@ -184,13 +376,16 @@ public class CustomerServiceImplTest {
         // given
         int id = 1;
 
-        when(customerRepository.existsById(id)).thenReturn(true);
+        when(customerRepository.findById(id)).thenReturn(Optional.of(customer));
 
         // when
-        customerService.delete(id);
+        customerService.delete(id, null);
 
         // then
-        verify(customerRepository).deleteById(id);
+        verify(customerRepository).delete(customer);
+        verify(customerDtoCache).invalidateAfterCommit(id);
+        verify(entityChangePublisher).publish(EntityType.CUSTOMER, id);
+        verify(entityChangePublisher).publish(EntityType.ADDRESS, customer.getAddress().getId());
     }
 
     @Test
@@ -199,11 +394,97 @@ public class CustomerServiceImplTest {
         // given
         int id = 1;
 
-        when(customerRepository.existsById(id)).thenReturn(false);
+        when(customerRepository.findById(id)).thenReturn(Optional.empty());
 
         // when + then
-        assertThatThrownBy(() -> customerService.delete(id))
+        assertThatThrownBy(() -> customerService.delete(id, null))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining(Integer.toString(id));
     }
+
+    @Test
+    @DisplayName("Delete one customer with any entity tag")
+    public void delete_ifMatchAny() {
+        // given
+        int id = 1;
+
+        when(customerRepository.findById(id)).thenReturn(Optional.of(customer));
+
+        // when
+        customerService.delete(id, "*");
+
+        // then
+        verify(customerRepository).delete(customer);
+    }
+
+    @Test
+    @DisplayName("Patch one customer, the patched representation is applied to the entity")
+    public void patch_customerPatched() {
+        // given
+        final int id = 1;
+        final JsonNode mergePatch = JsonNodeFactory.instance.objectNode().put("lastName", "Nowak");
+        final CustomerDto patchedCustomer = createCustomerDto(FIRST_NAME, "Nowak");
+        when(customerRepository.getReferenceById(id)).thenReturn(customer);
+        when(customerMapperService.mapFrom(any(Customer.class))).thenReturn(customerDto);
+        when(jsonMergePatcher.apply(mergePatch, customerDto, CustomerDto.class))
+                .thenReturn(Optional.of(patchedCustomer));
+
+        // when
+        customerService.patch(mergePatch, id, null);
+
+        // then
+        assertThat(customer.getLastName()).isEqualTo("Nowak");
+        verify(customerRepository).flush();
+        verify(customerDtoCache).invalidateAfterCommit(id);
+        verify(entityChangePublisher).publish(EntityType.CUSTOMER, id);
+    }
+
+    @Test
+    @DisplayName("Patch which changes nothing neither flushes nor announces a change")
+    public void patch_nothingChanged() {
+        // given
+        final int id = 1;
+        final JsonNode mergePatch = JsonNodeFactory.instance.objectNode().put("lastName", LAST_NAME);
+        when(customerRepository.getReferenceById(id)).thenReturn(customer);
+        when(customerMapperService.mapFrom(any(Customer.class))).thenReturn(customerDto);
+        when(jsonMergePatcher.apply(mergePatch, customerDto, CustomerDto.class)).thenReturn(Optional.empty());
+
+        // when
+        final CustomerDto patchedCustomer = customerService.patch(mergePatch, id, null);
+
+        // then
+        assertThat(patchedCustomer).isSameAs(customerDto);
+        verify(customerRepository, never()).flush();
+        verifyNoInteractions(customerDtoCache, entityChangePublisher);
+    }
+
+    @Test
+    @DisplayName("Patch one customer but If-Match does not list the current entity tag")
+    public void patch_ifMatchDoesNotMatch() {
+        // given
+        final int id = 1;
+        when(customerRepository.getReferenceById(id)).thenReturn(customer);
+
+        // when + then
+        assertThatThrownBy(() -> customerService.patch(JsonNodeFactory.instance.objectNode(), id, "\"1-1\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        verifyNoInteractions(jsonMergePatcher, customerDtoCache, entityChangePublisher);
+    }
+
+    @Test
+    @DisplayName("Find customers by ids with one padded IN query, in request order")
+    public void findAllById_paddedQuery_entriesInRequestOrder() {
+        // given
+        final CustomerView customerView = createCustomerView(FIRST_NAME, LAST_NAME);
+        when(customerRepository.findCustomerViewsByIdIn(anyList())).thenReturn(List.of(customerView));
+        when(customerMapperService.mapFrom(customerView)).thenReturn(customerDto);
+
+        // when
+        final List<MultiGetEntryDto<CustomerDto>> customers = customerService.findAllById(List.of(5, 1));
+
+        // then
+        assertThat(customers).containsExactly(MultiGetEntryDto.missing(5), MultiGetEntryDto.found(1, customerDto));
+        verify(customerRepository).findCustomerViewsByIdIn(MultiGet.pad(List.of(5, 1)));
+        verifyNoInteractions(customerDtoCache);
+    }
 }
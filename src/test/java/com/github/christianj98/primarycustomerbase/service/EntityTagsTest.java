@@ -0,0 +1,89 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.exception.PreconditionFailedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link EntityTags}
+ */
+public class EntityTagsTest {
+    @Test
+    @DisplayName("Tag of an order joins the versions of the order, its customer and the customer's address")
+    public void of_orderDto_joinsAllVersions() {
+        // given
+        final OrderDto orderDto = createOrderDto(ORDER_DATE, AMOUNT);
+        orderDto.setVersion(1);
+        orderDto.getCustomerDto().setVersion(2);
+        orderDto.getCustomerDto().getAddressDto().setVersion(3);
+
+        // when + then
+        assertThat(EntityTags.of(orderDto)).isEqualTo("\"1-2-3\"");
+    }
+
+    @Test
+    @DisplayName("Tag of a customer joins the versions of the customer and its address")
+    public void of_customer_joinsCustomerAndAddressVersions() {
+        // given
+        final Customer customer = createCustomer(FIRST_NAME, LAST_NAME);
+        customer.setVersion(4);
+        customer.getAddress().setVersion(5);
+
+        // when + then
+        assertThat(EntityTags.of(customer)).isEqualTo("\"4-5\"");
+    }
+
+    @Test
+    @DisplayName("Tag of a customer without an address counts the address as version 0")
+    public void of_customerWithoutAddress_addressVersionZero() {
+        // given
+        final Customer customer = createCustomer(FIRST_NAME, LAST_NAME);
+        customer.setVersion(4);
+        customer.setAddress(null);
+        final CustomerDto customerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
+        customerDto.setVersion(4);
+        customerDto.setAddressDto(null);
+
+        // when + then
+        assertThat(EntityTags.of(customer)).isEqualTo("\"4-0\"");
+        assertThat(EntityTags.of(customerDto)).isEqualTo("\"4-0\"");
+    }
+
+    @Test
+    @DisplayName("Missing If-Match, any tag and a list containing the current tag let the write through")
+    public void checkIfMatch_matchingHeaders_doNotThrow() {
+        assertThatCode(() -> EntityTags.checkIfMatch(null, 1, "\"4-5\"")).doesNotThrowAnyException();
+        assertThatCode(() -> EntityTags.checkIfMatch("*", 1, "\"4-5\"")).doesNotThrowAnyException();
+        assertThatCode(() -> EntityTags.checkIfMatch("\"1-1\", \"4-5\"", 1, "\"4-5\"")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Weak tags never match, If-Match uses the strong comparison")
+    public void checkIfMatch_weakTag_throws() {
+        assertThatThrownBy(() -> EntityTags.checkIfMatch("W/\"4-5\"", 1, "\"4-5\""))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("\"4-5\"");
+    }
+
+    @Test
+    @DisplayName("Stale tag is rejected")
+    public void checkIfMatch_staleTag_throws() {
+        assertThatThrownBy(() -> EntityTags.checkIfMatch("\"3-5\"", 7, "\"4-5\""))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("7");
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderUpdateDto;
+import com.github.christianj98.primarycustomerbase.exception.InvalidPatchException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.CITY;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomerDto;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link JsonMergePatcher}
+ */
+public class JsonMergePatcherTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final JsonMergePatcher jsonMergePatcher =
+            new JsonMergePatcher(objectMapper, Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Test
+    @DisplayName("Members of the patch replace the members of the value, nested objects are merged")
+    public void apply_changedMembers_patchedCopy() throws JsonProcessingException {
+        // given
+        final CustomerDto customerDto = createCustomerDto(FIRST_NAME, LAST_NAME);
+        final JsonNode mergePatch =
+                objectMapper.readTree("{\"lastName\":\"Nowak\",\"addressDto\":{\"street\":\"Polna\"}}");
+
+        // when
+        final Optional<CustomerDto> patchedCustomer =
+                jsonMergePatcher.apply(mergePatch, customerDto, CustomerDto.class);
+
+        // then
+        assertThat(patchedCustomer).hasValueSatisfying(patched -> {
+            assertThat(patched.getFirstName()).isEqualTo(FIRST_NAME);
+            assertThat(patched.getLastName()).isEqualTo("Nowak");
+            assertThat(patched.getAddressDto().getStreet()).isEqualTo("Polna");
+            assertThat(patched.getAddressDto().getCity()).isEqualTo(CITY);
+        });
+        assertThat(customerDto.getLastName()).isEqualTo(LAST_NAME);
+    }
+
+    @Test
+    @DisplayName("A patch repeating the current values changes nothing")
+    public void apply_sameValues_empty() throws JsonProcessingException {
+        // given
+        final OrderUpdateDto orderUpdateDto = new OrderUpdateDto();
+        orderUpdateDto.setDate(ORDER_DATE);
+        orderUpdateDto.setAmount(AMOUNT);
+
+        // when + then
+        assertThat(jsonMergePatcher.apply(objectMapper.readTree("{\"amount\":999.990}"),
+                orderUpdateDto, OrderUpdateDto.class)).isEmpty();
+        assertThat(jsonMergePatcher.apply(objectMapper.readTree("{}"), orderUpdateDto, OrderUpdateDto.class))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Null removes a member, the patched value is validated")
+    public void apply_removedRequiredMember_throwsConstraintViolation() throws JsonProcessingException {
+        // given
+        final OrderUpdateDto orderUpdateDto = new OrderUpdateDto();
+        orderUpdateDto.setDate(ORDER_DATE);
+        orderUpdateDto.setAmount(AMOUNT);
+
+        // when + then
+        assertThatThrownBy(() -> jsonMergePatcher.apply(objectMapper.readTree("{\"amount\":null}"),
+                orderUpdateDto, OrderUpdateDto.class))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining("amount");
+    }
+
+    @Test
+    @DisplayName("A member of the wrong type cannot be applied")
+    public void apply_wrongType_throwsInvalidPatch() throws JsonProcessingException {
+        // given
+        final OrderUpdateDto orderUpdateDto = new OrderUpdateDto();
+        orderUpdateDto.setDate(ORDER_DATE);
+        orderUpdateDto.setAmount(BigDecimal.TEN);
+
+        // when + then
+        assertThatThrownBy(() -> jsonMergePatcher.apply(objectMapper.readTree("{\"amount\":\"ten\"}"),
+                orderUpdateDto, OrderUpdateDto.class))
+                .isInstanceOf(InvalidPatchException.class)
+                .hasMessageStartingWith("Patch cannot be applied");
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link MultiGet}
+ */
+public class MultiGetTest {
+    @Test
+    @DisplayName("Ids are deduplicated and padded with the last one to the next fixed length")
+    public void pad_distinctIdsPaddedToFixedLength() {
+        // when
+        final List<Integer> paddedIds = MultiGet.pad(List.of(3, 1, 3, 2));
+
+        // then
+        assertThat(paddedIds).hasSize(MultiGet.PADDED_SIZES[0]).startsWith(3, 1, 2);
+        assertThat(paddedIds.subList(3, paddedIds.size())).containsOnly(2);
+    }
+
+    @Test
+    @DisplayName("Every id count up to the maximum ends up at one of the fixed lengths")
+    public void pad_anyIdCount_fixedLength() {
+        // when
+        final List<Integer> paddedSizes = IntStream.rangeClosed(1, MultiGet.MAX_IDS)
+                .mapToObj(count -> MultiGet.pad(IntStream.rangeClosed(1, count).boxed().collect(Collectors.toList())))
+                .map(List::size)
+                .distinct()
+                .collect(Collectors.toList());
+
+        // then
+        assertThat(paddedSizes).containsExactly(IntStream.of(MultiGet.PADDED_SIZES).boxed().toArray(Integer[]::new));
+    }
+
+    @Test
+    @DisplayName("Entries follow the request order, repeat repeated ids and mark missing ones")
+    public void inRequestOrder_entriesInRequestOrder() {
+        // when
+        final List<MultiGetEntryDto<String>> entries =
+                MultiGet.inRequestOrder(List.of(2, 5, 1, 2), Map.of(1, "first", 2, "second"));
+
+        // then
+        assertThat(entries).containsExactly(MultiGetEntryDto.found(2, "second"),
+                MultiGetEntryDto.missing(5),
+                MultiGetEntryDto.found(1, "first"),
+                MultiGetEntryDto.found(2, "second"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.exception.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ID;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link OrderCursor}
+ */
+public class OrderCursorTest {
+    @Test
+    @DisplayName("Encoded cursor is decoded to the same position")
+    public void decode_returnsEncodedPosition() {
+        // given
+        final OrderCursor cursor = new OrderCursor(ORDER_DATE.withNano(123_000_000), ID);
+
+        // when
+        final OrderCursor decodedCursor = OrderCursor.decode(cursor.encode());
+
+        // then
+        assertThat(decodedCursor).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Encoded cursor is safe to use as query parameter")
+    public void encode_returnsUrlSafeValue() {
+        // when
+        final String cursor = new OrderCursor(ORDER_DATE, ID).encode();
+
+        // then
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    @DisplayName("Malformed cursor is rejected")
+    public void decode_malformedCursor() {
+        // when + then
+        assertThatThrownBy(() -> OrderCursor.decode("bm90LWEtY3Vyc29y"))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining("bm90LWEtY3Vyc29y");
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderPartitionProperties;
+import com.github.christianj98.primarycustomerbase.repository.OrderPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.YearMonth;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link OrderPartitionMaintainer}
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderPartitionMaintainerTest {
+    @Mock
+    private OrderPartitionRepository orderPartitionRepository;
+
+    private OrderPartitionMaintainer orderPartitionMaintainer;
+
+    @BeforeEach
+    public void init() {
+        final OrderPartitionProperties orderPartitionProperties = new OrderPartitionProperties();
+        orderPartitionProperties.setMonthsAhead(2);
+        orderPartitionMaintainer = new OrderPartitionMaintainer(orderPartitionRepository, orderPartitionProperties);
+    }
+
+    @Test
+    @DisplayName("Partitions of the current month and the configured number of months ahead are created")
+    public void createFuturePartitions_currentAndComingMonths() {
+        // given
+        final YearMonth currentMonth = YearMonth.now();
+
+        // when
+        orderPartitionMaintainer.createFuturePartitions();
+
+        // then
+        verify(orderPartitionRepository).createPartition(currentMonth);
+        verify(orderPartitionRepository).createPartition(currentMonth.plusMonths(1));
+        verify(orderPartitionRepository).createPartition(currentMonth.plusMonths(2));
+        verify(orderPartitionRepository, times(3)).createPartition(any());
+    }
+
+    @Test
+    @DisplayName("A failed run is left to the next one")
+    public void createFuturePartitions_failureSwallowed() {
+        // given
+        when(orderPartitionRepository.createPartition(any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // when
+        orderPartitionMaintainer.createFuturePartitions();
+
+        // then
+        verify(orderPartitionRepository).createPartition(any());
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ID;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderCreateDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link OrderRowParser}
+ */
+public class OrderRowParserTest {
+    private final OrderRowParser orderRowParser =
+            new OrderRowParser(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    @DisplayName("CSV row is parsed into an order")
+    public void parse_csvRow_returnsOrder() {
+        // when
+        final OrderCreateDto order = orderRowParser.parse(OrderBulkFormat.CSV, "2020-02-03T01:02:04, 999.99 ,1");
+
+        // then
+        assertThat(order).isEqualTo(createOrderCreateDto(ORDER_DATE, AMOUNT, ID));
+    }
+
+    @Test
+    @DisplayName("CSV row with missing columns is rejected")
+    public void parse_csvRowWithMissingColumn_throwsIllegalArgumentException() {
+        // when + then
+        assertThatThrownBy(() -> orderRowParser.parse(OrderBulkFormat.CSV, "2020-02-03T01:02:04,999.99"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("expected 3 columns but found 2");
+    }
+
+    @Test
+    @DisplayName("CSV row with malformed date is rejected")
+    public void parse_csvRowWithMalformedDate_throwsIllegalArgumentException() {
+        // when + then
+        assertThatThrownBy(() -> orderRowParser.parse(OrderBulkFormat.CSV, "yesterday,999.99,1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("NDJSON row is parsed into an order")
+    public void parse_ndjsonRow_returnsOrder() {
+        // when
+        final OrderCreateDto order = orderRowParser.parse(OrderBulkFormat.NDJSON,
+                "{\"date\":\"2020-02-03T01:02:04\",\"amount\":999.99,\"customerId\":1}");
+
+        // then
+        assertThat(order).isEqualTo(createOrderCreateDto(ORDER_DATE, AMOUNT, ID));
+    }
+
+    @Test
+    @DisplayName("Malformed NDJSON row is rejected")
+    public void parse_malformedNdjsonRow_throwsIllegalArgumentException() {
+        // when + then
+        assertThatThrownBy(() -> orderRowParser.parse(OrderBulkFormat.NDJSON, "{\"date\":"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Only the first CSV line can be a header")
+    public void isHeader_recognizesCsvHeaderOnFirstLine() {
+        // when + then
+        assertThat(orderRowParser.isHeader(OrderBulkFormat.CSV, 1, "date,amount,customerId")).isTrue();
+        assertThat(orderRowParser.isHeader(OrderBulkFormat.CSV, 2, "date,amount,customerId")).isFalse();
+        assertThat(orderRowParser.isHeader(OrderBulkFormat.CSV, 1, "2020-02-03T01:02:04,999.99,1")).isFalse();
+        assertThat(orderRowParser.isHeader(OrderBulkFormat.NDJSON, 1, "date,amount,customerId")).isFalse();
+    }
+}
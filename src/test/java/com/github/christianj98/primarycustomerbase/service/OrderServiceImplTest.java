@@ -1,11 +1,32 @@
 package com.github.christianj98.primarycustomerbase.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.christianj98.primarycustomerbase.archive.ArchivedOrder;
+import com.github.christianj98.primarycustomerbase.archive.OrderArchive;
+import com.github.christianj98.primarycustomerbase.configuration.OrderBulkProperties;
+import com.github.christianj98.primarycustomerbase.configuration.OrderPaginationProperties;
+import com.github.christianj98.primarycustomerbase.dto.MultiGetEntryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderBulkResultDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderPageDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderRejectDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryPageDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderUpdateDto;
 import com.github.christianj98.primarycustomerbase.entity.Order;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
+import com.github.christianj98.primarycustomerbase.exception.InvalidCursorException;
+import com.github.christianj98.primarycustomerbase.exception.PreconditionFailedException;
 import com.github.christianj98.primarycustomerbase.mapper.OrderMapperService;
+import com.github.christianj98.primarycustomerbase.projection.OrderView;
+import com.github.christianj98.primarycustomerbase.repository.CustomerOrderStatsRepository;
 import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderCopyRepository;
 import com.github.christianj98.primarycustomerbase.repository.OrderRepository;
 import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,13 +35,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ID;
@@ -29,7 +60,9 @@ import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.c
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderCreateDto;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderDto;
 import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderUpdateDto;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderView;
 import static java.lang.String.valueOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Optional.ofNullable;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -37,6 +70,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -54,9 +90,30 @@ public class OrderServiceImplTest {
     private OrderMapperService orderMapperService;
     @Mock
     private CustomerRepository customerRepository;
+    @Mock
+    private OrderCopyRepository orderCopyRepository;
+    @Mock
+    private EntityChangePublisher entityChangePublisher;
+    @Mock
+    private JsonMergePatcher jsonMergePatcher;
+    @Mock
+    private CustomerOrderStatsRepository customerOrderStatsRepository;
+    @Mock
+    private OrderArchive orderArchive;
+    @Spy
+    private OrderPaginationProperties orderPaginationProperties = new OrderPaginationProperties();
+    @Spy
+    private OrderBulkProperties orderBulkProperties = new OrderBulkProperties();
+    @Spy
+    private OrderRowParser orderRowParser = new OrderRowParser(new ObjectMapper().registerModule(new JavaTimeModule()));
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Captor
+    private ArgumentCaptor<List<OrderCreateDto>> ordersCaptor;
     @Captor
     private ArgumentCaptor<Order> orderCaptor;
     private Order order;
+    private OrderView orderView;
     private OrderDto orderDto;
     private OrderCreateDto orderCreateDto;
     private OrderUpdateDto orderUpdateDto;
@@ -64,27 +121,101 @@ public class OrderServiceImplTest {
     @BeforeEach
     public void init() {
         order = createOrder(ORDER_DATE, AMOUNT);
+        orderView = createOrderView(ID, ORDER_DATE, AMOUNT);
         orderDto = createOrderDto(ORDER_DATE, AMOUNT);
         orderCreateDto = createOrderCreateDto(ORDER_DATE, AMOUNT, order.getCustomer().getId());
         orderUpdateDto = createOrderUpdateDto();
     }
 
     @Test
-    @DisplayName("Find all orders with customer and address information")
-    public void findAll_AllOrdersWithCustomerAndAddressAreFound() {
+    @DisplayName("Find first page of orders with customer and address information")
+    public void findPage_firstPageWithoutNextCursor() {
         // given
-        when(orderRepository.findAllWithCustomerAndAddress()).thenReturn(List.of(order));
-        when(orderMapperService.mapFrom(anyList())).thenReturn(List.of(orderDto));
+        when(orderRepository.findFirstPageOfOrderViews(any(), any(), any())).thenReturn(List.of(orderView));
+        when(orderMapperService.mapFromViews(anyList())).thenReturn(List.of(orderDto));
 
         // when
-        final List<OrderDto> orders = orderService.findAll();
+        final OrderPageDto orderPage = orderService.findPage(null, null, null, null);
 
         // then
-        assertThat(orders).isNotEmpty();
-        assertThat(orders).extracting(OrderDto::getDate, OrderDto::getAmount)
+        assertThat(orderPage.getOrders()).extracting(OrderDto::getDate, OrderDto::getAmount)
                 .isEqualTo(List.of(Tuple.tuple(orderDto.getDate(), orderDto.getAmount())));
-        verify(orderRepository).findAllWithCustomerAndAddress();
-        verify(orderMapperService).mapFrom(eq(List.of(order)));
+        assertThat(orderPage.getNextCursor()).isNull();
+        verify(orderRepository).findFirstPageOfOrderViews(OrderServiceImpl.EARLIEST_ORDER_DATE,
+                OrderServiceImpl.LATEST_ORDER_DATE, PageRequest.of(0, orderPaginationProperties.getDefaultSize() + 1));
+        verify(orderMapperService).mapFromViews(eq(List.of(orderView)));
+    }
+
+    @Test
+    @DisplayName("Find page of orders which has a next page")
+    public void findPage_nextCursorPointsAtLastOrderOfPage() {
+        // given
+        final OrderView nextOrderView = createOrderView(2, ORDER_DATE.plusDays(1), AMOUNT);
+        when(orderRepository.findFirstPageOfOrderViews(any(), any(), any())).thenReturn(List.of(orderView, nextOrderView));
+
+        // when
+        final OrderPageDto orderPage = orderService.findPage(null, 1, null, null);
+
+        // then
+        assertThat(orderPage.getNextCursor())
+                .isEqualTo(new OrderCursor(orderView.getDate(), orderView.getId()).encode());
+        verify(orderRepository).findFirstPageOfOrderViews(any(), any(), eq(PageRequest.of(0, 2)));
+        verify(orderMapperService).mapFromViews(eq(List.of(orderView)));
+    }
+
+    @Test
+    @DisplayName("Find page of orders after given cursor")
+    public void findPage_seeksAfterCursorPosition() {
+        // given
+        final String cursor = new OrderCursor(ORDER_DATE, ID).encode();
+        when(orderRepository.findPageOfOrderViewsAfter(any(), anyInt(), any(), any(), any())).thenReturn(List.of());
+
+        // when
+        final OrderPageDto orderPage = orderService.findPage(cursor, 10, ORDER_DATE.minusDays(7), null);
+
+        // then
+        assertThat(orderPage.getNextCursor()).isNull();
+        verify(orderRepository).findPageOfOrderViewsAfter(ORDER_DATE, ID, ORDER_DATE.minusDays(7),
+                OrderServiceImpl.LATEST_ORDER_DATE, PageRequest.of(0, 11));
+        verify(orderRepository, never()).findFirstPageOfOrderViews(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Find page of orders dated within the given range")
+    public void findPage_boundedByDateRange() {
+        // given
+        when(orderRepository.findFirstPageOfOrderViews(any(), any(), any())).thenReturn(List.of());
+
+        // when
+        orderService.findPage(null, 10, ORDER_DATE, ORDER_DATE.plusMonths(1));
+
+        // then
+        verify(orderRepository)
+                .findFirstPageOfOrderViews(ORDER_DATE, ORDER_DATE.plusMonths(1), PageRequest.of(0, 11));
+    }
+
+    @Test
+    @DisplayName("Find page of orders with page size above the hard cap")
+    public void findPage_pageSizeIsCapped() {
+        // given
+        when(orderRepository.findFirstPageOfOrderViews(any(), any(), any())).thenReturn(List.of());
+
+        // when
+        orderService.findPage(null, Integer.MAX_VALUE, null, null);
+
+        // then
+        final PageRequest cappedPageRequest = PageRequest.of(0, orderPaginationProperties.getMaxSize() + 1);
+        verify(orderRepository).findFirstPageOfOrderViews(any(), any(), eq(cappedPageRequest));
+    }
+
+    @Test
+    @DisplayName("Find page of orders with malformed cursor")
+    public void findPage_invalidCursor() {
+        // when + then
+        assertThatThrownBy(() -> orderService.findPage("not-a-cursor", null, null, null))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining("not-a-cursor");
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
@@ -100,6 +231,9 @@ public class OrderServiceImplTest {
         // then
         verify(orderRepository).save(order);
         verify(orderMapperService).mapFrom(order);
+        verify(customerOrderStatsRepository).add(List.of(
+                OrderSummaryDto.ofOrder(order.getCustomer().getId(), order.getAmount(), order.getDate())));
+        verify(entityChangePublisher).publish(EntityType.ORDER, order.getId());
     }
 
     @Test
@@ -118,8 +252,8 @@ public class OrderServiceImplTest {
     @DisplayName("Find order by id")
     public void findById_orderFound() {
         // given
-        when(orderRepository.findById(ID)).thenReturn(Optional.of(order));
-        when(orderMapperService.mapFrom(any(Order.class))).thenReturn(orderDto);
+        when(orderRepository.findOrderViewById(ID)).thenReturn(Optional.of(orderView));
+        when(orderMapperService.mapFrom(any(OrderView.class))).thenReturn(orderDto);
 
         // when
         final OrderDto foundOrder = orderService.findById(ID);
@@ -129,15 +263,97 @@ public class OrderServiceImplTest {
         assertThat(foundOrder.getDate()).isEqualTo(orderDto.getDate());
         assertThat(foundOrder.getAmount()).isEqualTo(orderDto.getAmount());
         assertThat(foundOrder.getCustomerDto()).isEqualTo(orderDto.getCustomerDto());
-        verify(orderRepository).findById(eq(ID));
-        verify(orderMapperService).mapFrom(eq(order));
+        verify(orderRepository).findOrderViewById(eq(ID));
+        verify(orderMapperService).mapFrom(eq(orderView));
+    }
+
+    @Test
+    @DisplayName("Find order by id which was moved to the archive")
+    public void findById_archivedOrderFound() {
+        // given
+        final ArchivedOrder archivedOrder = new ArchivedOrder(ID, ORDER_DATE, AMOUNT, order.getCustomer().getId(), 2);
+        when(orderRepository.findOrderViewById(ID)).thenReturn(Optional.empty());
+        when(orderArchive.findById(ID)).thenReturn(Optional.of(archivedOrder));
+        when(customerRepository.findById(order.getCustomer().getId())).thenReturn(Optional.of(order.getCustomer()));
+        when(orderMapperService.mapFrom(archivedOrder, order.getCustomer())).thenReturn(orderDto);
+
+        // when
+        final OrderDto foundOrder = orderService.findById(ID);
+
+        // then
+        assertThat(foundOrder).isSameAs(orderDto);
+    }
+
+    @Test
+    @DisplayName("Find order by id which was moved to the archive without a customer")
+    public void findById_archivedOrderWithoutCustomer() {
+        // given
+        final ArchivedOrder archivedOrder = new ArchivedOrder(ID, ORDER_DATE, AMOUNT, null, 0);
+        when(orderRepository.findOrderViewById(ID)).thenReturn(Optional.empty());
+        when(orderArchive.findById(ID)).thenReturn(Optional.of(archivedOrder));
+        when(orderMapperService.mapFrom(archivedOrder, null)).thenReturn(orderDto);
+
+        // when
+        orderService.findById(ID);
+
+        // then
+        verify(customerRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    @DisplayName("Find orders by ids, the archived ones with one archive lookup and their customers with one query")
+    public void findAllById_archivedOrders_lookedUpTogether() {
+        // given
+        final List<Integer> ids = List.of(ID, 20, 21, 20, 22);
+        final int customerId = order.getCustomer().getId();
+        final ArchivedOrder firstArchivedOrder = new ArchivedOrder(20, ORDER_DATE, AMOUNT, customerId, 0);
+        final ArchivedOrder secondArchivedOrder = new ArchivedOrder(21, ORDER_DATE, AMOUNT, customerId, 1);
+        final OrderDto firstArchivedOrderDto = createOrderDto(ORDER_DATE, AMOUNT);
+        final OrderDto secondArchivedOrderDto = createOrderDto(ORDER_DATE, AMOUNT);
+        when(orderRepository.findOrderViewsByIdIn(MultiGet.pad(ids))).thenReturn(List.of(orderView));
+        when(orderMapperService.mapFrom(orderView)).thenReturn(orderDto);
+        when(orderArchive.findAllById(List.of(20, 21, 22)))
+                .thenReturn(Map.of(20, firstArchivedOrder, 21, secondArchivedOrder));
+        when(customerRepository.findAllWithAddressByIdIn(MultiGet.pad(List.of(customerId))))
+                .thenReturn(List.of(order.getCustomer()));
+        when(orderMapperService.mapFrom(firstArchivedOrder, order.getCustomer())).thenReturn(firstArchivedOrderDto);
+        when(orderMapperService.mapFrom(secondArchivedOrder, order.getCustomer())).thenReturn(secondArchivedOrderDto);
+
+        // when
+        final List<MultiGetEntryDto<OrderDto>> foundOrders = orderService.findAllById(ids);
+
+        // then
+        assertThat(foundOrders).extracting(MultiGetEntryDto::getId, MultiGetEntryDto::isFound, MultiGetEntryDto::getValue)
+                .containsExactly(
+                        Tuple.tuple(ID, true, orderDto),
+                        Tuple.tuple(20, true, firstArchivedOrderDto),
+                        Tuple.tuple(21, true, secondArchivedOrderDto),
+                        Tuple.tuple(20, true, firstArchivedOrderDto),
+                        Tuple.tuple(22, false, null));
+        verify(orderArchive, never()).findById(anyInt());
+        verify(customerRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    @DisplayName("Find orders by ids all in the orders table without looking into the archive")
+    public void findAllById_noArchivedOrders_archiveNotRead() {
+        // given
+        when(orderRepository.findOrderViewsByIdIn(MultiGet.pad(List.of(ID)))).thenReturn(List.of(orderView));
+        when(orderMapperService.mapFrom(orderView)).thenReturn(orderDto);
+
+        // when
+        final List<MultiGetEntryDto<OrderDto>> foundOrders = orderService.findAllById(List.of(ID));
+
+        // then
+        assertThat(foundOrders).containsExactly(MultiGetEntryDto.found(ID, orderDto));
+        verifyNoInteractions(orderArchive, customerRepository);
     }
 
     @Test
     @DisplayName("Find order by id but order does not exist")
     public void findById_orderNotFound() {
         // given
-        when(orderRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(orderRepository.findOrderViewById(anyInt())).thenReturn(Optional.empty());
 
         // when + then
         assertThatThrownBy(() -> orderService.findById(ID))
@@ -154,12 +370,34 @@ public class OrderServiceImplTest {
         when(orderMapperService.mapFrom(any(Order.class))).thenReturn(orderDto);
 
         // when
-        orderService.update(orderUpdateDto, ID);
+        orderService.update(orderUpdateDto, ID, null);
 
         // then
         verify(orderMapperService).mapFrom(orderCaptor.capture());
         assertThat(orderCaptor.getValue().getDate()).isEqualTo(orderUpdateDto.getDate());
         assertThat(orderCaptor.getValue().getAmount()).isEqualTo(orderUpdateDto.getAmount());
+        final InOrder statsUpdate = inOrder(orderRepository, customerOrderStatsRepository);
+        statsUpdate.verify(orderRepository).flush();
+        statsUpdate.verify(customerOrderStatsRepository).remove(order.getCustomer().getId(), AMOUNT, ORDER_DATE);
+        statsUpdate.verify(customerOrderStatsRepository).add(List.of(OrderSummaryDto.ofOrder(
+                order.getCustomer().getId(), orderUpdateDto.getAmount(), orderUpdateDto.getDate())));
+        verify(entityChangePublisher).publish(EntityType.ORDER, ID);
+    }
+
+    @Test
+    @DisplayName("Update order with its current values leaves the stats as they are")
+    public void updateOrder_sameValues_statsUntouched() {
+        // given
+        final OrderUpdateDto sameValues = new OrderUpdateDto();
+        sameValues.setDate(ORDER_DATE);
+        sameValues.setAmount(new BigDecimal("999.990"));
+        when(orderRepository.findById(ID)).thenReturn(Optional.of(order));
+
+        // when
+        orderService.update(sameValues, ID, null);
+
+        // then
+        verifyNoInteractions(customerOrderStatsRepository);
     }
 
     @Test
@@ -169,7 +407,7 @@ public class OrderServiceImplTest {
         when(orderRepository.findById(ID)).thenReturn(Optional.empty());
 
         // when + then
-        assertThatThrownBy(() -> orderService.update(orderUpdateDto, ID))
+        assertThatThrownBy(() -> orderService.update(orderUpdateDto, ID, null))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining(valueOf(ID));
         verifyNoInteractions(orderMapperService);
@@ -179,10 +417,10 @@ public class OrderServiceImplTest {
     @DisplayName("Delete order but order was not found")
     public void deleteOrder_orderNotFound() {
         // given
-        when(orderRepository.existsById(ID)).thenReturn(false);
+        when(orderRepository.findById(ID)).thenReturn(Optional.empty());
 
         // when + then
-        assertThatThrownBy(() -> orderService.delete(ID))
+        assertThatThrownBy(() -> orderService.delete(ID, null))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining(valueOf(ID));
     }
@@ -191,12 +429,279 @@ public class OrderServiceImplTest {
     @DisplayName("Delete order")
     public void deleteOrder_orderWasDeleted() {
         // given
-        when(orderRepository.existsById(ID)).thenReturn(true);
+        when(orderRepository.findById(ID)).thenReturn(Optional.of(order));
+
+        // when
+        orderService.delete(ID, null);
+
+        // then
+        final InOrder statsUpdate = inOrder(orderRepository, customerOrderStatsRepository);
+        statsUpdate.verify(orderRepository).delete(order);
+        statsUpdate.verify(orderRepository).flush();
+        statsUpdate.verify(customerOrderStatsRepository).remove(order.getCustomer().getId(), AMOUNT, ORDER_DATE);
+        verify(entityChangePublisher).publish(EntityType.ORDER, ID);
+    }
+
+    @Test
+    @DisplayName("Update order when If-Match lists the current entity tag")
+    public void updateOrder_ifMatchMatches() {
+        // given
+        order.setVersion(3);
+        when(orderRepository.findById(ID)).thenReturn(Optional.of(order));
+        when(orderMapperService.mapFrom(any(Order.class))).thenReturn(orderDto);
+
+        // when
+        orderService.update(orderUpdateDto, ID, "\"2-0-0\", \"3-0-0\"");
+
+        // then
+        verify(orderRepository).flush();
+        verify(entityChangePublisher).publish(EntityType.ORDER, ID);
+    }
+
+    @Test
+    @DisplayName("Update order but If-Match does not list the current entity tag")
+    public void updateOrder_ifMatchDoesNotMatch() {
+        // given
+        order.setVersion(3);
+        when(orderRepository.findById(ID)).thenReturn(Optional.of(order));
+
+        // when + then
+        assertThatThrownBy(() -> orderService.update(orderUpdateDto, ID, "\"2-0-0\""))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("\"3-0-0\"");
+        assertThat(order.getAmount()).isNotEqualTo(orderUpdateDto.getAmount());
+        verifyNoInteractions(entityChangePublisher);
+    }
+
+    @Test
+    @DisplayName("Delete order but If-Match does not list the current entity tag")
+    public void deleteOrder_ifMatchDoesNotMatch() {
+        // given
+        when(orderRepository.findById(ID)).thenReturn(Optional.of(order));
+
+        // when + then
+        assertThatThrownBy(() -> orderService.delete(ID, "\"1-0-0\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(orderRepository, never()).delete(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Bulk create copies valid rows and reports the rejected ones")
+    public void bulkCreate_csvRows_copiesValidRowsAndReportsRejects() {
+        // given
+        final InputStream rows = asStream("date,amount,customerId\n"
+                + "2020-02-03T01:02:04,999.99,1\n"
+                + "not-a-date,10.00,1\n"
+                + "\n"
+                + "2020-02-03T01:02:04,0.00,1\n"
+                + "2020-02-03T01:02:04,15.50,7\n");
+        when(customerRepository.findExistingIds(any())).thenReturn(Set.of(1));
+        when(orderCopyRepository.copy(anyList())).thenReturn(1L);
+
+        // when
+        final OrderBulkResultDto result = orderService.bulkCreate(rows, OrderBulkFormat.CSV);
+
+        // then
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRejects()).extracting(OrderRejectDto::getLine).containsExactly(3L, 5L, 6L);
+        assertThat(result.getRejects().get(0).getReason()).startsWith("Row cannot be parsed as an order");
+        assertThat(result.getRejects().get(1).getReason()).startsWith("amount");
+        assertThat(result.getRejects().get(2).getReason()).isEqualTo("Customer not found with given id: 7");
+        verify(customerRepository).findExistingIds(Set.of(1, 7));
+        verify(orderCopyRepository).copy(ordersCaptor.capture());
+        assertThat(ordersCaptor.getValue()).extracting(OrderCreateDto::getAmount).containsExactly(AMOUNT);
+        verify(entityChangePublisher).publishAll(EntityType.ORDER);
+    }
+
+    @Test
+    @DisplayName("Bulk create reads newline-delimited JSON")
+    public void bulkCreate_ndjsonRows_copiesValidRows() {
+        // given
+        final InputStream rows = asStream(
+                "{\"date\":\"2020-02-03T01:02:04\",\"amount\":999.99,\"customerId\":1}\n"
+                + "{\"date\":\"2020-02-03T01:02:04\",\"amount\":\n");
+        when(customerRepository.findExistingIds(any())).thenReturn(Set.of(1));
+        when(orderCopyRepository.copy(anyList())).thenReturn(1L);
+
+        // when
+        final OrderBulkResultDto result = orderService.bulkCreate(rows, OrderBulkFormat.NDJSON);
+
+        // then
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getRejects()).extracting(OrderRejectDto::getLine).containsExactly(2L);
+        verify(orderCopyRepository).copy(ordersCaptor.capture());
+        assertThat(ordersCaptor.getValue()).containsExactly(createOrderCreateDto(ORDER_DATE, AMOUNT, 1));
+    }
+
+    @Test
+    @DisplayName("Bulk create copies rows chunk by chunk")
+    public void bulkCreate_moreRowsThanChunkSize_copiesEveryChunk() {
+        // given
+        orderBulkProperties.setChunkSize(2);
+        final InputStream rows = asStream("2020-02-03T01:02:04,1.00,1\n"
+                + "2020-02-03T01:02:04,2.00,1\n"
+                + "2020-02-03T01:02:04,3.00,1\n");
+        when(customerRepository.findExistingIds(any())).thenReturn(Set.of(1));
+        when(orderCopyRepository.copy(anyList()))
+                .thenAnswer(invocation -> (long) invocation.<List<?>>getArgument(0).size());
+
+        // when
+        final OrderBulkResultDto result = orderService.bulkCreate(rows, OrderBulkFormat.CSV);
+
+        // then
+        assertThat(result.getAccepted()).isEqualTo(3);
+        verify(customerRepository, times(2)).findExistingIds(any());
+        verify(orderCopyRepository, times(2)).copy(ordersCaptor.capture());
+        assertThat(ordersCaptor.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        verify(customerOrderStatsRepository).add(List.of(new OrderSummaryDto(1, 2, new BigDecimal("3.00"),
+                new BigDecimal("1.00"), new BigDecimal("2.00"), ORDER_DATE)));
+        verify(customerOrderStatsRepository)
+                .add(List.of(OrderSummaryDto.ofOrder(1, new BigDecimal("3.00"), ORDER_DATE)));
+    }
+
+    @Test
+    @DisplayName("Bulk create counts every reject but lists only the configured number of them")
+    public void bulkCreate_manyRejects_listsOnlyMaxReportedRejects() {
+        // given
+        orderBulkProperties.setMaxReportedRejects(1);
+        final InputStream rows = asStream("a\nb\nc\n");
+
+        // when
+        final OrderBulkResultDto result = orderService.bulkCreate(rows, OrderBulkFormat.CSV);
+
+        // then
+        assertThat(result.getAccepted()).isZero();
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRejects()).extracting(OrderRejectDto::getLine).containsExactly(1L);
+        verifyNoInteractions(orderCopyRepository);
+    }
+
+    @Test
+    @DisplayName("Bulk create lists the first rejects even when a missing customer is found after later rejects")
+    public void bulkCreate_missingCustomerBeforeMalformedRows_listsFirstRejects() {
+        // given
+        orderBulkProperties.setMaxReportedRejects(1);
+        final InputStream rows = asStream("2020-02-03T01:02:04,15.50,7\n"
+                + "a\n"
+                + "b\n");
+        when(customerRepository.findExistingIds(any())).thenReturn(Set.of());
+
+        // when
+        final OrderBulkResultDto result = orderService.bulkCreate(rows, OrderBulkFormat.CSV);
+
+        // then
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRejects()).extracting(OrderRejectDto::getLine, OrderRejectDto::getReason)
+                .containsExactly(Tuple.tuple(1L, "Customer not found with given id: 7"));
+    }
+
+    private static InputStream asStream(final String rows) {
+        return new ByteArrayInputStream(rows.getBytes(UTF_8));
+    }
+
+    @Test
+    @DisplayName("Patch order, only the patched amount changes")
+    public void patchOrder_orderPatched() {
+        // given
+        final JsonNode mergePatch = JsonNodeFactory.instance.objectNode().put("amount", 10);
+        final OrderUpdateDto patchedOrder = new OrderUpdateDto();
+        patchedOrder.setDate(order.getDate());
+        patchedOrder.setAmount(BigDecimal.TEN);
+        when(orderRepository.findById(ID)).thenReturn(Optional.of(order));
+        when(jsonMergePatcher.apply(eq(mergePatch), any(OrderUpdateDto.class), eq(OrderUpdateDto.class)))
+                .thenReturn(Optional.of(patchedOrder));
+
+        // when
+        orderService.patch(mergePatch, ID, null);
+
+        // then
+        assertThat(order.getAmount()).isEqualTo(BigDecimal.TEN);
+        assertThat(order.getDate()).isEqualTo(patchedOrder.getDate());
+        verify(orderRepository).flush();
+        verify(entityChangePublisher).publish(EntityType.ORDER, ID);
+    }
+
+    @Test
+    @DisplayName("Patch order which changes nothing neither flushes nor announces a change")
+    public void patchOrder_nothingChanged() {
+        // given
+        final JsonNode mergePatch = JsonNodeFactory.instance.objectNode();
+        when(orderRepository.findById(ID)).thenReturn(Optional.of(order));
+        when(orderMapperService.mapFrom(any(Order.class))).thenReturn(orderDto);
+        when(jsonMergePatcher.apply(eq(mergePatch), any(OrderUpdateDto.class), eq(OrderUpdateDto.class)))
+                .thenReturn(Optional.empty());
+
+        // when
+        final OrderDto patchedOrder = orderService.patch(mergePatch, ID, null);
+
+        // then
+        assertThat(patchedOrder).isSameAs(orderDto);
+        verify(orderRepository, never()).flush();
+        verifyNoInteractions(entityChangePublisher);
+    }
+
+    @Test
+    @DisplayName("Order summary of a customer is read from the order stats")
+    public void findSummary_customerWithOrders() {
+        // given
+        final OrderSummaryDto summary = new OrderSummaryDto(ID, 2, new BigDecimal("30.00"), BigDecimal.TEN,
+                new BigDecimal("20.00"), ORDER_DATE);
+        when(customerOrderStatsRepository.findByCustomerId(ID)).thenReturn(Optional.of(summary));
+
+        // when
+        final OrderSummaryDto foundSummary = orderService.findSummary(ID);
+
+        // then
+        assertThat(foundSummary).isEqualTo(summary);
+        verify(customerRepository, never()).existsById(anyInt());
+    }
+
+    @Test
+    @DisplayName("Order summary of a customer without orders is empty")
+    public void findSummary_customerWithoutOrders() {
+        // given
+        when(customerOrderStatsRepository.findByCustomerId(ID)).thenReturn(Optional.empty());
+        when(customerRepository.existsById(ID)).thenReturn(true);
+
+        // when
+        final OrderSummaryDto foundSummary = orderService.findSummary(ID);
+
+        // then
+        assertThat(foundSummary.getOrderCount()).isZero();
+        assertThat(foundSummary.getTotalAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(foundSummary.getLastOrderDate()).isNull();
+    }
+
+    @Test
+    @DisplayName("Order summary of a customer who does not exist")
+    public void findSummary_customerNotFound() {
+        // given
+        when(customerOrderStatsRepository.findByCustomerId(ID)).thenReturn(Optional.empty());
+        when(customerRepository.existsById(ID)).thenReturn(false);
+
+        // when + then
+        assertThatThrownBy(() -> orderService.findSummary(ID))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining(valueOf(ID));
+    }
+
+    @Test
+    @DisplayName("Find page of order summaries which has a next page")
+    public void findSummaryPage_nextCursorPointsAtLastCustomerOfPage() {
+        // given
+        final OrderSummaryDto firstSummary = OrderSummaryDto.withoutOrders(3);
+        when(customerOrderStatsRepository.findPageAfter(anyInt(), anyInt()))
+                .thenReturn(List.of(firstSummary, OrderSummaryDto.withoutOrders(5)));
 
         // when
-        orderService.delete(ID);
+        final OrderSummaryPageDto summaryPage =
+                orderService.findSummaryPage(new OrderSummaryCursor(2).encode(), 1);
 
         // then
-        verify(orderRepository).deleteById(ID);
+        assertThat(summaryPage.getSummaries()).containsExactly(firstSummary);
+        assertThat(summaryPage.getNextCursor()).isEqualTo(new OrderSummaryCursor(3).encode());
+        verify(customerOrderStatsRepository).findPageAfter(2, 2);
+        verify(customerOrderStatsRepository, never()).findFirstPage(anyInt());
     }
 }
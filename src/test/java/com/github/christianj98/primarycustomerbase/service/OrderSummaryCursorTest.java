@@ -0,0 +1,36 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.exception.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link OrderSummaryCursor}
+ */
+public class OrderSummaryCursorTest {
+    @Test
+    @DisplayName("Encoded cursor is decoded to the same customer and is safe to use as query parameter")
+    public void decode_returnsEncodedCustomer() {
+        // given
+        final OrderSummaryCursor cursor = new OrderSummaryCursor(1234);
+
+        // when
+        final String encodedCursor = cursor.encode();
+
+        // then
+        assertThat(encodedCursor).matches("[A-Za-z0-9_-]+");
+        assertThat(OrderSummaryCursor.decode(encodedCursor)).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Malformed cursor is rejected")
+    public void decode_malformedCursor() {
+        // when + then
+        assertThatThrownBy(() -> OrderSummaryCursor.decode("bm90LWEtY3Vyc29y"))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining("bm90LWEtY3Vyc29y");
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.christianj98.primarycustomerbase.service;
+
+import com.github.christianj98.primarycustomerbase.entity.Customer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.createConstraintViolation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link UniqueConstraints}
+ */
+public class UniqueConstraintsTest {
+    @Test
+    @DisplayName("Constraint name reported by PostgreSQL is recognized")
+    public void isViolated_exactConstraintName_returnsTrue() {
+        // given
+        final DataIntegrityViolationException exception = createConstraintViolation(Customer.UNIQUE_NAME_CONSTRAINT);
+
+        // when + then
+        assertThat(UniqueConstraints.isViolated(exception, Customer.UNIQUE_NAME_CONSTRAINT)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Constraint name decorated by H2 is recognized")
+    public void isViolated_decoratedConstraintName_returnsTrue() {
+        // given
+        final DataIntegrityViolationException exception = createConstraintViolation(
+                "PUBLIC.UK_CUSTOMERS_FIRST_NAME_LAST_NAME_INDEX_2 ON PUBLIC.CUSTOMERS(FIRST_NAME, LAST_NAME)");
+
+        // when + then
+        assertThat(UniqueConstraints.isViolated(exception, Customer.UNIQUE_NAME_CONSTRAINT)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Other constraints are not recognized")
+    public void isViolated_otherConstraint_returnsFalse() {
+        // given
+        final DataIntegrityViolationException exception = createConstraintViolation("fk_customers_address");
+
+        // when + then
+        assertThat(UniqueConstraints.isViolated(exception, Customer.UNIQUE_NAME_CONSTRAINT)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Violations without a constraint are not recognized")
+    public void isViolated_withoutConstraintViolation_returnsFalse() {
+        // given
+        final DataIntegrityViolationException exception = new DataIntegrityViolationException("value too long");
+
+        // when + then
+        assertThat(UniqueConstraints.isViolated(exception, Customer.UNIQUE_NAME_CONSTRAINT)).isFalse();
+    }
+}
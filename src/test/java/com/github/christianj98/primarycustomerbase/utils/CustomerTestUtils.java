@@ -2,8 +2,10 @@ package com.github.christianj98.primarycustomerbase.utils;
 
 import com.github.christianj98.primarycustomerbase.dto.CustomerDto;
 import com.github.christianj98.primarycustomerbase.entity.Customer;
+import com.github.christianj98.primarycustomerbase.projection.CustomerView;
 
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.CITY;
+import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.RANDOM_INT;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.STREET;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.createAddress;
 import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.createAddressDto;
@@ -34,4 +36,7 @@ public class CustomerTestUtils {
         return customer;
     }
 
+    public static CustomerView createCustomerView(final String firstName, final String lastName) {
+        return new CustomerView(1, firstName, lastName, 0, RANDOM_INT, STREET, CITY, 0);
+    }
 }
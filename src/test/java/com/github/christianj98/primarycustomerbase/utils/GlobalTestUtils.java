@@ -3,6 +3,16 @@ package com.github.christianj98.primarycustomerbase.utils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.SQLException;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 
 public class GlobalTestUtils {
     public static final String HOST = "localhost";
@@ -16,4 +26,21 @@ public class GlobalTestUtils {
             throw new RuntimeException(e);
         }
     }
+
+    public static DataIntegrityViolationException createConstraintViolation(final String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement",
+                        new SQLException("duplicate key value violates unique constraint"),
+                        constraintName));
+    }
+
+    /**
+     * Performs the request and, when its handler completes asynchronously, the dispatch writing the response
+     */
+    public static ResultActions performAsync(final MockMvc mockMvc, final RequestBuilder requestBuilder)
+            throws Exception {
+        final ResultActions resultActions = mockMvc.perform(requestBuilder);
+        final MvcResult result = resultActions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : resultActions;
+    }
 }
@@ -4,10 +4,14 @@ import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderDto;
 import com.github.christianj98.primarycustomerbase.dto.OrderUpdateDto;
 import com.github.christianj98.primarycustomerbase.entity.Order;
+import com.github.christianj98.primarycustomerbase.projection.OrderView;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.CITY;
+import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.RANDOM_INT;
+import static com.github.christianj98.primarycustomerbase.utils.AddressTestUtils.STREET;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
 import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
@@ -19,7 +23,8 @@ public class OrderTestUtils {
     public static final String ORDERS_URI = "/orders";
     public static final String ORDERS_URI_WITH_ID = "/orders/{id}";
     public static final int ID = 1;
-
+    public static final String ORDERS_BULK_URI = "/orders/bulk";
+    public static final String ORDER_WRITES_URI_WITH_ID = "/orders/writes/{trackingId}";
 
     private OrderTestUtils() {
         // private
@@ -51,6 +56,10 @@ public class OrderTestUtils {
         return order;
     }
 
+    public static OrderView createOrderView(final int id, final LocalDateTime orderDate, final BigDecimal amount) {
+        return new OrderView(id, orderDate, amount, 0, 1, FIRST_NAME, LAST_NAME, 0, RANDOM_INT, STREET, CITY, 0);
+    }
+
     public static OrderUpdateDto createOrderUpdateDto() {
         final OrderUpdateDto orderUpdateDto = new OrderUpdateDto();
         orderUpdateDto.setAmount(new BigDecimal("2137.02"));
@@ -0,0 +1,95 @@
+package com.github.christianj98.primarycustomerbase.writebehind;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderSummaryDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderWriteStatusDto;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityChangePublisher;
+import com.github.christianj98.primarycustomerbase.invalidation.EntityType;
+import com.github.christianj98.primarycustomerbase.repository.CustomerOrderStatsRepository;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderInsertRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderJournalCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderCreateDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link OrderBatchWriter}
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderBatchWriterTest {
+    private static final String JOURNAL_ID = "journal-id";
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private OrderInsertRepository orderInsertRepository;
+
+    @Mock
+    private CustomerOrderStatsRepository customerOrderStatsRepository;
+
+    @Mock
+    private EntityChangePublisher entityChangePublisher;
+
+    @Mock
+    private OrderJournalCheckpointRepository orderJournalCheckpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderBatchWriter orderBatchWriter;
+
+    @BeforeEach
+    public void init() {
+        orderBatchWriter = new OrderBatchWriter(customerRepository, orderInsertRepository,
+                customerOrderStatsRepository, entityChangePublisher, orderJournalCheckpointRepository,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Orders of existing customers are inserted together with the journal checkpoint, "
+            + "orders of missing customers are rejected")
+    public void write_ordersOfExistingCustomersInserted() {
+        // given
+        final PendingOrder firstOrder = new PendingOrder("first",
+                createOrderCreateDto(ORDER_DATE, new BigDecimal("10.00"), 1), 1);
+        final PendingOrder missingCustomerOrder = new PendingOrder("missing",
+                createOrderCreateDto(ORDER_DATE, new BigDecimal("20.00"), 7), 2);
+        final PendingOrder secondOrder = new PendingOrder("second",
+                createOrderCreateDto(ORDER_DATE.plusDays(1), new BigDecimal("30.00"), 1), 3);
+        when(customerRepository.findExistingIds(Set.of(1, 7))).thenReturn(Set.of(1));
+        when(orderInsertRepository.insertAll(List.of(firstOrder.getOrder(), secondOrder.getOrder())))
+                .thenReturn(List.of(11, 12));
+
+        // when
+        final List<OrderWriteStatusDto> statuses =
+                orderBatchWriter.write(List.of(firstOrder, missingCustomerOrder, secondOrder), JOURNAL_ID);
+
+        // then
+        assertThat(statuses).containsExactly(
+                OrderWriteStatusDto.created("first", 11),
+                OrderWriteStatusDto.rejected("missing", "Customer not found with given id: 7"),
+                OrderWriteStatusDto.created("second", 12));
+        verify(customerOrderStatsRepository).add(List.of(OrderSummaryDto.combine(
+                OrderSummaryDto.ofOrder(1, new BigDecimal("10.00"), ORDER_DATE),
+                OrderSummaryDto.ofOrder(1, new BigDecimal("30.00"), ORDER_DATE.plusDays(1)))));
+        verify(entityChangePublisher).publish(EntityType.ORDER, List.of(11, 12));
+        verify(orderJournalCheckpointRepository).saveSequence(JOURNAL_ID, 3);
+        verify(transactionManager).commit(null);
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.christianj98.primarycustomerbase.writebehind;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderWriteBehindProperties;
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderCreateDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link OrderJournal}
+ */
+public class OrderJournalTest {
+    @TempDir
+    Path directory;
+
+    private OrderWriteBehindProperties orderWriteBehindProperties;
+
+    @BeforeEach
+    public void init() {
+        orderWriteBehindProperties = new OrderWriteBehindProperties();
+        orderWriteBehindProperties.getJournal().setDirectory(directory);
+        orderWriteBehindProperties.getJournal().setSegmentSize(DataSize.ofBytes(256));
+    }
+
+    @Test
+    @DisplayName("Orders appended after the committed one are read again when the journal is reopened")
+    public void open_uncommittedOrdersReturned() {
+        // given
+        final OrderJournal journal = new OrderJournal(orderWriteBehindProperties);
+        assertThat(journal.open(0)).isEmpty();
+        final OrderCreateDto firstOrder = createOrderCreateDto(ORDER_DATE, AMOUNT, 1);
+        final OrderCreateDto secondOrder =
+                createOrderCreateDto(ORDER_DATE.plusNanos(123_000), new BigDecimal("0.01"), 2);
+        final String firstTrackingId = UUID.randomUUID().toString();
+        final String secondTrackingId = UUID.randomUUID().toString();
+        journal.append(firstTrackingId, firstOrder);
+        journal.awaitDurable(journal.append(secondTrackingId, secondOrder));
+
+        // when
+        final OrderJournal reopenedJournal = new OrderJournal(orderWriteBehindProperties);
+        final List<PendingOrder> uncommittedOrders = reopenedJournal.open(1);
+
+        // then
+        assertThat(reopenedJournal.getId()).isEqualTo(journal.getId());
+        assertThat(uncommittedOrders).containsExactly(new PendingOrder(secondTrackingId, secondOrder, 2));
+        assertThat(reopenedJournal.append(firstTrackingId, firstOrder)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Full segments are continued in new ones, which are deleted once their orders are committed")
+    public void append_segmentsRolledOverAndReleased() throws IOException {
+        // given
+        final OrderJournal journal = new OrderJournal(orderWriteBehindProperties);
+        journal.open(0);
+        for (int order = 1; order <= 10; order++) {
+            journal.append(UUID.randomUUID().toString(), createOrderCreateDto(ORDER_DATE, AMOUNT, order));
+        }
+        journal.awaitDurable(10);
+        final int segments = listSegments().size();
+
+        // when
+        journal.release(10);
+
+        // then
+        assertThat(segments).isGreaterThan(2);
+        assertThat(listSegments()).hasSize(1);
+        assertThat(new OrderJournal(orderWriteBehindProperties).open(10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A torn record ends the segment, the orders before it are read")
+    public void open_tornRecordIgnored() throws IOException {
+        // given
+        orderWriteBehindProperties.getJournal().setSegmentSize(DataSize.ofKilobytes(4));
+        final OrderJournal journal = new OrderJournal(orderWriteBehindProperties);
+        journal.open(0);
+        final String trackingId = UUID.randomUUID().toString();
+        final OrderCreateDto order = createOrderCreateDto(ORDER_DATE, AMOUNT, 1);
+        journal.append(trackingId, order);
+        journal.awaitDurable(journal.append(UUID.randomUUID().toString(), order));
+        try (RandomAccessFile segment = new RandomAccessFile(listSegments().get(0).toFile(), "rw")) {
+            // flips a byte in the body of the second record
+            segment.seek(findSecondRecordBody(segment));
+            segment.write(0xFF);
+        }
+
+        // when
+        final List<PendingOrder> uncommittedOrders = new OrderJournal(orderWriteBehindProperties).open(0);
+
+        // then
+        assertThat(uncommittedOrders).containsExactly(new PendingOrder(trackingId, order, 1));
+    }
+
+    @Test
+    @DisplayName("A journal whose last segment was started but never written to is reopened")
+    public void open_emptyLastSegment_reopened() throws IOException {
+        // given
+        final OrderJournal journal = new OrderJournal(orderWriteBehindProperties);
+        journal.open(0);
+        final String trackingId = UUID.randomUUID().toString();
+        final OrderCreateDto order = createOrderCreateDto(ORDER_DATE, AMOUNT, 1);
+        journal.awaitDurable(journal.append(trackingId, order));
+        // a crash right after the restart started its segment
+        new OrderJournal(orderWriteBehindProperties).open(0);
+        assertThat(listSegments()).hasSize(2);
+
+        // when
+        final OrderJournal reopenedJournal = new OrderJournal(orderWriteBehindProperties);
+        final List<PendingOrder> uncommittedOrders = reopenedJournal.open(0);
+
+        // then
+        assertThat(uncommittedOrders).containsExactly(new PendingOrder(trackingId, order, 1));
+        assertThat(listSegments()).hasSize(2);
+        assertThat(reopenedJournal.append(trackingId, order)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A journal whose last segment holds only a torn record is reopened")
+    public void open_tornOnlyRecordInLastSegment_reopened() throws IOException {
+        // given
+        final OrderJournal journal = new OrderJournal(orderWriteBehindProperties);
+        journal.open(0);
+        journal.awaitDurable(journal.append(UUID.randomUUID().toString(), createOrderCreateDto(ORDER_DATE, AMOUNT, 1)));
+        try (RandomAccessFile segment = new RandomAccessFile(listSegments().get(0).toFile(), "rw")) {
+            segment.seek(2 * Integer.BYTES + 1);
+            segment.write(0xFF);
+        }
+
+        // when
+        final OrderJournal reopenedJournal = new OrderJournal(orderWriteBehindProperties);
+        final List<PendingOrder> uncommittedOrders = reopenedJournal.open(0);
+
+        // then
+        assertThat(uncommittedOrders).isEmpty();
+        assertThat(reopenedJournal.append(UUID.randomUUID().toString(), createOrderCreateDto(ORDER_DATE, AMOUNT, 1)))
+                .isEqualTo(1);
+        assertThat(listSegments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("A cleanly closed journal with all orders committed leaves no segment behind")
+    public void close_allCommitted_segmentsDeleted() throws IOException {
+        // given
+        final OrderJournal journal = new OrderJournal(orderWriteBehindProperties);
+        journal.open(0);
+        final OrderCreateDto order = createOrderCreateDto(ORDER_DATE, AMOUNT, 1);
+        journal.awaitDurable(journal.append(UUID.randomUUID().toString(), order));
+        journal.close();
+        assertThat(listSegments()).hasSize(1);
+        journal.release(1);
+
+        // when
+        journal.close();
+
+        // then
+        assertThat(listSegments()).isEmpty();
+    }
+
+    private long findSecondRecordBody(final RandomAccessFile segment) throws IOException {
+        segment.seek(0);
+        final int firstRecordLength = segment.readInt();
+        return 2 * Integer.BYTES + firstRecordLength + 2 * Integer.BYTES + 1;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(OrderJournal.FILE_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
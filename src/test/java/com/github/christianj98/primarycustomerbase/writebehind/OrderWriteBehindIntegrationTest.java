@@ -0,0 +1,141 @@
+package com.github.christianj98.primarycustomerbase.writebehind;
+
+import com.github.christianj98.primarycustomerbase.dto.OrderWriteStatusDto;
+import com.github.christianj98.primarycustomerbase.repository.CustomerRepository;
+import com.github.christianj98.primarycustomerbase.repository.OrderJournalCheckpointRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.FIRST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.LAST_NAME;
+import static com.github.christianj98.primarycustomerbase.utils.CustomerTestUtils.createCustomer;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.asJsonString;
+import static com.github.christianj98.primarycustomerbase.utils.GlobalTestUtils.performAsync;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDERS_URI_WITH_ID;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_WRITES_URI_WITH_ID;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderCreateDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "orders.write-behind.enabled=true",
+        "orders.write-behind.journal.directory=target/order-journal-it"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+public class OrderWriteBehindIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private OrderWriteBehind orderWriteBehind;
+    @Autowired
+    private OrderJournal orderJournal;
+    @Autowired
+    private OrderJournalCheckpointRepository orderJournalCheckpointRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Queued orders are accepted, written in a batch and tracked by their tracking ids")
+    public void createOrder_writeBehind_orderWrittenLater() throws Exception {
+        // given
+        final int customerId = customerRepository.save(createCustomer(FIRST_NAME, LAST_NAME)).getId();
+        final String createdTrackingId = submit(customerId);
+        final String rejectedTrackingId = submit(customerId + 1);
+
+        // when
+        // stopping the writer drains the queue
+        orderWriteBehind.stop();
+
+        // then
+        final OrderWriteStatusDto createdStatus = orderWriteBehind.findStatus(createdTrackingId).orElseThrow();
+        assertThat(createdStatus.getState()).isEqualTo(OrderWriteStatusDto.State.CREATED);
+        performAsync(mockMvc, get(ORDER_WRITES_URI_WITH_ID, createdTrackingId))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CREATED"))
+                .andExpect(jsonPath("$.orderId").value(createdStatus.getOrderId()));
+        performAsync(mockMvc, get(ORDER_WRITES_URI_WITH_ID, rejectedTrackingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("REJECTED"))
+                .andExpect(jsonPath("$.reason").value("Customer not found with given id: " + (customerId + 1)));
+        performAsync(mockMvc, get(ORDERS_URI_WITH_ID, createdStatus.getOrderId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(AMOUNT.toString()))
+                .andExpect(jsonPath("$.customerDto.firstName").value(FIRST_NAME));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT order_count FROM customer_order_stats WHERE customer_id = ?", Long.class, customerId))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Unknown tracking id is not found")
+    public void findWriteStatus_unknownTrackingId_notFound() throws Exception {
+        // when + then
+        performAsync(mockMvc, get(ORDER_WRITES_URI_WITH_ID, "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Journaled orders which were not committed are written when the writer starts again")
+    public void start_uncommittedOrdersReplayed() throws Exception {
+        // given
+        final int customerId = customerRepository.save(createCustomer(FIRST_NAME, LAST_NAME)).getId();
+        final String committedTrackingId = submit(customerId);
+        orderWriteBehind.stop();
+        // accepted, but the node died before the writer took it from the queue
+        final String trackingId = UUID.randomUUID().toString();
+        orderJournal.open(orderJournalCheckpointRepository.findSequence(orderJournal.getId()));
+        orderJournal.awaitDurable(orderJournal.append(trackingId,
+                createOrderCreateDto(ORDER_DATE, AMOUNT, customerId)));
+
+        // when
+        orderWriteBehind.start();
+
+        // then
+        assertThat(orderWriteBehind.findStatus(trackingId).orElseThrow().getState())
+                .isEqualTo(OrderWriteStatusDto.State.CREATED);
+        assertThat(orderWriteBehind.findStatus(committedTrackingId).orElseThrow().getState())
+                .isEqualTo(OrderWriteStatusDto.State.CREATED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT sequence FROM order_journal_checkpoints WHERE journal_id = ?", Long.class,
+                orderJournal.getId())).isEqualTo(2L);
+    }
+
+    private String submit(final int customerId) throws Exception {
+        final String response = performAsync(mockMvc, post(ORDERS_URI)
+                        .contentType(APPLICATION_JSON)
+                        .content(asJsonString(createOrderCreateDto(ORDER_DATE, AMOUNT, customerId))))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("PENDING"))
+                .andExpect(header().string("Location", containsString("/orders/writes/")))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return JsonPath.read(response, "$.trackingId");
+    }
+}
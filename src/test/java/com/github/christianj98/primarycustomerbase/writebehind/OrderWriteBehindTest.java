@@ -0,0 +1,215 @@
+package com.github.christianj98.primarycustomerbase.writebehind;
+
+import com.github.christianj98.primarycustomerbase.configuration.OrderWriteBehindProperties;
+import com.github.christianj98.primarycustomerbase.dto.OrderCreateDto;
+import com.github.christianj98.primarycustomerbase.dto.OrderWriteStatusDto;
+import com.github.christianj98.primarycustomerbase.exception.ServiceOverloadedException;
+import com.github.christianj98.primarycustomerbase.repository.OrderJournalCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.christianj98.primarycustomerbase.message.ErrorMessages.ORDER_QUEUE_FULL_ERROR;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.AMOUNT;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.ORDER_DATE;
+import static com.github.christianj98.primarycustomerbase.utils.OrderTestUtils.createOrderCreateDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link OrderWriteBehind}
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderWriteBehindTest {
+    private static final String JOURNAL_ID = "journal-id";
+
+    @Mock
+    private OrderBatchWriter orderBatchWriter;
+
+    @Mock
+    private OrderJournal orderJournal;
+
+    @Mock
+    private OrderJournalCheckpointRepository orderJournalCheckpointRepository;
+
+    private OrderWriteBehind orderWriteBehind;
+    private OrderCreateDto order;
+
+    @BeforeEach
+    public void init() {
+        final OrderWriteBehindProperties orderWriteBehindProperties = new OrderWriteBehindProperties();
+        orderWriteBehindProperties.setQueueCapacity(1);
+        orderWriteBehindProperties.setBatchSize(2);
+        orderWriteBehindProperties.setPollTimeout(Duration.ofMillis(10));
+        orderWriteBehindProperties.setRetryDelay(Duration.ofMillis(1));
+        orderWriteBehind = new OrderWriteBehind(orderBatchWriter, orderJournal, orderJournalCheckpointRepository,
+                orderWriteBehindProperties);
+        order = createOrderCreateDto(ORDER_DATE, AMOUNT, 1);
+    }
+
+    @AfterEach
+    public void stop() {
+        if (orderWriteBehind.isRunning()) {
+            orderWriteBehind.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Orders journaled after the last committed one are written in batches on startup")
+    public void start_uncommittedOrdersReplayed() {
+        // given
+        final List<PendingOrder> uncommittedOrders = List.of(new PendingOrder("first", order, 4),
+                new PendingOrder("second", order, 5),
+                new PendingOrder("third", order, 6));
+        when(orderJournal.getId()).thenReturn(JOURNAL_ID);
+        when(orderJournalCheckpointRepository.findSequence(JOURNAL_ID)).thenReturn(3L);
+        when(orderJournal.open(3L)).thenReturn(uncommittedOrders);
+        when(orderBatchWriter.write(uncommittedOrders.subList(0, 2), JOURNAL_ID))
+                .thenReturn(List.of(OrderWriteStatusDto.created("first", 10),
+                        OrderWriteStatusDto.created("second", 11)));
+        when(orderBatchWriter.write(uncommittedOrders.subList(2, 3), JOURNAL_ID))
+                .thenReturn(List.of(OrderWriteStatusDto.created("third", 12)));
+
+        // when
+        orderWriteBehind.start();
+
+        // then
+        final InOrder inOrder = inOrder(orderBatchWriter, orderJournal);
+        inOrder.verify(orderBatchWriter).write(uncommittedOrders.subList(0, 2), JOURNAL_ID);
+        inOrder.verify(orderJournal).release(5);
+        inOrder.verify(orderBatchWriter).write(uncommittedOrders.subList(2, 3), JOURNAL_ID);
+        inOrder.verify(orderJournal).release(6);
+        assertThat(orderWriteBehind.findStatus("third")).contains(OrderWriteStatusDto.created("third", 12));
+    }
+
+    @Test
+    @DisplayName("Queued order is accepted once durable in the journal and pending until the writer creates it")
+    public void submit_orderJournaledAndWritten() {
+        // given
+        when(orderJournal.getId()).thenReturn(JOURNAL_ID);
+        when(orderJournal.open(0L)).thenReturn(List.of());
+        when(orderJournal.append(anyString(), eq(order))).thenReturn(1L);
+        when(orderBatchWriter.write(anyList(), eq(JOURNAL_ID))).thenAnswer(invocation -> {
+            final List<PendingOrder> batch = invocation.getArgument(0);
+            return List.of(OrderWriteStatusDto.created(batch.get(0).getTrackingId(), 5));
+        });
+        orderWriteBehind.start();
+
+        // when
+        final OrderWriteStatusDto status = orderWriteBehind.submit(order);
+        orderWriteBehind.stop();
+
+        // then
+        assertThat(status.getState()).isEqualTo(OrderWriteStatusDto.State.PENDING);
+        assertThat(orderWriteBehind.findStatus(status.getTrackingId()))
+                .contains(OrderWriteStatusDto.created(status.getTrackingId(), 5));
+        final InOrder inOrder = inOrder(orderJournal, orderBatchWriter);
+        inOrder.verify(orderJournal).append(status.getTrackingId(), order);
+        inOrder.verify(orderJournal).awaitDurable(1L);
+        inOrder.verify(orderBatchWriter).write(anyList(), eq(JOURNAL_ID));
+        inOrder.verify(orderJournal).release(1L);
+        inOrder.verify(orderJournal).close();
+    }
+
+    @Test
+    @DisplayName("An order which could not be made durable is neither accepted nor written")
+    public void submit_journalFailed_orderNotQueued() {
+        // given
+        when(orderJournal.open(0L)).thenReturn(List.of());
+        when(orderJournal.append(anyString(), eq(order))).thenReturn(1L);
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(orderJournal).awaitDurable(1L);
+        orderWriteBehind.start();
+
+        // when
+        assertThatThrownBy(() -> orderWriteBehind.submit(order))
+                .isInstanceOf(UncheckedIOException.class);
+        orderWriteBehind.stop();
+
+        // then
+        verifyNoInteractions(orderBatchWriter);
+        verify(orderJournal, never()).release(anyLong());
+    }
+
+    @Test
+    @DisplayName("A full queue refuses further orders")
+    public void submit_queueFull_throwsServiceOverloaded() throws InterruptedException {
+        // given
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(orderJournal.open(0L)).thenReturn(List.of());
+        when(orderBatchWriter.write(anyList(), any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        orderWriteBehind.start();
+        orderWriteBehind.submit(order);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        orderWriteBehind.submit(order);
+
+        // when + then
+        assertThatThrownBy(() -> orderWriteBehind.submit(order))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .hasMessage(ORDER_QUEUE_FULL_ERROR.getMessage());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("No order is queued while the writer is stopped")
+    public void submit_writerStopped_throwsServiceOverloaded() {
+        // when + then
+        assertThatThrownBy(() -> orderWriteBehind.submit(order))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    @Test
+    @DisplayName("A batch which could not be written is retried")
+    public void submit_writeFailed_batchRetried() throws InterruptedException {
+        // given
+        final CountDownLatch written = new CountDownLatch(1);
+        when(orderJournal.getId()).thenReturn(JOURNAL_ID);
+        when(orderJournal.open(0L)).thenReturn(List.of());
+        when(orderJournal.append(anyString(), eq(order))).thenReturn(1L);
+        when(orderBatchWriter.write(anyList(), eq(JOURNAL_ID)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenAnswer(invocation -> {
+                    final List<PendingOrder> batch = invocation.getArgument(0);
+                    written.countDown();
+                    return List.of(OrderWriteStatusDto.created(batch.get(0).getTrackingId(), 5));
+                });
+        orderWriteBehind.start();
+
+        // when
+        final OrderWriteStatusDto status = orderWriteBehind.submit(order);
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        orderWriteBehind.stop();
+
+        // then
+        assertThat(orderWriteBehind.findStatus(status.getTrackingId()))
+                .contains(OrderWriteStatusDto.created(status.getTrackingId(), 5));
+        verify(orderJournal).release(1L);
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.christianj98.primarycustomerbase.bulkhead.BulkheadType;
+import com.github.christianj98.primarycustomerbase.bulkhead.Bulkheads;
+import com.github.christianj98.primarycustomerbase.routing.ConnectionLimitingDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link VirtualThreadConfig}
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("integration")
+public class VirtualThreadConfigTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext applicationContext;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Tomcat serves requests on virtual threads")
+    public void shouldServeRequestsOnVirtualThreads() throws Exception {
+        // given
+        final Executor executor = ((TomcatWebServer) applicationContext.getWebServer()).getTomcat()
+                .getConnector().getProtocolHandler().getExecutor();
+
+        // when
+        final boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor)
+                .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(virtual).isTrue();
+    }
+
+    @Test
+    @DisplayName("The bulkheads run their work on virtual threads")
+    public void shouldRunBulkheadsOnVirtualThreads() throws Exception {
+        // when
+        final Thread thread = bulkheads.supply(BulkheadType.ORDER, Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(thread.isVirtual()).isTrue();
+        assertThat(thread.getName()).startsWith("order-bulkhead-");
+    }
+
+    @Test
+    @DisplayName("The connection limit stays in front of the pool without being enabled on its own")
+    public void shouldLimitConnections() throws Exception {
+        // then
+        assertThat(dataSource.isWrapperFor(ConnectionLimitingDataSource.class)).isTrue();
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.christianj98.primarycustomerbase.configuration;
+
+import com.github.christianj98.primarycustomerbase.bulkhead.BulkheadThreadFactory;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the requests and the bulkheads, and with them the transactional service calls, on virtual threads. A
+ * request blocked on the database then holds no platform thread, the {@link ConnectionLimitConfig connection limit}
+ * in front of the pool bounds how many of them wait for a connection. Part of the build of the
+ * {@code virtual-threads} profile only, which needs Java 21.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory()));
+    }
+
+    @Bean
+    public BulkheadThreadFactory virtualBulkheadThreadFactory() {
+        return namePrefix -> Thread.ofVirtual().name(namePrefix, 0).factory();
+    }
+}